@@ -333,6 +333,18 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         return doubleVectorTrail;
     }
 
+    /**
+     * Returns the number of entries currently stored in the trails,
+     * that is, the number of saved states needed to restore all the previous worlds.
+     */
+    public int getTrailSize() {
+        int size = 0;
+        for (int i = 0; i < trailSize; i++) {
+            size += trails[i].getSize();
+        }
+        return size;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private void resizeWorldCapacity(final int newWorldCapacity) {
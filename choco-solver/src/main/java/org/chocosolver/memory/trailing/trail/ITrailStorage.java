@@ -45,4 +45,9 @@ public interface ITrailStorage extends IStorage {
      */
     void resizeWorldCapacity(int newWorldCapacity);
 
+    /**
+     * Returns the current size of the stack.
+     */
+    int getSize();
+
 }
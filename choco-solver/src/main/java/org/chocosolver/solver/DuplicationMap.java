@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.variables.Variable;
+
+/**
+ * An identity map dedicated to {@link Solver#duplicateModel()}.
+ * <p>
+ * Variables and propagators of a solver are identified by a dense and unique int (see {@link Solver#nextId()}),
+ * so their copies are stored in an array indexed by that id, instead of being hashed.
+ * Any other object (constraints, graphs, ...) falls back to the hash map behavior.
+ * <p>
+ * Only keys belonging to the source solver are expected, that is, whose id is strictly less than
+ * the number of identified elements declared at creation.
+ */
+class DuplicationMap extends THashMap<Object, Object> {
+
+    /**
+     * Copies of variables and propagators, indexed by the id of the original object
+     */
+    private final Object[] copies;
+
+    /**
+     * Number of copies stored in {@link #copies}
+     */
+    private int nbCopies;
+
+    /**
+     * Create an identity map for the objects of <code>source</code>.
+     *
+     * @param source the solver to duplicate
+     */
+    DuplicationMap(Solver source) {
+        super();
+        this.copies = new Object[source.getNbIdElt()];
+    }
+
+    /**
+     * Return the dense index of <code>key</code>, or -1 if the key is not identified.
+     */
+    private int idx(Object key) {
+        if (key instanceof Variable || key instanceof Propagator) {
+            int id = ((Identity) key).getId();
+            if (id < copies.length) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = idx(key);
+        return i > -1 ? copies[i] : super.get(key);
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        int i = idx(key);
+        if (i > -1) {
+            Object previous = copies[i];
+            if (previous == null) {
+                nbCopies++;
+            }
+            copies[i] = value;
+            return previous;
+        }
+        return super.put(key, value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int i = idx(key);
+        return i > -1 ? copies[i] != null : super.containsKey(key);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int i = idx(key);
+        if (i > -1) {
+            Object previous = copies[i];
+            if (previous != null) {
+                nbCopies--;
+            }
+            copies[i] = null;
+            return previous;
+        }
+        return super.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return nbCopies + super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = null;
+        }
+        nbCopies = 0;
+    }
+}
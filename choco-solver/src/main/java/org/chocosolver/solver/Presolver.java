@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.solver.constraints.Arithmetic;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.binary.PropScale;
+import org.chocosolver.solver.constraints.nary.cnf.SatConstraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.ISearchMonitor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A presolve step, run once on the model, right before the propagation engine is built (see {@link Settings#enablePresolve()}).
+ * <p>
+ * It simplifies the constraint network without changing the set of solutions:
+ * <ul>
+ * <li>unary arithmetic constraints (X op C) are applied definitively to the domain of their variable,</li>
+ * <li>constraints entailed at root node are removed,</li>
+ * <li>arithmetic constraints duplicated over the same variables are removed,</li>
+ * <li>variables equal to another one, up to an offset or a coefficient (X = Y + C, X + Y = C, Z = C.X),
+ * are merged into a view over it (see {@link #substitute(Solver)}).</li>
+ * </ul>
+ * Reified constraints and constraints which evolve during the search (SAT, nogood stores) are left untouched.
+ * When presolve is enabled, linear constraints created at root world also fold their instantiated variables into
+ * their constant (see {@link org.chocosolver.solver.constraints.nary.sum.Scalar}).
+ */
+class Presolver {
+
+    private Presolver() {
+    }
+
+    /**
+     * Simplify the constraint network of <code>solver</code>, if allowed.
+     * The presolve step is skipped when explanations are active, since filtering done at root node would not be explained,
+     * or when the environment is not at root world, since changes done on domains would be lost on backtrack.
+     *
+     * @param solver the solver to presolve
+     */
+    static void presolve(Solver solver) {
+        if (!solver.getSettings().enablePresolve()
+                || solver.getExplainer().isActive()
+                || solver.getEnvironment().getWorldIndex() > 0) {
+            return;
+        }
+        Constraint[] cstrs = solver.getCstrs();
+        List<Constraint> removed = new ArrayList<>();
+        TIntObjectHashMap<List<Arithmetic>> arithms = new TIntObjectHashMap<>();
+        try {
+            // 1. apply unary constraints
+            for (Constraint c : cstrs) {
+                if (c instanceof Arithmetic && !c.isReified()) {
+                    ((Arithmetic) c).applyUnary();
+                }
+            }
+        } catch (ContradictionException e) {
+            // the model has no solution, the initial propagation will detect it again
+            return;
+        }
+        for (Constraint c : cstrs) {
+            if (!candidate(c)) {
+                continue;
+            }
+            // 2. remove entailed constraints
+            if (entailed(c)) {
+                removed.add(c);
+            } else if (c instanceof Arithmetic) {
+                // 3. remove duplicated arithmetic constraints
+                Arithmetic a = (Arithmetic) c;
+                int h = a.duplicateHashCode();
+                List<Arithmetic> same = arithms.get(h);
+                if (same == null) {
+                    same = new ArrayList<>(1);
+                    arithms.put(h, same);
+                }
+                boolean duplicate = false;
+                for (int i = 0; i < same.size() && !duplicate; i++) {
+                    duplicate = a.isDuplicateOf(same.get(i));
+                }
+                if (duplicate) {
+                    removed.add(c);
+                } else {
+                    same.add(a);
+                }
+            }
+        }
+        if (removed.size() > 0) {
+            solver.unpost(removed.toArray(new Constraint[removed.size()]));
+        }
+        // 4. merge equal variables into views
+        substitute(solver);
+    }
+
+    /**
+     * Merge the variables stated equal to another one into views.
+     * <p>
+     * For each binary equality X = A.Y + B, X is replaced by a view A.Y+B in every other constraint,
+     * rebuilt with {@link Constraint#duplicate(Solver, gnu.trove.map.hash.THashMap)} from an identity map
+     * pre-seeded with X &rarr; view(Y), so that these constraints share the domain of Y.
+     * X itself and its defining equality are kept: references to X held by the search strategy, the objective
+     * or the user remain valid and X is instantiated along with Y.
+     * Chains of equalities are merged into a single representative, a representative is never substituted.
+     * A constraint which cannot be duplicated is kept over X, which is still correct.
+     *
+     * @param solver the solver to presolve
+     */
+    private static void substitute(Solver solver) {
+        int n = solver.getNbIdElt();
+        // X = A.R + B, for each substituted variable X, indexed by its id
+        IntVar[] root = new IntVar[n];
+        long[] coeff = new long[n];
+        long[] offset = new long[n];
+        boolean[] isRoot = new boolean[n];
+        Set<Constraint> defining = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Constraint c : solver.getCstrs()) {
+            if (c.isReified()) {
+                continue;
+            }
+            if (c instanceof Arithmetic) {
+                int[] ab = ((Arithmetic) c).getAffineEquality();
+                if (ab != null) {
+                    IntVar x = (IntVar) c.getPropagator(0).getVar(0);
+                    IntVar y = (IntVar) c.getPropagator(0).getVar(1);
+                    // A is 1 or -1, so Y = A.X - A.B
+                    if (merge(x, y, ab[0], ab[1], root, coeff, offset, isRoot)
+                            || merge(y, x, ab[0], -(long) ab[0] * ab[1], root, coeff, offset, isRoot)) {
+                        defining.add(c);
+                    }
+                }
+            } else if (c.getPropagators().length == 1 && c.getPropagator(0) instanceof PropScale) {
+                PropScale p = (PropScale) c.getPropagator(0);
+                // Z = C.X
+                if (merge(p.getVar(1), p.getVar(0), p.getCoefficient(), 0, root, coeff, offset, isRoot)) {
+                    defining.add(c);
+                }
+            }
+        }
+        if (defining.isEmpty()) {
+            return;
+        }
+        // every variable is mapped to itself, but the substituted ones which are mapped to their view
+        DuplicationMap identitymap = new DuplicationMap(solver);
+        for (Variable v : solver.getVars()) {
+            int i = v.getId();
+            if (i < n && root[i] != null) {
+                identitymap.put(v, VF.affine(root[i], (int) coeff[i], (int) offset[i]));
+            } else {
+                identitymap.put(v, v);
+            }
+        }
+        for (Constraint c : solver.getCstrs()) {
+            if (!candidate(c) || defining.contains(c) || !involves(c, root)) {
+                continue;
+            }
+            try {
+                c.duplicate(solver, identitymap);
+                solver.replace(c, (Constraint) identitymap.get(c));
+            } catch (SolverException e) {
+                // a propagator cannot be duplicated, the copies already built are released
+                for (Propagator p : c.getPropagators()) {
+                    Propagator copy = (Propagator) identitymap.remove(p);
+                    if (copy != null) {
+                        for (int v = 0; v < copy.getNbVars(); v++) {
+                            copy.getVar(v).unlink(copy);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Record X = A.Y + B, if X can be substituted, Y being replaced by its own representative.
+     *
+     * @return true if X is substituted
+     */
+    private static boolean merge(IntVar x, IntVar y, long a, long b,
+                                 IntVar[] root, long[] coeff, long[] offset, boolean[] isRoot) {
+        int ix = x.getId();
+        if (x.getTypeAndKind() != (Variable.VAR | Variable.INT) || x.isInstantiated()
+                || root[ix] != null || isRoot[ix]
+                || (y.getTypeAndKind() & Variable.KIND) != Variable.INT || y.isInstantiated()) {
+            return false;
+        }
+        int iy = y.getId();
+        if (root[iy] != null) {
+            // Y = A'.R + B', so X = A.A'.R + A.B' + B
+            b += a * offset[iy];
+            a *= coeff[iy];
+            y = root[iy];
+            iy = y.getId();
+        }
+        if (y == x || a != (int) a || b != (int) b) {
+            return false;
+        }
+        root[ix] = y;
+        coeff[ix] = a;
+        offset[ix] = b;
+        isRoot[iy] = true;
+        return true;
+    }
+
+    /**
+     * Return true if one of the variables of <code>c</code> is substituted.
+     */
+    private static boolean involves(Constraint c, IntVar[] root) {
+        for (Propagator p : c.getPropagators()) {
+            for (int v = 0; v < p.getNbVars(); v++) {
+                int id = p.getVar(v).getId();
+                if (id < root.length && root[id] != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return true if <code>c</code> can be removed from the network.
+     */
+    private static boolean candidate(Constraint c) {
+        return !c.isReified()
+                && !(c instanceof SatConstraint)
+                && !(c instanceof ISearchMonitor)
+                && c.getPropagators().length > 0;
+    }
+
+    /**
+     * Return true if <code>c</code> is entailed for sure.
+     * Entailment is only trusted for arithmetic constraints or when all variables are instantiated,
+     * since propagators are not expected to provide an accurate entailment checker before their initial propagation.
+     */
+    private static boolean entailed(Constraint c) {
+        if (!(c instanceof Arithmetic)) {
+            for (Propagator p : c.getPropagators()) {
+                if (!p.isCompletelyInstantiated()) {
+                    return false;
+                }
+            }
+        }
+        return c.isSatisfied() == ESat.TRUE;
+    }
+}
@@ -83,6 +83,15 @@ public interface Settings extends Serializable {
         return 32768;
     }
 
+    /**
+     * Define the minimum span (upper bound - lower bound + 1) from which an enumerated integer variable is represented
+     * by a list of ranges, switching to a bitset when it becomes dense, instead of a bitset over its initial span,
+     * see {@link org.chocosolver.solver.variables.VariableFactory#enumerated(String, int, int, Solver)}.
+     */
+    default public int getMinDomSpanForRangeEnumerated() {
+        return 65536;
+    }
+
     /**
      * Set to true to replace intension constraints by extension constraints
      */
@@ -98,6 +107,45 @@ public interface Settings extends Serializable {
         return 10000;
     }
 
+    /**
+     * Set to true to run a presolve step on the model right before the initial propagation:
+     * unary arithmetic constraints are applied to domains, duplicated arithmetic constraints and entailed constraints are removed,
+     * and variables equal to another one are merged into views in the other constraints,
+     * whatever {@link #enableViews()} states.
+     * Linear constraints created at root world also fold their instantiated variables into their constant.
+     * Changes are definitive: a constraint removed or rebuilt by the presolve step is not restored by a later call to
+     * {@link org.chocosolver.solver.Solver#unpost(org.chocosolver.solver.constraints.Constraint...)} on one of its duplicates.
+     */
+    default public boolean enablePresolve() {
+        return false;
+    }
+
+    /**
+     * Define the minimum number of variables of a linear equation (sum or scalar) to be propagated incrementally,
+     * that is, maintaining the bounds of the sum on each event rather than computing them on each propagation
+     */
+    default public int getMinSizeForIncrementalLinearEq() {
+        return 32;
+    }
+
+    /**
+     * Set to true to propagate the {@link org.chocosolver.solver.constraints.real.RealConstraint}s with the native
+     * IBEX library, which must be installed.
+     * Otherwise, they are propagated in the JVM by {@link org.chocosolver.solver.constraints.real.IntervalContractor}.
+     */
+    default public boolean enableIbex() {
+        return false;
+    }
+
+    /**
+     * Set to true to encode the logic trees given to {@link org.chocosolver.solver.constraints.SatFactory#addClauses(org.chocosolver.solver.constraints.nary.cnf.LogOp, Solver)}
+     * in linear size, with an auxiliary boolean variable per sub-formula,
+     * instead of distributing disjunctions over conjunctions (which may produce an exponential number of clauses).
+     */
+    default public boolean enableTseitinEncoding() {
+        return false;
+    }
+
     /**
      * Set to true to plug explanation engine in.
      */
@@ -28,7 +28,6 @@
  */
 package org.chocosolver.solver;
 
-import gnu.trove.map.hash.THashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import org.chocosolver.memory.Environments;
 import org.chocosolver.memory.IEnvironment;
@@ -60,6 +59,9 @@ import org.chocosolver.util.ESat;
 
 import java.io.*;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * The <code>Solver</code> is the header component of Constraint Programming.
@@ -587,8 +589,37 @@ public class Solver implements Serializable {
         }
     }
 
+    /**
+     * Remove permanently the constraints <code>cs</code> from the constraint network.
+     * The remaining constraints keep their relative order.
+     *
+     * @param cs the constraints to remove
+     */
+    public void unpost(Constraint... cs) {
+        if (cs.length == 1) {
+            unpost(cs[0]);
+            return;
+        }
+        // 1. look for the constraints and remove them from the network
+        Set<Constraint> toRemove = Collections.newSetFromMap(new IdentityHashMap<>(cs.length));
+        Collections.addAll(toRemove, cs);
+        int k = 0;
+        for (int i = 0; i < cIdx; i++) {
+            Constraint c = cstrs[i];
+            if (!toRemove.contains(c)) {
+                cstrs[k++] = c;
+            } else {
+                toRemove.remove(c);
+                detach(c);
+            }
+        }
+        Arrays.fill(cstrs, k, cIdx, null);
+        cIdx = k;
+    }
+
     /**
      * Remove permanently the constraint <code>c</code> from the constraint network.
+     * The remaining constraints keep their relative order.
      *
      * @param c the constraint to remove
      */
@@ -600,18 +631,42 @@ public class Solver implements Serializable {
         }
         // 2. remove it from the network
         if (idx < cIdx) {
-            Constraint cm = cstrs[--cIdx];
-            cstrs[idx] = cm;
-            cstrs[cIdx] = null;
-            // 3. check if the resolution already started -> if true, dynamic deletion
-            if (engine != NoPropagationEngine.SINGLETON && engine.isInitialized()) {
-                engine.dynamicDeletion(c);
-            }
-            // 4. remove the propagators of the constraint from its variables
-            for (Propagator prop : c.getPropagators()) {
-                for (int v = 0; v < prop.getNbVars(); v++) {
-                    prop.getVar(v).unlink(prop);
-                }
+            System.arraycopy(cstrs, idx + 1, cstrs, idx, cIdx - idx - 1);
+            cstrs[--cIdx] = null;
+            detach(c);
+        }
+    }
+
+    /**
+     * Replace permanently the constraint <code>c</code> by <code>by</code>, at the same position in the network.
+     * Should only be called before the resolution starts.
+     *
+     * @param c  the constraint to remove
+     * @param by the constraint to add
+     */
+    void replace(Constraint c, Constraint by) {
+        int idx = 0;
+        while (idx < cIdx && cstrs[idx] != c) {
+            idx++;
+        }
+        if (idx < cIdx) {
+            cstrs[idx] = by;
+            detach(c);
+        }
+    }
+
+    /**
+     * Detach a constraint, already removed from the network, from the propagation engine and from its variables.
+     */
+    private void detach(Constraint c) {
+        // check if the resolution already started -> if true, dynamic deletion
+        if (engine != NoPropagationEngine.SINGLETON && engine.isInitialized()) {
+            engine.dynamicDeletion(c);
+        }
+        // remove the propagators of the constraint from its variables
+        for (Propagator prop : c.getPropagators()) {
+            for (int v = 0; v < prop.getNbVars(); v++) {
+                prop.getVar(v).unlink(prop);
             }
         }
     }
@@ -830,6 +885,7 @@ public class Solver implements Serializable {
      */
     protected void solve(boolean stopAtFirst) {
         if (engine == NoPropagationEngine.SINGLETON) {
+            Presolver.presolve(this);
             this.set(PropagationEngineFactory.DEFAULT.make(this));
         }
         measures.setReadingTimeCount(creationTime + System.nanoTime());
@@ -969,17 +1025,19 @@ public class Solver implements Serializable {
      * <p>
      * Note that a new instance of the environment is made, preserving the initial choice.
      * <p>
-     * Duplicating a solver is only possible before any resolution process began.
-     * This is a strong restriction which may be removed in the future.
+     * Duplicating a solver can be achieved at any node of the search tree.
+     * In that case, the current domains of the variables are snapshot and become the initial domains of the copy,
+     * that is, the root node of the copy is the current node of <code>this</code>.
      * Indeed, duplicating a solver should only be considered while dealing with multi-threading.
+     * <p>
+     * Copies of variables and propagators are indexed by their id, and immutable data of propagators
+     * (tuples, automata, diagrams, ...) are shared between <code>this</code> and the copy.
+     * Relations of extension constraints are only shared when the copied variables have the bounds
+     * the relations were built on, otherwise they are built again from the tuples.
      *
      * @return a copy of <code>this</code>
-     * @throws org.chocosolver.solver.exception.SolverException if the search has already begun.
      */
     public Solver duplicateModel() {
-        if (environment.getWorldIndex() > 0) {
-            throw new SolverException("Duplicating a solver cannot be achieved once the resolution has begun.");
-        }
         // Create a fresh solver
         Solver clone;
         try {
@@ -988,7 +1046,7 @@ public class Solver implements Serializable {
             throw new SolverException("The current solver cannot be duplicated:\n" + e.getMessage());
         }
 
-        THashMap<Object, Object> identitymap = new THashMap<>();
+        DuplicationMap identitymap = new DuplicationMap(this);
         // duplicate variables
         for (int i = 0; i < this.vIdx; i++) {
             this.vars[i].duplicate(clone, identitymap);
@@ -999,10 +1057,60 @@ public class Solver implements Serializable {
             //TODO How to deal with temporary constraints ?
             clone.post((Constraint) identitymap.get(this.cstrs[i]));
         }
+        // restrict the domains of the copy to the current ones, once the propagators are built,
+        // since some of them (eg, extension ones) rely on the initial domains
+        if (environment.getWorldIndex() > 0) {
+            snapshotDomains(identitymap);
+        }
 
         return clone;
     }
 
+    /**
+     * Restrict the domain of each copied variable to the current domain of its original.
+     * Views and constants are ignored, since their domains directly depend on other variables.
+     * Set variables are already copied with their current kernel and envelope.
+     *
+     * @param identitymap map from the variables of <code>this</code> to their copies
+     */
+    private void snapshotDomains(DuplicationMap identitymap) {
+        try {
+            for (int i = 0; i < this.vIdx; i++) {
+                Variable var = this.vars[i];
+                int tk = var.getTypeAndKind();
+                if ((tk & Variable.TYPE) != Variable.VAR) {
+                    continue;
+                }
+                Variable copy = (Variable) identitymap.get(var);
+                switch (tk & Variable.KIND) {
+                    case Variable.INT:
+                    case Variable.BOOL: {
+                        IntVar ivar = (IntVar) var;
+                        IntVar icopy = (IntVar) copy;
+                        icopy.updateLowerBound(ivar.getLB(), Cause.Null);
+                        icopy.updateUpperBound(ivar.getUB(), Cause.Null);
+                        if (icopy.hasEnumeratedDomain()) {
+                            int ub = icopy.getUB();
+                            for (int v = icopy.nextValue(icopy.getLB()); v < ub; v = icopy.nextValue(v)) {
+                                if (!ivar.contains(v)) {
+                                    icopy.removeValue(v, Cause.Null);
+                                }
+                            }
+                        }
+                    }
+                    break;
+                    case Variable.REAL: {
+                        RealVar rvar = (RealVar) var;
+                        ((RealVar) copy).updateBounds(rvar.getLB(), rvar.getUB(), Cause.Null);
+                    }
+                    break;
+                }
+            }
+        } catch (ContradictionException e) {
+            throw new SolverException("The current solver cannot be duplicated: the current node is inconsistent.");
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -28,11 +28,13 @@
  */
 package org.chocosolver.solver.constraints;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.constraints.binary.*;
 import org.chocosolver.solver.constraints.unary.PropEqualXC;
 import org.chocosolver.solver.constraints.unary.PropGreaterOrEqualXC;
 import org.chocosolver.solver.constraints.unary.PropLessOrEqualXC;
 import org.chocosolver.solver.constraints.unary.PropNotEqualXC;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 
@@ -187,6 +189,91 @@ public class Arithmetic extends Constraint {
 		}
 	}
 
+	/**
+	 * Return true if <i>a</i> states the same relation than this, over the very same variables, in the same order.
+	 *
+	 * @param a another arithmetic constraint
+	 */
+	public boolean isDuplicateOf(Arithmetic a) {
+		if (op1 != a.op1 || op2 != a.op2 || cste != a.cste || vars.length != a.vars.length) {
+			return false;
+		}
+		for (int i = 0; i < vars.length; i++) {
+			if (vars[i] != a.vars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return a hash code consistent with {@link #isDuplicateOf(Arithmetic)}.
+	 */
+	public int duplicateHashCode() {
+		int h = 31 * op1.ordinal() + op2.ordinal();
+		h = 31 * h + cste;
+		for (int i = 0; i < vars.length; i++) {
+			h = 31 * h + vars[i].getId();
+		}
+		return h;
+	}
+
+	/**
+	 * Return the coefficients <i>{A, B}</i> if this states a binary equality X = A.Y + B,
+	 * where X and Y are respectively the first and the second variable and A is 1 or -1, null otherwise.
+	 */
+	public int[] getAffineEquality() {
+		if (vars.length != 2 || cste == Integer.MIN_VALUE) {
+			return null;
+		}
+		if (op1 == Operator.EQ) { // X = Y + C or X = Y - C
+			return new int[]{1, op2 == Operator.MN ? -cste : cste};
+		} else if (op2 == Operator.EQ) {
+			if (op1 == Operator.MN) { // X - Y = C
+				return new int[]{1, cste};
+			} else if (op1 == Operator.PL) { // X + Y = C
+				return new int[]{-1, cste};
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Apply definitively a unary constraint to the domain of its variable, the constraint is then entailed.
+	 * Should only be called before the resolution starts.
+	 *
+	 * @return false if this is not a unary constraint, true otherwise
+	 * @throws ContradictionException if the domain of the variable becomes empty
+	 */
+	public boolean applyUnary() throws ContradictionException {
+		if (vars.length != 1) {
+			return false;
+		}
+		switch (op1) {
+			case EQ:
+				vars[0].instantiateTo(cste, Cause.Null);
+				break;
+			case NQ:
+				vars[0].removeValue(cste, Cause.Null);
+				break;
+			case GE:
+				vars[0].updateLowerBound(cste, Cause.Null);
+				break;
+			case GT:
+				vars[0].updateLowerBound(cste + 1, Cause.Null);
+				break;
+			case LE:
+				vars[0].updateUpperBound(cste, Cause.Null);
+				break;
+			case LT:
+				vars[0].updateUpperBound(cste - 1, Cause.Null);
+				break;
+			default:
+				return false;
+		}
+		return true;
+	}
+
 	@Override
 	public Constraint makeOpposite(){
 		if(vars.length==1){
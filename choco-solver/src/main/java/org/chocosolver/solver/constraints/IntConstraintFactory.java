@@ -38,6 +38,7 @@ import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.constraints.extension.binary.*;
 import org.chocosolver.solver.constraints.extension.nary.*;
+import org.chocosolver.solver.constraints.nary.PropBinPacking;
 import org.chocosolver.solver.constraints.nary.PropDiffN;
 import org.chocosolver.solver.constraints.nary.PropKLoops;
 import org.chocosolver.solver.constraints.nary.PropKnapsack;
@@ -621,6 +622,10 @@ public class IntConstraintFactory {
      * forall b in [0,BIN_LOAD.length-1],
      * BIN_LOAD[b]=sum(ITEM_SIZE[i] | i in [0,ITEM_SIZE.length-1], ITEM_BIN[i] = b+OFFSET
      * forall i in [0,ITEM_SIZE.length-1], ITEM_BIN is in [OFFSET,BIN_LOAD.length-1+OFFSET],
+     * <p/>
+     * When the sizes are non-negative, a dedicated propagator filters the loads and the items directly
+     * (load and knapsack reasoning, L2 lower bound on the number of bins).
+     * Otherwise, the constraint is decomposed with a boolean variable per couple (bin, item).
      *
      * @param ITEM_BIN  IntVar representing the bin of each item
      * @param ITEM_SIZE int representing the size of each item
@@ -629,6 +634,13 @@ public class IntConstraintFactory {
      *                  (which counts from 1 to n instead of from 0 to n-1)
      */
     public static Constraint[] bin_packing(IntVar[] ITEM_BIN, int[] ITEM_SIZE, IntVar[] BIN_LOAD, int OFFSET) {
+        boolean positive = true;
+        for (int is : ITEM_SIZE) {
+            positive &= is >= 0;
+        }
+        if (positive) {
+            return new Constraint[]{new Constraint("BinPacking", new PropBinPacking(ITEM_BIN, ITEM_SIZE, BIN_LOAD, OFFSET))};
+        }
         int nbBins = BIN_LOAD.length;
         int nbItems = ITEM_BIN.length;
         Solver s = ITEM_BIN[0].getSolver();
@@ -1482,10 +1494,13 @@ public class IntConstraintFactory {
     /**
      * A constraint for the Traveling Salesman Problem :
      * Enforces SUCCS to form a hamiltonian circuit of value COST
+     * <p/>
+     * In addition to the decomposition, the cost is bounded by a Lagrangian relaxation of the circuit (Held and Karp 1-tree),
+     * which also removes the arcs that cannot belong to a circuit cheaper than the upper bound of COST.
      *
      * @param SUCCS       successors variables
      * @param COST        cost of the cycle
-     * @param COST_MATRIX symmetric cost matrix
+     * @param COST_MATRIX cost matrix, COST_MATRIX[i][j] is the cost of going from i to j
      * @return a CP model for the TSP
      */
     public static Constraint[] tsp(IntVar[] SUCCS, IntVar COST, int[][] COST_MATRIX) {
@@ -1496,12 +1511,13 @@ public class IntConstraintFactory {
         for (int i = 0; i < n; i++) {
             costOf[i] = VF.enumerated("costOf(" + i + ")", COST_MATRIX[i], COST.getSolver());
         }
-        Constraint[] model = new Constraint[n + 2];
+        Constraint[] model = new Constraint[n + 3];
         for (int i = 0; i < n; i++) {
             model[i] = element(costOf[i], COST_MATRIX[i], SUCCS[i]);
         }
         model[n] = sum(costOf, COST);
         model[n + 1] = circuit(SUCCS, 0);
+        model[n + 2] = new Constraint("HeldKarp", new PropHeldKarp(SUCCS, 0, COST, COST_MATRIX));
         return model;
     }
 
@@ -39,8 +39,10 @@ import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.explanations.Deduction;
 import org.chocosolver.solver.explanations.Explanation;
 import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.impl.AbstractVariable;
 import org.chocosolver.util.ESat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -284,6 +286,29 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         propagate(CUSTOM_PROPAGATION.getStrengthenedMask());
     }
 
+    /**
+     * Incremental filtering algorithm called with all the pending fine events of <code>this</code> at once,
+     * instead of one call to {@link #propagate(int, int)} per modified variable.
+     * It is only called by the propagation engine when {@link #reactToBatchedEvents()} returns <code>true</code>.
+     * <p/>
+     * Each variable appears at most once, the events are given in the order the variables were first modified.
+     * The pending events counter is already reset when this method is called.
+     * The arrays are owned by the engine: they should not be modified nor referenced after the call.
+     * <p/>
+     * By default, it calls {@link #propagate(int, int)} on each event.
+     * A propagator signalling failures by status should override it and return as soon as one is signalled.
+     *
+     * @param idxVarsInProp indices of the modified variables in <code>this</code>
+     * @param masks         type of event of each modified variable
+     * @param nbEvts        number of events to consider, the arrays may be larger
+     * @throws org.chocosolver.solver.exception.ContradictionException if a contradiction occurs
+     */
+    public void propagate(int[] idxVarsInProp, int[] masks, int nbEvts) throws ContradictionException {
+        for (int i = 0; i < nbEvts; i++) {
+            propagate(idxVarsInProp[i], masks[i]);
+        }
+    }
+
     /**
      * Schedules a coarse propagation to filter all variables at once.
      * <p/>
@@ -442,6 +467,81 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         solver.getEngine().fails(aCause, variable, message);
     }
 
+    //***********************************************************************************
+    // FAST-FAIL FILTERING
+    //***********************************************************************************
+
+    /**
+     * Fast-fail variant of {@link IntVar#removeValue(int, ICause)}.
+     * <p>
+     * When the removal would empty the domain of <code>var</code>, the failure is reported to the propagation engine
+     * which, if it is running this propagator, records it and lets this method return <code>false</code>:
+     * the caller is then expected to return immediately, and the engine will stop the propagation
+     * without unwinding the filtering algorithm's call stack.
+     * Otherwise, a {@link ContradictionException} is thrown, as usual.
+     * When an explanation engine is active, the variable is always modified, so that the failure can be explained.
+     *
+     * @param var   an integer variable of this
+     * @param value the value to remove
+     * @return <code>false</code> if a failure has been signalled, <code>true</code> otherwise
+     * @throws ContradictionException if a failure cannot be signalled by status
+     */
+    protected final boolean tryRemoveValue(IntVar var, int value) throws ContradictionException {
+        if (!var.isInstantiatedTo(value) || solver.getExplainer().isActive()) {
+            var.removeValue(value, aCause);
+            return true;
+        }
+        return solver.getEngine().fastFails(aCause, var, AbstractVariable.MSG_REMOVE);
+    }
+
+    /**
+     * Fast-fail variant of {@link IntVar#instantiateTo(int, ICause)}, see {@link #tryRemoveValue(IntVar, int)}.
+     *
+     * @param var   an integer variable of this
+     * @param value the value to assign
+     * @return <code>false</code> if a failure has been signalled, <code>true</code> otherwise
+     * @throws ContradictionException if a failure cannot be signalled by status
+     */
+    protected final boolean tryInstantiateTo(IntVar var, int value) throws ContradictionException {
+        if (var.contains(value) || solver.getExplainer().isActive()) {
+            var.instantiateTo(value, aCause);
+            return true;
+        }
+        return solver.getEngine().fastFails(aCause, var, AbstractVariable.MSG_INST);
+    }
+
+    /**
+     * Fast-fail variant of {@link IntVar#updateLowerBound(int, ICause)}, see {@link #tryRemoveValue(IntVar, int)}.
+     *
+     * @param var   an integer variable of this
+     * @param value the new lower bound
+     * @return <code>false</code> if a failure has been signalled, <code>true</code> otherwise
+     * @throws ContradictionException if a failure cannot be signalled by status
+     */
+    protected final boolean tryUpdateLowerBound(IntVar var, int value) throws ContradictionException {
+        if (value <= var.getUB() || solver.getExplainer().isActive()) {
+            var.updateLowerBound(value, aCause);
+            return true;
+        }
+        return solver.getEngine().fastFails(aCause, var, AbstractVariable.MSG_LOW);
+    }
+
+    /**
+     * Fast-fail variant of {@link IntVar#updateUpperBound(int, ICause)}, see {@link #tryRemoveValue(IntVar, int)}.
+     *
+     * @param var   an integer variable of this
+     * @param value the new upper bound
+     * @return <code>false</code> if a failure has been signalled, <code>true</code> otherwise
+     * @throws ContradictionException if a failure cannot be signalled by status
+     */
+    protected final boolean tryUpdateUpperBound(IntVar var, int value) throws ContradictionException {
+        if (value >= var.getLB() || solver.getExplainer().isActive()) {
+            var.updateUpperBound(value, aCause);
+            return true;
+        }
+        return solver.getEngine().fastFails(aCause, var, AbstractVariable.MSG_UPP);
+    }
+
     @Override
     public int compareTo(Propagator o) {
         return this.ID - o.ID;
@@ -570,6 +670,18 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         return reactToFineEvt;
     }
 
+    /**
+     * Indicates whether the pending fine events of <code>this</code> are delivered at once,
+     * through {@link #propagate(int[], int[], int)}, or one by one, through {@link #propagate(int, int)}.
+     * Only relevant when <code>this</code> reacts to fine events.
+     * Returns <code>false</code> by default.
+     *
+     * @return true iff the fine events of this propagator are batched
+     */
+    public boolean reactToBatchedEvents() {
+        return false;
+    }
+
     @Override
     public String toString() {
         StringBuilder st = new StringBuilder();
@@ -88,12 +88,31 @@ public class SatFactory {
 
     /**
      * Ensures that the clauses defined in the Boolean logic formula TREE are satisfied.
+     * The encoding is selected by {@link org.chocosolver.solver.Settings#enableTseitinEncoding()}.
      *
      * @param TREE   the syntactic tree
      * @param SOLVER solver is required, as the TREE can be declared without any variables
      * @return true if the clause has been added to the clause store
      */
     public static boolean addClauses(LogOp TREE, Solver SOLVER) {
+        return addClauses(TREE, SOLVER, SOLVER.getSettings().enableTseitinEncoding());
+    }
+
+    /**
+     * Ensures that the clauses defined in the Boolean logic formula TREE are satisfied.
+     * If LINEAR is set to true, TREE is encoded in linear size with auxiliary boolean variables
+     * (see {@link LogicTreeToolBox#toLinearCNF(LogOp, Solver)}), which is recommended for nested formulas,
+     * otherwise TREE is converted into CNF by distributing disjunctions over conjunctions.
+     *
+     * @param TREE   the syntactic tree
+     * @param SOLVER solver is required, as the TREE can be declared without any variables
+     * @param LINEAR set to true to introduce an auxiliary variable per sub-formula
+     * @return true if the clause has been added to the clause store
+     */
+    public static boolean addClauses(LogOp TREE, Solver SOLVER, boolean LINEAR) {
+        if (LINEAR) {
+            return LogicTreeToolBox.toLinearCNF(TREE, SOLVER);
+        }
         return buildOnLogicalOperator(TREE, SOLVER);
     }
 
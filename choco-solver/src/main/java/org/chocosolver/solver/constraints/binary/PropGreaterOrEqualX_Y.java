@@ -73,21 +73,19 @@ public final class PropGreaterOrEqualX_Y extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        x.updateLowerBound(y.getLB(), aCause);
-        y.updateUpperBound(x.getUB(), aCause);
-        if (x.getLB() >= y.getUB()) {
+        if (tryUpdateLowerBound(x, y.getLB())
+                && tryUpdateUpperBound(y, x.getUB())
+                && x.getLB() >= y.getUB()) {
             this.setPassive();
         }
     }
 
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
-        if (varIdx == 0) {
-            y.updateUpperBound(x.getUB(), aCause);
-        } else {
-            x.updateLowerBound(y.getLB(), aCause);
-        }
-        if (x.getLB() >= y.getUB()) {
+        boolean consistent = varIdx == 0 ?
+                tryUpdateUpperBound(y, x.getUB()) :
+                tryUpdateLowerBound(x, y.getLB());
+        if (consistent && x.getLB() >= y.getUB()) {
             this.setPassive();
         }
     }
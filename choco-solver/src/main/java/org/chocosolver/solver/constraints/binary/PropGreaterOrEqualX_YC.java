@@ -76,21 +76,19 @@ public final class PropGreaterOrEqualX_YC extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        x.updateLowerBound(y.getLB() + this.cste, aCause);
-        y.updateUpperBound(x.getUB() - this.cste, aCause);
-        if (x.getLB() >= y.getUB() + this.cste) {
+        if (tryUpdateLowerBound(x, y.getLB() + this.cste)
+                && tryUpdateUpperBound(y, x.getUB() - this.cste)
+                && x.getLB() >= y.getUB() + this.cste) {
             this.setPassive();
         }
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        if (idxVarInProp == 0) {
-            y.updateUpperBound(x.getUB() - this.cste, aCause);
-        } else {
-            x.updateLowerBound(y.getLB() + this.cste, aCause);
-        }
-        if (x.getLB() >= y.getUB() + this.cste) {
+        boolean consistent = idxVarInProp == 0 ?
+                tryUpdateUpperBound(y, x.getUB() - this.cste) :
+                tryUpdateLowerBound(x, y.getLB() + this.cste);
+        if (consistent && x.getLB() >= y.getUB() + this.cste) {
             this.setPassive();
         }
     }
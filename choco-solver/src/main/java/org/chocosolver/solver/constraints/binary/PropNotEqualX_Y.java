@@ -95,13 +95,13 @@ public class PropNotEqualX_Y extends Propagator<IntVar> {
     }
 
     private void removeValV0() throws ContradictionException {
-        if (x.removeValue(y.getValue(), aCause) || !x.contains(y.getValue())) {
+        if (tryRemoveValue(x, y.getValue()) && !x.contains(y.getValue())) {
             this.setPassive();
         }
     }
 
     private void removeValV1() throws ContradictionException {
-        if (y.removeValue(x.getValue(), aCause) || !y.contains(x.getValue())) {
+        if (tryRemoveValue(y, x.getValue()) && !y.contains(x.getValue())) {
             this.setPassive();
         }
     }
@@ -104,15 +104,15 @@ public class PropNotEqualX_YC extends Propagator<IntVar> {
     }
 
     private void removeValV0() throws ContradictionException {
-        if (x.removeValue(y.getValue() + this.cste, aCause)
-                || !x.contains(y.getValue() + cste)) {
+        if (tryRemoveValue(x, y.getValue() + this.cste)
+                && !x.contains(y.getValue() + cste)) {
             this.setPassive();
         }
     }
 
     private void removeValV1() throws ContradictionException {
-        if (y.removeValue(x.getValue() - this.cste, aCause)
-                || !y.contains(x.getValue() - cste)) {
+        if (tryRemoveValue(y, x.getValue() - this.cste)
+                && !y.contains(x.getValue() - cste)) {
             this.setPassive();
         }
     }
@@ -112,6 +112,13 @@ public class PropScale extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
+    /**
+     * @return the constant coefficient of the relation Z = X.C
+     */
+    public int getCoefficient() {
+        return Y;
+    }
+
     @Override
     public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
         if (!identitymap.containsKey(this)) {
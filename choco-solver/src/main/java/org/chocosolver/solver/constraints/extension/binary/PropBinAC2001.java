@@ -53,11 +53,11 @@ public class PropBinAC2001 extends PropBinCSP {
     protected int offset1;
 
     public PropBinAC2001(IntVar x, IntVar y, Tuples tuples) {
-        this(x, y, new CouplesTable(tuples, x, y));
+        this(x, y, tuples, new CouplesTable(tuples, x, y));
     }
 
-    private PropBinAC2001(IntVar x, IntVar y, CouplesTable table) {
-        super(x, y, table);
+    private PropBinAC2001(IntVar x, IntVar y, Tuples tuples, CouplesTable table) {
+        super(x, y, tuples, table);
         offset0 = x.getLB();
         offset1 = y.getLB();
         currentSupport0 = new IStateInt[x.getUB() - offset0 + 1];
@@ -158,7 +158,9 @@ public class PropBinAC2001 extends PropBinCSP {
             this.vars[1].duplicate(solver, identitymap);
             IntVar Y = (IntVar) identitymap.get(this.vars[1]);
 
-            identitymap.put(this, new PropBinAC2001(X, Y, (CouplesTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(X, Y)
+                    ? new PropBinAC2001(X, Y, tuples, (CouplesTable) relation)
+                    : new PropBinAC2001(X, Y, tuples));
         }
     }
 
@@ -33,7 +33,6 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.iterators.DisposableValueIterator;
 
 /**
  * <br/>
@@ -44,11 +43,11 @@ import org.chocosolver.util.iterators.DisposableValueIterator;
 public class PropBinAC3 extends PropBinCSP {
 
     public PropBinAC3(IntVar x, IntVar y, Tuples tuples) {
-        this(x, y, new CouplesBitSetTable(tuples, x, y));
+        this(x, y, tuples, new CouplesBitSetTable(tuples, x, y));
     }
 
-    private PropBinAC3(IntVar x, IntVar y, CouplesBitSetTable table) {
-        super(x, y, table);
+    private PropBinAC3(IntVar x, IntVar y, Tuples tuples, CouplesBitSetTable table) {
+        super(x, y, tuples, table);
     }
 
     @Override
@@ -73,7 +72,9 @@ public class PropBinAC3 extends PropBinCSP {
             this.vars[1].duplicate(solver, identitymap);
             IntVar Y = (IntVar) identitymap.get(this.vars[1]);
 
-            identitymap.put(this, new PropBinAC3(X, Y, (CouplesBitSetTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(X, Y)
+                    ? new PropBinAC3(X, Y, tuples, (CouplesBitSetTable) relation)
+                    : new PropBinAC3(X, Y, tuples));
         }
     }
 
@@ -85,22 +86,16 @@ public class PropBinAC3 extends PropBinCSP {
      * updates the support for all values in the domain of v1, and remove unsupported values for v1
      */
     private void reviseV1() throws ContradictionException {
-        int nbs = 0;
         int left = Integer.MIN_VALUE;
         int right = left;
-        DisposableValueIterator itv1 = v1.getValueIterator(true);
-        while (itv1.hasNext()) {
-            int val1 = itv1.next();
-            DisposableValueIterator itv0 = v0.getValueIterator(true);
-            while (itv0.hasNext()) {
-                int val0 = itv0.next();
-                if (relation.isConsistent(val0, val1)) {
-                    nbs += 1;
-                    break;
-                }
+        int ub1 = v1.getUB();
+        for (int val1 = v1.getLB(); val1 <= ub1; val1 = v1.nextValue(val1)) {
+            boolean supported = false;
+            int ub0 = v0.getUB();
+            for (int val0 = v0.getLB(); val0 <= ub0 && !supported; val0 = v0.nextValue(val0)) {
+                supported = relation.isConsistent(val0, val1);
             }
-            itv0.dispose();
-            if (nbs == 0) {
+            if (!supported) {
                 if (val1 == right + 1) {
                     right = val1;
                 } else {
@@ -108,32 +103,24 @@ public class PropBinAC3 extends PropBinCSP {
                     left = right = val1;
                 }
             }
-            nbs = 0;
         }
         v1.removeInterval(left, right, this);
-        itv1.dispose();
     }
 
     /**
      * updates the support for all values in the domain of v0, and remove unsupported values for v0
      */
     private void reviseV0() throws ContradictionException {
-        int nbs = 0;
         int left = Integer.MIN_VALUE;
         int right = left;
-        DisposableValueIterator itv0 = v0.getValueIterator(true);
-        while (itv0.hasNext()) {
-            int val0 = itv0.next();
-            DisposableValueIterator itv1 = v1.getValueIterator(true);
-            while (itv1.hasNext()) {
-                int val1 = itv1.next();
-                if (relation.isConsistent(val0, val1)) {
-                    nbs += 1;
-                    break;
-                }
+        int ub0 = v0.getUB();
+        for (int val0 = v0.getLB(); val0 <= ub0; val0 = v0.nextValue(val0)) {
+            boolean supported = false;
+            int ub1 = v1.getUB();
+            for (int val1 = v1.getLB(); val1 <= ub1 && !supported; val1 = v1.nextValue(val1)) {
+                supported = relation.isConsistent(val0, val1);
             }
-            itv1.dispose();
-            if (nbs == 0) {
+            if (!supported) {
                 if (val0 == right + 1) {
                     right = val0;
                 } else {
@@ -141,10 +128,8 @@ public class PropBinAC3 extends PropBinCSP {
                     left = right = val0;
                 }
             }
-            nbs = 0;
         }
         v0.removeInterval(left, right, this);
-        itv0.dispose();
     }
 
 }
@@ -56,11 +56,11 @@ public class PropBinAC3bitrm extends PropBinCSP {
     protected int initDomSize1;
 
     public PropBinAC3bitrm(IntVar x, IntVar y, Tuples tuples) {
-        this(x, y, new CouplesBitSetTable(tuples, x, y));
+        this(x, y, tuples, new CouplesBitSetTable(tuples, x, y));
     }
 
-    private PropBinAC3bitrm(IntVar x, IntVar y, CouplesBitSetTable table) {
-        super(x, y, table);
+    private PropBinAC3bitrm(IntVar x, IntVar y, Tuples tuples, CouplesBitSetTable table) {
+        super(x, y, tuples, table);
     }
 
     @Override
@@ -135,7 +135,9 @@ public class PropBinAC3bitrm extends PropBinCSP {
             this.vars[1].duplicate(solver, identitymap);
             IntVar Y = (IntVar) identitymap.get(this.vars[1]);
 
-            identitymap.put(this, new PropBinAC3bitrm(X, Y, (CouplesBitSetTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(X, Y)
+                    ? new PropBinAC3bitrm(X, Y, tuples, (CouplesBitSetTable) relation)
+                    : new PropBinAC3bitrm(X, Y, tuples));
         }
     }
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
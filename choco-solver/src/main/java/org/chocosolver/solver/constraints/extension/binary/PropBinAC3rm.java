@@ -63,11 +63,11 @@ public class PropBinAC3rm extends PropBinCSP {
 
 
     public PropBinAC3rm(IntVar x, IntVar y, Tuples tuples) {
-        this(x, y, new CouplesBitSetTable(tuples, x, y));
+        this(x, y, tuples, new CouplesBitSetTable(tuples, x, y));
     }
 
-    private PropBinAC3rm(IntVar x, IntVar y, CouplesBitSetTable table) {
-        super(x, y, table);
+    private PropBinAC3rm(IntVar x, IntVar y, Tuples tuples, CouplesBitSetTable table) {
+        super(x, y, tuples, table);
     }
 
 
@@ -99,7 +99,9 @@ public class PropBinAC3rm extends PropBinCSP {
             this.vars[1].duplicate(solver, identitymap);
             IntVar Y = (IntVar) identitymap.get(this.vars[1]);
 
-            identitymap.put(this, new PropBinAC3rm(X, Y, (CouplesBitSetTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(X, Y)
+                    ? new PropBinAC3rm(X, Y, tuples, (CouplesBitSetTable) relation)
+                    : new PropBinAC3rm(X, Y, tuples));
         }
     }
 
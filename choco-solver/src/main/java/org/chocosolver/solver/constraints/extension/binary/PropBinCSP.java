@@ -30,6 +30,7 @@ package org.chocosolver.solver.constraints.extension.binary;
 
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.tools.ArrayUtils;
@@ -45,11 +46,35 @@ public abstract class PropBinCSP extends Propagator<IntVar> {
     protected BinRelation relation;
     protected IntVar v0, v1;
 
-    protected PropBinCSP(IntVar x, IntVar y, BinRelation relation) {
+    // the tuples the relation is built on
+    protected final Tuples tuples;
+
+    // bounds of the variables when the relation was built
+    private final int lb0, ub0, lb1, ub1;
+
+    protected PropBinCSP(IntVar x, IntVar y, Tuples tuples, BinRelation relation) {
         super(ArrayUtils.toArray(x, y), PropagatorPriority.BINARY, true);
         this.relation = relation;
         this.v0 = x;
         this.v1 = y;
+        this.tuples = tuples;
+        this.lb0 = x.getLB();
+        this.ub0 = x.getUB();
+        this.lb1 = y.getLB();
+        this.ub1 = y.getUB();
+    }
+
+    /**
+     * Indicate whether the relation can be shared with a copy of this propagator declared over <code>x</code> and <code>y</code>,
+     * that is, if they have the same bounds as the variables the relation was built on.
+     * Otherwise, the relation of the copy has to be built from the tuples.
+     *
+     * @param x copy of the first variable
+     * @param y copy of the second variable
+     * @return true if the relation can be shared
+     */
+    protected final boolean canShareRelation(IntVar x, IntVar y) {
+        return x.getLB() == lb0 && x.getUB() == ub0 && y.getLB() == lb1 && y.getUB() == ub1;
     }
 
     public final BinRelation getRelation() {
@@ -34,7 +34,6 @@ import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
-import org.chocosolver.util.iterators.DisposableValueIterator;
 
 /**
  * Forward checking algorithm for table constraint
@@ -46,11 +45,11 @@ import org.chocosolver.util.iterators.DisposableValueIterator;
 public class PropBinFC extends PropBinCSP {
 
     public PropBinFC(IntVar x, IntVar y, Tuples tuples) {
-        this(x, y, new CouplesTable(tuples, x, y));
+        this(x, y, tuples, new CouplesTable(tuples, x, y));
     }
 
-    private PropBinFC(IntVar x, IntVar y, CouplesTable table) {
-        super(x, y, table);
+    private PropBinFC(IntVar x, IntVar y, Tuples tuples, CouplesTable table) {
+        super(x, y, tuples, table);
     }
 
     @Override
@@ -80,7 +79,9 @@ public class PropBinFC extends PropBinCSP {
             this.vars[1].duplicate(solver, identitymap);
             IntVar Y = (IntVar) identitymap.get(this.vars[1]);
 
-            identitymap.put(this, new PropBinFC(X, Y, (CouplesTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(X, Y)
+                    ? new PropBinFC(X, Y, tuples, (CouplesTable) relation)
+                    : new PropBinFC(X, Y, tuples));
         }
     }
 
@@ -91,46 +92,36 @@ public class PropBinFC extends PropBinCSP {
     private void onInstantiation0() throws ContradictionException {
         int left, right;
         int value = v0.getValue();
-        DisposableValueIterator values = v1.getValueIterator(true);
         left = right = Integer.MIN_VALUE;
-        try {
-            while (values.hasNext()) {
-                int val = values.next();
-                if (!relation.isConsistent(value, val)) {
-                    if (val == right + 1) {
-                        right = val;
-                    } else {
-                        v1.removeInterval(left, right, this);
-                        left = right = val;
-                    }
+        int ub = v1.getUB();
+        for (int val = v1.getLB(); val <= ub; val = v1.nextValue(val)) {
+            if (!relation.isConsistent(value, val)) {
+                if (val == right + 1) {
+                    right = val;
+                } else {
+                    v1.removeInterval(left, right, this);
+                    left = right = val;
                 }
             }
-            v1.removeInterval(left, right, this);
-        } finally {
-            values.dispose();
         }
+        v1.removeInterval(left, right, this);
     }
 
     private void onInstantiation1() throws ContradictionException {
         int left, right;
         int value = v1.getValue();
-        DisposableValueIterator values = v0.getValueIterator(true);
         left = right = Integer.MIN_VALUE;
-        try {
-            while (values.hasNext()) {
-                int val = values.next();
-                if (!relation.isConsistent(val, value)) {
-                    if (val == right + 1) {
-                        right = val;
-                    } else {
-                        v0.removeInterval(left, right, this);
-                        left = right = val;
-                    }
+        int ub = v0.getUB();
+        for (int val = v0.getLB(); val <= ub; val = v0.nextValue(val)) {
+            if (!relation.isConsistent(val, value)) {
+                if (val == right + 1) {
+                    right = val;
+                } else {
+                    v0.removeInterval(left, right, this);
+                    left = right = val;
                 }
             }
-            v0.removeInterval(left, right, this);
-        } finally {
-            values.dispose();
         }
+        v0.removeInterval(left, right, this);
     }
 }
@@ -30,6 +30,7 @@ package org.chocosolver.solver.constraints.extension.nary;
 
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 
@@ -43,9 +44,39 @@ public abstract class PropLargeCSP<R extends LargeRelation> extends Propagator<I
 
     protected final R relation;
 
-    protected PropLargeCSP(IntVar[] vars, R relation) {
+    // the tuples the relation is built on
+    protected final Tuples tuples;
+
+    // bounds of the variables when the relation was built
+    private final int[] lbs, ubs;
+
+    protected PropLargeCSP(IntVar[] vars, Tuples tuples, R relation) {
         super(vars, PropagatorPriority.QUADRATIC, true);
         this.relation = relation;
+        this.tuples = tuples;
+        this.lbs = new int[vars.length];
+        this.ubs = new int[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            lbs[i] = vars[i].getLB();
+            ubs[i] = vars[i].getUB();
+        }
+    }
+
+    /**
+     * Indicate whether the relation can be shared with a copy of this propagator declared over <code>copies</code>,
+     * that is, if <code>copies</code> have the same bounds as the variables the relation was built on.
+     * Otherwise, the relation of the copy has to be built from the tuples.
+     *
+     * @param copies the variables of the copy
+     * @return true if the relation can be shared
+     */
+    protected final boolean canShareRelation(IntVar[] copies) {
+        for (int i = 0; i < copies.length; i++) {
+            if (copies[i].getLB() != lbs[i] || copies[i].getUB() != ubs[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public final R getRelation() {
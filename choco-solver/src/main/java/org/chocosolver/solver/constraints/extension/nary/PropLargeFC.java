@@ -46,13 +46,13 @@ public class PropLargeFC extends PropLargeCSP<LargeRelation> {
 
     protected final int[] currentTuple;
 
-    private PropLargeFC(IntVar[] vars, LargeRelation relation) {
-        super(vars, relation);
+    private PropLargeFC(IntVar[] vars, Tuples tuples, LargeRelation relation) {
+        super(vars, tuples, relation);
         this.currentTuple = new int[vars.length];
     }
 
     public PropLargeFC(IntVar[] vars, Tuples tuples) {
-        this(vars, makeRelation(tuples, vars));
+        this(vars, tuples, makeRelation(tuples, vars));
     }
 
     private static LargeRelation makeRelation(Tuples tuples, IntVar[] vars) {
@@ -160,7 +160,9 @@ public class PropLargeFC extends PropLargeCSP<LargeRelation> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeFC(aVars, relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeFC(aVars, tuples, relation)
+                    : new PropLargeFC(aVars, tuples));
         }
     }
 }
@@ -64,8 +64,8 @@ public class PropLargeGAC2001 extends PropLargeCSP<LargeRelation> {
     //by avoiding checking the bounds
     protected ValidityChecker valcheck;
 
-    private PropLargeGAC2001(IntVar[] vs, LargeRelation relation) {
-        super(vs, relation);
+    private PropLargeGAC2001(IntVar[] vs, Tuples tuples, LargeRelation relation) {
+        super(vs, tuples, relation);
         this.size = vs.length;
         this.blocks = new int[size];
         this.offsets = new int[size];
@@ -93,7 +93,7 @@ public class PropLargeGAC2001 extends PropLargeCSP<LargeRelation> {
     }
 
     public PropLargeGAC2001(IntVar[] vs, Tuples tuples) {
-        this(vs, makeRelation(tuples, vs));
+        this(vs, tuples, makeRelation(tuples, vs));
     }
 
     private static LargeRelation makeRelation(Tuples tuples, IntVar[] vars) {
@@ -272,7 +272,9 @@ public class PropLargeGAC2001 extends PropLargeCSP<LargeRelation> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeGAC2001(aVars, relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeGAC2001(aVars, tuples, relation)
+                    : new PropLargeGAC2001(aVars, tuples));
         }
     }
 }
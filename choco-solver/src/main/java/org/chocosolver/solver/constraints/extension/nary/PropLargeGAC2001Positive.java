@@ -66,8 +66,8 @@ public class PropLargeGAC2001Positive extends PropLargeCSP<IterTuplesTable> {
     //by avoiding checking the bounds
     protected ValidityChecker valcheck;
 
-    private PropLargeGAC2001Positive(IntVar[] vs, IterTuplesTable relation) {
-        super(vs, relation);
+    private PropLargeGAC2001Positive(IntVar[] vs, Tuples tuples, IterTuplesTable relation) {
+        super(vs, tuples, relation);
         this.arity = vs.length;
         this.blocks = new int[arity];
         this.offsets = new int[arity];
@@ -114,7 +114,7 @@ public class PropLargeGAC2001Positive extends PropLargeCSP<IterTuplesTable> {
     }
 
     public PropLargeGAC2001Positive(IntVar[] vs, Tuples tuples) {
-        this(vs, makeRelation(tuples, vs));
+        this(vs, tuples, makeRelation(tuples, vs));
     }
 
     private static IterTuplesTable makeRelation(Tuples tuples, IntVar[] vars) {
@@ -264,7 +264,9 @@ public class PropLargeGAC2001Positive extends PropLargeCSP<IterTuplesTable> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeGAC2001Positive(aVars, (IterTuplesTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeGAC2001Positive(aVars, tuples, (IterTuplesTable) relation)
+                    : new PropLargeGAC2001Positive(aVars, tuples));
         }
     }
 }
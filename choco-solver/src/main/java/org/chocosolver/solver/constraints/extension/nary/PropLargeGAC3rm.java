@@ -60,8 +60,8 @@ public class PropLargeGAC3rm extends PropLargeCSP<LargeRelation> {
     protected DisposableValueIterator[] seekIter;
 
 
-    private PropLargeGAC3rm(IntVar[] vs, LargeRelation relation) {
-        super(vs, relation);
+    private PropLargeGAC3rm(IntVar[] vs, Tuples tuples, LargeRelation relation) {
+        super(vs, tuples, relation);
         this.size = vs.length;
         this.blocks = new int[size];
         this.offsets = new int[size];
@@ -85,7 +85,7 @@ public class PropLargeGAC3rm extends PropLargeCSP<LargeRelation> {
     }
 
     public PropLargeGAC3rm(IntVar[] vs, Tuples tuples) {
-        this(vs, makeRelation(tuples, vs));
+        this(vs, tuples, makeRelation(tuples, vs));
     }
 
     private static LargeRelation makeRelation(Tuples tuples, IntVar[] vars) {
@@ -339,7 +339,9 @@ public class PropLargeGAC3rm extends PropLargeCSP<LargeRelation> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeGAC3rm(aVars, relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeGAC3rm(aVars, tuples, relation)
+                    : new PropLargeGAC3rm(aVars, tuples));
         }
     }
 }
@@ -68,8 +68,8 @@ public class PropLargeGAC3rmPositive extends PropLargeCSP<IterTuplesTable> {
     //by avoiding checking the bounds
     protected ValidityChecker valcheck;
 
-    private PropLargeGAC3rmPositive(IntVar[] vars, IterTuplesTable relation) {
-        super(vars, relation);
+    private PropLargeGAC3rmPositive(IntVar[] vars, Tuples tuples, IterTuplesTable relation) {
+        super(vars, tuples, relation);
         this.arity = vars.length;
         this.offsets = new int[arity];
         this.supports = new int[arity][];
@@ -107,7 +107,7 @@ public class PropLargeGAC3rmPositive extends PropLargeCSP<IterTuplesTable> {
     }
 
     public PropLargeGAC3rmPositive(IntVar[] vars, Tuples tuples) {
-        this(vars, makeRelation(tuples, vars));
+        this(vars, tuples, makeRelation(tuples, vars));
     }
 
     private static IterTuplesTable makeRelation(Tuples tuples, IntVar[] vars) {
@@ -243,7 +243,9 @@ public class PropLargeGAC3rmPositive extends PropLargeCSP<IterTuplesTable> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeGAC3rmPositive(aVars, (IterTuplesTable) relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeGAC3rmPositive(aVars, tuples, (IterTuplesTable) relation)
+                    : new PropLargeGAC3rmPositive(aVars, tuples));
         }
     }
 }
@@ -36,7 +36,6 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.iterators.DisposableValueIterator;
 
 import java.util.BitSet;
 
@@ -84,8 +83,8 @@ public class PropLargeGACSTRPos extends PropLargeCSP<TuplesList> {
     int[] listuples;
 
 
-    private PropLargeGACSTRPos(IntVar[] vs, TuplesList relation) {
-        super(vs, relation);
+    private PropLargeGACSTRPos(IntVar[] vs, Tuples tuples, TuplesList relation) {
+        super(vs, tuples, relation);
         this.arity = vs.length;
         this.futureVars = new TIntLinkedList();
         this.gacValues = new BitSet[arity];
@@ -131,7 +130,7 @@ public class PropLargeGACSTRPos extends PropLargeCSP<TuplesList> {
     }
 
     public PropLargeGACSTRPos(IntVar[] vs, Tuples tuples) {
-        this(vs, makeRelation(tuples, vs));
+        this(vs, tuples, makeRelation(tuples, vs));
     }
 
     private static TuplesList makeRelation(Tuples tuples, IntVar[] vars) {
@@ -168,26 +167,7 @@ public class PropLargeGACSTRPos extends PropLargeCSP<TuplesList> {
         for (int i = 0; i < futureVars.size(); i++) {
             int vIdx = futureVars.get(i);
             IntVar v = vars[vIdx];
-            DisposableValueIterator it3 = v.getValueIterator(true);
-            int left = Integer.MIN_VALUE;
-            int right = left;
-            try {
-                while (it3.hasNext()) {
-                    int val = it3.next();
-                    if (!gacValues[vIdx].get(val - offsets[vIdx])) {
-                        if (val == right + 1) {
-                            right = val;
-                        } else {
-                            v.removeInterval(left, right, this);
-                            left = right = val;
-                        }
-                        //                        v.removeVal(val, this, false);
-                    }
-                }
-                v.removeInterval(left, right, this);
-            } finally {
-                it3.dispose();
-            }
+            v.removeAllValuesBut(gacValues[vIdx], offsets[vIdx], this);
         }
     }
 
@@ -271,7 +251,9 @@ public class PropLargeGACSTRPos extends PropLargeCSP<TuplesList> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeGACSTRPos(aVars, (TuplesList) relation.duplicate()));
+            identitymap.put(this, canShareRelation(aVars)
+                    ? new PropLargeGACSTRPos(aVars, tuples, (TuplesList) relation)
+                    : new PropLargeGACSTRPos(aVars, tuples));
         }
     }
 }
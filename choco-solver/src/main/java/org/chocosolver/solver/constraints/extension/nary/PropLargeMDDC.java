@@ -154,7 +154,7 @@ public class PropLargeMDDC extends Propagator<IntVar> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropLargeMDDC(MDD.duplicate(), aVars));
+            identitymap.put(this, new PropLargeMDDC(MDD, aVars));
         }
     }
 }
@@ -0,0 +1,564 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Bin packing propagator:
+ * forall b in [0,BIN_LOAD.length-1],
+ * BIN_LOAD[b]=sum(ITEM_SIZE[i] | i in [0,ITEM_SIZE.length-1], ITEM_BIN[i] = b+OFFSET
+ * <p/>
+ * The required load (sum of the sizes of the items packed in a bin) and the possible load (required load plus
+ * the sizes of the candidate items) of each bin are maintained incrementally, from the removed values of the item variables.
+ * <br/>
+ * The filtering, restricted to the bins modified since the last call, is:
+ * <ul>
+ * <li>the load of a bin lies between its required load and its possible load,
+ * and the sum of the loads is the sum of the sizes of the items,</li>
+ * <li>an item cannot go into a bin it overloads and must go into a bin which cannot reach its minimal load without it,</li>
+ * <li>the bounds of the load of a bin are adjusted to a subset sum of its candidate items (knapsack reasoning),
+ * only when its required load or its load bounds have changed,</li>
+ * <li>a failure is detected when the L2 lower bound on the number of bins needed exceeds the number of bins.</li>
+ * </ul>
+ * The sizes must be non-negative.
+ * <p/>
+ * Based on "A Constraint for Bin Packing", P. Shaw, CP 2004,
+ * and "Lower bounds and reduction procedures for the bin packing problem", S. Martello and P. Toth, 1990.
+ */
+public class PropBinPacking extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int nbItems, nbBins, offset;
+    private final int[] itemSize;
+    // items, by decreasing size
+    private final int[] order;
+    private final long sumSizes;
+    // sum of the sizes of the items packed in each bin
+    private final IStateInt[] required;
+    // required load plus the sum of the sizes of the candidate items of each bin
+    private final IStateInt[] possible;
+    private final IStateBitSet unpacked;
+    private final IIntDeltaMonitor[] idms;
+    private final UnaryIntProcedure<Integer> remProc;
+    // bins whose required load or load bounds have changed
+    private final BitSet touched;
+    // bins whose possible load has decreased
+    private final BitSet lowered;
+    // sizes of the candidate items of a bin, by decreasing size
+    private final int[] candidates;
+    // items of the L2 lower bound, and their prefix sums
+    private int[] l2items;
+    private long[] l2sums;
+    // results of the last call to noSum
+    private long alphaP, betaP;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param itemBin  bin of each item
+     * @param itemSize size of each item, non-negative
+     * @param binLoad  load of each bin
+     * @param offset   index of the first bin
+     */
+    public PropBinPacking(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset) {
+        super(ArrayUtils.append(itemBin, binLoad), PropagatorPriority.QUADRATIC, true);
+        this.nbItems = itemBin.length;
+        this.nbBins = binLoad.length;
+        this.offset = offset;
+        this.itemSize = itemSize;
+        long s = 0;
+        Integer[] tmp = new Integer[nbItems];
+        for (int i = 0; i < nbItems; i++) {
+            if (itemSize[i] < 0) {
+                throw new IllegalArgumentException("The size of an item must be non-negative");
+            }
+            s += itemSize[i];
+            tmp[i] = i;
+        }
+        this.sumSizes = s;
+        Arrays.sort(tmp, (a, b) -> itemSize[b] - itemSize[a]);
+        this.order = new int[nbItems];
+        for (int i = 0; i < nbItems; i++) {
+            order[i] = tmp[i];
+        }
+        IEnvironment environment = solver.getEnvironment();
+        this.required = new IStateInt[nbBins];
+        this.possible = new IStateInt[nbBins];
+        for (int b = 0; b < nbBins; b++) {
+            required[b] = environment.makeInt(0);
+            possible[b] = environment.makeInt(0);
+        }
+        this.unpacked = environment.makeBitSet(nbItems);
+        this.idms = new IIntDeltaMonitor[nbItems];
+        for (int i = 0; i < nbItems; i++) {
+            idms[i] = vars[i].monitorDelta(this);
+        }
+        this.remProc = new RemProc();
+        this.touched = new BitSet(nbBins);
+        this.lowered = new BitSet(nbBins);
+        this.candidates = new int[nbItems];
+        this.l2items = new int[nbItems + nbBins];
+        this.l2sums = new long[nbItems + nbBins + 1];
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx < nbItems) {
+            return IntEventType.all();
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int b = 0; b < nbBins; b++) {
+                required[b].set(0);
+                possible[b].set(0);
+            }
+            for (int i = 0; i < nbItems; i++) {
+                IntVar v = vars[i];
+                v.updateLowerBound(offset, aCause);
+                v.updateUpperBound(nbBins - 1 + offset, aCause);
+                if (v.isInstantiated()) {
+                    int b = v.getValue() - offset;
+                    required[b].add(itemSize[i]);
+                    possible[b].add(itemSize[i]);
+                    unpacked.clear(i);
+                } else {
+                    int ub = v.getUB();
+                    for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                        possible[j - offset].add(itemSize[i]);
+                    }
+                    unpacked.set(i);
+                }
+            }
+            for (int i = 0; i < nbItems; i++) {
+                idms[i].unfreeze();
+            }
+            touched.set(0, nbBins);
+        }
+        filter();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < nbItems) {
+            idms[idxVarInProp].freeze();
+            idms[idxVarInProp].forEachRemVal(remProc.set(idxVarInProp));
+            idms[idxVarInProp].unfreeze();
+            if (unpacked.get(idxVarInProp) && vars[idxVarInProp].isInstantiated()) {
+                pack(idxVarInProp);
+            }
+        } else {
+            touched.set(idxVarInProp - nbItems);
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    private void filter() throws ContradictionException {
+        try {
+            boolean change = true;
+            while (change) {
+                while (!touched.isEmpty() || !lowered.isEmpty()) {
+                    for (int b = touched.nextSetBit(0); b >= 0; b = touched.nextSetBit(0)) {
+                        touched.clear(b);
+                        lowered.clear(b);
+                        filterBin(b);
+                    }
+                    for (int b = lowered.nextSetBit(0); b >= 0; b = lowered.nextSetBit(0)) {
+                        lowered.clear(b);
+                        filterPossible(b);
+                    }
+                }
+                change = filterLoadSum();
+            }
+        } finally {
+            touched.clear();
+            lowered.clear();
+        }
+        if (!unpacked.isEmpty()) {
+            lowerBound();
+        } else {
+            setPassive();
+        }
+    }
+
+    /**
+     * The sum of the loads is equal to the sum of the sizes of the items.
+     *
+     * @return true if a load has been modified
+     */
+    private boolean filterLoadSum() throws ContradictionException {
+        long sumLB = 0, sumUB = 0;
+        for (int b = 0; b < nbBins; b++) {
+            sumLB += vars[nbItems + b].getLB();
+            sumUB += vars[nbItems + b].getUB();
+        }
+        if (sumLB > sumSizes || sumUB < sumSizes) {
+            contradiction(null, "load sum");
+        }
+        boolean change = false;
+        for (int b = 0; b < nbBins; b++) {
+            IntVar load = vars[nbItems + b];
+            int lb = load.getLB(), ub = load.getUB();
+            long nlb = sumSizes - (sumUB - ub);
+            long nub = sumSizes - (sumLB - lb);
+            if ((nlb > lb && load.updateLowerBound((int) Math.min(nlb, Integer.MAX_VALUE), aCause))
+                    | (nub < ub && load.updateUpperBound((int) Math.max(nub, Integer.MIN_VALUE), aCause))) {
+                sumLB += load.getLB() - lb;
+                sumUB += load.getUB() - ub;
+                touched.set(b);
+                change = true;
+            }
+        }
+        return change;
+    }
+
+    private void filterBin(int b) throws ContradictionException {
+        IntVar load = vars[nbItems + b];
+        int r = required[b].get();
+        int p = possible[b].get();
+        load.updateLowerBound(r, aCause);
+        load.updateUpperBound(p, aCause);
+        if (r == p) {
+            return;
+        }
+        int value = b + offset;
+        // items which overload the bin or which are needed to reach the minimal load
+        int threshold = Math.min(load.getUB() - r, p - load.getLB());
+        for (int k = 0; k < nbItems && itemSize[order[k]] > threshold; k++) {
+            int i = order[k];
+            if (unpacked.get(i) && vars[i].contains(value)) {
+                if (r + itemSize[i] > load.getUB()) {
+                    remove(i, b);
+                } else if (p - itemSize[i] < load.getLB()) {
+                    commit(i, b);
+                }
+            }
+        }
+        r = required[b].get();
+        p = possible[b].get();
+        load.updateLowerBound(r, aCause);
+        load.updateUpperBound(p, aCause);
+        if (r == p) {
+            return;
+        }
+        // knapsack reasoning on the candidate items
+        int nc = 0;
+        for (int k = 0; k < nbItems; k++) {
+            int i = order[k];
+            if (unpacked.get(i) && vars[i].contains(value)) {
+                candidates[nc++] = itemSize[i];
+            }
+        }
+        if (noSum(nc, load.getLB() - r, load.getUB() - r)) {
+            contradiction(load, "no subset sum");
+        }
+        if (noSum(nc, load.getLB() - r, load.getLB() - r)) {
+            load.updateLowerBound((int) (r + betaP), aCause);
+        }
+        if (noSum(nc, load.getUB() - r, load.getUB() - r)) {
+            load.updateUpperBound((int) (r + alphaP), aCause);
+        }
+    }
+
+    /**
+     * The possible load of bin <i>b</i> has decreased: items may be needed to reach its minimal load.
+     */
+    private void filterPossible(int b) throws ContradictionException {
+        IntVar load = vars[nbItems + b];
+        load.updateUpperBound(possible[b].get(), aCause);
+        int value = b + offset;
+        for (int k = 0; k < nbItems && itemSize[order[k]] > possible[b].get() - load.getLB(); k++) {
+            int i = order[k];
+            if (unpacked.get(i) && vars[i].contains(value)) {
+                commit(i, b);
+            }
+        }
+    }
+
+    /**
+     * Checks whether no subset of the candidate items sums up to a value in [alpha, beta].
+     * If so, {@link #alphaP} is the largest subset sum lower than alpha and
+     * {@link #betaP} is the smallest subset sum greater than beta.
+     * The test is incomplete, but runs in linear time.
+     *
+     * @param nc    number of candidate items
+     * @param alpha lower bound
+     * @param beta  upper bound
+     * @return true if no subset sum lies in [alpha, beta]
+     */
+    private boolean noSum(int nc, long alpha, long beta) {
+        if (alpha <= 0) {
+            return false;
+        }
+        long sum = 0;
+        for (int j = 0; j < nc; j++) {
+            sum += candidates[j];
+        }
+        if (beta >= sum) {
+            return false;
+        }
+        // x(j) = candidates[j - 1] for j in [1, nc], by decreasing size
+        long sumA = 0, sumB, sumC = 0;
+        int k = 0, k1 = 0;
+        while (sumC + candidates[nc - k1 - 1] < alpha) {
+            sumC += candidates[nc - k1 - 1];
+            k1++;
+        }
+        sumB = candidates[nc - k1 - 1];
+        while (sumA < alpha && sumB <= beta) {
+            k++;
+            sumA += candidates[k - 1];
+            if (sumA < alpha) {
+                k1--;
+                sumB += candidates[nc - k1 - 1];
+                sumC -= candidates[nc - k1 - 1];
+                while (sumA + sumC >= alpha) {
+                    k1--;
+                    sumC -= candidates[nc - k1 - 1];
+                    sumB += candidates[nc - k1 - 1] - candidates[nc - k1 - k - 2];
+                }
+            }
+        }
+        alphaP = sumA + sumC;
+        betaP = sumB;
+        return sumA < alpha;
+    }
+
+    /**
+     * Fails if the L2 lower bound of Martello and Toth on the number of bins needed exceeds the number of bins.
+     * Each bin is relaxed into a bin of the largest capacity, filled with a fake item
+     * of the size of the capacity it misses plus its required load.
+     */
+    private void lowerBound() throws ContradictionException {
+        int c = 0;
+        for (int b = 0; b < nbBins; b++) {
+            c = Math.max(c, vars[nbItems + b].getUB());
+        }
+        int n = 0;
+        for (int b = 0; b < nbBins; b++) {
+            int f = c - vars[nbItems + b].getUB() + required[b].get();
+            if (f > 0) {
+                l2items[n++] = f;
+            }
+        }
+        for (int i = unpacked.nextSetBit(0); i >= 0; i = unpacked.nextSetBit(i + 1)) {
+            if (itemSize[i] > 0) {
+                l2items[n++] = itemSize[i];
+            }
+        }
+        if (n <= nbBins || c == 0) {
+            return;
+        }
+        Arrays.sort(l2items, 0, n);
+        l2sums[0] = 0;
+        for (int j = 0; j < n; j++) {
+            l2sums[j + 1] = l2sums[j] + l2items[j];
+        }
+        // first item greater than c / 2
+        int h = upperBound(n, c / 2);
+        // the threshold is 0 first, then each distinct size not greater than c / 2
+        long best = l2(n, c, h, 0, 0);
+        for (int lo = 0; lo < h; lo = upperBound(n, l2items[lo])) {
+            best = Math.max(best, l2(n, c, h, l2items[lo], lo));
+        }
+        if (best > nbBins) {
+            contradiction(null, "L2 lower bound");
+        }
+    }
+
+    /**
+     * L2 bound for the threshold <i>k</i>: the items greater than <i>c - k</i> and the ones greater than <i>c / 2</i>
+     * need a bin each, the items between <i>k</i> and <i>c / 2</i> fill the remaining space of the latter first.
+     *
+     * @param lo index of the first item not lower than <i>k</i>
+     */
+    private long l2(int n, int c, int h, int k, int lo) {
+        int t = upperBound(n, c - k);
+        long n2 = t - h;
+        long fill = l2sums[h] - l2sums[lo] - (n2 * c - (l2sums[t] - l2sums[h]));
+        return (n - t) + n2 + (fill > 0 ? (fill + c - 1) / c : 0);
+    }
+
+    // index of the first item strictly greater than x
+    private int upperBound(int n, int x) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (l2items[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Item <i>i</i> is now instantiated, its size is added to the required load of its bin
+     */
+    private void pack(int i) {
+        unpacked.clear(i);
+        int b = vars[i].getValue() - offset;
+        required[b].add(itemSize[i]);
+        touched.set(b);
+    }
+
+    /**
+     * Remove bin <i>b</i> from the domain of item <i>i</i>
+     */
+    private void remove(int i, int b) throws ContradictionException {
+        if (vars[i].removeValue(b + offset, aCause)) {
+            possible[b].add(-itemSize[i]);
+            lowered.set(b);
+            if (vars[i].isInstantiated()) {
+                pack(i);
+            }
+        }
+    }
+
+    /**
+     * Put item <i>i</i> into bin <i>b</i>
+     */
+    private void commit(int i, int b) throws ContradictionException {
+        IntVar v = vars[i];
+        int ub = v.getUB();
+        for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+            if (j != b + offset) {
+                possible[j - offset].add(-itemSize[i]);
+                lowered.set(j - offset);
+            }
+        }
+        v.instantiateTo(b + offset, aCause);
+        pack(i);
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        long[] r = new long[nbBins];
+        long[] p = new long[nbBins];
+        for (int i = 0; i < nbItems; i++) {
+            IntVar v = vars[i];
+            if (v.getLB() >= offset + nbBins || v.getUB() < offset) {
+                return ESat.FALSE;
+            }
+            if (v.isInstantiated()) {
+                r[v.getValue() - offset] += itemSize[i];
+            }
+            int ub = Math.min(v.getUB(), offset + nbBins - 1);
+            for (int j = Math.max(v.getLB(), offset); j <= ub; j = v.nextValue(j)) {
+                p[j - offset] += itemSize[i];
+            }
+        }
+        for (int b = 0; b < nbBins; b++) {
+            IntVar load = vars[nbItems + b];
+            if (r[b] > load.getUB() || p[b] < load.getLB()) {
+                return ESat.FALSE;
+            }
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "PropBinPacking(" + nbItems + " items, " + nbBins + " bins)";
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] aItems = new IntVar[nbItems];
+            for (int i = 0; i < nbItems; i++) {
+                this.vars[i].duplicate(solver, identitymap);
+                aItems[i] = (IntVar) identitymap.get(this.vars[i]);
+            }
+            IntVar[] aLoads = new IntVar[nbBins];
+            for (int b = 0; b < nbBins; b++) {
+                this.vars[nbItems + b].duplicate(solver, identitymap);
+                aLoads[b] = (IntVar) identitymap.get(this.vars[nbItems + b]);
+            }
+            identitymap.put(this, new PropBinPacking(aItems, itemSize, aLoads, offset));
+        }
+    }
+
+    private class RemProc implements UnaryIntProcedure<Integer> {
+        private int item;
+
+        @Override
+        public UnaryIntProcedure set(Integer i) {
+            this.item = i;
+            return this;
+        }
+
+        @Override
+        public void execute(int value) throws ContradictionException {
+            int b = value - offset;
+            if (b >= 0 && b < nbBins) {
+                possible[b].add(-itemSize[item]);
+                lowered.set(b);
+            }
+        }
+    }
+}
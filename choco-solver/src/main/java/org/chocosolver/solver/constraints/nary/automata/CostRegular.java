@@ -28,22 +28,20 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
-import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.structure.Node;
 import org.chocosolver.solver.constraints.nary.automata.structure.costregular.Arc;
 import org.chocosolver.solver.constraints.nary.automata.structure.costregular.StoredValuedDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.jgrapht.graph.DirectedMultigraph;
 
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.HashSet;
+import java.util.Arrays;
 
 /**
  * COST_REGULAR constraint
@@ -84,147 +82,41 @@ public class CostRegular extends Constraint {
         }
 
 
+        // the unrolled automaton is shared by the cost-regular constraints stated on the same automaton structure
+        LayeredGraph lgraph = LayeredGraph.make(pi, Arrays.copyOf(vars, size));
+
         DirectedMultigraph<Node, Arc> graph;
         graph = new DirectedMultigraph<>(new Arc.ArcFacroty());
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++)
-            tmp.add(new HashSet<>());
-
 
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
-
-        ArrayList<TIntHashSet> layer = new ArrayList<>();
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        // DLList[vars.length+1];
+        Node[] in = new Node[lgraph.nbNodes];
+        Node tink = new Node(pi.getNbStates() + 1, size + 1, nid++);
+        graph.addVertex(tink);
 
-        for (i = 0; i <= size; i++) {
-            layer.add(new TIntHashSet());// = new DLList(nbNodes);
+        for (int n = 0; n < lgraph.nbNodes; n++) {
+            in[n] = new Node(lgraph.getState(n), lgraph.getLayer(n), nid++);
+            graph.addVertex(in[n]);
         }
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-
-        layer.get(0).add(pi.getInitialState());
-
-        TIntHashSet succ = new TIntHashSet();
-        for (i = 0; i < size; i++) {
-            int ub = vars[i].getUB();
-            for (j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
-                layerIter = layer.get(i).iterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    succ.clear();
-                    pi.delta(k, j, succ);
-                    if (!succ.isEmpty()) {
-                        TIntIterator it = succ.iterator();
-                        for (; it.hasNext(); )
-                            layer.get(i + 1).add(it.next());
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-
-                        tmpQ[idx].add(k);
-
-
-                    }
-                }
-            }
+        for (int x = 0; x < lgraph.nbArcs; x++) {
+            Node a = in[lgraph.getOrigin(x)];
+            Node b = in[lgraph.getDestination(x)];
+            int j = lgraph.getValue(x);
+            graph.addEdge(a, b, new Arc(a, b, j, aid++, pi.getCostByState(a.layer, j, a.state)));
         }
 
-        //removing reachable non accepting states
-        layerIter = layer.get(size).iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (!pi.isFinal(k)) {
-                layerIter.remove();
-            }
-
+        TIntArrayList[] layers = new TIntArrayList[size + 1];
+        for (int i = 0; i <= size; i++) {
+            layers[i] = new TIntArrayList();
         }
-
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = pi.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[pi.getNbStates() * (size + 1)];
-        Node tink = new Node(pi.getNbStates() + 1, size + 1, nid++);
-        graph.addVertex(tink);
-
-        for (i = size - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int ub = vars[i].getUB();
-            for (j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        succ.clear();
-                        pi.delta(k, j, succ);
-                        TIntIterator it = succ.iterator();
-                        boolean added = false;
-                        for (; it.hasNext(); ) {
-                            int qn = it.next();
-                            if (layer.get(i + 1).contains(qn)) {
-                                added = true;
-                                Node a = in[i * pi.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * pi.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-
-                                Node b = in[(i + 1) * pi.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * pi.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
-                                }
-
-
-                                Arc arc = new Arc(a, b, j, aid++, pi.getCostByState(i, j, a.state));
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-                                mark.set(k);
-                            }
-                        }
-                        if (!added)
-                            qijIter.remove();
-                    }
-                }
+        for (int n = 0; n < lgraph.nbNodes; n++) {
+            Node o = in[n];
+            layers[o.layer].add(o.id);
+            if (o.layer == size) {
+                graph.addEdge(o, tink, new Arc(o, tink, 0, aid++, 0.0));
             }
-            layerIter = layer.get(i).iterator();
-
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
         }
-
-        TIntHashSet th = new TIntHashSet();
         int[][] intLayer = new int[size + 2][];
-        for (k = 0; k < pi.getNbStates(); k++) {
-            Node o = in[size * pi.getNbStates() + k];
-            {
-                if (o != null) {
-                    Arc a = new Arc(o, tink, 0, aid++, 0.0);
-                    graph.addEdge(o, tink, a);
-                }
-            }
-        }
-
-
-        for (i = 0; i <= size; i++) {
-            th.clear();
-            for (k = 0; k < pi.getNbStates(); k++) {
-                Node o = in[i * pi.getNbStates() + k];
-                if (o != null) {
-                    th.add(o.id);
-                }
-            }
-            intLayer[i] = th.toArray();
+        for (int i = 0; i <= size; i++) {
+            intLayer[i] = layers[i].toArray();
         }
         intLayer[size + 1] = new int[]{tink.id};
 
@@ -448,6 +448,84 @@ public class FiniteAutomaton implements IAutomaton {
         syncStates();
     }
 
+    /**
+     * Build the minimal deterministic automaton recognizing the same language as this one, in a canonical form:
+     * states are numbered in breadth-first order from the initial state, following transitions by increasing symbols,
+     * and adjacent symbols leading to the same state are merged.
+     * Two automata recognizing the same language thus have the same canonical minimal automaton,
+     * that is, the same {@link #getStructure()}.
+     * <p>
+     * This automaton is left unchanged.
+     *
+     * @return a new automaton, minimal, deterministic and canonically numbered
+     */
+    public FiniteAutomaton makeCanonicalMinimal() {
+        Automaton min = representedBy.clone();
+        // transitions may have been added by hand without the deterministic flag being updated
+        min.setDeterministic(false);
+        min.minimize();
+        min.reduce();
+        ArrayList<State> order = new ArrayList<>();
+        HashMap<State, Integer> index = new HashMap<>();
+        State init = min.getInitialState();
+        order.add(init);
+        index.put(init, 0);
+        for (int i = 0; i < order.size(); i++) {
+            for (Transition t : order.get(i).getSortedTransitions(false)) {
+                if (!index.containsKey(t.getDest())) {
+                    index.put(t.getDest(), order.size());
+                    order.add(t.getDest());
+                }
+            }
+        }
+        FiniteAutomaton canonical = new FiniteAutomaton();
+        for (State s : order) {
+            int k = canonical.addState();
+            if (s.isAccept()) {
+                canonical.setFinal(k);
+            }
+        }
+        canonical.setInitialState(0);
+        for (int i = 0; i < order.size(); i++) {
+            State s = canonical.states.get(i);
+            for (Transition t : order.get(i).getSortedTransitions(false)) {
+                s.addTransition(new Transition(t.getMin(), t.getMax(), canonical.states.get(index.get(t.getDest()))));
+            }
+        }
+        canonical.alphabet.addAll(alphabet);
+        canonical.setDeterministic(true);
+        return canonical;
+    }
+
+    /**
+     * Describe the structure of this automaton as an array of int: the number of states, the initial state,
+     * then, for each state: 1 if it is final (0 otherwise), its number of transitions
+     * and its transitions as triplets (lowest symbol, highest symbol, destination), sorted by lowest symbol.
+     * Symbols are given in their internal char representation.
+     * <p>
+     * Two automata with the same structure have the same states, the same final states and the same transitions,
+     * hence they can be used one for the other, even by constraints relying on state indices (like cost-regular).
+     *
+     * @return the structure of this automaton
+     */
+    public int[] getStructure() {
+        TIntArrayList structure = new TIntArrayList();
+        structure.add(nbStates);
+        structure.add(getInitialState());
+        for (int i = 0; i < nbStates; i++) {
+            State s = states.get(i);
+            structure.add(s.isAccept() ? 1 : 0);
+            List<Transition> transitions = s.getSortedTransitions(false);
+            structure.add(transitions.size());
+            for (Transition t : transitions) {
+                structure.add(t.getMin());
+                structure.add(t.getMax());
+                structure.add(stateToIndex.get(t.getDest()));
+            }
+        }
+        return structure.toArray();
+    }
+
     private void syncStates() {
         this.alphabet.clear();
         this.states.clear();
@@ -28,7 +28,7 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.THashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
@@ -45,6 +45,7 @@ import org.chocosolver.solver.constraints.nary.automata.structure.Node;
 import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.Arc;
 import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.FastPathFinder;
 import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.StoredDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
@@ -332,147 +333,38 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
         int n = offset;
         graph = new DirectedMultigraph<>(new Arc.ArcFactory());
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++) {
-            tmp.add(new HashSet<>());
-        }
 
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
+        // the unrolled automaton is shared by the multi-cost-regular propagators stated on the same automaton structure
+        LayeredGraph lgraph = LayeredGraph.make(pi, Arrays.copyOf(vs, n));
 
-        ArrayList<TIntHashSet> layer = new ArrayList<>();
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        // DLList[vars.length+1];
+        Node[] in = new Node[lgraph.nbNodes];
+        Node tink = new Node(pi.getNbStates() + 1, n + 1, nid++);
+        graph.addVertex(tink);
 
-        for (i = 0; i <= n; i++) {
-            layer.add(new TIntHashSet());// = new DLList(nbNodes);
+        for (int x = 0; x < lgraph.nbNodes; x++) {
+            in[x] = new Node(lgraph.getState(x), lgraph.getLayer(x), nid++);
+            graph.addVertex(in[x]);
         }
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-        layer.get(0).add(pi.getInitialState());
-        TIntHashSet nexts = new TIntHashSet();
-
-        for (i = 0; i < n; i++) {
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                layerIter = layer.get(i).iterator();//getIterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    nexts.clear();
-                    pi.delta(k, j, nexts);
-                    TIntIterator it = nexts.iterator();
-                    for (; it.hasNext(); ) {
-                        int succ = it.next();
-                        layer.get(i + 1).add(succ);
-                    }
-                    if (!nexts.isEmpty()) {
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-
-                        tmpQ[idx].add(k);
-
-                    }
-                }
-            }
+        for (int x = 0; x < lgraph.nbArcs; x++) {
+            Node a = in[lgraph.getOrigin(x)];
+            Node b = in[lgraph.getDestination(x)];
+            graph.addEdge(a, b, new Arc(a, b, lgraph.getValue(x), aid++));
         }
 
-        //removing reachable non accepting states
-        layerIter = layer.get(n).iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (!pi.isFinal(k)) {
-                layerIter.remove();
-            }
-
+        TIntArrayList[] layers = new TIntArrayList[n + 1];
+        for (int i = 0; i <= n; i++) {
+            layers[i] = new TIntArrayList();
         }
-
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = pi.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[pi.getNbStates() * (n + 1)];
-        Node tink = new Node(pi.getNbStates() + 1, n + 1, nid++);
-        graph.addVertex(tink);
-
-        for (i = n - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        nexts.clear();
-                        pi.delta(k, j, nexts);
-                        if (nexts.size() > 1)
-                            System.err.println("STOP");
-                        boolean added = false;
-                        for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                            int qn = it.next();
-
-                            if (layer.get(i + 1).contains(qn)) {
-                                added = true;
-                                Node a = in[i * pi.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * pi.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-                                Node b = in[(i + 1) * pi.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * pi.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
-                                }
-
-
-                                Arc arc = new Arc(a, b, j, aid++);
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-
-                                mark.set(k);
-                            }
-                        }
-                        if (!added)
-                            qijIter.remove();
-                    }
-                }
+        for (int x = 0; x < lgraph.nbNodes; x++) {
+            Node o = in[x];
+            layers[o.layer].add(o.id);
+            if (o.layer == n) {
+                graph.addEdge(o, tink, new Arc(o, tink, 0, aid++));
             }
-            layerIter = layer.get(i).iterator();
-
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
         }
-
-        TIntHashSet th = new TIntHashSet();
         int[][] intLayer = new int[n + 2][];
-        for (k = 0; k < pi.getNbStates(); k++) {
-            Node o = in[n * pi.getNbStates() + k];
-            {
-                if (o != null) {
-                    Arc a = new Arc(o, tink, 0, aid++);
-                    graph.addEdge(o, tink, a);
-                }
-            }
-        }
-
-
-        for (i = 0; i <= n; i++) {
-            th.clear();
-            for (k = 0; k < pi.getNbStates(); k++) {
-                Node o = in[i * pi.getNbStates() + k];
-                if (o != null) {
-                    th.add(o.id);
-                }
-            }
-            intLayer[i] = th.toArray();
+        for (int i = 0; i <= n; i++) {
+            intLayer[i] = layers[i].toArray();
         }
         intLayer[n + 1] = new int[]{tink.id};
 
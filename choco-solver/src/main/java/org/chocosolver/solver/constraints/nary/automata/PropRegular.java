@@ -28,30 +28,31 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
 import gnu.trove.map.hash.THashMap;
-import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateIntVector;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.chocosolver.solver.constraints.nary.automata.structure.regular.Arc;
-import org.chocosolver.solver.constraints.nary.automata.structure.regular.StoredDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
-import org.jgrapht.graph.DirectedMultigraph;
-
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.HashSet;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
+ * Propagator for the regular constraint, based on the layered graph unrolled from the automaton.
+ * <p>
+ * The layered graph is built on the minimal automaton equivalent to the given one, and is shared between
+ * propagators built on equivalent automata and the same initial domains.
+ * Each propagator maintains, in reversible arrays, the alive arcs, the in and out degrees of the nodes
+ * and the number of arcs supporting each pair (variable, value).
+ * A value removal kills its supporting arcs, and the removals are cascaded through the nodes whose degree falls to 0,
+ * so that the cost of an event is linear in the number of arcs it kills.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -59,33 +60,73 @@ import java.util.HashSet;
  */
 public class PropRegular extends Propagator<IntVar> {
 
-    StoredDirectedMultiGraph graph;
     final IAutomaton automaton;
-    static int num;
-    int _num;
+    final LayeredGraph graph;
+
+    /**
+     * Alive arcs of the layered graph
+     */
+    final IStateBitSet arcs;
+    /**
+     * Number of alive arcs supporting each pair (variable, value)
+     */
+    final IStateIntVector supports;
+    /**
+     * Number of alive outgoing and incoming arcs of each node
+     */
+    final IStateIntVector outDegrees, inDegrees;
+    /**
+     * Arcs to remove
+     */
+    final int[] stack;
+    int top;
 
     protected final RemProc rem_proc;
     protected final IIntDeltaMonitor[] idms;
 
     public PropRegular(IntVar[] variables, IAutomaton automaton) {
         super(variables, PropagatorPriority.LINEAR, true);
-        _num = num++;
         this.idms = new IIntDeltaMonitor[this.vars.length];
         for (int i = 0; i < this.vars.length; i++) {
             idms[i] = this.vars[i].monitorDelta(this);
         }
         rem_proc = new RemProc(this);
         this.automaton = automaton;
-        graph = initGraph(solver.getEnvironment(), vars, automaton);
+        this.graph = LayeredGraph.makeMinimal(automaton, vars);
+        IEnvironment environment = solver.getEnvironment();
+        this.arcs = environment.makeBitSet(graph.nbArcs);
+        this.arcs.set(0, graph.nbArcs);
+        this.supports = environment.makeIntVector(graph.getNbSupportIdx(), 0);
+        for (int i = 0; i < graph.getNbSupportIdx(); i++) {
+            supports.quickSet(i, graph.getNbSupports(i));
+        }
+        this.outDegrees = environment.makeIntVector(graph.nbNodes, 0);
+        this.inDegrees = environment.makeIntVector(graph.nbNodes, 0);
+        for (int i = 0; i < graph.nbNodes; i++) {
+            outDegrees.quickSet(i, graph.getOutDegree(i));
+            inDegrees.quickSet(i, graph.getInDegree(i));
+        }
+        this.stack = new int[graph.nbArcs];
     }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        for (int i = 0; i < idms.length; i++) {
+        for (int i = 0; i < vars.length; i++) {
+            // the removals recorded so far are covered by the scan below, they are consumed once the domain is filtered
             idms[i].freeze();
-            idms[i].forEachRemVal(rem_proc.set(i));
-            for (int j = vars[i].getLB(); j <= vars[i].getUB(); j = vars[i].nextValue(j)) {
-                if (!graph.hasSupport(i, j)) {
+            // first, remove the arcs of the values which are not in the domain anymore
+            for (int j = graph.getOffset(i), idx = graph.getSupportIdx(i, j); idx > -1; idx = graph.getSupportIdx(i, ++j)) {
+                if (supports.quickGet(idx) > 0 && !vars[i].contains(j)) {
+                    removeSupports(idx);
+                }
+            }
+        }
+        for (int i = 0; i < vars.length; i++) {
+            // then, remove the values without support
+            int ub = vars[i].getUB();
+            for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                int idx = graph.getSupportIdx(i, j);
+                if (idx == -1 || supports.quickGet(idx) == 0) {
                     vars[i].removeValue(j, aCause);
                 }
             }
@@ -114,7 +155,60 @@ public class PropRegular extends Propagator<IntVar> {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private static class RemProc implements UnaryIntProcedure<Integer> {
+    /**
+     * Remove the alive arcs supporting the pair (variable, value) identified by <code>idx</code>,
+     * and the arcs which are no longer on a path from the source to the sink.
+     *
+     * @param idx index of a pair (variable, value)
+     * @throws ContradictionException if a domain becomes empty
+     */
+    private void removeSupports(int idx) throws ContradictionException {
+        top = 0;
+        for (int k = graph.getNbSupports(idx) - 1; k >= 0; k--) {
+            push(graph.getSupport(idx, k));
+        }
+        int last = vars.length;
+        while (top > 0) {
+            int arc = stack[--top];
+            int orig = graph.getOrigin(arc);
+            int dest = graph.getDestination(arc);
+            int layer = graph.getLayer(orig);
+            int value = graph.getValue(arc);
+
+            int sidx = graph.getSupportIdx(layer, value);
+            int nbs = supports.quickGet(sidx) - 1;
+            supports.quickSet(sidx, nbs);
+            if (nbs == 0) {
+                vars[layer].removeValue(value, aCause);
+            }
+            int out = outDegrees.quickGet(orig) - 1;
+            outDegrees.quickSet(orig, out);
+            if (out == 0 && layer > 0) {
+                for (int k = graph.getInDegree(orig) - 1; k >= 0; k--) {
+                    push(graph.getInArc(orig, k));
+                }
+            }
+            int in = inDegrees.quickGet(dest) - 1;
+            inDegrees.quickSet(dest, in);
+            if (in == 0 && layer + 1 < last) {
+                for (int k = graph.getOutDegree(dest) - 1; k >= 0; k--) {
+                    push(graph.getOutArc(dest, k));
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark <code>arc</code> as removed and stack it, if it is still alive.
+     */
+    private void push(int arc) {
+        if (arcs.get(arc)) {
+            arcs.clear(arc);
+            stack[top++] = arc;
+        }
+    }
+
+    private static class RemProc implements IntProcedure {
 
         private final PropRegular p;
         private int idxVar;
@@ -123,15 +217,17 @@ public class PropRegular extends Propagator<IntVar> {
             this.p = p;
         }
 
-        @Override
-        public UnaryIntProcedure set(Integer idxVar) {
+        public RemProc set(int idxVar) {
             this.idxVar = idxVar;
             return this;
         }
 
         @Override
         public void execute(int i) throws ContradictionException {
-            p.graph.clearSupports(idxVar, i, p);
+            int idx = p.graph.getSupportIdx(idxVar, i);
+            if (idx > -1 && p.supports.quickGet(idx) > 0) {
+                p.removeSupports(idx);
+            }
         }
     }
 
@@ -145,143 +241,9 @@ public class PropRegular extends Propagator<IntVar> {
             sb.append(var.getName());
         }
         sb.append(")");
-        //        sb.append(propagators[0].toString());
         return sb.toString();
     }
 
-    //////////////////////
-
-    private static StoredDirectedMultiGraph initGraph(IEnvironment environment, IntVar[] vars, IAutomaton auto) {
-        int aid = 0;
-        int nid = 0;
-
-        int[] offsets = new int[vars.length];
-        int[] sizes = new int[vars.length];
-        int[] starts = new int[vars.length];
-
-        int totalSizes = 0;
-
-        starts[0] = 0;
-        for (int i = 0; i < vars.length; i++) {
-            offsets[i] = vars[i].getLB();
-            sizes[i] = vars[i].getUB() - vars[i].getLB() + 1;
-            if (i > 0) starts[i] = sizes[i - 1] + starts[i - 1];
-            totalSizes += sizes[i];
-        }
-
-
-        DirectedMultigraph<Node, Arc> graph;
-
-        int n = vars.length;
-        graph = new DirectedMultigraph<>(new Arc.ArcFactory());
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++)
-            tmp.add(new HashSet<>());
-
-
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
-
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-        TIntHashSet[] layer = new TIntHashSet[n + 1];
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        for (i = 0; i <= n; i++) {
-            layer[i] = new TIntHashSet();
-        }
-        layer[0].add(auto.getInitialState());
-        TIntHashSet nexts = new TIntHashSet();
-        for (i = 0; i < n; i++) {
-            int ub = vars[i].getUB();
-            for (j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
-                layerIter = layer[i].iterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    nexts.clear();
-                    auto.delta(k, j, nexts);
-                    for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                        int succ = it.next();
-                        layer[i + 1].add(succ);
-                    }
-                    if (!nexts.isEmpty()) {
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-                        tmpQ[idx].add(k);
-                    }
-                }
-            }
-        }
-
-        //removing reachable non accepting states
-        layerIter = layer[n].iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (!auto.isFinal(k)) {
-                layerIter.remove();
-            }
-        }
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = auto.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[auto.getNbStates() * (n + 1)];
-
-        for (i = n - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int ub = vars[i].getUB();
-            for (j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        nexts.clear();
-                        auto.delta(k, j, nexts);
-                        boolean added = false;
-                        for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                            int qn = it.next();
-                            if (layer[i + 1].contains(qn)) {
-
-                                added = true;
-                                Node a = in[i * auto.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * auto.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-                                Node b = in[(i + 1) * auto.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * auto.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
-                                }
-
-                                // BEWARE<CPRU>: cost is not required, 0.0 is a default value
-                                Arc arc = new Arc(a, b, j, aid++);
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-
-                                mark.set(k);
-                            }
-                        }
-                        if (!added)
-                            qijIter.remove();
-                    }
-                }
-            }
-            layerIter = layer[i].iterator();
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
-        }
-        return new StoredDirectedMultiGraph(environment, graph, starts, offsets, totalSizes);
-    }
-
     @Override
     public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
         if (!identitymap.containsKey(this)) {
@@ -0,0 +1,463 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The layered graph obtained by unrolling an automaton over a sequence of variables.
+ * <p>
+ * Layer <i>i</i> contains the states of the automaton reachable after reading <i>i</i> symbols and from which
+ * a final state can still be reached. An arc links state <i>k</i> of layer <i>i</i> to state <i>q</i> of layer <i>i+1</i>
+ * when <i>q</i> belongs to <i>delta(k, v)</i> for a value <i>v</i> of the <i>i</i>-th variable.
+ * Only arcs lying on a path from the initial state to a final state are kept.
+ * <p>
+ * The graph is immutable: it is stored in flat int arrays (arcs sorted by origin, by destination and by support)
+ * and can be shared by every propagator built on an automaton with the same structure and the same initial domains.
+ * The state of a propagator (alive arcs, degrees, number of supports) is maintained apart.
+ */
+public class LayeredGraph {
+
+    /**
+     * Maximum number of automata structures kept in the caches
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * Shared graphs, per automaton structure and initial domains (least recently used ones are forgotten first)
+     */
+    private static final Map<Signature, LayeredGraph> CACHE = new LRU<>();
+
+    /**
+     * Canonical minimal automata, per automaton structure
+     */
+    private static final Map<Signature, FiniteAutomaton> MINIMALS = new LRU<>();
+
+    /**
+     * Number of layers of arcs, that is, the number of variables
+     */
+    public final int nbLayers;
+
+    /**
+     * Initial domains, one array of values per layer
+     */
+    private final int[][] domains;
+
+    /**
+     * Index of the first support of a layer, and lowest value of a layer
+     */
+    private final int[] starts, offsets;
+
+    /**
+     * Number of nodes and number of arcs
+     */
+    public final int nbNodes, nbArcs;
+
+    /**
+     * Layer and state of each node
+     */
+    private final int[] layers, states;
+
+    /**
+     * Origin, destination and value of each arc
+     */
+    private final int[] origs, dests, values;
+
+    /**
+     * Outgoing arcs of node <i>n</i> are <code>outArcs[outStarts[n]..outStarts[n+1]-1]</code>
+     */
+    private final int[] outStarts, outArcs;
+
+    /**
+     * Incoming arcs of node <i>n</i> are <code>inArcs[inStarts[n]..inStarts[n+1]-1]</code>
+     */
+    private final int[] inStarts, inArcs;
+
+    /**
+     * Arcs supporting the pair <i>(layer, value)</i>, indexed by {@link #getSupportIdx(int, int)}
+     */
+    private final int[] supStarts, supArcs;
+
+    /**
+     * Return a layered graph built from <code>automaton</code> and the current domains of <code>vars</code>.
+     * States of the automaton are preserved: the state of a node is a state of <code>automaton</code>.
+     * If a graph has already been built from an automaton with the same structure and the same domains, it is shared.
+     *
+     * @param automaton an automaton, which must not be modified once the graph is built
+     * @param vars      sequence of variables
+     * @return a layered graph
+     */
+    public static LayeredGraph make(IAutomaton automaton, IntVar[] vars) {
+        return get(automaton, domainsOf(vars));
+    }
+
+    /**
+     * Return a layered graph built from the minimal deterministic automaton recognizing the language of
+     * <code>automaton</code> and the current domains of <code>vars</code>.
+     * States of the graph are the ones of the canonical minimal automaton (see {@link FiniteAutomaton#makeCanonicalMinimal()}),
+     * so the graph is shared by any constraint stated on an equivalent automaton and the same domains.
+     * The minimization of a given automaton is done only once.
+     * <p>
+     * Automata which are not {@link FiniteAutomaton} are not minimized.
+     *
+     * @param automaton an automaton, which must not be modified once the graph is built
+     * @param vars      sequence of variables
+     * @return a layered graph
+     */
+    public static LayeredGraph makeMinimal(IAutomaton automaton, IntVar[] vars) {
+        if (automaton instanceof FiniteAutomaton) {
+            Signature signature = new Signature(automaton);
+            FiniteAutomaton minimal;
+            synchronized (MINIMALS) {
+                minimal = MINIMALS.get(signature);
+                if (minimal == null) {
+                    minimal = ((FiniteAutomaton) automaton).makeCanonicalMinimal();
+                    MINIMALS.put(signature, minimal);
+                }
+            }
+            automaton = minimal;
+        }
+        return make(automaton, vars);
+    }
+
+    /**
+     * Empty the caches of graphs and minimal automata.
+     * Graphs already shared by propagators are not affected.
+     */
+    public static void clearCache() {
+        synchronized (MINIMALS) {
+            MINIMALS.clear();
+        }
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    private static LayeredGraph get(IAutomaton automaton, int[][] domains) {
+        Signature key = new Signature(automaton, domains);
+        LayeredGraph graph;
+        synchronized (CACHE) {
+            graph = CACHE.get(key);
+        }
+        if (graph == null) {
+            // built outside the lock, a concurrent build of the same graph is discarded
+            LayeredGraph built = new LayeredGraph(automaton, domains);
+            synchronized (CACHE) {
+                graph = CACHE.get(key);
+                if (graph == null) {
+                    graph = built;
+                    CACHE.put(key, graph);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Return the values of the domains of <code>vars</code>
+     */
+    private static int[][] domainsOf(IntVar[] vars) {
+        int[][] domains = new int[vars.length][];
+        for (int i = 0; i < vars.length; i++) {
+            domains[i] = new int[vars[i].getDomainSize()];
+            int ub = vars[i].getUB();
+            int k = 0;
+            for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                domains[i][k++] = j;
+            }
+        }
+        return domains;
+    }
+
+    private LayeredGraph(IAutomaton auto, int[][] domains) {
+        this.domains = domains;
+        int n = domains.length;
+        this.nbLayers = n;
+        this.starts = new int[n + 1];
+        this.offsets = new int[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = domains[i][0];
+            starts[i + 1] = starts[i] + domains[i][domains[i].length - 1] - offsets[i] + 1;
+        }
+        int nbStates = auto.getNbStates();
+        TIntHashSet nexts = new TIntHashSet();
+
+        // forward pass: states reachable from the initial state
+        BitSet[] reached = new BitSet[n + 1];
+        for (int i = 0; i <= n; i++) {
+            reached[i] = new BitSet(nbStates);
+        }
+        reached[0].set(auto.getInitialState());
+        for (int i = 0; i < n; i++) {
+            for (int k = reached[i].nextSetBit(0); k > -1; k = reached[i].nextSetBit(k + 1)) {
+                for (int j : domains[i]) {
+                    nexts.clear();
+                    auto.delta(k, j, nexts);
+                    for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
+                        reached[i + 1].set(it.next());
+                    }
+                }
+            }
+        }
+        // backward pass: keep states leading to a final state, and the arcs between them
+        int[] ids = new int[(n + 1) * nbStates];
+        Arrays.fill(ids, -1);
+        TIntArrayList _layers = new TIntArrayList();
+        TIntArrayList _states = new TIntArrayList();
+        TIntArrayList _origs = new TIntArrayList();
+        TIntArrayList _dests = new TIntArrayList();
+        TIntArrayList _values = new TIntArrayList();
+        for (int k = reached[n].nextSetBit(0); k > -1; k = reached[n].nextSetBit(k + 1)) {
+            if (!auto.isFinal(k)) {
+                reached[n].clear(k);
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            BitSet alive = new BitSet(nbStates);
+            for (int k = reached[i].nextSetBit(0); k > -1; k = reached[i].nextSetBit(k + 1)) {
+                for (int j : domains[i]) {
+                    nexts.clear();
+                    auto.delta(k, j, nexts);
+                    for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
+                        int q = it.next();
+                        if (reached[i + 1].get(q)) {
+                            alive.set(k);
+                            _origs.add(nodeOf(ids, i, k, nbStates, _layers, _states));
+                            _dests.add(nodeOf(ids, i + 1, q, nbStates, _layers, _states));
+                            _values.add(j);
+                        }
+                    }
+                }
+            }
+            reached[i] = alive;
+        }
+        this.nbNodes = _layers.size();
+        this.nbArcs = _values.size();
+        this.layers = _layers.toArray();
+        this.states = _states.toArray();
+        this.origs = _origs.toArray();
+        this.dests = _dests.toArray();
+        this.values = _values.toArray();
+
+        this.outStarts = new int[nbNodes + 1];
+        this.outArcs = new int[nbArcs];
+        this.inStarts = new int[nbNodes + 1];
+        this.inArcs = new int[nbArcs];
+        this.supStarts = new int[starts[n] + 1];
+        this.supArcs = new int[nbArcs];
+        int[] supIdx = new int[nbArcs];
+        for (int a = 0; a < nbArcs; a++) {
+            outStarts[origs[a] + 1]++;
+            inStarts[dests[a] + 1]++;
+            supIdx[a] = getSupportIdx(layers[origs[a]], values[a]);
+            supStarts[supIdx[a] + 1]++;
+        }
+        for (int i = 0; i < nbNodes; i++) {
+            outStarts[i + 1] += outStarts[i];
+            inStarts[i + 1] += inStarts[i];
+        }
+        for (int i = 0; i < starts[n]; i++) {
+            supStarts[i + 1] += supStarts[i];
+        }
+        int[] outPos = Arrays.copyOf(outStarts, nbNodes);
+        int[] inPos = Arrays.copyOf(inStarts, nbNodes);
+        int[] supPos = Arrays.copyOf(supStarts, starts[n]);
+        for (int a = 0; a < nbArcs; a++) {
+            outArcs[outPos[origs[a]]++] = a;
+            inArcs[inPos[dests[a]]++] = a;
+            supArcs[supPos[supIdx[a]]++] = a;
+        }
+    }
+
+    /**
+     * Return the id of the node <i>(layer, state)</i>, create it if needed
+     */
+    private static int nodeOf(int[] ids, int layer, int state, int nbStates, TIntArrayList layers, TIntArrayList states) {
+        int idx = layer * nbStates + state;
+        if (ids[idx] == -1) {
+            ids[idx] = layers.size();
+            layers.add(layer);
+            states.add(state);
+        }
+        return ids[idx];
+    }
+
+    /**
+     * Return the index of the pair <i>(layer, value)</i>, or -1 if the value does not belong to the initial domain
+     * span of the layer.
+     *
+     * @param layer a layer
+     * @param value a value
+     */
+    public int getSupportIdx(int layer, int value) {
+        int idx = value - offsets[layer];
+        if (idx < 0 || starts[layer] + idx >= starts[layer + 1]) {
+            return -1;
+        }
+        return starts[layer] + idx;
+    }
+
+    /**
+     * Return the total number of pairs <i>(layer, value)</i>
+     */
+    public int getNbSupportIdx() {
+        return starts[nbLayers];
+    }
+
+    /**
+     * Return the lowest value of the initial domain of <code>layer</code>
+     */
+    public int getOffset(int layer) {
+        return offsets[layer];
+    }
+
+    /**
+     * Return the number of arcs supporting the pair <code>(layer, value)</code> identified by <code>idx</code>
+     */
+    public int getNbSupports(int idx) {
+        return supStarts[idx + 1] - supStarts[idx];
+    }
+
+    /**
+     * Return the <code>k</code>-th arc supporting the pair <code>(layer, value)</code> identified by <code>idx</code>
+     */
+    public int getSupport(int idx, int k) {
+        return supArcs[supStarts[idx] + k];
+    }
+
+    public int getOutDegree(int node) {
+        return outStarts[node + 1] - outStarts[node];
+    }
+
+    public int getOutArc(int node, int k) {
+        return outArcs[outStarts[node] + k];
+    }
+
+    public int getInDegree(int node) {
+        return inStarts[node + 1] - inStarts[node];
+    }
+
+    public int getInArc(int node, int k) {
+        return inArcs[inStarts[node] + k];
+    }
+
+    public int getLayer(int node) {
+        return layers[node];
+    }
+
+    public int getState(int node) {
+        return states[node];
+    }
+
+    public int getOrigin(int arc) {
+        return origs[arc];
+    }
+
+    public int getDestination(int arc) {
+        return dests[arc];
+    }
+
+    public int getValue(int arc) {
+        return values[arc];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LayeredGraph[%d layers, %d nodes, %d arcs]", nbLayers, nbNodes, nbArcs);
+    }
+
+    /**
+     * Key of an automaton in the caches: its structure when it is a {@link FiniteAutomaton}, itself otherwise,
+     * and the initial domains of the variables, if any.
+     */
+    private static final class Signature {
+
+        private final int[] structure;
+        private final IAutomaton automaton;
+        private final int[][] domains;
+        private final int hash;
+
+        Signature(IAutomaton automaton) {
+            this(automaton, null);
+        }
+
+        Signature(IAutomaton automaton, int[][] domains) {
+            if (automaton instanceof FiniteAutomaton) {
+                this.structure = ((FiniteAutomaton) automaton).getStructure();
+                this.automaton = null;
+                this.hash = 31 * Arrays.hashCode(structure) + Arrays.deepHashCode(domains);
+            } else {
+                this.structure = null;
+                this.automaton = automaton;
+                this.hash = 31 * System.identityHashCode(automaton) + Arrays.deepHashCode(domains);
+            }
+            this.domains = domains;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) o;
+            return (structure == null ? automaton == other.automaton : Arrays.equals(structure, other.structure))
+                    && Arrays.deepEquals(domains, other.domains);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A map bounded to {@link #CACHE_SIZE} entries, evicting the least recently accessed one.
+     */
+    private static final class LRU<V> extends LinkedHashMap<Signature, V> {
+
+        LRU() {
+            super(16, .75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Signature, V> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+}
@@ -29,6 +29,7 @@
 package org.chocosolver.solver.constraints.nary.circuit;
 
 import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IStateBool;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -36,17 +37,25 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.graphOperations.connectivity.StoredStrongConnectivityFinder;
 import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
+import org.chocosolver.util.objects.graphs.CompressedDirectedGraph;
 import org.chocosolver.util.objects.graphs.DirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Random;
 
 /**
  * Filters circuit based on strongly connected components
  * (see the TechReport "Improving the Asymmetric TSP by considering graph structure", Fages & Lorca, 2012)
+ * <br/>
+ * With {@link CircuitConf#FIRST}, the source node never changes, so the support graph and its SCC are backtrackable
+ * and maintained incrementally: only the SCC which lost an inner arc since the last call are visited.
+ * The support graph is then a {@link CompressedDirectedGraph} over the arcs of the initial domains.
  * @author Jean-Guillaume Fages
  */
 public class PropCircuitSCC extends Propagator<IntVar> {
@@ -60,7 +69,13 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 	private StrongConnectivityFinder SCCfinder;
 	private DirectedGraph G_R;
 	private int[] sccOf;
+	private int n_R;
 	private ISet[] mates;
+	// incremental SCC (CircuitConf.FIRST only)
+	private StoredStrongConnectivityFinder storedSCC;
+	private IStateBool built;
+	private BitSet modified;
+	private int[] sccFirst;
 	// proba
 	private Random rd;
 	private int offSet;
@@ -71,13 +86,33 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 	//***********************************************************************************
 
 	public PropCircuitSCC(IntVar[] succs, int offSet, CircuitConf conf) {
-		super(succs, PropagatorPriority.LINEAR, false);
+		super(succs, PropagatorPriority.LINEAR, conf == CircuitConf.FIRST);
 		this.offSet = offSet;
 		n = vars.length;
 		n2 = n+1;
-		support = new DirectedGraph(n2,SetType.BITSET,true);
+		if (conf == CircuitConf.FIRST) {
+			// arcs of the initial domains, node n stands for the source 0 as a successor
+			int[][] arcs = new int[n2][0];
+			for (int i = 0; i < n; i++) {
+				int[] a = new int[n];
+				int k = 0;
+				int ub = Math.min(vars[i].getUB(), n - 1 + offSet);
+				for (int j = vars[i].nextValue(offSet - 1); j <= ub; j = vars[i].nextValue(j)) {
+					a[k++] = j == offSet ? n : j - offSet;
+				}
+				arcs[i] = Arrays.copyOf(a, k);
+			}
+			support = new CompressedDirectedGraph(solver, n2, arcs);
+			storedSCC = new StoredStrongConnectivityFinder(support, solver.getEnvironment());
+			built = solver.getEnvironment().makeBool(false);
+			modified = new BitSet(n);
+			sccOf = new int[n2];
+			sccFirst = new int[n2];
+		} else {
+			support = new DirectedGraph(n2, SetType.BITSET, true);
+			SCCfinder = new StrongConnectivityFinder(support);
+		}
 		G_R = new DirectedGraph(n2,SetType.LINKED_LIST,false);
-		SCCfinder = new StrongConnectivityFinder(support);
 		mates = new ISet[n2];
 		for(int i=0;i<n2;i++){
 			mates[i] = SetFactory.makeLinkedList(false);
@@ -104,6 +139,9 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				vars[i].updateLowerBound(offSet, aCause);
 				vars[i].updateUpperBound(n - 1 + offSet, aCause);
 			}
+			if (modified != null) {
+				modified.set(0, n);
+			}
 		}
 		switch (conf){
 			case FIRST:
@@ -117,13 +155,18 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		}
 	}
 
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		modified.set(idxVarInProp);
+		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+	}
+
 	public void filterFromSource(int source) throws ContradictionException {
 		// reset data structures
 		rebuild(source);
 		// find path endpoints
 		int first = -1;
 		int last = -1;
-		int n_R = SCCfinder.getNbSCC();
 		for (int i = 0; i < n_R; i++) {
 			if (G_R.getPredOf(i).isEmpty()) {
 				if(first!=-1){
@@ -151,17 +194,49 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		for (int i=0; i<n_R; i++) {
 			checkSCCLink(i);
 		}
+		if (storedSCC != null) {
+			// SCC split by the arcs removed above, in the current world
+			storedSCC.update();
+		}
 	}
 
 	public void rebuild(int source) {
 		for(int i=0;i<n2;i++){
 			mates[i].clear();
-			support.getSuccOf(i).clear();
-			support.getPredOf(i).clear();
 			G_R.getPredOf(i).clear();
 			G_R.getSuccOf(i).clear();
 		}
 		G_R.getNodes().clear();
+		if (storedSCC != null) {
+			updateSupport(source);
+		} else {
+			for (int i = 0; i < n2; i++) {
+				support.getSuccOf(i).clear();
+				support.getPredOf(i).clear();
+			}
+			buildSupport(source);
+			SCCfinder.findAllSCC();
+			n_R = SCCfinder.getNbSCC();
+			sccOf = SCCfinder.getNodesSCC();
+		}
+		for (int i = 0; i < n_R; i++) {
+			G_R.getNodes().add(i);
+		}
+		ISet succs;
+		int x;
+		for (int i = 0; i < n; i++) {
+			x = sccOf[i];
+			succs = support.getSuccOf(i);
+			for (int j = succs.getFirstElement(); j >= 0; j = succs.getNextElement()) {
+				if (x != sccOf[j]) {
+					G_R.addArc(x, sccOf[j]);
+					mates[x].add((i + 1) * n2 + j);
+				}
+			}
+		}
+	}
+
+	private void buildSupport(int source) {
 		for(int i=0;i<n;i++){
 			IntVar v = vars[i];
 			int lb = v.getLB();
@@ -174,24 +249,67 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				}
 			}
 		}
-		SCCfinder.findAllSCC();
-		int n_R = SCCfinder.getNbSCC();
-		for (int i = 0; i < n_R; i++) {
-			G_R.getNodes().add(i);
+	}
+
+	/**
+	 * Removes from the backtrackable support graph the arcs of the variables modified since the last call,
+	 * updates the SCC they belonged to and numbers the SCC from 0 to n_R-1
+	 */
+	private void updateSupport(int source) {
+		CompressedDirectedGraph g = (CompressedDirectedGraph) support;
+		if (!built.get()) {
+			// first call, or backtrack above the world the support graph was built in:
+			// the support graph holds the arcs of the initial domains
+			for (int i = 0; i < n; i++) {
+				for (int k = g.getNbSucc(i) - 1; k >= 0; k--) {
+					int j = g.getSucc(i, k);
+					if (!vars[i].contains((j == n ? source : j) + offSet)) {
+						g.removeArc(i, j);
+					}
+				}
+			}
+			storedSCC.findAllSCC();
+			built.set(true);
+		} else {
+			for (int i = modified.nextSetBit(0); i >= 0; i = modified.nextSetBit(i + 1)) {
+				for (int k = g.getNbSucc(i) - 1; k >= 0; k--) {
+					int j = g.getSucc(i, k);
+					if (!vars[i].contains((j == n ? source : j) + offSet)) {
+						storedSCC.removeArc(i, j);
+					}
+				}
+			}
+			storedSCC.update();
 		}
-		sccOf = SCCfinder.getNodesSCC();
-		ISet succs;
-		int x;
+		assert supportMatchesDomains(source);
+		modified.clear();
+		n_R = 0;
+		for (int i = 0; i < n2; i++) {
+			if (storedSCC.getSCCOf(i) == i) {
+				sccFirst[n_R] = i;
+				sccOf[i] = n_R++;
+			}
+		}
+		for (int i = 0; i < n2; i++) {
+			sccOf[i] = sccOf[storedSCC.getSCCOf(i)];
+		}
+	}
+
+	private boolean supportMatchesDomains(int source) {
 		for (int i = 0; i < n; i++) {
-			x = sccOf[i];
-			succs = support.getSuccOf(i);
+			int nb = 0;
+			ISet succs = support.getSuccOf(i);
 			for (int j = succs.getFirstElement(); j >= 0; j = succs.getNextElement()) {
-				if (x != sccOf[j]) {
-					G_R.addArc(x, sccOf[j]);
-					mates[x].add((i + 1) * n2 + j);
+				if (!vars[i].contains((j == n ? source : j) + offSet)) {
+					return false;
 				}
+				nb++;
+			}
+			if (nb != vars[i].getDomainSize()) {
+				return false;
 			}
 		}
+		return true;
 	}
 
 	private int visit(int node, int last, int source) throws ContradictionException {
@@ -222,7 +340,7 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				if(to==n){
 					to=source;
 				}
-				vars[from].removeValue(to+offSet,aCause);
+				removeValue(from, to+offSet);
 				mates[node].remove(e);
 			}
 		}
@@ -246,7 +364,7 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 							if(val==n){
 								val = source;
 							}
-							vars[a/n2-1].removeValue(val+offSet,aCause);
+							removeValue(a/n2-1, val+offSet);
 						}
 					}
 					mates[x].clear();
@@ -294,11 +412,11 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				if(vars[in].contains(outDoor+offSet)){
 					// Is |scc| > 2 ?
 					int size = 0;
-					for(int i=SCCfinder.getSCCFirstNode(sccFrom); i>=0 && size<3;i=SCCfinder.getNextNode(i)){
+					for(int i=firstNode(sccFrom); i>=0 && size<3;i=nextNode(i)){
 						size++;
 					}
 					if(size>2){
-						vars[in].removeValue(outDoor+offSet,aCause);
+						removeValue(in, outDoor+offSet);
 					}
 				}
 			}
@@ -309,7 +427,7 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		int sx = sccOf[x];
 		for(int i=0; i<n; i++){
 			if(sccOf[i]==sx){
-				vars[i].removeValue(x+offSet,aCause);
+				removeValue(i, x+offSet);
 			}
 		}
 	}
@@ -320,11 +438,29 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		int ub = vars[x].getUB();
 		for(int v=lb;v<=ub;v=vars[x].nextValue(v)){
 			if(sccOf[v-offSet]==sx){
-				vars[x].removeValue(v,aCause);
+				removeValue(x, v);
 			}
 		}
 	}
 
+	private void removeValue(int var, int val) throws ContradictionException {
+		if (vars[var].removeValue(val, aCause) && storedSCC != null && built.get()) {
+			// the propagator is not informed of its own removals: the arc is removed from the support graph
+			// in the world of the removal, so that it is restored on backtrack along with the value
+			// (CircuitConf.FIRST, the source is 0)
+			int j = val - offSet;
+			storedSCC.removeArc(var, j == 0 ? n : j);
+		}
+	}
+
+	private int firstNode(int scc) {
+		return storedSCC == null ? SCCfinder.getSCCFirstNode(scc) : sccFirst[scc];
+	}
+
+	private int nextNode(int node) {
+		return storedSCC == null ? SCCfinder.getNextNode(node) : storedSCC.getNextNode(node);
+	}
+
 	@Override
 	public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
 		if (!identitymap.containsKey(this)) {
@@ -0,0 +1,417 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.circuit;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Lagrangian relaxation of a weighted circuit over successor variables (Held and Karp bound):
+ * COST >= sum(COST_MATRIX[i][SUCCS[i]])
+ * <p/>
+ * The circuit is relaxed into a 1-tree (a spanning tree over the nodes but the first one, plus two edges
+ * incident to the first node) of the undirected graph whose edge {i,j} costs the cheapest of the arcs (i,j) and (j,i)
+ * still allowed by the domains. The instantiated successors give mandatory edges.
+ * The degree constraints are dualized and the multipliers are optimised by subgradient,
+ * they are kept from one call to the other.
+ * <br/>
+ * The lower bound of COST is updated with the best bound found,
+ * then the arcs whose replacement cost in the 1-tree exceeds the upper bound of COST are removed.
+ * <p/>
+ * The connectivity of the circuit is not ensured by this propagator, it should be used together with a circuit constraint.
+ * <p/>
+ * Based on "The traveling-salesman problem and minimum spanning trees", M. Held and R. M. Karp, Operations Research 1970,
+ * and "Improving the Held and Karp Approach with Constraint Programming", P. Benchimol, J.-C. R&eacute;gin,
+ * L.-M. Rousseau, M. Rueher and W.-J. van Hoeve, CPAIOR 2010.
+ */
+public class PropHeldKarp extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    // number of subgradient iterations on initial propagation, then on any other call
+    private static final int ROOT_ITERATIONS = 200, NODE_ITERATIONS = 20;
+    private static final double EPS = 1e-6;
+
+    private final int n, offset;
+    private final int[][] costMatrix;
+    private final IntVar cost;
+    // cost of each edge, the cheapest of the allowed arcs, +inf if none is allowed
+    private final double[][] w;
+    private final boolean[][] mandatory;
+    // Lagrangian multipliers
+    private final double[] pi, bestPi;
+    // 1-tree: parent of each node in the spanning tree over [1,n-1], and the two edges of node 0
+    private final int[] parent;
+    private int first, second;
+    private final int[] degree;
+    // Prim's algorithm
+    private final double[] key;
+    private final boolean[] keyMandatory, inTree;
+    // largest cost of a non-mandatory edge on the tree path from a given node
+    private final double[] maxOnPath;
+    // children lists of the spanning tree and a stack to traverse it
+    private final int[] stack, treeNext, treeHead;
+    private double step;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param succs      successor variables, must form a circuit
+     * @param offset     index of the first node
+     * @param cost       cost of the circuit
+     * @param costMatrix costMatrix[i][j] is the cost of arc (i,j)
+     */
+    public PropHeldKarp(IntVar[] succs, int offset, IntVar cost, int[][] costMatrix) {
+        super(ArrayUtils.append(succs, new IntVar[]{cost}), PropagatorPriority.VERY_SLOW, false);
+        this.n = succs.length;
+        this.offset = offset;
+        this.cost = vars[n];
+        this.costMatrix = costMatrix;
+        this.w = new double[n][n];
+        this.mandatory = new boolean[n][n];
+        this.pi = new double[n];
+        this.bestPi = new double[n];
+        this.parent = new int[n];
+        this.degree = new int[n];
+        this.key = new double[n];
+        this.keyMandatory = new boolean[n];
+        this.inTree = new boolean[n];
+        this.maxOnPath = new double[n];
+        this.stack = new int[n];
+        this.treeNext = new int[n];
+        this.treeHead = new int[n];
+        this.step = 2;
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (n < 3) {
+            // the relaxation is meaningless
+            return;
+        }
+        int iterations = NODE_ITERATIONS;
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < n; i++) {
+                vars[i].removeValue(i + offset, aCause);
+                vars[i].updateLowerBound(offset, aCause);
+                vars[i].updateUpperBound(n - 1 + offset, aCause);
+            }
+            iterations = ROOT_ITERATIONS;
+            step = 2;
+        }
+        buildGraph();
+        double best = subgradient(iterations);
+        cost.updateLowerBound((int) Math.ceil(best - EPS), aCause);
+        System.arraycopy(bestPi, 0, pi, 0, n);
+        double lb = oneTree();
+        filter(lb, cost.getUB());
+    }
+
+    /**
+     * Compute the cost of the edges from the domains of the successor variables
+     */
+    private void buildGraph() {
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(w[i], Double.POSITIVE_INFINITY);
+            Arrays.fill(mandatory[i], false);
+        }
+        for (int i = 0; i < n; i++) {
+            IntVar s = vars[i];
+            int ub = s.getUB();
+            for (int v = s.getLB(); v <= ub; v = s.nextValue(v)) {
+                int j = v - offset;
+                if (costMatrix[i][j] < w[i][j]) {
+                    w[i][j] = w[j][i] = costMatrix[i][j];
+                }
+            }
+            if (s.isInstantiated()) {
+                int j = s.getValue() - offset;
+                mandatory[i][j] = mandatory[j][i] = true;
+            }
+        }
+    }
+
+    /**
+     * Optimise the Lagrangian multipliers.
+     *
+     * @param iterations maximum number of iterations
+     * @return the best lower bound found, the multipliers are stored in bestPi
+     */
+    private double subgradient(int iterations) throws ContradictionException {
+        double best = Double.NEGATIVE_INFINITY;
+        double ub = cost.getUB();
+        int noImprovement = 0;
+        for (int it = 0; it < iterations; it++) {
+            double lb = oneTree();
+            if (lb > best + EPS) {
+                best = lb;
+                System.arraycopy(pi, 0, bestPi, 0, n);
+                noImprovement = 0;
+            } else if (++noImprovement % 5 == 0) {
+                step /= 2;
+            }
+            if (Math.ceil(best - EPS) > ub) {
+                contradiction(cost, "Held-Karp bound");
+            }
+            double norm = 0;
+            for (int i = 0; i < n; i++) {
+                norm += (degree[i] - 2) * (degree[i] - 2);
+            }
+            if (norm == 0) {
+                // the 1-tree is a circuit, the bound is optimal
+                break;
+            }
+            // target value: the upper bound, when it is not too far
+            double target = Math.min(ub, lb + Math.max(1, Math.abs(lb)) * 0.1);
+            double t = step * Math.max(target - lb, EPS) / norm;
+            for (int i = 0; i < n; i++) {
+                pi[i] += t * (degree[i] - 2);
+            }
+            if (step < 1e-6) {
+                break;
+            }
+        }
+        if (step < 1e-3) {
+            // let the next calls move the multipliers again
+            step = 1e-3;
+        }
+        return best;
+    }
+
+    // Lagrangian cost of edge {i,j}
+    private double cost(int i, int j) {
+        return w[i][j] + pi[i] + pi[j];
+    }
+
+    /**
+     * Compute a minimum 1-tree wrt the Lagrangian costs, containing all the mandatory edges when possible.
+     *
+     * @return the Lagrangian bound of the 1-tree
+     * @throws ContradictionException if there is no 1-tree
+     */
+    private double oneTree() throws ContradictionException {
+        Arrays.fill(degree, 0);
+        Arrays.fill(inTree, false);
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(keyMandatory, false);
+        double total = 0;
+        // Prim's algorithm over [1,n-1], mandatory edges first
+        key[1] = 0;
+        parent[1] = -1;
+        for (int k = 1; k < n; k++) {
+            int u = -1;
+            for (int j = 1; j < n; j++) {
+                if (!inTree[j] && (u == -1 || better(keyMandatory[j], key[j], keyMandatory[u], key[u]))) {
+                    u = j;
+                }
+            }
+            if (key[u] == Double.POSITIVE_INFINITY) {
+                contradiction(vars[u], "the graph is not connected");
+            }
+            inTree[u] = true;
+            if (parent[u] >= 0) {
+                total += key[u];
+                degree[u]++;
+                degree[parent[u]]++;
+            }
+            for (int j = 1; j < n; j++) {
+                if (!inTree[j] && w[u][j] < Double.POSITIVE_INFINITY) {
+                    double c = cost(u, j);
+                    if (better(mandatory[u][j], c, keyMandatory[j], key[j])) {
+                        key[j] = c;
+                        keyMandatory[j] = mandatory[u][j];
+                        parent[j] = u;
+                    }
+                }
+            }
+        }
+        // the two cheapest edges of node 0, mandatory edges first
+        first = second = -1;
+        for (int j = 1; j < n; j++) {
+            if (w[0][j] < Double.POSITIVE_INFINITY) {
+                if (first == -1 || better(mandatory[0][j], cost(0, j), mandatory[0][first], cost(0, first))) {
+                    second = first;
+                    first = j;
+                } else if (second == -1 || better(mandatory[0][j], cost(0, j), mandatory[0][second], cost(0, second))) {
+                    second = j;
+                }
+            }
+        }
+        if (second == -1) {
+            contradiction(vars[0], "the first node has less than two neighbours");
+        }
+        total += cost(0, first) + cost(0, second);
+        degree[0] = 2;
+        degree[first]++;
+        degree[second]++;
+        for (int i = 0; i < n; i++) {
+            total -= 2 * pi[i];
+        }
+        return total;
+    }
+
+    // mandatory edges are preferred, then the cheapest ones
+    private static boolean better(boolean m1, double c1, boolean m2, double c2) {
+        return m1 != m2 ? m1 : c1 < c2;
+    }
+
+    /**
+     * Remove the arcs whose cheapest 1-tree exceeds <i>ub</i>.
+     *
+     * @param lb the Lagrangian bound of the current 1-tree
+     * @param ub the upper bound of the cost
+     */
+    private void filter(double lb, double ub) throws ContradictionException {
+        // adjacency lists of the spanning tree
+        Arrays.fill(treeHead, -1);
+        for (int j = 1; j < n; j++) {
+            if (parent[j] >= 0) {
+                link(j, parent[j]);
+            }
+        }
+        for (int i = 1; i < n; i++) {
+            treeMaxFrom(i);
+            for (int j = i + 1; j < n; j++) {
+                if (w[i][j] < Double.POSITIVE_INFINITY) {
+                    if (parent[j] == i || parent[i] == j) {
+                        removeArc(i, j, lb, ub);
+                    } else if (maxOnPath[j] > Double.NEGATIVE_INFINITY) {
+                        // edge {i,j} replaces the most expensive non-mandatory edge of the tree path from i to j
+                        removeArc(i, j, lb + cost(i, j) - maxOnPath[j], ub);
+                    }
+                }
+            }
+        }
+        // edges of node 0
+        int worst = mandatory[0][second] ? (mandatory[0][first] ? -1 : first) : second;
+        for (int j = 1; j < n; j++) {
+            if (w[0][j] < Double.POSITIVE_INFINITY) {
+                if (j == first || j == second) {
+                    removeArc(0, j, lb, ub);
+                } else if (worst != -1) {
+                    removeArc(0, j, lb + cost(0, j) - cost(0, worst), ub);
+                }
+            }
+        }
+    }
+
+    private void link(int a, int b) {
+        treeNext[a] = treeHead[b];
+        treeHead[b] = a;
+    }
+
+    /**
+     * Compute, for each node j of the spanning tree, the largest Lagrangian cost of a non-mandatory edge
+     * on the tree path from <i>i</i> to <i>j</i>.
+     */
+    private void treeMaxFrom(int i) {
+        Arrays.fill(inTree, false);
+        int size = 0;
+        stack[size++] = i;
+        inTree[i] = true;
+        maxOnPath[i] = Double.NEGATIVE_INFINITY;
+        while (size > 0) {
+            int u = stack[--size];
+            int p = parent[u];
+            if (p >= 0 && !inTree[p]) {
+                visit(u, p);
+                stack[size++] = p;
+            }
+            for (int c = treeHead[u]; c >= 0; c = treeNext[c]) {
+                if (!inTree[c]) {
+                    visit(u, c);
+                    stack[size++] = c;
+                }
+            }
+        }
+    }
+
+    private void visit(int u, int v) {
+        inTree[v] = true;
+        maxOnPath[v] = mandatory[u][v] ? maxOnPath[u] : Math.max(maxOnPath[u], cost(u, v));
+    }
+
+    /**
+     * Remove the arcs (i,j) and (j,i) if their cost, added to the bound <i>r</i> of the cheapest 1-tree
+     * containing the edge {i,j}, exceeds <i>ub</i>.
+     */
+    private void removeArc(int i, int j, double r, double ub) throws ContradictionException {
+        if (!mandatory[i][j]) {
+            if (r + costMatrix[i][j] - w[i][j] > ub + EPS) {
+                vars[i].removeValue(j + offset, aCause);
+            }
+            if (r + costMatrix[j][i] - w[i][j] > ub + EPS) {
+                vars[j].removeValue(i + offset, aCause);
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += costMatrix[i][vars[i].getValue() - offset];
+            }
+            return ESat.eval(sum == cost.getValue());
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            IntVar[] aVars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                this.vars[i].duplicate(solver, identitymap);
+                aVars[i] = (IntVar) identitymap.get(this.vars[i]);
+            }
+            this.vars[n].duplicate(solver, identitymap);
+            IntVar aCost = (IntVar) identitymap.get(this.vars[n]);
+            identitymap.put(this, new PropHeldKarp(aVars, offset, aCost, costMatrix));
+        }
+    }
+}
@@ -28,8 +28,13 @@
  */
 package org.chocosolver.solver.constraints.nary.cnf;
 
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.tools.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -240,6 +245,185 @@ public class LogicTreeToolBox {
     }
 
 
+    // constant literals, and "no constant" result of normalize()
+    private static final int TRUE = -1, FALSE = -2, NONE = -3;
+
+    /**
+     * Adds <code>logOp</code> to the clause store of <code>solver</code> with a linear-size encoding (Tseitin):
+     * instead of distributing disjunctions over conjunctions, which may produce an exponential number of clauses,
+     * each nested sub-formula is replaced by an auxiliary boolean variable, defined by clauses.
+     * <br/>
+     * Nested operators which can be merged (after pushing negations down to the literals) are merged,
+     * the constants ONE and ZERO are folded and the top-level conjunctions and disjunctions are directly stated as clauses.
+     * Each sub-formula is defined as a conjunction of literals (a disjunction being the negation of the conjunction
+     * of the negated literals), and equivalent conjunctions are defined only once per solver.
+     * The definitions are equivalences, so an auxiliary variable is instantiated as soon as the variables of its sub-formula are.
+     * <br/>
+     * The tree is not modified.
+     *
+     * @param logOp  logical operator
+     * @param solver the solver
+     * @return false if the clause store is proven unsatisfiable
+     */
+    public static boolean toLinearCNF(LogOp logOp, Solver solver) {
+        PropSat sat = solver.getMinisat().getPropSat();
+        if (sat.definitions_ == null) {
+            sat.definitions_ = new TObjectIntHashMap<>();
+        }
+        return state(logOp, true, sat, solver);
+    }
+
+    /**
+     * Adds the clauses stating that <code>l</code> is equal to <code>value</code>
+     */
+    private static boolean state(ILogical l, boolean value, PropSat sat, Solver solver) {
+        if (!l.isLit()) {
+            LogOp n = (LogOp) l;
+            boolean v = value != n.isNot();
+            ILogical[] children = n.getChildren();
+            if (n.is(LogOp.Operator.AND) == v) {
+                // a conjunction: each child is stated
+                boolean ret = true;
+                for (int i = 0; i < children.length; i++) {
+                    ret &= state(children[i], v, sat, solver);
+                }
+                return ret;
+            }
+            // a disjunction: one clause
+            TIntList lits = new TIntArrayList(children.length);
+            for (int i = 0; i < children.length; i++) {
+                gather(children[i], v, false, lits, sat, solver);
+            }
+            switch (normalize(lits, false)) {
+                case TRUE:
+                    return true;
+                case FALSE:
+                    return sat.addEmptyClause();
+                default:
+                    return sat.addClause(lits);
+            }
+        }
+        int lit = literal((BoolVar) l, sat, solver);
+        if (!value) {
+            lit = negated(lit);
+        }
+        switch (lit) {
+            case TRUE:
+                return true;
+            case FALSE:
+                return sat.addEmptyClause();
+            default:
+                return sat.addClause(lit);
+        }
+    }
+
+    /**
+     * Adds to <code>lits</code> the literals of the conjunction (or disjunction) equal to <code>l</code> (or its negation),
+     * nested sub-formulas of the other kind are replaced by their auxiliary literals
+     */
+    private static void gather(ILogical l, boolean value, boolean conjunction, TIntList lits, PropSat sat, Solver solver) {
+        if (l.isLit()) {
+            int lit = literal((BoolVar) l, sat, solver);
+            lits.add(value ? lit : negated(lit));
+        } else {
+            LogOp n = (LogOp) l;
+            boolean v = value != n.isNot();
+            if ((n.is(LogOp.Operator.AND) == v) == conjunction) {
+                ILogical[] children = n.getChildren();
+                for (int i = 0; i < children.length; i++) {
+                    gather(children[i], v, conjunction, lits, sat, solver);
+                }
+            } else {
+                int lit = define(n, sat, solver);
+                lits.add(value ? lit : negated(lit));
+            }
+        }
+    }
+
+    /**
+     * Returns the literal equal to <code>n</code>, that is, the literal of an auxiliary variable,
+     * a literal of <code>n</code> or a constant when <code>n</code> is trivial
+     */
+    private static int define(LogOp n, PropSat sat, Solver solver) {
+        // a disjunction is the negation of the conjunction of the negated literals
+        boolean and = n.is(LogOp.Operator.AND);
+        ILogical[] children = n.getChildren();
+        TIntList lits = new TIntArrayList(children.length);
+        for (int i = 0; i < children.length; i++) {
+            gather(children[i], and, true, lits, sat, solver);
+        }
+        int lit;
+        int cst = normalize(lits, true);
+        if (cst != NONE) {
+            lit = cst;
+        } else if (lits.size() == 1) {
+            lit = lits.get(0);
+        } else {
+            String key = lits.toString();
+            if (sat.definitions_.containsKey(key)) {
+                lit = sat.definitions_.get(key);
+            } else {
+                lit = sat.Literal(VF.bool(StringUtils.randomName(), solver));
+                sat.definitions_.put(key, lit);
+                // lit <=> l_1 and ... and l_n
+                TIntList clause = new TIntArrayList(lits.size() + 1);
+                clause.add(lit);
+                for (int i = 0; i < lits.size(); i++) {
+                    sat.addClause(SatSolver.negated(lit), lits.get(i));
+                    clause.add(SatSolver.negated(lits.get(i)));
+                }
+                sat.addClause(clause);
+            }
+        }
+        return and != n.isNot() ? lit : negated(lit);
+    }
+
+    /**
+     * Sorts <code>lits</code>, seen as a conjunction (or a disjunction), removes duplicates and neutral constants.
+     * Returns the absorbing constant if the formula is trivial (including when it is empty), {@link #NONE} otherwise.
+     */
+    private static int normalize(TIntList lits, boolean conjunction) {
+        int absorbing = conjunction ? FALSE : TRUE;
+        lits.sort();
+        int j = 0;
+        for (int i = 0; i < lits.size(); i++) {
+            int lit = lits.get(i);
+            if (lit == absorbing || (j > 0 && lits.get(j - 1) == SatSolver.negated(lit))) {
+                return absorbing;
+            } else if (lit >= 0 && (j == 0 || lits.get(j - 1) != lit)) {
+                lits.set(j++, lit);
+            }
+        }
+        lits.remove(j, lits.size() - j);
+        if (j == 0) {
+            return conjunction ? TRUE : FALSE;
+        }
+        return NONE;
+    }
+
+    private static int literal(BoolVar var, PropSat sat, Solver solver) {
+        if (var.isNot()) {
+            return negated(literal(var.not(), sat, solver));
+        } else if (solver.ONE.equals(var)) {
+            return TRUE;
+        } else if (solver.ZERO.equals(var)) {
+            return FALSE;
+        }
+        return sat.Literal(var);
+    }
+
+    private static int negated(int lit) {
+        switch (lit) {
+            case TRUE:
+                return FALSE;
+            case FALSE:
+                return TRUE;
+            default:
+                return SatSolver.negated(lit);
+        }
+    }
+
+
     private static class LogicComparator implements Comparator<ILogical> {
 
         @Override
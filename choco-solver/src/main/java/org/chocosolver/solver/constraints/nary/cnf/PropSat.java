@@ -55,6 +55,9 @@ public class PropSat extends Propagator<BoolVar> {
 
     TIntList early_deductions_;
 
+    // literals of the auxiliary variables standing for conjunctions of literals, see LogicTreeToolBox.toLinearCNF
+    TObjectIntHashMap<String> definitions_;
+
     public PropSat(Solver solver) {
 		// this propagator initially has no variable
         super(new BoolVar[]{solver.ONE}, PropagatorPriority.VERY_SLOW, true);// adds solver.ONE to fit to the super constructor
@@ -73,7 +76,10 @@ public class PropSat extends Propagator<BoolVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-		sat_.initPropagator();
+		if (sat_.initPropagator()) {
+			// the clause store has been proven unsatisfiable when adding clauses
+			this.contradiction(null, "clause store unsat");
+		}
 		applyEarlyDeductions();
 		for (int i = 0; i < vars.length; ++i) {
 			BoolVar var = vars[i];
@@ -168,6 +168,17 @@ public class PropFastGCC extends Propagator<IntVar> {
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
+    @Override
+    public boolean reactToBatchedEvents() {
+        return true;
+    }
+
+    @Override
+    public void propagate(int[] varIndices, int[] masks, int nbEvts) throws ContradictionException {
+        // the lazy update does not depend on the modified variables
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
     private boolean filter() throws ContradictionException {
         boolean again = false;
         for (int i = valueToCompute.getFirstElement(); i >= 0; i = valueToCompute.getNextElement()) {
@@ -134,7 +134,7 @@ public class Nogood implements INogood {
                 if (!vars[k].isInstantiated()) {
                     wl[1] = wl[i];
                     wl[i] = idx;
-                    pngs.unwatch(vars[idx], this);
+                    // the store stops watching vars[idx] on return
                     pngs.watch(vars[wl[1]], this, wl[1]);
                     return -99;
                 }
@@ -71,7 +71,18 @@ public class NogoodStoreFromRestarts extends Constraint implements IMonitorResta
 	 * @param vars variables to build nogoods on
 	 */
     public NogoodStoreFromRestarts(IntVar[] vars) {
-        super("NogoodStoreFromRestarts",new PropNogoodStore(vars));
+        this(vars, Integer.MAX_VALUE);
+    }
+
+	/**
+	 * A constraint for the specific Nogood store designed to store ONLY positive decisions,
+	 * with a bounded number of nogoods: when <code>maxNogoods</code> is reached,
+	 * half of the non-unit nogoods are deleted, the longest and the oldest ones first.
+	 * @param vars variables to build nogoods on
+	 * @param maxNogoods maximum number of non-unit nogoods stored
+	 */
+    public NogoodStoreFromRestarts(IntVar[] vars, int maxNogoods) {
+        super("NogoodStoreFromRestarts",new PropNogoodStore(vars, maxNogoods));
 		png = (PropNogoodStore) propagators[0];
         decisions = new CircularQueue<>(16);
         nogoods = new CircularQueue<>(16);
@@ -28,9 +28,8 @@
  */
 package org.chocosolver.solver.constraints.nary.nogood;
 
-import gnu.trove.list.TIntList;
-import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TLongHashSet;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -41,11 +40,20 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A propagator for the specific Nogood store designed to store ONLY positive decisions.
  * <p/>
+ * Each nogood watches two of its literals (var = value): the nogood is only awaken when a watched literal becomes true.
+ * Watch lists are plain arrays, indexed by the position of the variable in the scope,
+ * a watch is removed in constant time by swapping it with the last one.
+ * <p/>
+ * The size of the store may be bounded: when the bound is reached, half of the non-unit nogoods are deleted,
+ * the longest ones first and, among nogoods of the same size, the oldest ones first.
+ * This should only be done when nogoods are redundant with the search, like nogoods recorded from restarts.
+ * <p/>
  * Related to "Nogood Recording from Restarts", C. Lecoutre et al.
  * <br/>
  *
@@ -54,24 +62,47 @@ import java.util.List;
  */
 public class PropNogoodStore extends Propagator<IntVar> {
 
+    // position of a variable in the scope, from its id
+    final TIntIntHashMap id2pos;
+    // maximum number of non-unit nogoods
+    final int maxNogoods;
     List<INogood> units;
     List<INogood> allnogoods;
-    TIntObjectHashMap<TIntList> vars2nogood;
-    TIntObjectHashMap<TIntList> vars2idxinng;
+    // literals forbidden by unit nogoods
+    TLongHashSet forbidden;
+    // watch lists, indexed by position of variables: nogoods watching a variable and index of the variable in them
+    INogood[][] wnogoods;
+    int[][] windices;
+    int[] wsizes;
     CircularQueue<IntVar> hasChanged;
 
     public PropNogoodStore(IntVar[] vars) {
+        this(vars, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param vars       variables to build nogoods on
+     * @param maxNogoods maximum number of non-unit nogoods stored, the store is reduced when it is reached
+     */
+    public PropNogoodStore(IntVar[] vars, int maxNogoods) {
         super(vars, PropagatorPriority.VERY_SLOW, true);
-        vars2nogood = new TIntObjectHashMap<>();
-        vars2idxinng = new TIntObjectHashMap<>();
+        this.maxNogoods = maxNogoods;
+        id2pos = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int i = 0; i < vars.length; i++) {
+            id2pos.put(vars[i].getId(), i);
+        }
         allnogoods = new ArrayList<>();
         units = new ArrayList<>();
+        forbidden = new TLongHashSet();
+        wnogoods = new INogood[vars.length][];
+        windices = new int[vars.length][];
+        wsizes = new int[vars.length];
         hasChanged = new CircularQueue<>(8);
     }
 
     @Override
     public boolean advise(int idxVarInProp, int mask) {
-        return super.advise(idxVarInProp, mask) && vars2nogood.get(vars[idxVarInProp].getId()) != null;
+        return super.advise(idxVarInProp, mask) && wsizes[idxVarInProp] > 0;
     }
 
     @Override
@@ -81,8 +112,8 @@ public class PropNogoodStore extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        for (INogood ng : allnogoods) {
-            ng.propagate(this);
+        for (int i = 0; i < allnogoods.size(); i++) {
+            allnogoods.get(i).propagate(this);
         }
     }
 
@@ -90,17 +121,39 @@ public class PropNogoodStore extends Propagator<IntVar> {
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         hasChanged.clear();
         hasChanged.addLast(vars[idxVarInProp]);
+        fixpoint();
+    }
+
+    @Override
+    public boolean reactToBatchedEvents() {
+        return true;
+    }
+
+    @Override
+    public void propagate(int[] idxVarsInProp, int[] masks, int nbEvts) throws ContradictionException {
+        hasChanged.clear();
+        for (int i = 0; i < nbEvts; i++) {
+            hasChanged.addLast(vars[idxVarsInProp[i]]);
+        }
+        fixpoint();
+    }
+
+    /**
+     * Awake the nogoods watching the instantiated variables, until no more variable is instantiated by the store
+     */
+    private void fixpoint() throws ContradictionException {
         while (!hasChanged.isEmpty()) {
-            IntVar var = hasChanged.pollFirst();
-            TIntList nogoods = vars2nogood.get(var.getId());
-            TIntList indices = vars2idxinng.get(var.getId());
-            for (int i = 0; i < nogoods.size(); i++) {
-                INogood ng = allnogoods.get(nogoods.get(i));
-                int idx = ng.awakeOnInst(indices.get(i), this);
+            int p = id2pos.get(hasChanged.pollFirst().getId());
+            if (p < 0) {
+                continue;
+            }
+            for (int i = 0; i < wsizes[p]; i++) {
+                INogood ng = wnogoods[p][i];
+                int idx = ng.awakeOnInst(windices[p][i], this);
                 if (idx > -1) {
                     hasChanged.addLast(ng.getVar(idx));
-                } else if (idx == -99) { // a call to unwatch has been done!
-                    i--;
+                } else if (idx == -99) { // the nogood watches another variable
+                    removeWatch(p, i--);
                 } else {
                     assert ng.isEntailed() != ESat.FALSE;
                 }
@@ -108,10 +161,9 @@ public class PropNogoodStore extends Propagator<IntVar> {
         }
     }
 
-
     public void unitPropagation() throws ContradictionException {
-        for (INogood ng : units) {
-            ng.propagate(this);
+        for (int i = 0; i < units.size(); i++) {
+            units.get(i).propagate(this);
         }
     }
 
@@ -134,11 +186,10 @@ public class PropNogoodStore extends Propagator<IntVar> {
             ValueRemoval vr = (ValueRemoval) d;
             IntVar var = (IntVar) vr.getVar();
             int val = vr.getVal();
-            TIntList nogoods = vars2nogood.get(var.getId());
-            TIntList indices = vars2idxinng.get(var.getId());
-            for (int i = 0; i < nogoods.size(); i++) {
-                INogood ng = allnogoods.get(nogoods.get(i));
-                int idx = indices.get(i);
+            int p = id2pos.get(var.getId());
+            for (int i = 0; p > -1 && i < wsizes[p]; i++) {
+                INogood ng = wnogoods[p][i];
+                int idx = windices[p][i];
                 if (val == ng.getVal(idx)) {
                     for (int j = 0; j < ng.size(); j++) {
                         if (ng.getVar(j) != var) {
@@ -158,8 +209,15 @@ public class PropNogoodStore extends Propagator<IntVar> {
     ///*****************************************************************************************************************
 
     public void addNogood(INogood ng) throws ContradictionException {
+        ng = minimize(ng);
+        if (ng == null) {
+            return;
+        }
         if (ng.isUnit()) {
             units.add(ng);
+            forbidden.add(literal(ng.getVar(0), ng.getVal(0)));
+        } else if (allnogoods.size() - units.size() >= maxNogoods) {
+            reduce();
         }
         int ngidx = allnogoods.size();
         allnogoods.add(ng);
@@ -169,46 +227,124 @@ public class PropNogoodStore extends Propagator<IntVar> {
         if (idx > -1) {
             hasChanged.addLast(ng.getVar(idx));
         }
-        while (!hasChanged.isEmpty()) {
-            IntVar var = hasChanged.pollFirst();
-            TIntList nogoods = vars2nogood.get(var.getId());
-            TIntList indices = vars2idxinng.get(var.getId());
-            for (int i = 0; i < nogoods.size(); i++) {
-                ng = allnogoods.get(nogoods.get(i));
-                idx = ng.awakeOnInst(indices.get(i), this);
-                if (idx > -1) {
-                    hasChanged.addLast(ng.getVar(idx));
-                } else {
-                    assert ng.isEntailed() != ESat.FALSE;
+        fixpoint();
+    }
+
+    /**
+     * Remove the repeated literals of <code>ng</code>.
+     *
+     * @return the minimized nogood, or null if <code>ng</code> can never be violated:
+     * it requires a variable to be equal to two values, or it contains a literal forbidden by a unit nogood.
+     */
+    private INogood minimize(INogood ng) {
+        int n = ng.size();
+        IntVar[] mvars = null;
+        int[] mvalues = null;
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            IntVar var = ng.getVar(i);
+            int val = ng.getVal(i);
+            if (forbidden.contains(literal(var, val))) {
+                return null;
+            }
+            boolean repeated = false;
+            for (int j = 0; j < i && !repeated; j++) {
+                if (ng.getVar(j) == var) {
+                    if (ng.getVal(j) != val) {
+                        return null;
+                    }
+                    repeated = true;
                 }
             }
+            if (repeated && mvars == null) {
+                mvars = new IntVar[n];
+                mvalues = new int[n];
+                for (int j = 0; j < i; j++) {
+                    mvars[j] = ng.getVar(j);
+                    mvalues[j] = ng.getVal(j);
+                }
+                m = i;
+            } else if (!repeated && mvars != null) {
+                mvars[m] = var;
+                mvalues[m++] = val;
+            }
+        }
+        if (mvars == null) {
+            return ng;
         }
+        return m == 1 ? new UnitNogood(mvars[0], mvalues[0]) : new Nogood(Arrays.copyOf(mvars, m), Arrays.copyOf(mvalues, m));
     }
 
-    public void watch(IntVar var, Nogood ng, int idxInNG) {
-        TIntList nogoods = vars2nogood.get(var.getId());
-        if (nogoods == null) {
-            nogoods = new TIntArrayList();
-            vars2nogood.put(var.getId(), nogoods);
+    /**
+     * Delete half of the non-unit nogoods, the longest and the oldest ones first
+     */
+    private void reduce() {
+        int n = allnogoods.size();
+        // keys of the non-unit nogoods: size first, age then (a lower index is an older nogood)
+        long[] keys = new long[n - units.size()];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            INogood ng = allnogoods.get(i);
+            if (!ng.isUnit()) {
+                keys[k++] = ((long) ng.size() << 32) | (Integer.MAX_VALUE - i);
+            }
+        }
+        Arrays.sort(keys);
+        // the nogoods to delete are marked with a negative index
+        for (int j = keys.length / 2; j < keys.length; j++) {
+            allnogoods.get(Integer.MAX_VALUE - (int) keys[j]).setIdx(-1);
+        }
+        List<INogood> kept = new ArrayList<>(n - keys.length + keys.length / 2);
+        for (int i = 0; i < n; i++) {
+            INogood ng = allnogoods.get(i);
+            if (ng.getIdx() > -1) {
+                ng.setIdx(kept.size());
+                kept.add(ng);
+            }
         }
-        nogoods.add(ng.getIdx());
-        TIntList indices = vars2idxinng.get(var.getId());
-        if (indices == null) {
-            indices = new TIntArrayList();
-            vars2idxinng.put(var.getId(), indices);
+        allnogoods = kept;
+        for (int p = 0; p < wsizes.length; p++) {
+            for (int i = 0; i < wsizes[p]; i++) {
+                if (wnogoods[p][i].getIdx() < 0) {
+                    removeWatch(p, i--);
+                }
+            }
         }
-        indices.add(idxInNG);
     }
 
-    public void unwatch(IntVar var, Nogood ng) {
-        TIntList nogoods = vars2nogood.get(var.getId());
-        if (nogoods != null) {
-            int ni = nogoods.indexOf(ng.getIdx());
-            if (ni > -1) {
-                nogoods.removeAt(ni);
-                TIntList indices = vars2idxinng.get(var.getId());
-                indices.removeAt(ni);
-            }
+    private static long literal(IntVar var, int value) {
+        return ((long) var.getId() << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    public void watch(IntVar var, INogood ng, int idxInNG) {
+        int p = id2pos.get(var.getId());
+        if (p < 0) {
+            return;
         }
+        int s = wsizes[p];
+        if (s == 0 && wnogoods[p] == null) {
+            wnogoods[p] = new INogood[4];
+            windices[p] = new int[4];
+        } else if (s == wnogoods[p].length) {
+            wnogoods[p] = Arrays.copyOf(wnogoods[p], s * 3 / 2 + 1);
+            windices[p] = Arrays.copyOf(windices[p], s * 3 / 2 + 1);
+        }
+        wnogoods[p][s] = ng;
+        windices[p][s] = idxInNG;
+        wsizes[p]++;
+    }
+
+    private void removeWatch(int p, int i) {
+        int last = --wsizes[p];
+        wnogoods[p][i] = wnogoods[p][last];
+        windices[p][i] = windices[p][last];
+        wnogoods[p][last] = null;
+    }
+
+    /**
+     * @return the number of nogoods in the store, unit ones included
+     */
+    public int getNbNogoods() {
+        return allnogoods.size();
     }
 }
@@ -137,6 +137,33 @@ public class PropBoolSumIncremental extends Propagator<IntVar> {
         filter();
     }
 
+    @Override
+    public boolean reactToBatchedEvents() {
+        return true;
+    }
+
+    @Override
+    public void propagate(int[] idxVarsInProp, int[] masks, int nbEvts) throws ContradictionException {
+        int ones = 0, zeros = 0;
+        for (int i = 0; i < nbEvts; i++) {
+            int idx = idxVarsInProp[i];
+            if (idx < n) {
+                if (vars[idx].getValue() == 1) {
+                    ones++;
+                } else {
+                    zeros++;
+                }
+            }
+        }
+        if (ones > 0) {
+            min.add(ones);
+        }
+        if (zeros > 0) {
+            max.add(-zeros);
+        }
+        filter();
+    }
+
     @Override
     public int getPropagationConditions(int vIdx) {
         if (vIdx == n)
@@ -71,7 +71,11 @@ public class PropScalarEq extends Propagator<IntVar> {
     }
 
     public PropScalarEq(IntVar[] variables, int[] coeffs, int pos, int b) {
-        super(variables, computePriority(variables.length), false);
+        this(variables, coeffs, pos, b, false);
+    }
+
+    protected PropScalarEq(IntVar[] variables, int[] coeffs, int pos, int b, boolean reactToFineEvt) {
+        super(variables, computePriority(variables.length), reactToFineEvt);
         this.c = coeffs;
         this.pos = pos;
         l = variables.length;
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * An incremental propagator for SUM(c_i.x_i) = b, dedicated to long linear equations.
+ * <br/>
+ * The minimal and maximal contributions of each variable, their sums and an upper bound of the variability
+ * of the variables are maintained in reversible structures.
+ * A bound event updates the sums in O(1).
+ * The filtering algorithm of {@link PropScalarEq}, in O(n), is only run when the slack becomes tight, that is,
+ * when the variability of a variable may exceed the distance between <i>b</i> and one of the sums.
+ */
+public class PropScalarEqIncremental extends PropScalarEq {
+
+    final IStateIntVector mins, maxs; // minimal and maximal contributions of each variable, as of the last update
+    final IStateInt rSumLB, rSumUB; // sum of minimal contributions, and sum of maximal contributions
+    final IStateInt maxI; // upper bound of the variability of the variables
+
+    public PropScalarEqIncremental(IntVar[] variables, int[] coeffs, int pos, int b) {
+        super(variables, coeffs, pos, b, true);
+        IEnvironment environment = solver.getEnvironment();
+        mins = environment.makeIntVector(l, 0);
+        maxs = environment.makeIntVector(l, 0);
+        rSumLB = environment.makeInt(0);
+        rSumUB = environment.makeInt(0);
+        maxI = environment.makeInt(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        filter(true, 2);
+        store();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        shift(idxVarInProp);
+        check();
+    }
+
+    @Override
+    public boolean reactToBatchedEvents() {
+        return true;
+    }
+
+    @Override
+    public void propagate(int[] idxVarsInProp, int[] masks, int nbEvts) throws ContradictionException {
+        // the sums are updated for all the modified variables before checking the slack once
+        for (int i = 0; i < nbEvts; i++) {
+            shift(idxVarsInProp[i]);
+        }
+        check();
+    }
+
+    /**
+     * Update the sums wrt the current contribution of the i^th variable.
+     */
+    private void shift(int i) {
+        int lb, ub;
+        if (i < pos) {
+            lb = vars[i].getLB() * c[i];
+            ub = vars[i].getUB() * c[i];
+        } else {
+            lb = vars[i].getUB() * c[i];
+            ub = vars[i].getLB() * c[i];
+        }
+        rSumLB.add(lb - mins.quickGet(i));
+        rSumUB.add(ub - maxs.quickGet(i));
+        mins.quickSet(i, lb);
+        maxs.quickSet(i, ub);
+    }
+
+    /**
+     * Fail if the sums cannot reach b, run the filtering algorithm if the slack is tight.
+     */
+    private void check() throws ContradictionException {
+        int slb = rSumLB.get();
+        int sub = rSumUB.get();
+        if (slb > b) {
+            this.contradiction(null, "b - sumLB < 0");
+        } else if (sub < b) {
+            this.contradiction(null, "b - sumUB > 0");
+        }
+        int amp = maxI.get();
+        if (amp > b - slb || amp > sub - b) {
+            // the slack is tight: some bounds may be filtered
+            filter(true, 2);
+            store();
+        }
+    }
+
+    /**
+     * Record the current contributions of the variables, their sums and their maximal variability.
+     */
+    private void store() {
+        int f = 0, e = 0, m = 0, i = 0;
+        int lb, ub;
+        for (; i < pos; i++) { // first the positive coefficients
+            lb = vars[i].getLB() * c[i];
+            ub = vars[i].getUB() * c[i];
+            update(i, lb, ub);
+            f += lb;
+            e += ub;
+            m = Math.max(m, ub - lb);
+        }
+        for (; i < l; i++) { // then the negative ones
+            lb = vars[i].getUB() * c[i];
+            ub = vars[i].getLB() * c[i];
+            update(i, lb, ub);
+            f += lb;
+            e += ub;
+            m = Math.max(m, ub - lb);
+        }
+        rSumLB.set(f);
+        rSumUB.set(e);
+        maxI.set(m);
+    }
+
+    private void update(int i, int lb, int ub) {
+        // only modified entries are trailed
+        if (mins.quickGet(i) != lb) {
+            mins.quickSet(i, lb);
+        }
+        if (maxs.quickGet(i) != ub) {
+            maxs.quickSet(i, ub);
+        }
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            int size = this.vars.length;
+            IntVar[] aVars = new IntVar[size];
+            for (int i = 0; i < size; i++) {
+                this.vars[i].duplicate(solver, identitymap);
+                aVars[i] = (IntVar) identitymap.get(this.vars[i]);
+            }
+            identitymap.put(this, new PropScalarEqIncremental(aVars, this.c, this.pos, this.b));
+        }
+    }
+}
@@ -28,7 +28,8 @@
  */
 package org.chocosolver.solver.constraints.nary.sum;
 
-import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.variables.IntVar;
@@ -74,29 +75,53 @@ public class Scalar extends Constraint {
 	////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 	private static Propagator<IntVar> makeProp(IntVar[] vars, int[] coeffs, int result) {
-		// aggregate multiple variable occurrences
-		TObjectIntHashMap<IntVar> map = new TObjectIntHashMap<>();
+		// with presolve on, variables instantiated at root world are folded into the result, as long as one variable remains;
+		// deeper in the search tree, their values would not be restored on backtrack
+		boolean fold = false;
+		Solver solver = vars[0].getSolver();
+		boolean root = solver.getSettings().enablePresolve() && solver.getEnvironment().getWorldIndex() == 0;
+		for (int i = 0; i < vars.length && root && !fold; i++) {
+			fold = !vars[i].isInstantiated() && coeffs[i] != 0;
+		}
+		// aggregate multiple variable occurrences, variables being identified by their id
+		TIntIntHashMap map = new TIntIntHashMap(vars.length, .5f, -1, -1);
+		IntVar[] aggV = new IntVar[vars.length];
+		int[] aggC = new int[vars.length];
+		int k = 0;
 		for (int i = 0; i < vars.length; i++) {
-			map.adjustOrPutValue(vars[i], coeffs[i], coeffs[i]);
-			if (map.get(vars[i]) == 0) {
-				map.remove(vars[i]);
+			if (fold && vars[i].isInstantiated()) {
+				result -= coeffs[i] * vars[i].getValue();
+				continue;
+			}
+			int p = map.putIfAbsent(vars[i].getId(), k);
+			if (p == -1) {
+				aggV[k] = vars[i];
+				aggC[k++] = coeffs[i];
+			} else {
+				aggC[p] += coeffs[i];
+			}
+		}
+		// to fix determinism in the construction, variables are kept in order of first occurrence
+		int e = 0;
+		for (int i = 0; i < k; i++) {
+			if (aggC[i] != 0) {
+				e++;
 			}
 		}
-		// to fix determinism in the construction, we iterate over the original array of variables
-		int b = 0, e = map.size();
+		int b = 0;
 		IntVar[] tmpV = new IntVar[e];
 		int[] tmpC = new int[e];
-		for (int i = 0; i < vars.length; i++) {
-			IntVar key = vars[i];
-			int coeff = map.get(key);
-			if (coeff > 0) {
-				tmpV[b] = key;
-				tmpC[b++] = coeff;
-			} else if (coeff < 0) {
-				tmpV[--e] = key;
-				tmpC[e] = coeff;
+		for (int i = 0; i < k; i++) {
+			if (aggC[i] > 0) {
+				tmpV[b] = aggV[i];
+				tmpC[b++] = aggC[i];
+			} else if (aggC[i] < 0) {
+				tmpV[--e] = aggV[i];
+				tmpC[e] = aggC[i];
 			}
-			map.adjustValue(key, -coeff); // to avoid multiple occurrence of the variable
+		}
+		if (tmpV.length >= solver.getSettings().getMinSizeForIncrementalLinearEq()) {
+			return new PropScalarEqIncremental(tmpV, tmpC, b, result);
 		}
 		return new PropScalarEq(tmpV, tmpC, b, result);
 	}
@@ -31,6 +31,7 @@ package org.chocosolver.solver.constraints.nary.sum;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -39,6 +40,8 @@ import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.chocosolver.util.tools.StringUtils;
 
+import java.util.Arrays;
+
 import static org.chocosolver.solver.constraints.IntConstraintFactory.*;
 
 /**
@@ -77,7 +80,7 @@ public class ScalarFactory {
                 return sum(bvars, OPERATOR, SUM);
             }
             if (OPERATOR.equals("=")) {
-                return new Constraint("Sum", new PropSumEq(VARS, SUM));
+                return new Constraint("Sum", makeSumEq(VARS, SUM));
             }
             int lb = 0;
             int ub = 0;
@@ -86,12 +89,25 @@ public class ScalarFactory {
                 ub += v.getUB();
             }
             IntVar p = VF.bounded(StringUtils.randomName(), lb, ub, SUM.getSolver());
-            SUM.getSolver().post(new Constraint("Sum", new PropSumEq(VARS, p)));
+            SUM.getSolver().post(new Constraint("Sum", makeSumEq(VARS, p)));
             return arithm(p, OPERATOR, SUM);
         }
     }
 
 
+    /**
+     * Build a propagator for SUM(VARS) = SUM, incremental for long sums.
+     */
+    private static Propagator<IntVar> makeSumEq(IntVar[] VARS, IntVar SUM) {
+        if (VARS.length + 1 >= SUM.getSolver().getSettings().getMinSizeForIncrementalLinearEq()) {
+            int[] coeffs = new int[VARS.length + 1];
+            Arrays.fill(coeffs, 1);
+            coeffs[VARS.length] = -1;
+            return new PropScalarEqIncremental(ArrayUtils.append(VARS, new IntVar[]{SUM}), coeffs, VARS.length, 0);
+        }
+        return new PropSumEq(VARS, SUM);
+    }
+
     public static Constraint reduce(IntVar[] VARS, int[] COEFFS, String OPERATOR, IntVar SCALAR) {
         // detect unaries and binaries
         if (VARS.length == 0) {
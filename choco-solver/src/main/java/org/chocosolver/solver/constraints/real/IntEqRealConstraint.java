@@ -101,7 +101,11 @@ public class IntEqRealConstraint extends Constraint {
                 realVar.updateBounds((double) intVar.getLB() - epsilon, (double) intVar.getUB() + epsilon, aCause);
                 intVar.updateLowerBound((int) Math.ceil(realVar.getLB() - epsilon), aCause);
                 intVar.updateUpperBound((int) Math.floor(realVar.getUB() + epsilon), aCause);
-                if (intVar.hasEnumeratedDomain()) {
+                // the rounded bounds (or the holes) of intVar are not notified back to this
+                if (intVar.isInstantiated() && realVar.getLB() <= intVar.getValue() && intVar.getValue() <= realVar.getUB()) {
+                    // like a view, realVar is then equal to intVar
+                    realVar.updateBounds(intVar.getValue(), intVar.getValue(), aCause);
+                } else {
                     realVar.updateBounds((double) intVar.getLB() - epsilon, (double) intVar.getUB() + epsilon, aCause);
                 }
             }
@@ -117,7 +121,7 @@ public class IntEqRealConstraint extends Constraint {
                 if ((realVar.getLB() < (double) intVar.getLB() - epsilon) || (realVar.getUB() > (double) intVar.getUB() + epsilon)) {
                     return ESat.FALSE;
                 }
-                if (!(intVar.isInstantiated() && realVar.isInstantiated())) {
+                if (!intVar.isInstantiated()) {
                     allInst = false;
                 }
             }
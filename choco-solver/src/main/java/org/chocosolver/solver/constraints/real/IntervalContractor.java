@@ -0,0 +1,789 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.chocosolver.solver.exception.SolverException;
+
+import java.util.Arrays;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+
+/**
+ * A contractor for continuous functions, run in the JVM: an alternative to IBEX which does not need the native library.
+ * <p>
+ * The functions, declared with the syntax of IBEX (see {@link RealFunctionParser}), are parsed into a single DAG of
+ * expressions, common sub-expressions being shared and constant sub-expressions folded.
+ * Each relation <i>f &lt;op&gt; g</i> is stated as <i>f - g &lt;op&gt; 0</i>.
+ * The nodes are evaluated with interval arithmetic, all the bounds being rounded outward, so no solution is lost.
+ * <p>
+ * HC4: the DAG is evaluated bottom-up (forward evaluation), the image of each relation is intersected with its root,
+ * then the domains are projected top-down onto the children (HC4-revise, backward projection),
+ * until no domain of a variable is significantly reduced (see {@link Ibex#RATIO}).
+ * With {@link Ibex#COMPO} and {@link Ibex#HC4_NEWTON}, HC4 is followed by a shaving of the bounds of the variables:
+ * slices at the bounds of a domain are removed as long as HC4 proves them infeasible,
+ * which achieves a box-like consistency without derivatives.
+ * <p>
+ * sin, cos and tan are only evaluated forward: they do not narrow their argument.
+ * A strict inequality is propagated as a non-strict one.
+ * <p>
+ * The domains are given as an array of bounds: <code>{lb_0, ub_0, lb_1, ub_1, ...}</code>, like with IBEX.
+ */
+public class IntervalContractor {
+
+    // types of node
+    static final int CST = 0, VAR = 1, ADD = 2, SUB = 3, MUL = 4, DIV = 5, NEG = 6, POW = 7, SQRT = 8, EXP = 9,
+            LN = 10, ABS = 11, MIN = 12, MAX = 13, SIN = 14, COS = 15, TAN = 16, ATAN = 17;
+
+    // relations, f rel 0
+    static final int EQ = 0, LEQ = 1, GEQ = 2;
+
+    // maximum number of forward-backward passes of HC4
+    private static final int MAX_PASSES = 100;
+
+    private static final double TWO_PI = 2 * Math.PI;
+
+    private final int nbVars;
+    private final int option;
+    private final double[] precisions; // precision of each variable, null if none
+
+    // the DAG: nodes are sorted in topological order, children before parents
+    private int size;
+    private int[] ops, left, right, params; // params: index of a variable or exponent
+    private double[] cstLo, cstHi; // value of the constants
+    private double[] lo, hi; // current domains of the nodes
+    private final TObjectIntHashMap<String> keys; // to share common sub-expressions
+
+    private int nbRels;
+    private int[] roots, rels;
+
+    private final int[] varNodes; // node of each variable, -1 if it does not appear in the functions
+
+    private double tmpLo, tmpHi; // result of a multiplication or a division
+    private final double[] initial, slice;
+
+    /**
+     * Create a contractor for one or more continuous functions, separated with semi-colon ";"
+     *
+     * @param nbVars    number of variables
+     * @param functions list of functions, separated by a semi-colon, variables are declared with '{i}'
+     * @param option    propagation option: {@link Ibex#HC4}, {@link Ibex#COMPO} or {@link Ibex#HC4_NEWTON}
+     * @throws SolverException if the functions cannot be parsed
+     */
+    public IntervalContractor(int nbVars, String functions, int option) {
+        this(nbVars, functions, option, null);
+    }
+
+    /**
+     * Create a contractor for one or more continuous functions, separated with semi-colon ";".
+     * Like in IBEX, a box which is not refuted and whose domains are no wider than the precisions
+     * of the variables is considered as satisfying the functions.
+     *
+     * @param nbVars     number of variables
+     * @param functions  list of functions, separated by a semi-colon, variables are declared with '{i}'
+     * @param option     propagation option: {@link Ibex#HC4}, {@link Ibex#COMPO} or {@link Ibex#HC4_NEWTON}
+     * @param precisions precision of each variable, or null
+     * @throws SolverException if the functions cannot be parsed
+     */
+    public IntervalContractor(int nbVars, String functions, int option, double[] precisions) {
+        assert precisions == null || precisions.length == nbVars;
+        this.nbVars = nbVars;
+        this.option = option;
+        this.precisions = precisions;
+        this.ops = new int[16];
+        this.left = new int[16];
+        this.right = new int[16];
+        this.params = new int[16];
+        this.cstLo = new double[16];
+        this.cstHi = new double[16];
+        this.lo = new double[16];
+        this.hi = new double[16];
+        this.keys = new TObjectIntHashMap<>(16, .5f, -1);
+        this.roots = new int[4];
+        this.rels = new int[4];
+        this.varNodes = new int[nbVars];
+        Arrays.fill(varNodes, -1);
+        this.initial = new double[2 * nbVars];
+        this.slice = new double[2 * nbVars];
+        new RealFunctionParser(this, functions, nbVars).parse();
+    }
+
+    //***********************************************************************************
+    // CONTRACTION
+    //***********************************************************************************
+
+    /**
+     * Contract the domains of the variables.
+     *
+     * @param bounds the domains of the variables, <code>{lb_0, ub_0, lb_1, ub_1, ...}</code>, contracted in place
+     * @return {@link Ibex#FAIL} if there is no solution in the box,
+     * {@link Ibex#ENTAILED} if the (contracted) box only contains solutions, or is no wider than the precisions,
+     * {@link Ibex#CONTRACT} if a domain has been significantly reduced,
+     * {@link Ibex#NOTHING} otherwise
+     */
+    public int contract(double[] bounds) {
+        assert bounds.length == 2 * nbVars;
+        System.arraycopy(bounds, 0, initial, 0, bounds.length);
+        if (!hc4(bounds)) {
+            return Ibex.FAIL;
+        }
+        if (option != Ibex.HC4 && !shave(bounds)) {
+            return Ibex.FAIL;
+        }
+        if (entailed(bounds) || tight(bounds)) {
+            return Ibex.ENTAILED;
+        }
+        for (int v = 0; v < nbVars; v++) {
+            if (significant(initial[2 * v], initial[2 * v + 1], bounds[2 * v], bounds[2 * v + 1])) {
+                return Ibex.CONTRACT;
+            }
+        }
+        return Ibex.NOTHING;
+    }
+
+    /**
+     * Run forward-backward passes until a fixpoint, or until no domain is significantly reduced.
+     *
+     * @return false if the box is proven to be empty
+     */
+    private boolean hc4(double[] b) {
+        for (int p = 0; p < MAX_PASSES; p++) {
+            for (int i = 0; i < size; i++) {
+                if (!forward(i, b)) {
+                    return false;
+                }
+            }
+            for (int r = 0; r < nbRels; r++) {
+                if (!narrow(roots[r], rels[r] == LEQ ? NEGATIVE_INFINITY : 0, rels[r] == GEQ ? POSITIVE_INFINITY : 0)) {
+                    return false;
+                }
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                if (!backward(i)) {
+                    return false;
+                }
+            }
+            boolean again = false;
+            for (int v = 0; v < nbVars; v++) {
+                int n = varNodes[v];
+                if (n > -1) {
+                    again |= significant(b[2 * v], b[2 * v + 1], lo[n], hi[n]);
+                    b[2 * v] = lo[n];
+                    b[2 * v + 1] = hi[n];
+                }
+            }
+            if (!again) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove slices at the bounds of the domains as long as HC4 proves them infeasible.
+     *
+     * @return false if the box is proven to be empty
+     */
+    private boolean shave(double[] b) {
+        boolean modified = false;
+        for (int v = 0; v < nbVars; v++) {
+            if (varNodes[v] > -1) {
+                double l = b[2 * v], h = b[2 * v + 1];
+                if (!shave(b, v, true) || !shave(b, v, false)) {
+                    return false;
+                }
+                modified |= l != b[2 * v] || h != b[2 * v + 1];
+            }
+        }
+        // the shaved bounds may reduce the other domains
+        return !modified || hc4(b);
+    }
+
+    private boolean shave(double[] b, int v, boolean lower) {
+        double width = b[2 * v + 1] - b[2 * v];
+        if (!(width < POSITIVE_INFINITY) || width == 0 || precisions != null && width <= precisions[v]) {
+            return true;
+        }
+        double min = width * Ibex.RATIO;
+        double w = width / 4;
+        while (w >= min && b[2 * v] < b[2 * v + 1]) {
+            double l = b[2 * v], h = b[2 * v + 1];
+            System.arraycopy(b, 0, slice, 0, b.length);
+            if (lower) {
+                slice[2 * v + 1] = Math.min(h, l + w);
+            } else {
+                slice[2 * v] = Math.max(l, h - w);
+            }
+            if (hc4(slice)) {
+                // the contracted bound of the slice is a bound of the domain
+                if (lower) {
+                    b[2 * v] = slice[2 * v];
+                } else {
+                    b[2 * v + 1] = slice[2 * v + 1];
+                }
+                w /= 2;
+            } else if (lower) {
+                if (l + w >= h) {
+                    return false;
+                }
+                if (l + w == l) {
+                    // the slice is thinner than the floating-point spacing
+                    break;
+                }
+                b[2 * v] = l + w;
+            } else {
+                if (h - w <= l) {
+                    return false;
+                }
+                if (h - w == h) {
+                    break;
+                }
+                b[2 * v + 1] = h - w;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if every point of the box satisfies all the relations
+     */
+    private boolean entailed(double[] b) {
+        for (int i = 0; i < size; i++) {
+            if (!forward(i, b)) {
+                return false;
+            }
+        }
+        for (int r = 0; r < nbRels; r++) {
+            int n = roots[r];
+            switch (rels[r]) {
+                case EQ:
+                    if (lo[n] != 0 || hi[n] != 0) {
+                        return false;
+                    }
+                    break;
+                case LEQ:
+                    if (hi[n] > 0) {
+                        return false;
+                    }
+                    break;
+                case GEQ:
+                    if (lo[n] < 0) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if no domain of the box is wider than the precision of its variable
+     */
+    private boolean tight(double[] b) {
+        if (precisions == null) {
+            return false;
+        }
+        for (int v = 0; v < nbVars; v++) {
+            if (b[2 * v + 1] - b[2 * v] > precisions[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if [nl,nh] is significantly smaller than [ol,oh]
+     */
+    private static boolean significant(double ol, double oh, double nl, double nh) {
+        double ow = oh - ol;
+        if (!(ow < POSITIVE_INFINITY)) {
+            return ol == NEGATIVE_INFINITY && nl > NEGATIVE_INFINITY || oh == POSITIVE_INFINITY && nh < POSITIVE_INFINITY;
+        }
+        return ow - (nh - nl) > Ibex.RATIO * ow;
+    }
+
+    //***********************************************************************************
+    // FORWARD EVALUATION
+    //***********************************************************************************
+
+    /**
+     * Evaluate the i^th node from its children
+     *
+     * @return false if its domain is empty
+     */
+    private boolean forward(int i, double[] b) {
+        int l = left[i], r = right[i];
+        switch (ops[i]) {
+            case CST:
+                return set(i, cstLo[i], cstHi[i]);
+            case VAR:
+                return set(i, b[2 * params[i]], b[2 * params[i] + 1]);
+            case ADD:
+                return set(i, addDn(lo[l], lo[r]), addUp(hi[l], hi[r]));
+            case SUB:
+                return set(i, addDn(lo[l], -hi[r]), addUp(hi[l], -lo[r]));
+            case NEG:
+                return set(i, -hi[l], -lo[l]);
+            case MUL:
+                mul(lo[l], hi[l], lo[r], hi[r]);
+                return set(i, tmpLo, tmpHi);
+            case DIV:
+                return div(lo[l], hi[l], lo[r], hi[r]) && set(i, tmpLo, tmpHi);
+            case POW:
+                return pow(i, lo[l], hi[l], params[i]);
+            case SQRT:
+                return hi[l] >= 0 && set(i, lo[l] <= 0 ? 0 : dn(Math.sqrt(lo[l])), up(Math.sqrt(hi[l])));
+            case EXP:
+                return set(i, Math.max(0, dn2(Math.exp(lo[l]))), up2(Math.exp(hi[l])));
+            case LN:
+                return hi[l] > 0 && set(i, lo[l] <= 0 ? NEGATIVE_INFINITY : dn2(Math.log(lo[l])), up2(Math.log(hi[l])));
+            case ABS:
+                if (lo[l] >= 0) {
+                    return set(i, lo[l], hi[l]);
+                } else if (hi[l] <= 0) {
+                    return set(i, -hi[l], -lo[l]);
+                }
+                return set(i, 0, Math.max(-lo[l], hi[l]));
+            case MIN:
+                return set(i, Math.min(lo[l], lo[r]), Math.min(hi[l], hi[r]));
+            case MAX:
+                return set(i, Math.max(lo[l], lo[r]), Math.max(hi[l], hi[r]));
+            case SIN:
+                // maxima at pi/2 + 2k.pi, minima at -pi/2 + 2k.pi
+                return trig(i, lo[l], hi[l], Math.sin(lo[l]), Math.sin(hi[l]), Math.PI / 2, -Math.PI / 2);
+            case COS:
+                // maxima at 2k.pi, minima at pi + 2k.pi
+                return trig(i, lo[l], hi[l], Math.cos(lo[l]), Math.cos(hi[l]), 0, Math.PI);
+            case TAN:
+                if (!(hi[l] - lo[l] < Math.PI) || contains(lo[l], hi[l], Math.PI / 2, Math.PI)) {
+                    return set(i, NEGATIVE_INFINITY, POSITIVE_INFINITY);
+                }
+                return set(i, dn2(Math.tan(lo[l])), up2(Math.tan(hi[l])));
+            case ATAN:
+                return set(i, Math.max(-up(Math.PI / 2), dn2(Math.atan(lo[l]))), Math.min(up(Math.PI / 2), up2(Math.atan(hi[l]))));
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    private boolean pow(int i, double a, double c, int n) {
+        if (n % 2 != 0) {
+            return set(i, dn2(Math.pow(a, n)), up2(Math.pow(c, n)));
+        } else if (a >= 0) {
+            return set(i, Math.max(0, dn2(Math.pow(a, n))), up2(Math.pow(c, n)));
+        } else if (c <= 0) {
+            return set(i, Math.max(0, dn2(Math.pow(-c, n))), up2(Math.pow(-a, n)));
+        }
+        return set(i, 0, up2(Math.pow(Math.max(-a, c), n)));
+    }
+
+    /**
+     * Range of a periodic function (of period 2.pi) over [a,c], given its values at a and c
+     * and the positions of its maxima and minima, modulo 2.pi.
+     */
+    private boolean trig(int i, double a, double c, double fa, double fc, double maxima, double minima) {
+        if (!(c - a < TWO_PI)) {
+            return set(i, -1, 1);
+        }
+        double l = contains(a, c, minima, TWO_PI) ? -1 : Math.max(-1, dn2(Math.min(fa, fc)));
+        double h = contains(a, c, maxima, TWO_PI) ? 1 : Math.min(1, up2(Math.max(fa, fc)));
+        return set(i, l, h);
+    }
+
+    /**
+     * @return true if offset + k.period may belong to [a,c], for some integer k, with a - c < period
+     */
+    private static boolean contains(double a, double c, double offset, double period) {
+        // a slack covers the rounding errors on the multiples of pi
+        double eps = 1e-9 * (1 + Math.abs(a) + Math.abs(c));
+        double k = Math.floor((a - offset) / period);
+        for (int j = -1; j <= 1; j++) {
+            double x = offset + (k + j) * period;
+            if (x >= a - eps && x <= c + eps) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // BACKWARD PROJECTION
+    //***********************************************************************************
+
+    /**
+     * Project the domain of the i^th node onto its children
+     *
+     * @return false if a domain becomes empty
+     */
+    private boolean backward(int i) {
+        int l = left[i], r = right[i];
+        double zl = lo[i], zh = hi[i];
+        switch (ops[i]) {
+            case ADD: // x = z - y, y = z - x
+                return narrow(l, addDn(zl, -hi[r]), addUp(zh, -lo[r]))
+                        && narrow(r, addDn(zl, -hi[l]), addUp(zh, -lo[l]));
+            case SUB: // x = z + y, y = x - z
+                return narrow(l, addDn(zl, lo[r]), addUp(zh, hi[r]))
+                        && narrow(r, addDn(lo[l], -zh), addUp(hi[l], -zl));
+            case NEG:
+                return narrow(l, -zh, -zl);
+            case MUL: // x = z / y, y = z / x
+                return divNarrow(l, zl, zh, lo[r], hi[r]) && divNarrow(r, zl, zh, lo[l], hi[l]);
+            case DIV: // x = z * y, y = x / z
+                mul(zl, zh, lo[r], hi[r]);
+                return narrow(l, tmpLo, tmpHi) && divNarrow(r, lo[l], hi[l], zl, zh);
+            case POW:
+                if (params[i] % 2 != 0) {
+                    return narrow(l, zl < 0 ? -rootUp(-zl, params[i]) : rootDn(zl, params[i]),
+                            zh < 0 ? -rootDn(-zh, params[i]) : rootUp(zh, params[i]));
+                }
+                return zh >= 0 && symmetricNarrow(l, rootDn(Math.max(0, zl), params[i]), rootUp(zh, params[i]));
+            case SQRT: // x = z^2, z >= 0
+                return zh >= 0 && narrow(l, mulDn(Math.max(0, zl), Math.max(0, zl)), mulUp(zh, zh));
+            case EXP:
+                return zh > 0 && narrow(l, zl <= 0 ? NEGATIVE_INFINITY : dn2(Math.log(zl)), up2(Math.log(zh)));
+            case LN:
+                return narrow(l, Math.max(0, dn2(Math.exp(zl))), up2(Math.exp(zh)));
+            case ABS:
+                return zh >= 0 && symmetricNarrow(l, Math.max(0, zl), zh);
+            case MIN: // x >= z, y >= z, and x <= z if y > z
+                if (!narrow(l, zl, POSITIVE_INFINITY) || !narrow(r, zl, POSITIVE_INFINITY)) {
+                    return false;
+                }
+                if (lo[r] > zh && !narrow(l, NEGATIVE_INFINITY, zh)) {
+                    return false;
+                }
+                return lo[l] <= zh || narrow(r, NEGATIVE_INFINITY, zh);
+            case MAX: // x <= z, y <= z, and x >= z if y < z
+                if (!narrow(l, NEGATIVE_INFINITY, zh) || !narrow(r, NEGATIVE_INFINITY, zh)) {
+                    return false;
+                }
+                if (hi[r] < zl && !narrow(l, zl, POSITIVE_INFINITY)) {
+                    return false;
+                }
+                return hi[l] >= zl || narrow(r, zl, POSITIVE_INFINITY);
+            case ATAN:
+                return narrow(l, zl > -Math.PI / 2 ? dn2(Math.tan(zl)) : NEGATIVE_INFINITY,
+                        zh < Math.PI / 2 ? up2(Math.tan(zh)) : POSITIVE_INFINITY);
+            default: // constants, variables, sin, cos and tan
+                return true;
+        }
+    }
+
+    /**
+     * Narrow the j^th node to the hull of its intersection with [-h,-l] and [l,h], with 0 <= l
+     */
+    private boolean symmetricNarrow(int j, double l, double h) {
+        double pl = Math.max(lo[j], l), ph = Math.min(hi[j], h);
+        double nl = Math.max(lo[j], -h), nh = Math.min(hi[j], -l);
+        if (pl <= ph) {
+            return nl <= nh ? narrow(j, nl, ph) : narrow(j, pl, ph);
+        }
+        return nl <= nh && narrow(j, nl, nh);
+    }
+
+    /**
+     * Narrow the j^th node to [a,b] / [c,d]
+     */
+    private boolean divNarrow(int j, double a, double b, double c, double d) {
+        if (c == 0 && d == 0) {
+            // [a,b] = x * 0
+            return a <= 0 && 0 <= b;
+        }
+        return div(a, b, c, d) && narrow(j, tmpLo, tmpHi);
+    }
+
+    //***********************************************************************************
+    // INTERVAL ARITHMETIC
+    //***********************************************************************************
+
+    private boolean set(int i, double l, double h) {
+        // an undefined bound (such as inf - inf) is relaxed
+        lo[i] = l != l ? NEGATIVE_INFINITY : l;
+        hi[i] = h != h ? POSITIVE_INFINITY : h;
+        return lo[i] <= hi[i];
+    }
+
+    private boolean narrow(int j, double l, double h) {
+        // undefined bounds are ignored
+        if (l > lo[j]) {
+            lo[j] = l;
+        }
+        if (h < hi[j]) {
+            hi[j] = h;
+        }
+        return lo[j] <= hi[j];
+    }
+
+    /**
+     * [a,b] * [c,d] in [tmpLo, tmpHi]
+     */
+    private void mul(double a, double b, double c, double d) {
+        tmpLo = Math.min(Math.min(mulDn(a, c), mulDn(a, d)), Math.min(mulDn(b, c), mulDn(b, d)));
+        tmpHi = Math.max(Math.max(mulUp(a, c), mulUp(a, d)), Math.max(mulUp(b, c), mulUp(b, d)));
+    }
+
+    /**
+     * [a,b] / [c,d] in [tmpLo, tmpHi]
+     *
+     * @return false if the result is empty, that is, if [c,d] = [0,0]
+     */
+    private boolean div(double a, double b, double c, double d) {
+        if (c > 0 || d < 0) {
+            tmpLo = Math.min(Math.min(divDn(a, c), divDn(a, d)), Math.min(divDn(b, c), divDn(b, d)));
+            tmpHi = Math.max(Math.max(divUp(a, c), divUp(a, d)), Math.max(divUp(b, c), divUp(b, d)));
+            return true;
+        }
+        if (c == 0 && d == 0) {
+            return false;
+        }
+        tmpLo = NEGATIVE_INFINITY;
+        tmpHi = POSITIVE_INFINITY;
+        if (a > 0) {
+            if (c == 0) { // [a,b] / [0,d]
+                tmpLo = divDn(a, d);
+            } else if (d == 0) { // [a,b] / [c,0]
+                tmpHi = divUp(a, c);
+            }
+        } else if (b < 0) {
+            if (c == 0) {
+                tmpHi = divUp(b, d);
+            } else if (d == 0) {
+                tmpLo = divDn(b, c);
+            }
+        }
+        return true;
+    }
+
+    // rounded down sum, exact when no rounding error occurs (see TwoSum)
+    private static double addDn(double a, double b) {
+        double s = a + b;
+        if (s == POSITIVE_INFINITY) {
+            return a == POSITIVE_INFINITY || b == POSITIVE_INFINITY ? s : Double.MAX_VALUE;
+        } else if (s == NEGATIVE_INFINITY || s != s) {
+            return s;
+        }
+        double bb = s - a;
+        double err = (a - (s - bb)) + (b - bb);
+        return err < 0 ? Math.nextDown(s) : s;
+    }
+
+    private static double addUp(double a, double b) {
+        return -addDn(-a, -b);
+    }
+
+    private static double mulDn(double a, double b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        double p = a * b;
+        return exactProduct(a, b) ? p : Math.nextDown(p);
+    }
+
+    private static double mulUp(double a, double b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        double p = a * b;
+        return exactProduct(a, b) ? p : Math.nextUp(p);
+    }
+
+    private static boolean exactProduct(double a, double b) {
+        return Math.abs(a) < 0x1p26 && Math.abs(b) < 0x1p26 && a == Math.rint(a) && b == Math.rint(b);
+    }
+
+    private static double divDn(double a, double b) {
+        if (a == 0) {
+            return 0;
+        }
+        double q = a / b;
+        return b == 1 || b == -1 ? q : Math.nextDown(q);
+    }
+
+    private static double divUp(double a, double b) {
+        if (a == 0) {
+            return 0;
+        }
+        double q = a / b;
+        return b == 1 || b == -1 ? q : Math.nextUp(q);
+    }
+
+    /**
+     * Lower bound of the n^th root of v >= 0
+     */
+    private static double rootDn(double v, int n) {
+        if (v == 0 || v == POSITIVE_INFINITY) {
+            return v;
+        }
+        if (n == 2) {
+            return dn(Math.sqrt(v));
+        }
+        // the exponent 1/n is not exact: the slack covers its rounding error
+        double r = Math.pow(v, 1. / n);
+        return dn(r - r * 1e-12);
+    }
+
+    /**
+     * Upper bound of the n^th root of v >= 0
+     */
+    private static double rootUp(double v, int n) {
+        if (v == 0 || v == POSITIVE_INFINITY) {
+            return v;
+        }
+        if (n == 2) {
+            return up(Math.sqrt(v));
+        }
+        double r = Math.pow(v, 1. / n);
+        return up(r + r * 1e-12);
+    }
+
+    // correctly rounded operations are one ulp away from the exact value
+    private static double dn(double x) {
+        return Math.nextDown(x);
+    }
+
+    private static double up(double x) {
+        return Math.nextUp(x);
+    }
+
+    // elementary functions are at most one ulp away from the exact value
+    private static double dn2(double x) {
+        return Math.nextDown(Math.nextDown(x));
+    }
+
+    private static double up2(double x) {
+        return Math.nextUp(Math.nextUp(x));
+    }
+
+    //***********************************************************************************
+    // DAG CONSTRUCTION
+    //***********************************************************************************
+
+    int constant(double l, double h) {
+        return node(CST, -1, -1, 0, l, h);
+    }
+
+    int variable(int idx) {
+        int n = node(VAR, -1, -1, idx, 0, 0);
+        varNodes[idx] = n;
+        return n;
+    }
+
+    int unary(int op, int child) {
+        return node(op, child, -1, 0, 0, 0);
+    }
+
+    int binary(int op, int l, int r) {
+        return node(op, l, r, 0, 0, 0);
+    }
+
+    int power(int child, int n) {
+        if (n == 0) {
+            return constant(1, 1);
+        } else if (n == 1) {
+            return child;
+        } else if (n < 0) {
+            return binary(DIV, constant(1, 1), node(POW, child, -1, -n, 0, 0));
+        }
+        return node(POW, child, -1, n, 0, 0);
+    }
+
+    void relation(int node, int rel) {
+        if (nbRels == roots.length) {
+            roots = Arrays.copyOf(roots, nbRels * 2);
+            rels = Arrays.copyOf(rels, nbRels * 2);
+        }
+        roots[nbRels] = node;
+        rels[nbRels++] = rel;
+    }
+
+    boolean isConstant(int node) {
+        return ops[node] == CST;
+    }
+
+    double constantLB(int node) {
+        return cstLo[node];
+    }
+
+    double constantUB(int node) {
+        return cstHi[node];
+    }
+
+    private int node(int op, int l, int r, int param, double cl, double ch) {
+        if (op != CST && op != VAR && ops[l] == CST && (r == -1 || ops[r] == CST)) {
+            // constant folding: the node is evaluated in the next free slot, then replaced by a constant
+            ensureCapacity();
+            ops[size] = op;
+            left[size] = l;
+            right[size] = r;
+            params[size] = param;
+            if (!forward(size, null)) {
+                throw new SolverException("Undefined constant expression in real constraint");
+            }
+            return constant(lo[size], hi[size]);
+        }
+        String key = op == CST ? op + ":" + Double.doubleToLongBits(cl) + ":" + Double.doubleToLongBits(ch)
+                : op + ":" + l + ":" + r + ":" + param;
+        int n = keys.get(key);
+        if (n == -1) {
+            ensureCapacity();
+            n = size++;
+            ops[n] = op;
+            left[n] = l;
+            right[n] = r;
+            params[n] = param;
+            cstLo[n] = lo[n] = cl;
+            cstHi[n] = hi[n] = ch;
+            keys.put(key, n);
+        }
+        return n;
+    }
+
+    private void ensureCapacity() {
+        if (size == ops.length) {
+            int ns = size * 3 / 2 + 1;
+            ops = Arrays.copyOf(ops, ns);
+            left = Arrays.copyOf(left, ns);
+            right = Arrays.copyOf(right, ns);
+            params = Arrays.copyOf(params, ns);
+            cstLo = Arrays.copyOf(cstLo, ns);
+            cstHi = Arrays.copyOf(cstHi, ns);
+            lo = Arrays.copyOf(lo, ns);
+            hi = Arrays.copyOf(hi, ns);
+        }
+    }
+
+    /**
+     * @return the number of nodes of the DAG, shared sub-expressions being counted once
+     */
+    public int getNbNodes() {
+        return size;
+    }
+}
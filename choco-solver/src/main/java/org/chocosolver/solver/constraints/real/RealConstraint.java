@@ -32,7 +32,8 @@ import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.variables.RealVar;
 
 /**
- * A constraint on real variables, solved using IBEX.
+ * A constraint on real variables, propagated by an {@link IntervalContractor},
+ * or by IBEX when enabled in the settings (see {@link org.chocosolver.solver.Settings#enableIbex()}).
  * <br/>
  *
  * @author Charles Prud'homme, Jean-Guillaume Fages
@@ -155,6 +156,8 @@ public class RealConstraint extends Constraint {
     protected void finalize() throws Throwable {
         super.finalize();
 		if(propagators.length == 0)throw new UnsupportedOperationException("Empty RealConstraint");
-		propagators[0].getSolver().getIbex().release();
+		if(((RealPropagator) propagators[0]).ibex != null) {
+			propagators[0].getSolver().getIbex().release();
+		}
     }
 }
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.exception.SolverException;
+
+import java.math.BigDecimal;
+
+import static org.chocosolver.solver.constraints.real.IntervalContractor.*;
+
+/**
+ * A recursive descent parser of the functions given to a {@link RealConstraint}, with the IBEX syntax:
+ * <pre>
+ * system     := relation (';' relation)*
+ * relation   := expression ('=' | '<=' | '>=' | '<' | '>') expression
+ * expression := ['+' | '-'] term (('+' | '-') term)*
+ * term       := factor (('*' | '/') factor)*
+ * factor     := primary ['^' ['+' | '-'] primary]
+ * primary    := number | '[' number ',' number ']' | '{' index '}' | 'pi' | '(' expression ')'
+ *             | function '(' expression (',' expression)* ')'
+ * </pre>
+ * where function is one of abs, sqr, sqrt, exp, ln (or log), sin, cos, tan, atan, min and max.
+ * <br/>
+ * The nodes are built in the DAG of an {@link IntervalContractor}.
+ */
+final class RealFunctionParser {
+
+    private final IntervalContractor dag;
+    private final String functions;
+    private final int nbVars;
+    private int pos;
+
+    RealFunctionParser(IntervalContractor dag, String functions, int nbVars) {
+        this.dag = dag;
+        this.functions = functions;
+        this.nbVars = nbVars;
+    }
+
+    /**
+     * Parse the functions and add the relations to the DAG
+     */
+    void parse() {
+        pos = 0;
+        do {
+            relation();
+        } while (accept(';') && !atEnd());
+        if (!atEnd()) {
+            throw error("unexpected character '" + functions.charAt(pos) + "'");
+        }
+    }
+
+    private void relation() {
+        int left = expression();
+        int rel;
+        if (accept('=')) {
+            accept('='); // '==' is allowed
+            rel = EQ;
+        } else if (accept('<')) {
+            accept('=');
+            rel = LEQ;
+        } else if (accept('>')) {
+            accept('=');
+            rel = GEQ;
+        } else {
+            throw error("relation expected");
+        }
+        int right = expression();
+        dag.relation(dag.binary(SUB, left, right), rel);
+    }
+
+    private int expression() {
+        int node;
+        if (accept('-')) {
+            node = dag.unary(NEG, term());
+        } else {
+            accept('+');
+            node = term();
+        }
+        while (true) {
+            if (accept('+')) {
+                node = dag.binary(ADD, node, term());
+            } else if (accept('-')) {
+                node = dag.binary(SUB, node, term());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private int term() {
+        int node = factor();
+        while (true) {
+            if (accept('*')) {
+                node = dag.binary(MUL, node, factor());
+            } else if (accept('/')) {
+                node = dag.binary(DIV, node, factor());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private int factor() {
+        int node = primary();
+        if (accept('^')) {
+            boolean neg = accept('-');
+            if (!neg) {
+                accept('+');
+            }
+            int e = primary();
+            if (!dag.isConstant(e)) {
+                throw error("the exponent must be a constant");
+            }
+            double lo = dag.constantLB(e), hi = dag.constantUB(e);
+            if (neg) {
+                double t = lo;
+                lo = -hi;
+                hi = -t;
+            }
+            if (lo == hi && lo == Math.rint(lo) && Math.abs(lo) <= Integer.MAX_VALUE) {
+                node = dag.power(node, (int) lo);
+            } else {
+                // x^y = exp(y * ln(x))
+                node = dag.unary(EXP, dag.binary(MUL, dag.constant(lo, hi), dag.unary(LN, node)));
+            }
+        }
+        return node;
+    }
+
+    private int primary() {
+        skipSpaces();
+        if (atEnd()) {
+            throw error("unexpected end of function");
+        }
+        char c = functions.charAt(pos);
+        if (c == '(') {
+            pos++;
+            int node = expression();
+            expect(')');
+            return node;
+        } else if (c == '{') {
+            pos++;
+            skipSpaces();
+            int start = pos;
+            while (pos < functions.length() && Character.isDigit(functions.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("variable index expected");
+            }
+            int idx = Integer.parseInt(functions.substring(start, pos));
+            if (idx >= nbVars) {
+                throw error("unknown variable {" + idx + "}");
+            }
+            expect('}');
+            return dag.variable(idx);
+        } else if (c == '[') {
+            pos++;
+            double lo = signedNumber(true);
+            expect(',');
+            double hi = signedNumber(false);
+            expect(']');
+            if (lo > hi) {
+                throw error("empty interval");
+            }
+            return dag.constant(lo, hi);
+        } else if (Character.isDigit(c) || c == '.') {
+            return constant(number());
+        } else if (Character.isLetter(c)) {
+            int start = pos;
+            while (pos < functions.length() && Character.isLetterOrDigit(functions.charAt(pos))) {
+                pos++;
+            }
+            String name = functions.substring(start, pos);
+            if (name.equals("pi")) {
+                return dag.constant(Math.nextDown(Math.PI), Math.nextUp(Math.PI));
+            }
+            expect('(');
+            int node = expression();
+            switch (name) {
+                case "min":
+                case "max":
+                    expect(',');
+                    node = dag.binary(name.equals("min") ? MIN : MAX, node, expression());
+                    break;
+                case "abs":
+                    node = dag.unary(ABS, node);
+                    break;
+                case "sqr":
+                    node = dag.power(node, 2);
+                    break;
+                case "sqrt":
+                    node = dag.unary(SQRT, node);
+                    break;
+                case "exp":
+                    node = dag.unary(EXP, node);
+                    break;
+                case "ln":
+                case "log":
+                    node = dag.unary(LN, node);
+                    break;
+                case "sin":
+                    node = dag.unary(SIN, node);
+                    break;
+                case "cos":
+                    node = dag.unary(COS, node);
+                    break;
+                case "tan":
+                    node = dag.unary(TAN, node);
+                    break;
+                case "atan":
+                    node = dag.unary(ATAN, node);
+                    break;
+                default:
+                    throw error("unknown function '" + name + "'");
+            }
+            expect(')');
+            return node;
+        }
+        throw error("unexpected character '" + c + "'");
+    }
+
+    /**
+     * The smallest interval which contains the decimal number
+     */
+    private int constant(String number) {
+        double v = Double.parseDouble(number);
+        if (isExact(number, v)) {
+            return dag.constant(v, v);
+        }
+        return dag.constant(Math.nextDown(v), Math.nextUp(v));
+    }
+
+    private static boolean isExact(String number, double v) {
+        return new BigDecimal(number).compareTo(new BigDecimal(v)) == 0;
+    }
+
+    /**
+     * A bound of an interval constant, rounded outward
+     */
+    private double signedNumber(boolean lower) {
+        boolean neg = accept('-');
+        if (!neg) {
+            accept('+');
+        }
+        String n = number();
+        double v = Double.parseDouble(n);
+        if (neg) {
+            v = -v;
+        }
+        if (!isExact(n, Math.abs(v))) {
+            v = lower ? Math.nextDown(v) : Math.nextUp(v);
+        }
+        return v;
+    }
+
+    private String number() {
+        skipSpaces();
+        int start = pos;
+        while (pos < functions.length() && (Character.isDigit(functions.charAt(pos)) || functions.charAt(pos) == '.')) {
+            pos++;
+        }
+        if (pos < functions.length() && (functions.charAt(pos) == 'e' || functions.charAt(pos) == 'E')) {
+            pos++;
+            if (pos < functions.length() && (functions.charAt(pos) == '-' || functions.charAt(pos) == '+')) {
+                pos++;
+            }
+            while (pos < functions.length() && Character.isDigit(functions.charAt(pos))) {
+                pos++;
+            }
+        }
+        if (start == pos) {
+            throw error("number expected");
+        }
+        try {
+            Double.parseDouble(functions.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("malformed number");
+        }
+        return functions.substring(start, pos);
+    }
+
+    private boolean accept(char c) {
+        skipSpaces();
+        if (pos < functions.length() && functions.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("'" + c + "' expected");
+        }
+    }
+
+    private boolean atEnd() {
+        skipSpaces();
+        return pos == functions.length();
+    }
+
+    private void skipSpaces() {
+        while (pos < functions.length() && Character.isWhitespace(functions.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private SolverException error(String message) {
+        return new SolverException("Cannot parse \"" + functions + "\" at position " + pos + ": " + message);
+    }
+}
@@ -40,6 +40,8 @@ import org.chocosolver.util.ESat;
 /**
  * A propagator for real variables.
  * <br/>
+ * The domains are contracted in the JVM by an {@link IntervalContractor} (HC4 and shaving),
+ * or by the native IBEX library when enabled in the settings.
  *
  * @author Charles Prud'homme, Jean-Guillaume Fages
  * @since 18/07/12
@@ -50,17 +52,20 @@ public class RealPropagator extends Propagator<RealVar> {
     // VARIABLES
     //***********************************************************************************
 
-    final Ibex ibex;
+    final Ibex ibex; // only when IBEX is enabled
+    final int contractorIdx;
+    final IntervalContractor contractor; // otherwise
     final String functions;
     final int option;
-    final int contractorIdx;
+    final double[] domains;
 
     //***********************************************************************************
     // CONSTRUCTOR
     //***********************************************************************************
 
     /**
-     * Create a propagator on real variables, propagated using IBEX.
+     * Create a propagator on real variables, propagated in the JVM by an {@link IntervalContractor},
+     * or using IBEX if enabled in the settings of the solver (see {@link org.chocosolver.solver.Settings#enableIbex()}).
      * <br/>
      * A constraint is defined using <code>functions</code>.
      * A function is a string declared using the following format:
@@ -80,10 +85,22 @@ public class RealPropagator extends Propagator<RealVar> {
      */
     public RealPropagator(String functions, RealVar[] vars, int options) {
         super(vars, PropagatorPriority.LINEAR, false);
-		this.ibex = solver.getIbex();
         this.functions = functions;
         this.option = options;
-        this.contractorIdx = ibex.add_contractor(vars.length, functions, option);
+        if (solver.getSettings().enableIbex()) {
+            this.ibex = solver.getIbex();
+            this.contractorIdx = ibex.add_contractor(vars.length, functions, option);
+            this.contractor = null;
+        } else {
+            this.ibex = null;
+            this.contractorIdx = -1;
+            double[] precisions = new double[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                precisions[i] = vars[i].getPrecision();
+            }
+            this.contractor = new IntervalContractor(vars.length, functions, option, precisions);
+        }
+        this.domains = new double[2 * vars.length];
     }
 
     //***********************************************************************************
@@ -95,17 +112,25 @@ public class RealPropagator extends Propagator<RealVar> {
         return RealEventType.BOUND.getMask();
     }
 
-    @Override
-    public void propagate(int evtmask) throws ContradictionException {
-        double domains[] = new double[2 * vars.length];
+    /**
+     * Contract the current domains of the variables, stored in <code>domains</code>
+     *
+     * @return the status of the contraction, as defined in {@link Ibex}
+     */
+    private int contract() {
         for (int i = 0; i < vars.length; i++) {
             domains[2 * i] = vars[i].getLB();
             domains[2 * i + 1] = vars[i].getUB();
         }
-        int result = ibex.contract(contractorIdx, domains);
+        return ibex != null ? ibex.contract(contractorIdx, domains) : contractor.contract(domains);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        int result = contract();
         switch (result) {
             case Ibex.FAIL:
-                contradiction(null, "Ibex failed");
+                contradiction(null, ibex != null ? "Ibex failed" : "empty box");
             case Ibex.CONTRACT:
                 for (int i = 0; i < vars.length; i++) {
                     vars[i].updateBounds(domains[2 * i], domains[2 * i + 1], aCause);
@@ -124,18 +149,15 @@ public class RealPropagator extends Propagator<RealVar> {
 
     @Override
     public ESat isEntailed() {
-		double domains[] = new double[2 * vars.length];
-		for (int i = 0; i < vars.length; i++) {
-			domains[2 * i] = vars[i].getLB();
-			domains[2 * i + 1] = vars[i].getUB();
-		}
-		int result = ibex.contract(contractorIdx, domains);
+		int result = contract();
 		if(result==Ibex.FAIL){
 			return ESat.FALSE;
 		}
 		if(result==Ibex.ENTAILED || isCompletelyInstantiated()){
 			for (int i = 0; i < vars.length; i++) {
-				if(vars[i].getLB()<domains[2*i] || vars[i].getUB()>domains[2*i+1]){
+				// a domain no wider than the precision is considered as a point
+				if(vars[i].getUB() - vars[i].getLB() > vars[i].getPrecision()
+						&& (vars[i].getLB()<domains[2*i] || vars[i].getUB()>domains[2*i+1])){
 					return ESat.UNDEFINED;
 				}
 			}
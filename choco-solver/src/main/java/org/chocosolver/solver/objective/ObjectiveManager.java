@@ -256,6 +256,24 @@ public class ObjectiveManager<V extends Variable, N extends Number> implements I
 		}
 	}
 
+	/**
+	 * Return the most promising value the objective variable can take in the current state of the search,
+	 * that is, its lower bound when minimizing, its upper bound when maximizing, and 0 in satisfaction problems.
+	 */
+	public double getCurrentBound() {
+		if (!isOptimization()) {
+			return 0;
+		}
+		boolean min = policy == ResolutionPolicy.MINIMIZE;
+		if (intOrReal) {
+			IntVar io = (IntVar) objective;
+			return min ? io.getLB() : io.getUB();
+		} else {
+			RealVar io = (RealVar) objective;
+			return min ? io.getLB() : io.getUB();
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private N getObjLB(){
 		assert isOptimization();
@@ -94,6 +94,23 @@ public interface IPropagationEngine extends Serializable {
 
     void fails(ICause cause, Variable variable, String message) throws ContradictionException;
 
+    /**
+     * Signal a failure without throwing a {@link ContradictionException}, when possible.
+     * This is only possible when <code>cause</code> is the propagator currently run by the engine:
+     * the failure is then recorded and the engine stops the propagation as soon as the propagator returns.
+     * Otherwise, this behaves like {@link #fails(ICause, Variable, String)}.
+     *
+     * @param cause    cause of the failure
+     * @param variable variable concerned by the failure
+     * @param message  detailed message
+     * @return <code>false</code>, to be returned by the caller
+     * @throws ContradictionException if the failure cannot be recorded
+     */
+    default boolean fastFails(ICause cause, Variable variable, String message) throws ContradictionException {
+        fails(cause, variable, message);
+        return false;
+    }
+
     ContradictionException getContradictionException();
 
     void clear();
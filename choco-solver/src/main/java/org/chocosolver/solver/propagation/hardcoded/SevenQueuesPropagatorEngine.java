@@ -73,12 +73,15 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     protected final CircularQueue<Propagator>[] pro_queue;
     protected Propagator lastProp;
+    protected Propagator running; // the propagator being run, the only one allowed to signal a failure by status
+    protected boolean failed; // has a failure been signalled by status?
     protected final IId2AbId p2i; // mapping between propagator ID and its absolute index
     protected int notEmpty; // point out the no empty queues
     protected short[] scheduled; // also maintains the index of the queue!
     protected IntCircularQueue[] eventsets;
     private boolean init;
     protected int[][] eventmasks;// the i^th event mask stores modification events on the i^th variable, since the last propagation
+    private int[] batchIdx, batchMasks; // pending events given at once to a propagator which reacts to batched events
 
     final PropagationTrigger trigger; // an object that starts the propagation
 
@@ -128,6 +131,8 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                 eventmasks[i] = new int[nbv];
             }
         }
+        batchIdx = new int[16];
+        batchMasks = new int[16];
         notEmpty = 0;
         init = true;
     }
@@ -137,6 +142,29 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         throw exception.set(cause, variable, message);
     }
 
+    @Override
+    public boolean fastFails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause != running) {
+            throw exception.set(cause, variable, message);
+        }
+        exception.set(cause, variable, message);
+        failed = true;
+        return false;
+    }
+
+    /**
+     * To call once the running propagator returns: stop the propagation if it has signalled a failure by status.
+     *
+     * @throws ContradictionException if a failure has been signalled
+     */
+    private void checkFailure() throws ContradictionException {
+        running = null;
+        if (failed) {
+            failed = false;
+            throw exception;
+        }
+    }
+
     @Override
     public ContradictionException getContradictionException() {
         return exception;
@@ -161,7 +189,9 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                 // revision of the variable
                 aid = p2i.get(lastProp.getId());
                 scheduled[aid] = 0;
-                if (lastProp.reactToFineEvent()) {
+                if (lastProp.reactToFineEvent() && lastProp.reactToBatchedEvents()) {
+                    propagateBatch(aid);
+                } else if (lastProp.reactToFineEvent()) {
                     evtset = eventsets[aid];
                     while (evtset.size() > 0) {
                         int v = evtset.pollFirst();
@@ -175,14 +205,18 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                         lastProp.decNbPendingEvt();
                         // run propagation on the specific event
                         lastProp.fineERcalls++;
+                        running = lastProp;
                         lastProp.propagate(v, mask);
+                        checkFailure();
                     }
                 } else if (lastProp.isActive()) { // need to be checked due to views
                     //assert lastProp.isActive() : "propagator is not active:" + lastProp;
                     if (LOGGER.isDebugEnabled()) {
                         IPropagationEngine.Trace.printPropagation(null, lastProp);
                     }
+                    running = lastProp;
                     lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                    checkFailure();
                 }
                 // This part is for debugging only!!
                 if (Settings.Idem.disabled != idemStrat) {
@@ -193,6 +227,39 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         }
     }
 
+    /**
+     * Give all the pending fine events of the propagator at once to it.
+     */
+    private void propagateBatch(int aid) throws ContradictionException {
+        IntCircularQueue evtset = eventsets[aid];
+        int n = evtset.size();
+        if (n == 0) {
+            return;
+        }
+        assert lastProp.isActive() : "propagator is not active:" + lastProp;
+        if (n > batchIdx.length) {
+            int size = Math.max(n, batchIdx.length * 3 / 2 + 1);
+            batchIdx = new int[size];
+            batchMasks = new int[size];
+        }
+        for (int i = 0; i < n; i++) {
+            int v = evtset.pollFirst();
+            if (LOGGER.isDebugEnabled()) {
+                IPropagationEngine.Trace.printPropagation(lastProp.getVar(v), lastProp);
+            }
+            // clear event
+            batchIdx[i] = v;
+            batchMasks[i] = eventmasks[aid][v];
+            eventmasks[aid][v] = 0;
+        }
+        lastProp.flushPendingEvt();
+        // run propagation on all the events, counted as many fine calls
+        lastProp.fineERcalls += n;
+        running = lastProp;
+        lastProp.propagate(batchIdx, batchMasks, n);
+        checkFailure();
+    }
+
     private int nextNotEmpty(int fromIndex) {
         int word = notEmpty & (WORD_MASK << fromIndex);
         if (word != 0) {
@@ -204,6 +271,8 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     @Override
     public void flush() {
+        running = null;
+        failed = false;
         int aid;
         IntCircularQueue evtset;
         if (lastProp != null) {
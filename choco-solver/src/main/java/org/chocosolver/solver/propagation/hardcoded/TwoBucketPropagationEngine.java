@@ -92,12 +92,15 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
     protected final IId2AbId p2i; // mapping between propagator ID and its absolute index
 
     protected Propagator lastProp;
+    protected Propagator running; // the propagator being run, the only one allowed to signal a failure by status
+    protected boolean failed; // has a failure been signalled by status?
     protected int notEmpty; // point out the no empty queues
 
     protected final ArrayDeque<Propagator>[] pro_queue_f;
     protected boolean[] schedule_f; // also maintains the index of the queue!
     protected IntCircularQueue[] event_f;
     protected int[][] eventmasks;// the i^th event mask stores modification events on the i^th variable, since the last propagation
+    private int[] batchIdx, batchMasks; // pending events given at once to a propagator which reacts to batched events
 
     protected final ArrayDeque<Propagator>[] pro_queue_c;
     protected boolean[] schedule_c;
@@ -178,6 +181,8 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         }
         event_c = new PropagatorEventType[nbProp];
         Arrays.fill(event_c, PropagatorEventType.VOID);
+        batchIdx = new int[16];
+        batchMasks = new int[16];
         init = true;
     }
 
@@ -186,6 +191,29 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         throw exception.set(cause, variable, message);
     }
 
+    @Override
+    public boolean fastFails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause != running) {
+            throw exception.set(cause, variable, message);
+        }
+        exception.set(cause, variable, message);
+        failed = true;
+        return false;
+    }
+
+    /**
+     * To call once the running propagator returns: stop the propagation if it has signalled a failure by status.
+     *
+     * @throws ContradictionException if a failure has been signalled
+     */
+    private void checkFailure() throws ContradictionException {
+        running = null;
+        if (failed) {
+            failed = false;
+            throw exception;
+        }
+    }
+
     @Override
     public ContradictionException getContradictionException() {
         return exception;
@@ -238,7 +266,9 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         int aid = p2i.get(lastProp.getId());
         //assert schedule_f[aid] : "try to propagate an unscheduled propagator";
         schedule_f[aid] = false;
-        if (lastProp.reactToFineEvent()) {
+        if (lastProp.reactToFineEvent() && lastProp.reactToBatchedEvents()) {
+            propagateBatch(aid);
+        } else if (lastProp.reactToFineEvent()) {
             IntCircularQueue evtset = event_f[aid];
             while (!evtset.isEmpty()) {
                 int v = evtset.pollFirst();
@@ -251,14 +281,18 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
                 eventmasks[aid][v] = 0;
                 // run propagation on the specific event
                 lastProp.fineERcalls++;
+                running = lastProp;
                 lastProp.propagate(v, mask);
+                checkFailure();
             }
         } else if (lastProp.isActive()) { // need to be checked due to views
             //assert lastProp.isActive() : "propagator is not active:" + lastProp;
             if (LOGGER.isDebugEnabled()) {
                 Trace.printPropagation(null, lastProp);
             }
+            running = lastProp;
             lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            checkFailure();
         }
         // This part is for debugging only!!
         if (Settings.Idem.disabled != idemStrat) {
@@ -266,6 +300,38 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         }
     }
 
+    /**
+     * Give all the pending fine events of the propagator at once to it.
+     */
+    private void propagateBatch(int aid) throws ContradictionException {
+        IntCircularQueue evtset = event_f[aid];
+        int n = evtset.size();
+        if (n == 0) {
+            return;
+        }
+        assert lastProp.isActive() : "propagator is not active:" + lastProp;
+        if (n > batchIdx.length) {
+            int size = Math.max(n, batchIdx.length * 3 / 2 + 1);
+            batchIdx = new int[size];
+            batchMasks = new int[size];
+        }
+        for (int i = 0; i < n; i++) {
+            int v = evtset.pollFirst();
+            if (LOGGER.isDebugEnabled()) {
+                Trace.printPropagation(lastProp.getVar(v), lastProp);
+            }
+            // clear event
+            batchIdx[i] = v;
+            batchMasks[i] = eventmasks[aid][v];
+            eventmasks[aid][v] = 0;
+        }
+        // run propagation on all the events, counted as many fine calls
+        lastProp.fineERcalls += n;
+        running = lastProp;
+        lastProp.propagate(batchIdx, batchMasks, n);
+        checkFailure();
+    }
+
     private void propagateCoarse(ArrayDeque<Propagator> pro_queue_c) throws ContradictionException {
         lastProp = pro_queue_c.pollFirst();
         // revision of the variable
@@ -279,12 +345,16 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
             Trace.printPropagation(null, lastProp);
         }
         lastProp.coarseERcalls++;
+        running = lastProp;
         lastProp.propagate(evt.getStrengthenedMask());
+        checkFailure();
     }
 
 
     @Override
     public void flush() {
+        running = null;
+        failed = false;
         if (lastProp != null) {
             flushFine();
             flushCoarse();
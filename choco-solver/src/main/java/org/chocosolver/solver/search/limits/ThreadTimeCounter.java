@@ -28,61 +28,80 @@
  */
 package org.chocosolver.solver.search.limits;
 
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
 import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.util.SharedClock;
+
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * Set a limit over the search time.
  * When this limit is reached, the search loop is informed and the resolution is stopped.
  * <br/>
+ * The deadline is scheduled in the thread of the {@link SharedClock}, common to all the solvers,
+ * the search loop only reads a flag.
+ * The deadline is cancelled when the search is closed, so that the executor does not keep the solver reachable,
+ * and scheduled again, for the remaining time, when a search is resumed.
  *
  * @author Charles Prud'homme
  * @since 15 juil. 2010
  */
-public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenNode, IMonitorInitialize {
+public class ThreadTimeCounter implements ICounter, IMonitorOpenNode, IMonitorInitialize, IMonitorClose {
 
-    private long timelimit;
+    private long duration;
 
-    private final long threshold;
+    // date of the beginning of the count, in ns
+    private long start;
 
-    private long duration;
+    private transient ScheduledFuture<?> deadline;
+
+    // a cancelled deadline may still be running, only the last scheduled one is considered
+    private volatile int generation;
+
+    // generation of the last deadline reached
+    private volatile int reached = -1;
 
-    private volatile boolean isreached;
+    // set to true when the deadline has been cancelled on close
+    private boolean closed;
 
     private ICounterAction action;
 
 
     public ThreadTimeCounter(long duration) {
-        super("time limit");
         this.duration = duration;
-        this.threshold = duration / 3;
-        this.isreached = false;
     }
 
     @Override
     public void init() {
-        this.timelimit = System.currentTimeMillis() + duration;
-        setDaemon(true);
-        this.start();
+        start = System.nanoTime();
+        closed = false;
+        schedule();
     }
 
-    @Override
-    public void run() {
-        try {
-            //TODO: to be checked!
-            long sleep = duration - threshold;
-            Thread.sleep(sleep);
-            do {
-                final long diff = timelimit - System.currentTimeMillis();
-                isreached = (diff <= 0);
-            } while (!isreached);
-        } catch (InterruptedException ignored) {
+    private void schedule() {
+        if (deadline != null) {
+            deadline.cancel(false);
         }
+        final int g = ++generation;
+        deadline = SharedClock.schedule(new Runnable() {
+            @Override
+            public void run() {
+                reached = g;
+            }
+        }, Math.max(0, duration - (System.nanoTime() - start) / (1000 * 1000)));
     }
 
     @Override
     public boolean isReached() {
-        return isreached;
+        return reached == generation;
+    }
+
+    /**
+     * @return true iff a deadline is pending in the {@link SharedClock}
+     */
+    public boolean isScheduled() {
+        return deadline != null && !deadline.isDone();
     }
 
     @Override
@@ -101,19 +120,29 @@ public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenN
 
     @Override
     public void overrideLimit(long newLimit) {
-        long diff = newLimit - duration;
         duration = newLimit;
-        timelimit += diff;
+        if (deadline != null && !closed) {
+            schedule();
+        }
     }
 
     @Override
     public void reset() {
-        throw new UnsupportedOperationException("ThreadLimit cannot be reset");
+        if (deadline != null) {
+            init();
+        }
     }
 
     @Override
     public void beforeOpenNode() {
-        if (isreached) {
+        if (closed) {
+            // the search has been resumed
+            closed = false;
+            if (reached != generation) {
+                schedule();
+            }
+        }
+        if (reached == generation) {
             action.onLimitReached();
         }
     }
@@ -131,6 +160,18 @@ public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenN
         this.init();
     }
 
+    @Override
+    public void beforeClose() {
+    }
+
+    @Override
+    public void afterClose() {
+        if (deadline != null && !closed) {
+            deadline.cancel(false);
+            closed = true;
+        }
+    }
+
     @Override
     public void setAction(ICounterAction action) {
         this.action = action;
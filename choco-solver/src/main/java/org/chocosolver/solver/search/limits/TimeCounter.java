@@ -30,10 +30,12 @@ package org.chocosolver.solver.search.limits;
 
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.util.SharedClock;
 
 /**
  * A limit over run time.
  * It acts as a monitor, to be up-to-date when the search loop asks for limit reaching.
+ * The time is read from the {@link SharedClock}, so the limit may be exceeded by {@link SharedClock#RESOLUTION} ms.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -57,12 +59,13 @@ public class TimeCounter extends ACounter implements IMonitorOpenNode {
     public void init() {
         solver.getMeasures().updateTimeCount();
         long time = (long) (solver.getMeasures().getTimeCount() * IN_NS);
-        offset = System.nanoTime() - time;
+        // same time base as the reading on each node
+        offset = SharedClock.nanoTime() - time;
     }
 
     @Override
     public void beforeOpenNode() {
-        setCounter(System.nanoTime() - offset);
+        setCounter(SharedClock.nanoTime() - offset);
     }
 
     @Override
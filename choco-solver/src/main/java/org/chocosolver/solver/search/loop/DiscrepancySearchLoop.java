@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+
+import java.util.Arrays;
+
+import static org.chocosolver.solver.search.strategy.decision.RootDecision.ROOT;
+
+/**
+ * A search loop which iterates on the number of discrepancies allowed, that is, the number of refuted decisions
+ * in the decision path, as opposed to the decisions suggested by the search strategy.
+ * Each iteration restarts from the root node, with the objective cut posted.
+ * <p>
+ * Two modes are available:
+ * <ul>
+ * <li>Limited Discrepancy Search (LDS): iteration <i>k</i> allows at most <i>k</i> refuted decisions in a path,</li>
+ * <li>Depth-bounded Discrepancy Search (DDS): iteration <i>k</i> allows refuted decisions up to depth <i>k</i> only,
+ * and forces the refutation of the decision at depth <i>k</i>.</li>
+ * </ul>
+ * A solution is only recorded by the first iteration which can reach it, so each solution is found once.
+ * The search stops when an iteration explores the entire search tree, or when the maximum number of discrepancies
+ * is reached, which is then considered as a limit.
+ * <p>
+ * W.D. Harvey and M.L. Ginsberg, "Limited Discrepancy Search", IJCAI 1995.
+ * <br/>
+ * T. Walsh, "Depth-bounded Discrepancy Search", IJCAI 1997.
+ */
+public class DiscrepancySearchLoop extends SearchLoop {
+
+    // true for DDS, false for LDS
+    private final boolean depthBounded;
+
+    // maximum number of discrepancies (LDS) or maximum depth of discrepancies (DDS)
+    private final int maxDiscrepancy;
+
+    // the current iteration
+    private int k;
+
+    // set to true when a refutation is forbidden during the current iteration
+    private boolean pruned;
+
+    // depth of the current decision in the decision path, starting at 1
+    private int depth;
+
+    // depths of the refuted decisions of the decision path, from the root
+    private int[] refuted = new int[16];
+
+    // number of refuted decisions in the decision path
+    private int nbRefuted;
+
+    /**
+     * Create a discrepancy-based search loop.
+     *
+     * @param solver         the solver
+     * @param depthBounded   set to true for DDS, to false for LDS
+     * @param maxDiscrepancy the last iteration to run
+     */
+    public DiscrepancySearchLoop(Solver solver, boolean depthBounded, int maxDiscrepancy) {
+        super(solver);
+        this.depthBounded = depthBounded;
+        this.maxDiscrepancy = maxDiscrepancy;
+    }
+
+    /**
+     * @return the current iteration, that is, the number of discrepancies allowed
+     */
+    public int getDiscrepancy() {
+        return k;
+    }
+
+    @Override
+    protected void initialize() {
+        k = 0;
+        pruned = false;
+        depth = 0;
+        nbRefuted = 0;
+        super.initialize();
+    }
+
+    @Override
+    public void restoreRootNode() {
+        super.restoreRootNode();
+        depth = 0;
+        nbRefuted = 0;
+    }
+
+    @Override
+    public void setLastDecision(Decision d) {
+        super.setLastDecision(d);
+        // the decision path is replaced, the counters are computed again
+        depth = 0;
+        nbRefuted = 0;
+        for (Decision t = d; t != ROOT; t = t.getPrevious()) {
+            depth++;
+            if (t.getBranch() == 2) {
+                nbRefuted++;
+            }
+        }
+        if (nbRefuted > refuted.length) {
+            refuted = new int[nbRefuted];
+        }
+        int i = nbRefuted;
+        int dd = depth;
+        for (Decision t = d; t != ROOT; t = t.getPrevious(), dd--) {
+            if (t.getBranch() == 2) {
+                refuted[--i] = dd;
+            }
+        }
+    }
+
+    @Override
+    protected void openNode() {
+        Decision previous = decision;
+        super.openNode();
+        if (decision != previous) {
+            depth++;
+            if (depthBounded && k > 0 && decision.hasNext() && depth == k) {
+                // the left branch has been explored during the previous iterations
+                decision.buildNext();
+            }
+        }
+    }
+
+    @Override
+    protected void downBranch() {
+        if (decision.getBranch() == 1) {
+            // the decision is about to be refuted
+            if (nbRefuted == refuted.length) {
+                refuted = Arrays.copyOf(refuted, nbRefuted * 3 / 2 + 1);
+            }
+            refuted[nbRefuted++] = depth;
+        }
+        super.downBranch();
+    }
+
+    @Override
+    protected void recordSolution() {
+        if (rank() == k) {
+            super.recordSolution();
+        } else {
+            // already found during a previous iteration
+            moveTo(UP_BRANCH);
+        }
+    }
+
+    @Override
+    protected void upBranch() {
+        env.worldPop();
+        if (decision == ROOT) {
+            nextIteration();
+        } else {
+            if (decision.getBranch() == 2) {
+                nbRefuted--;
+            }
+            jumpTo--;
+            if (jumpTo <= 0 && decision.hasNext()) {
+                if (allowed()) {
+                    moveTo(DOWN_RIGHT_BRANCH);
+                    return;
+                }
+                pruned = true;
+            }
+            Decision tmp = decision;
+            decision = decision.getPrevious();
+            tmp.free();
+            depth--;
+        }
+    }
+
+    /**
+     * Return true if the current decision can be refuted during this iteration
+     */
+    private boolean allowed() {
+        return depthBounded ? depth <= k : nbRefuted < k;
+    }
+
+    /**
+     * Return the first iteration which can reach the current node:
+     * the number of refuted decisions (LDS) or the depth of the deepest refuted decision (DDS).
+     */
+    private int rank() {
+        if (depthBounded) {
+            return nbRefuted == 0 ? 0 : refuted[nbRefuted - 1];
+        }
+        return nbRefuted;
+    }
+
+    /**
+     * Start the next iteration from the root node, or stop the search.
+     */
+    private void nextIteration() {
+        if (!pruned) {
+            // the entire search tree has been explored
+            interrupt(MSG_ROOT);
+        } else if (k == maxDiscrepancy) {
+            reachLimit();
+        } else {
+            k++;
+            pruned = false;
+            restoreRootNode();
+            env.worldPush();
+            try {
+                objectivemanager.postDynamicCut();
+                solver.getEngine().propagate();
+                moveTo(OPEN_NODE);
+            } catch (ContradictionException e) {
+                solver.getEngine().flush();
+                interrupt(MSG_CUT);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+
+import java.util.PriorityQueue;
+
+import static org.chocosolver.solver.search.strategy.decision.RootDecision.ROOT;
+
+/**
+ * A hybrid best-first search loop (HBFS).
+ * <p>
+ * The search tree is explored by a sequence of depth-first dives, each of them being restricted by a backtrack budget.
+ * When the budget of a dive is exhausted, the nodes still open in the dive (right branches not explored yet)
+ * are stored in a bounded priority queue, ordered by the bound of the objective variable at their parent node.
+ * Then, the search restarts from the root node and re-enters the most promising open node by replaying its decision path.
+ * When the queue is full, the current dive goes on depth-first, which keeps the exploration complete.
+ * <p>
+ * In satisfaction problems, open nodes are re-entered deepest first.
+ * Restarts should not be combined with this search loop, since the queue is not emptied on restart.
+ * <p>
+ * Based on "Anytime Hybrid Best-First Search with Tree Decomposition for Weighted CSP",
+ * D. Allouche, S. de Givry, G. Katsirelos, T. Schiex and M. Zytnicki, CP 2015.
+ */
+public class HybridBestFirstSearchLoop extends SearchLoop {
+
+    /**
+     * An open node, described by the decision path leading to it
+     */
+    private static final class Node implements Comparable<Node> {
+
+        // copies of the decisions, from the root node to the open node
+        final Decision[] path;
+        // branch of each decision: 1 for applied, 2 for refuted
+        final int[] branches;
+        // bound of the objective variable at the parent node, oriented to be minimized
+        final double bound;
+        // to break ties in favor of the most recently opened node
+        final long order;
+
+        Node(Decision[] path, int[] branches, double bound, long order) {
+            this.path = path;
+            this.branches = branches;
+            this.bound = bound;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Node o) {
+            int c = Double.compare(bound, o.bound);
+            if (c == 0) {
+                c = Integer.compare(o.path.length, path.length);
+            }
+            if (c == 0) {
+                c = Long.compare(o.order, order);
+            }
+            return c;
+        }
+
+        void free() {
+            for (int i = 0; i < path.length; i++) {
+                path[i].free();
+            }
+        }
+    }
+
+    /**
+     * Maximum number of backtracks in a dive
+     */
+    private final int budget;
+
+    /**
+     * Maximum number of open nodes stored
+     */
+    private final int capacity;
+
+    private final PriorityQueue<Node> open;
+
+    // number of backtracks in the current dive
+    private int backtracks;
+
+    // bound of the objective variable at each node of the current decision path, indexed by depth
+    private double[] bounds;
+
+    // chain of decisions of the current dive, from the root node, computed when the budget is exhausted
+    private Decision[] chain;
+
+    private long nbOpened;
+
+    /**
+     * Create a hybrid best-first search loop.
+     *
+     * @param solver   the solver
+     * @param budget   maximum number of backtracks in a dive
+     * @param capacity maximum number of open nodes stored in the queue
+     */
+    public HybridBestFirstSearchLoop(Solver solver, int budget, int capacity) {
+        super(solver);
+        this.budget = budget;
+        this.capacity = capacity;
+        this.open = new PriorityQueue<>();
+        this.bounds = new double[16];
+        this.chain = new Decision[16];
+    }
+
+    @Override
+    public void reset() {
+        clear();
+        super.reset();
+    }
+
+    @Override
+    protected void initialize() {
+        clear();
+        super.initialize();
+    }
+
+    @Override
+    protected void openNode() {
+        if (objectivemanager.isOptimization()) {
+            int depth = getCurrentDepth();
+            if (depth >= bounds.length) {
+                double[] tmp = bounds;
+                bounds = new double[Math.max(depth + 1, tmp.length * 3 / 2 + 1)];
+                System.arraycopy(tmp, 0, bounds, 0, tmp.length);
+            }
+            bounds[depth] = objectivemanager.getCurrentBound();
+        }
+        super.openNode();
+    }
+
+    @Override
+    protected void upBranch() {
+        if (decision == ROOT) {
+            // the current dive is over
+            nextNode();
+        } else if (backtracks >= budget && saveOpenNodes()) {
+            // the budget of the current dive is exhausted
+            nextNode();
+        } else {
+            backtracks++;
+            super.upBranch();
+        }
+    }
+
+    /**
+     * Store in the queue every node left open in the current decision path.
+     *
+     * @return false if the queue cannot store them all, nothing is stored then
+     */
+    private boolean saveOpenNodes() {
+        int depth = 0, nbOpen = 0;
+        for (Decision d = decision; d != ROOT; d = d.getPrevious()) {
+            depth++;
+            if (d.hasNext()) {
+                nbOpen++;
+            }
+        }
+        if (open.size() + nbOpen > capacity) {
+            return false;
+        }
+        if (depth > chain.length) {
+            chain = new Decision[depth * 3 / 2 + 1];
+        }
+        int i = depth;
+        for (Decision d = decision; d != ROOT; d = d.getPrevious()) {
+            chain[--i] = d;
+        }
+        boolean opt = objectivemanager.isOptimization();
+        boolean max = objectivemanager.getPolicy() == ResolutionPolicy.MAXIMIZE;
+        for (int k = 0; k < depth; k++) {
+            if (chain[k].hasNext()) {
+                Decision[] path = new Decision[k + 1];
+                int[] branches = new int[k + 1];
+                for (int j = 0; j <= k; j++) {
+                    path[j] = chain[j].duplicate();
+                    branches[j] = chain[j].getBranch();
+                }
+                branches[k] = 2;
+                double bound = opt ? (max ? -bounds[k] : bounds[k]) : 0;
+                open.add(new Node(path, branches, bound, nbOpened++));
+                // the right branch is now delegated to the queue
+                chain[k].once(true);
+            }
+        }
+        for (int k = 0; k < depth; k++) {
+            chain[k] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Restore the root node and re-enter the most promising open node, or stop the search if there is no more open node.
+     */
+    private void nextNode() {
+        restoreRootNode();
+        env.worldPush();
+        try {
+            objectivemanager.postDynamicCut();
+            solver.getEngine().propagate();
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            clear();
+            interrupt(MSG_CUT);
+            return;
+        }
+        while (!open.isEmpty()) {
+            Node node = open.poll();
+            if (replay(node)) {
+                backtracks = 0;
+                moveTo(OPEN_NODE);
+                return;
+            }
+        }
+        env.worldPop();
+        interrupt(MSG_ROOT);
+    }
+
+    /**
+     * Apply the decision path of <code>node</code>, from the root node.
+     *
+     * @return true if the node is reached, false if a failure occurs, the root node is then restored.
+     */
+    private boolean replay(Node node) {
+        int i = 0;
+        try {
+            for (; i < node.path.length; i++) {
+                Decision d = node.path[i];
+                d.setPrevious(decision);
+                d.setWorldIndex(env.getWorldIndex());
+                decision = d;
+                timeStamp++;
+                env.worldPush();
+                d.buildNext();
+                if (node.branches[i] == 2) {
+                    d.buildNext();
+                } else {
+                    // the refutation is either explored or stored in the queue
+                    d.once(true);
+                }
+                objectivemanager.apply(d);
+                objectivemanager.postDynamicCut();
+                solver.getEngine().propagate();
+            }
+            return true;
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            smList.onContradiction(e);
+            // decisions already chained are freed on restoration
+            for (i++; i < node.path.length; i++) {
+                node.path[i].free();
+            }
+            restoreRootNode();
+            env.worldPush();
+            return false;
+        }
+    }
+
+    /**
+     * Empty the queue of open nodes
+     */
+    private void clear() {
+        while (!open.isEmpty()) {
+            open.poll().free();
+        }
+        backtracks = 0;
+    }
+}
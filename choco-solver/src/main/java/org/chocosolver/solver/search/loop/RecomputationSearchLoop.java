@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+
+import static org.chocosolver.solver.search.strategy.decision.RootDecision.ROOT;
+
+/**
+ * A search loop which does not save the state of every node of the decision path.
+ * <p>
+ * A world is pushed in the environment every <i>k</i> levels only (the checkpoints),
+ * intermediate nodes share the world of their nearest checkpoint, so a backtrackable object modified
+ * in several consecutive levels is saved once.
+ * On backtrack, the state of the nearest checkpoint is restored and the decisions between the checkpoint
+ * and the node to reach are applied again (recomputation), then the propagation is run.
+ * This trades CPU time for memory.
+ * <p>
+ * When the environment is {@link EnvironmentTrailing}, the distance <i>k</i> between two checkpoints
+ * is adapted from the observed trail growth: the more entries are trailed by a checkpoint level, the larger <i>k</i>.
+ * Otherwise, <i>k</i> is fixed to the maximum distance.
+ * <p>
+ * Explanations require the decisions to be bound to their own world, the distance is set to 1 when they are active.
+ * <p>
+ * Based on "Comparing trailing and copying for constraint programming", C. Schulte, ICLP 1999.
+ */
+public class RecomputationSearchLoop extends SearchLoop {
+
+    /**
+     * Maximum distance between two checkpoints
+     */
+    private final int maxDistance;
+
+    /**
+     * Number of trail entries per checkpoint level which increases the distance by one
+     */
+    private final int growth;
+
+    // current distance between two checkpoints
+    private int distance;
+
+    // average number of trail entries recorded by a checkpoint level
+    private double avgGrowth;
+
+    // depth of the current decision
+    private int depth;
+
+    // depths of the decisions applied right after a world push
+    private int[] checkpoints;
+
+    private int nbCheckpoints;
+
+    // world index before the first checkpoint
+    private int base;
+
+    // decisions to apply again, from the nearest checkpoint
+    private Decision[] chain;
+
+    private long nbRecomputations;
+
+    /**
+     * Create a search loop with recomputation.
+     *
+     * @param solver      the solver
+     * @param maxDistance maximum distance between two checkpoints, must be positive
+     * @param growth      number of trail entries per checkpoint level which increases the distance by one,
+     *                    the distance is always the maximum one when it is not positive
+     */
+    public RecomputationSearchLoop(Solver solver, int maxDistance, int growth) {
+        super(solver);
+        if (maxDistance < 1) {
+            throw new IllegalArgumentException("The distance between two checkpoints must be positive");
+        }
+        this.maxDistance = maxDistance;
+        this.growth = growth;
+        this.checkpoints = new int[16];
+        this.chain = new Decision[16];
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        depth = 0;
+        nbCheckpoints = 0;
+        avgGrowth = 0;
+        if (solver.getExplainer().isActive()) {
+            distance = 1;
+        } else if (growth <= 0 || !(env instanceof EnvironmentTrailing)) {
+            distance = maxDistance;
+        } else {
+            distance = 1;
+        }
+    }
+
+    @Override
+    public void restoreRootNode() {
+        super.restoreRootNode();
+        depth = 0;
+        nbCheckpoints = 0;
+    }
+
+    @Override
+    public void setLastDecision(Decision d) {
+        super.setLastDecision(d);
+        depth = getCurrentDepth();
+    }
+
+    @Override
+    protected void openNode() {
+        Decision tmp = decision;
+        super.openNode();
+        if (decision != tmp) {
+            depth++;
+        }
+    }
+
+    @Override
+    protected void downBranch() {
+        boolean checkpoint = nbCheckpoints == 0 || depth - checkpoints[nbCheckpoints - 1] >= distance;
+        int size = 0;
+        if (checkpoint) {
+            if (nbCheckpoints == 0) {
+                base = env.getWorldIndex();
+            }
+            addCheckpoint(depth);
+            env.worldPush();
+            size = trailSize();
+        }
+        try {
+            decision.buildNext();
+            objectivemanager.apply(decision);
+            objectivemanager.postDynamicCut();
+
+            solver.getEngine().propagate();
+            if (checkpoint) {
+                tune(trailSize() - size);
+            }
+            moveTo(OPEN_NODE);
+        } catch (ContradictionException e) {
+            solver.getEngine().flush();
+            moveTo(UP_BRANCH);
+            jumpTo = 1;
+            smList.onContradiction(e);
+        }
+    }
+
+    /**
+     * Goes up in the tree search : reconsider the current decision.
+     * <p>
+     * No state is restored while going up, the state of the parent node is recomputed
+     * only when the opposite decision has to be applied.
+     */
+    @Override
+    protected void upBranch() {
+        if (decision == ROOT) {
+            if (nbCheckpoints > 0) {
+                popUntil(base);
+                nbCheckpoints = 0;
+            }
+            env.worldPop();
+            interrupt(MSG_ROOT);
+        } else {
+            jumpTo--;
+            if (jumpTo <= 0 && decision.hasNext() && recompute()) {
+                moveTo(DOWN_RIGHT_BRANCH);
+            } else {
+                // either the decision is refuted or the state of its parent node cannot be recomputed,
+                // which means the parent node fails
+                Decision tmp = decision;
+                decision = decision.getPrevious();
+                tmp.free();
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Restore the state of the parent node of the current decision:
+     * restore the state of the nearest checkpoint and apply the decisions from it.
+     *
+     * @return false if the propagation fails
+     */
+    private boolean recompute() {
+        // checkpoints of decisions already freed are forgotten
+        while (nbCheckpoints > 0 && checkpoints[nbCheckpoints - 1] > depth) {
+            nbCheckpoints--;
+        }
+        int from = 1;
+        if (nbCheckpoints > 0) {
+            from = checkpoints[--nbCheckpoints];
+        }
+        popUntil(base + nbCheckpoints);
+        timeStamp++;
+        if (from == depth) {
+            return true;
+        }
+        nbRecomputations++;
+        int n = depth - from;
+        if (n > chain.length) {
+            chain = new Decision[n * 3 / 2 + 1];
+        }
+        Decision d = decision.getPrevious();
+        for (int i = n - 1; i >= 0; i--) {
+            chain[i] = d;
+            d = d.getPrevious();
+        }
+        addCheckpoint(from);
+        env.worldPush();
+        try {
+            for (int i = 0; i < n; i++) {
+                objectivemanager.apply(chain[i]);
+            }
+            objectivemanager.postDynamicCut();
+            solver.getEngine().propagate();
+            return true;
+        } catch (ContradictionException e) {
+            // the cut may have been improved since the node was first reached
+            solver.getEngine().flush();
+            env.worldPop();
+            nbCheckpoints--;
+            return false;
+        } finally {
+            for (int i = 0; i < n; i++) {
+                chain[i] = null;
+            }
+        }
+    }
+
+    // pop one world at a time, to get the same state whatever the environment is
+    private void popUntil(int w) {
+        while (env.getWorldIndex() > w) {
+            env.worldPop();
+        }
+    }
+
+    private void addCheckpoint(int d) {
+        if (nbCheckpoints == checkpoints.length) {
+            int[] tmp = checkpoints;
+            checkpoints = new int[tmp.length * 3 / 2 + 1];
+            System.arraycopy(tmp, 0, checkpoints, 0, tmp.length);
+        }
+        checkpoints[nbCheckpoints++] = d;
+    }
+
+    private int trailSize() {
+        return env instanceof EnvironmentTrailing ? ((EnvironmentTrailing) env).getTrailSize() : 0;
+    }
+
+    /**
+     * Adapt the distance between two checkpoints to the number of trail entries recorded by the last checkpoint level
+     */
+    private void tune(int entries) {
+        if (growth > 0 && env instanceof EnvironmentTrailing && !solver.getExplainer().isActive()) {
+            avgGrowth += (entries - avgGrowth) / 8;
+            distance = (int) Math.min(maxDistance, 1 + avgGrowth / growth);
+        }
+    }
+
+    /**
+     * @return the current distance between two checkpoints
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the number of times the state of a node has been recomputed from a checkpoint
+     */
+    public long getRecomputationCount() {
+        return nbRecomputations;
+    }
+}
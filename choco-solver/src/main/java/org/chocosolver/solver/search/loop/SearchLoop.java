@@ -151,6 +151,7 @@ public class SearchLoop implements ISearchLoop {
         smList.add(this.measures);
         this.nextState = INIT;
         rootWorldIndex = -1;
+        objectivemanager = SAT();
     }
 
     //***********************************************************************************
@@ -309,7 +310,7 @@ public class SearchLoop implements ISearchLoop {
     /**
      * Initializes the measures, just before the beginning of the search
      */
-    private void initialize() {
+    protected void initialize() {
         this.rootWorldIndex = env.getWorldIndex();
         this.nextState = INITIAL_PROPAGATION;
     }
@@ -317,7 +318,7 @@ public class SearchLoop implements ISearchLoop {
     /**
      * Runs the initial propagation, awaking each constraints and call filter on the initial state of variables.
      */
-    private void initialPropagation() {
+    protected void initialPropagation() {
         this.env.worldPush();
         try {
             solver.getEngine().propagate();
@@ -349,7 +350,7 @@ public class SearchLoop implements ISearchLoop {
     /**
      * Opens a new node in the tree search : compute the next decision or store a solution.
      */
-    private void openNode() {
+    protected void openNode() {
         Decision tmp = decision;
         decision = strategy.getDecision();
         if (decision != null) { // null means there is no more decision
@@ -361,7 +362,7 @@ public class SearchLoop implements ISearchLoop {
         }
     }
 
-    private void recordSolution() {
+    protected void recordSolution() {
         //todo: checker d'etat
         solver.setFeasible(TRUE);
         assert (TRUE.equals(solver.isSatisfied())) : fullReport(solver);
@@ -377,15 +378,15 @@ public class SearchLoop implements ISearchLoop {
     /**
      * Goes down in the tree search : apply the current decision.
      */
-    private void downLeftBranch() {
+    protected void downLeftBranch() {
         downBranch();
     }
 
-    private void downRightBranch() {
+    protected void downRightBranch() {
         downBranch();
     }
 
-    private void downBranch() {
+    protected void downBranch() {
         env.worldPush();
         try {
             decision.buildNext();
@@ -409,7 +410,7 @@ public class SearchLoop implements ISearchLoop {
      * Then, if it goes back to the base world, stop the search.
      * Otherwise, gets the opposite decision, applies it and calls the propagation.
      */
-    private void upBranch() {
+    protected void upBranch() {
         env.worldPop();
         if (decision == ROOT) {// Issue#55
             // The entire tree search has been explored, the search cannot be followed
@@ -429,7 +430,7 @@ public class SearchLoop implements ISearchLoop {
     /**
      * Force restarts of the search from a previous node in the tree search.
      */
-    private void restartSearch() {
+    protected void restartSearch() {
         restoreRootNode();
         solver.getEnvironment().worldPush(); //issue#55
         try {
@@ -445,7 +446,7 @@ public class SearchLoop implements ISearchLoop {
      * Close the search, restore the last solution if any,
      * and set the feasibility and optimality variables.
      */
-    private void close() {
+    protected void close() {
         ESat sat = FALSE;
         if (measures.getSolutionCount() > 0) {
             sat = TRUE;
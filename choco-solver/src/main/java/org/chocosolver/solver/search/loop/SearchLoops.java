@@ -44,6 +44,44 @@ public enum SearchLoops {
             solver.set(new SearchLoop(solver));
         }
     },
+    /**
+     * Hybrid best-first search, see {@link HybridBestFirstSearchLoop}:
+     * depth-first dives of 1000 backtracks at most, up to 100000 open nodes stored.
+     */
+    HBFS() {
+        @Override
+        public void make(Solver solver) {
+            solver.set(new HybridBestFirstSearchLoop(solver, 1000, 100000));
+        }
+    },
+    /**
+     * Limited discrepancy search, see {@link DiscrepancySearchLoop}
+     */
+    LDS() {
+        @Override
+        public void make(Solver solver) {
+            solver.set(new DiscrepancySearchLoop(solver, false, Integer.MAX_VALUE));
+        }
+    },
+    /**
+     * Depth-bounded discrepancy search, see {@link DiscrepancySearchLoop}
+     */
+    DDS() {
+        @Override
+        public void make(Solver solver) {
+            solver.set(new DiscrepancySearchLoop(solver, true, Integer.MAX_VALUE));
+        }
+    },
+    /**
+     * Search with recomputation, see {@link RecomputationSearchLoop}:
+     * at most 8 levels between two checkpoints, one more level every 256 trail entries recorded by a checkpoint level.
+     */
+    RECOMPUTATION() {
+        @Override
+        public void make(Solver solver) {
+            solver.set(new RecomputationSearchLoop(solver, 8, 256));
+        }
+    },
     DEFAULT() {
         @Override
         public void make(Solver solver) {
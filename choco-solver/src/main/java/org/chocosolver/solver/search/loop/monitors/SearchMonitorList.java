@@ -30,10 +30,13 @@ package org.chocosolver.solver.search.loop.monitors;
 
 import org.chocosolver.solver.exception.ContradictionException;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
+ * The search monitors plugged in a search loop, dispatched by kind of event.
+ * <br/>
+ * Monitors are stored in plain arrays, one per kind of event, so that a call made on each node of the search tree
+ * is a loop over the monitors which actually listen to it, and does nothing when there is none.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -43,234 +46,252 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
         IMonitorInitialize, IMonitorInitPropagation, IMonitorInterruption, IMonitorOpenNode, IMonitorRestart,
         IMonitorSolution, IMonitorUpBranch {
 
-    List<IMonitorClose> mclos = new ArrayList<>();
-    List<IMonitorContradiction> mcont = new ArrayList<>();
-    List<IMonitorDownBranch> mdbra = new ArrayList<>();
-    List<IMonitorInitialize> minit = new ArrayList<>();
-    List<IMonitorInitPropagation> mipro = new ArrayList<>();
-    List<IMonitorInterruption> minte = new ArrayList<>();
-    List<IMonitorOpenNode> mopno = new ArrayList<>();
-    List<IMonitorRestart> mrest = new ArrayList<>();
-    List<IMonitorSolution> msolu = new ArrayList<>();
-    List<IMonitorUpBranch> mubra = new ArrayList<>();
+    // one array per kind of event, only the first n cells are relevant,
+    // a kind of event with no monitor costs a comparison
+    IMonitorClose[] mclos = new IMonitorClose[0];
+    int nclos;
+    IMonitorContradiction[] mcont = new IMonitorContradiction[0];
+    int ncont;
+    IMonitorDownBranch[] mdbra = new IMonitorDownBranch[0];
+    int ndbra;
+    IMonitorInitialize[] minit = new IMonitorInitialize[0];
+    int ninit;
+    IMonitorInitPropagation[] mipro = new IMonitorInitPropagation[0];
+    int nipro;
+    IMonitorInterruption[] minte = new IMonitorInterruption[0];
+    int ninte;
+    IMonitorOpenNode[] mopno = new IMonitorOpenNode[0];
+    int nopno;
+    IMonitorRestart[] mrest = new IMonitorRestart[0];
+    int nrest;
+    IMonitorSolution[] msolu = new IMonitorSolution[0];
+    int nsolu;
+    IMonitorUpBranch[] mubra = new IMonitorUpBranch[0];
+    int nubra;
+    // all the monitors plugged in
+    ISearchMonitor[] all = new ISearchMonitor[0];
+    int nall;
 
 
     @Override
     public void beforeInitialize() {
-        for (int i = 0; i < minit.size(); i++) {
-            minit.get(i).beforeInitialize();
+        for (int i = 0; i < ninit; i++) {
+            minit[i].beforeInitialize();
         }
     }
 
     @Override
     public void afterInitialize() {
-        for (int i = 0; i < minit.size(); i++) {
-            minit.get(i).afterInitialize();
+        for (int i = 0; i < ninit; i++) {
+            minit[i].afterInitialize();
         }
     }
 
     @Override
     public void beforeInitialPropagation() {
-        for (int i = 0; i < mipro.size(); i++) {
-            mipro.get(i).beforeInitialPropagation();
+        for (int i = 0; i < nipro; i++) {
+            mipro[i].beforeInitialPropagation();
         }
     }
 
     @Override
     public void afterInitialPropagation() {
-        for (int i = 0; i < mipro.size(); i++) {
-            mipro.get(i).afterInitialPropagation();
+        for (int i = 0; i < nipro; i++) {
+            mipro[i].afterInitialPropagation();
         }
     }
 
     @Override
     public void beforeOpenNode() {
-        for (int i = 0; i < mopno.size(); i++) {
-            mopno.get(i).beforeOpenNode();
+        for (int i = 0; i < nopno; i++) {
+            mopno[i].beforeOpenNode();
         }
     }
 
     @Override
     public void afterOpenNode() {
-        for (int i = 0; i < mopno.size(); i++) {
-            mopno.get(i).afterOpenNode();
+        for (int i = 0; i < nopno; i++) {
+            mopno[i].afterOpenNode();
         }
     }
 
     @Override
     public void onSolution() {
-        for (int i = 0; i < msolu.size(); i++) {
-            msolu.get(i).onSolution();
+        for (int i = 0; i < nsolu; i++) {
+            msolu[i].onSolution();
         }
     }
 
     @Override
     public void beforeDownLeftBranch() {
-        for (int i = 0; i < mdbra.size(); i++) {
-            mdbra.get(i).beforeDownLeftBranch();
+        for (int i = 0; i < ndbra; i++) {
+            mdbra[i].beforeDownLeftBranch();
         }
     }
 
     @Override
     public void afterDownLeftBranch() {
-        for (int i = 0; i < mdbra.size(); i++) {
-            mdbra.get(i).afterDownLeftBranch();
+        for (int i = 0; i < ndbra; i++) {
+            mdbra[i].afterDownLeftBranch();
         }
     }
 
     @Override
     public void beforeDownRightBranch() {
-        for (int i = 0; i < mdbra.size(); i++) {
-            mdbra.get(i).beforeDownRightBranch();
+        for (int i = 0; i < ndbra; i++) {
+            mdbra[i].beforeDownRightBranch();
         }
     }
 
     @Override
     public void afterDownRightBranch() {
-        for (int i = 0; i < mdbra.size(); i++) {
-            mdbra.get(i).afterDownRightBranch();
+        for (int i = 0; i < ndbra; i++) {
+            mdbra[i].afterDownRightBranch();
         }
     }
 
     @Override
     public void beforeUpBranch() {
-        for (int i = 0; i < mubra.size(); i++) {
-            mubra.get(i).beforeUpBranch();
+        for (int i = 0; i < nubra; i++) {
+            mubra[i].beforeUpBranch();
         }
     }
 
     @Override
     public void afterUpBranch() {
-        for (int i = 0; i < mubra.size(); i++) {
-            mubra.get(i).afterUpBranch();
+        for (int i = 0; i < nubra; i++) {
+            mubra[i].afterUpBranch();
         }
     }
 
     @Override
     public void onContradiction(ContradictionException cex) {
-        for (int i = 0; i < mcont.size(); i++) {
-            mcont.get(i).onContradiction(cex);
+        for (int i = 0; i < ncont; i++) {
+            mcont[i].onContradiction(cex);
         }
     }
 
     @Override
     public void beforeRestart() {
-        for (int i = 0; i < mrest.size(); i++) {
-            mrest.get(i).beforeRestart();
+        for (int i = 0; i < nrest; i++) {
+            mrest[i].beforeRestart();
         }
     }
 
     @Override
     public void afterRestart() {
-        for (int i = 0; i < mrest.size(); i++) {
-            mrest.get(i).afterRestart();
+        for (int i = 0; i < nrest; i++) {
+            mrest[i].afterRestart();
         }
     }
 
     @Override
     public void afterInterrupt() {
-        for (int i = 0; i < minte.size(); i++) {
-            minte.get(i).afterInterrupt();
+        for (int i = 0; i < ninte; i++) {
+            minte[i].afterInterrupt();
         }
     }
 
     @Override
     public void beforeClose() {
-        for (int i = 0; i < mclos.size(); i++) {
-            mclos.get(i).beforeClose();
+        for (int i = 0; i < nclos; i++) {
+            mclos[i].beforeClose();
         }
     }
 
     @Override
     public void afterClose() {
-        for (int i = 0; i < mclos.size(); i++) {
-            mclos.get(i).afterClose();
+        for (int i = 0; i < nclos; i++) {
+            mclos[i].afterClose();
         }
     }
 
     public void add(ISearchMonitor sm) {
         if (sm != null) {
+            all = grow(all, nall);
+            all[nall++] = sm;
             if (sm instanceof IMonitorClose) {
-                mclos.add((IMonitorClose) sm);
+                mclos = grow(mclos, nclos);
+                mclos[nclos++] = (IMonitorClose) sm;
             }
             if (sm instanceof IMonitorContradiction) {
-                mcont.add((IMonitorContradiction) sm);
+                mcont = grow(mcont, ncont);
+                mcont[ncont++] = (IMonitorContradiction) sm;
             }
             if (sm instanceof IMonitorDownBranch) {
-                mdbra.add((IMonitorDownBranch) sm);
+                mdbra = grow(mdbra, ndbra);
+                mdbra[ndbra++] = (IMonitorDownBranch) sm;
             }
             if (sm instanceof IMonitorInitialize) {
-                minit.add((IMonitorInitialize) sm);
+                minit = grow(minit, ninit);
+                minit[ninit++] = (IMonitorInitialize) sm;
             }
             if (sm instanceof IMonitorInitPropagation) {
-                mipro.add((IMonitorInitPropagation) sm);
+                mipro = grow(mipro, nipro);
+                mipro[nipro++] = (IMonitorInitPropagation) sm;
             }
             if (sm instanceof IMonitorInterruption) {
-                minte.add((IMonitorInterruption) sm);
+                minte = grow(minte, ninte);
+                minte[ninte++] = (IMonitorInterruption) sm;
             }
             if (sm instanceof IMonitorOpenNode) {
-                mopno.add((IMonitorOpenNode) sm);
+                mopno = grow(mopno, nopno);
+                mopno[nopno++] = (IMonitorOpenNode) sm;
             }
             if (sm instanceof IMonitorRestart) {
-                mrest.add((IMonitorRestart) sm);
+                mrest = grow(mrest, nrest);
+                mrest[nrest++] = (IMonitorRestart) sm;
             }
             if (sm instanceof IMonitorSolution) {
-                msolu.add((IMonitorSolution) sm);
+                msolu = grow(msolu, nsolu);
+                msolu[nsolu++] = (IMonitorSolution) sm;
             }
             if (sm instanceof IMonitorUpBranch) {
-                mubra.add((IMonitorUpBranch) sm);
+                mubra = grow(mubra, nubra);
+                mubra[nubra++] = (IMonitorUpBranch) sm;
             }
         }
     }
 
     public boolean contains(ISearchMonitor sm) {
-        boolean isPluggedIn = false;
-        if (sm != null) {
-            if (sm instanceof IMonitorClose) {
-                isPluggedIn = mclos.contains(sm);
-            }
-            if (sm instanceof IMonitorContradiction) {
-                isPluggedIn = mcont.contains(sm);
-            }
-            if (sm instanceof IMonitorDownBranch) {
-                isPluggedIn = mdbra.contains(sm);
-            }
-            if (sm instanceof IMonitorInitialize) {
-                isPluggedIn = minit.contains(sm);
-            }
-            if (sm instanceof IMonitorInitPropagation) {
-                isPluggedIn = mipro.contains(sm);
-            }
-            if (sm instanceof IMonitorInterruption) {
-                isPluggedIn = minte.contains(sm);
-            }
-            if (sm instanceof IMonitorOpenNode) {
-                isPluggedIn = mopno.contains(sm);
-            }
-            if (sm instanceof IMonitorRestart) {
-                isPluggedIn = mrest.contains(sm);
-            }
-            if (sm instanceof IMonitorSolution) {
-                isPluggedIn = msolu.contains(sm);
-            }
-            if (sm instanceof IMonitorUpBranch) {
-                isPluggedIn = mubra.contains(sm);
+        for (int i = 0; i < nall; i++) {
+            if (all[i].equals(sm)) {
+                return true;
             }
         }
-        return isPluggedIn;
+        return false;
     }
 
     public void reset() {
-        mclos.clear();
-        mcont.clear();
-        mdbra.clear();
-        minit.clear();
-        minte.clear();
-        mipro.clear();
-        mopno.clear();
-        mrest.clear();
-        msolu.clear();
-        mubra.clear();
+        nclos = 0;
+        ncont = 0;
+        ndbra = 0;
+        ninit = 0;
+        nipro = 0;
+        ninte = 0;
+        nopno = 0;
+        nrest = 0;
+        nsolu = 0;
+        nubra = 0;
+        nall = 0;
+        Arrays.fill(mclos, null);
+        Arrays.fill(mcont, null);
+        Arrays.fill(mdbra, null);
+        Arrays.fill(minit, null);
+        Arrays.fill(mipro, null);
+        Arrays.fill(minte, null);
+        Arrays.fill(mopno, null);
+        Arrays.fill(mrest, null);
+        Arrays.fill(msolu, null);
+        Arrays.fill(mubra, null);
+        Arrays.fill(all, null);
+    }
+
+    private static <M> M[] grow(M[] monitors, int size) {
+        if (size == monitors.length) {
+            monitors = Arrays.copyOf(monitors, size * 3 / 2 + 1);
+        }
+        return monitors;
     }
 
 }
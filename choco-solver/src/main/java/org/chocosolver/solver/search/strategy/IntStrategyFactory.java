@@ -525,6 +525,18 @@ public class IntStrategyFactory {
         return new LastConflict(SOLVER, STRAT, K);
     }
 
+    /**
+     * Use the conflict ordering search heuristic as a pluggin to improve a former search heuristic STRAT:
+     * variables are selected by decreasing order of their latest conflict, then STRAT is used.
+     *
+     * @param SOLVER the solver
+     * @param STRAT  the main strategy
+     * @return conflict ordering search strategy
+     */
+    public static AbstractStrategy conflictOrderingSearch(Solver SOLVER, AbstractStrategy STRAT) {
+        return new ConflictOrderingSearch(SOLVER, STRAT);
+    }
+
     /**
      * Create a Generate-And-Test search strategy which evaluate each remaining complete instantiation and
      * check its satisfiability. This does not rely on propagation but only on propagator entailment.
@@ -111,6 +111,13 @@ public abstract class Decision<V extends Variable> implements Identity, ICause,
         branch++;
     }
 
+    /**
+     * Return the current branch of the decision: 0 if not applied yet, 1 if applied, 2 if refuted.
+     */
+    public int getBranch() {
+        return branch;
+    }
+
     /**
      * Should this decision be a one-shot decision, non refutable.
      * @param once a boolean
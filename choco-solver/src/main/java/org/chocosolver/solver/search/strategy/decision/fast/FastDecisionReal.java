@@ -74,6 +74,16 @@ public class FastDecisionReal extends Decision<RealVar> {
         poolManager.returnE(this);
     }
 
+    @Override
+    public Decision<RealVar> duplicate() {
+        FastDecisionReal d = poolManager.getE();
+        if (d == null) {
+            d = new FastDecisionReal(poolManager);
+        }
+        d.set(var, value);
+        return d;
+    }
+
     @Override
     public String toString() {
         return String.format("%s%s %s %s (%d)", (branch < 2 ? "" : "!"), var.getName(), "<=", value, branch);
@@ -80,6 +80,16 @@ public class FastDecisionSet extends Decision<SetVar> {
         poolManager.returnE(this);
     }
 
+    @Override
+    public Decision<SetVar> duplicate() {
+        FastDecisionSet d = poolManager.getE();
+        if (d == null) {
+            d = new FastDecisionSet(poolManager);
+        }
+        d.set(var, value, operator);
+        return d;
+    }
+
     @Override
     public String toString() {
         return String.format("%s%s %s %s (%d)", (branch < 2 ? "" : "!"), var.getName(), operator.toString(), value, branch);
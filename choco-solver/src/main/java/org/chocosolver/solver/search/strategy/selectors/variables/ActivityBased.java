@@ -32,7 +32,7 @@ package org.chocosolver.solver.search.strategy.selectors.variables;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntDoubleHashMap;
-import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.explanations.Deduction;
@@ -50,7 +50,7 @@ import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.util.PoolManager;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Comparator;
 
 /**
@@ -58,6 +58,13 @@ import java.util.Comparator;
  * "Activity-Based Search for Black-Box Constraint Propagramming Solver",
  * Laurent Michel and Pascal Van Hentenryck, CPAIOR12.
  * <br/>
+ * Only the variables modified since the last decision are considered on activity update.
+ * Activities are not decayed one by one: the increment of activity grows instead, by a factor 1/g on each decision,
+ * so a decision costs O(t log n) where t is the number of modified variables.
+ * As a consequence, instantiated variables are decayed as well.
+ * Free variables are stored in a max-heap ordered by activity, so the variable with the largest ratio A(x)/|D(x)|
+ * is found without scanning all the variables (since |D(x)| >= 2, the ratio of x is at most A(x)/2).
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 07/06/12
@@ -113,16 +120,35 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     //////////////////////////////
     //////////////////////////////
 
+    // beyond this increment, activities are rescaled
+    private static final double MAX_INC = 1e100;
+
     final Solver solver;
-    final TIntIntHashMap v2i;
+    final int[] v2i; // index of a variable, from its id minus the smallest id
+    final int offset;
     final IntVar[] vars;
 
-    final double[] A; // activity of all variables
+    final double[] A; // activity of all variables, scaled by inc
     final double[] mA; // the mean -- maintained incrementally
     final double[] sA; // the variance -- maintained incrementally -- std dev = sqrt(sA/path-1)
     final IVal[] vAct; // activity of each value of all variables
 
-    final BitSet affected; // store affected variables
+    final int[] affected; // store affected variables
+    int nbAffected;
+    final int[] stamps; // a variable is affected iff its stamp is the current one
+    int stamp;
+
+    double inc = ONE; // increment of activity, the real activity of a variable is A/inc
+
+    final int[] heap; // max-heap of free variables, ordered by activity
+    final int[] hpos; // position of a variable in the heap, -1 if it is not in
+    int hsize;
+    final int[] removed; // variables removed from the heap because instantiated, stacked by node
+    final int[] removedAt; // node of removal
+    int nbRemoved;
+    IStateInt node; // the last node opened on the current path, restored on backtrack
+    int nbNodes;
+    final int[] visit; // heap positions to visit on selection
 
     final double g, d; // g for aging, d for interval size estimation
     final int a; // forget parameter
@@ -152,13 +178,29 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
         mA = new double[vars.length];
         sA = new double[vars.length];
         vAct = new IVal[vars.length];
-        affected = new BitSet(vars.length);
+        affected = new int[vars.length];
+        stamps = new int[vars.length];
+        stamp = 1;
 
-        this.v2i = new TIntIntHashMap(vars.length);
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
         for (int i = 0; i < vars.length; i++) {
-            v2i.put(vars[i].getId(), i);
+            min = Math.min(min, vars[i].getId());
+            max = Math.max(max, vars[i].getId());
+        }
+        this.offset = vars.length == 0 ? 0 : min;
+        this.v2i = new int[vars.length == 0 ? 0 : max - min + 1];
+        Arrays.fill(v2i, -1);
+        for (int i = 0; i < vars.length; i++) {
+            v2i[vars[i].getId() - offset] = i;
             vars[i].addMonitor(this);
         }
+        heap = new int[vars.length];
+        hpos = new int[vars.length];
+        removed = new int[vars.length];
+        removedAt = new int[vars.length];
+        visit = new int[vars.length];
+        node = solver.getEnvironment().makeInt(0);
+        rebuildHeap();
 
         assert g >= 0.0f && g <= 1.0f;
         this.g = g;
@@ -195,6 +237,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
                 vAct[i] = new ArrayVal(ampl, vars[i].getLB());
             }
         }
+        rebuildHeap();
     }
 
     @Override
@@ -207,11 +250,10 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 				return null;
 			}
             // retrieve indice of the variable in vars
-			for(int i=0;i<vars.length;i++){
-				if(vars[i]==variable){
-					currentVar = i;
-				}
-			}
+            currentVar = index(variable);
+            if (currentVar == -1) {
+                return null;
+            }
             assert vars[currentVar] == variable;
         }
         currentVal = variable.getLB();
@@ -263,10 +305,21 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
         IntVar best = null;
         bests.clear();
         double bestVal = -1.0d;
-        for (int i = 0; i < vars.length; i++) {
+        restoreHeap();
+        // visit the heap from its root, a sub-heap is skipped when it cannot contain a better ratio
+        int nbVisit = 0, nbInst = 0;
+        if (hsize > 0) {
+            visit[nbVisit++] = 0;
+        }
+        while (nbVisit > 0) {
+            int p = visit[--nbVisit];
+            int i = heap[p];
+            if (A[i] / 2 < bestVal) {
+                continue;
+            }
             int ds = vars[i].getDomainSize();
             if (ds > 1) {
-                double a = A[v2i.get(vars[i].getId())] / ds;
+                double a = A[i] / ds;
                 if (a > bestVal) {
                     bests.clear();
                     bests.add(i);
@@ -274,8 +327,27 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
                 } else if (a == bestVal) {
                     bests.add(i);
                 }
+            } else {
+                // reuse the end of the array to store instantiated variables
+                visit[visit.length - ++nbInst] = i;
+            }
+            if (2 * p + 2 < hsize) {
+                visit[nbVisit++] = 2 * p + 2;
             }
+            if (2 * p + 1 < hsize) {
+                visit[nbVisit++] = 2 * p + 1;
+            }
+        }
+        // instantiated variables are removed from the heap until they are free again
+        int n = nbNodes;
+        while (nbInst > 0) {
+            int i = visit[visit.length - nbInst--];
+            heapRemove(i);
+            removed[nbRemoved] = i;
+            removedAt[nbRemoved++] = n;
         }
+        node.set(n);
+        nbNodes++;
         if (bests.size() > 0) {
             currentVar = bests.get(random.nextInt(bests.size()));
             best = vars[currentVar];
@@ -289,8 +361,8 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
             return random.nextBoolean() ? 1 : -1;
         }
         // select var with the largest ratio A(x)/|D(x)|
-        int id1 = v2i.get(o1.getId());
-        int id2 = v2i.get(o2.getId());
+        int id1 = index(o1);
+        int id2 = index(o2);
         // avoid using / operation, * is faster
         double b1 = A[id1] * o2.getDomainSize();
         double b2 = A[id2] * o1.getDomainSize();
@@ -303,17 +375,27 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     }
 
     public double getActivity(IntVar var) {
-        if (v2i.contains(var.getId())) {
-            return A[v2i.get(var.getId())] / var.getDomainSize();
+        int i = index(var);
+        if (i > -1) {
+            return A[i] / inc / var.getDomainSize();
         } else {
             return 0.0d;
         }
     }
 
+    private int index(IntVar var) {
+        int i = var.getId() - offset;
+        return i >= 0 && i < v2i.length ? v2i[i] : -1;
+    }
+
 
     @Override
     public void onUpdate(IntVar var, IEventType evt) {
-        affected.set(v2i.get(var.getId()));
+        int i = index(var);
+        if (stamps[i] != stamp) {
+            stamps[i] = stamp;
+            affected[nbAffected++] = i;
+        }
     }
 
     @Override
@@ -325,7 +407,8 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
     @Override
     public void beforeDownLeftBranch() {
-        affected.clear();
+        stamp++;
+        nbAffected = 0;
     }
 
     @Override
@@ -335,19 +418,25 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     @Override
     public void afterDownLeftBranch() {
         if (currentVar > -1) {  // if the decision was computed by another strategy
-            for (int i = 0; i < A.length; i++) {
-                if (vars[i].getDomainSize() > 1) {
-                    A[i] *= sampling ? ONE : g;
+            if (!sampling) {
+                // decaying every activity by g is equivalent to increasing the increment by 1/g
+                inc /= g;
+                if (inc > MAX_INC) {
+                    rescale();
                 }
-                if (affected.get(i)) {
-                    A[i] += 1;
+            }
+            for (int k = 0; k < nbAffected; k++) {
+                int i = affected[k];
+                A[i] += inc;
+                if (hpos[i] > -1) {
+                    siftUp(hpos[i]);
                 }
             }
             double act = vAct[currentVar].activity(currentVal);
             if (sampling) {
-                vAct[currentVar].setactivity(currentVal, act + affected.cardinality());
+                vAct[currentVar].setactivity(currentVal, act + nbAffected);
             } else {
-                vAct[currentVar].setactivity(currentVal, (act * (a - 1) + affected.cardinality()) / a);
+                vAct[currentVar].setactivity(currentVal, (act * (a - 1) + nbAffected) / a);
             }
             currentVar = -1;
         }
@@ -375,6 +464,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
                 A[i] = 0;
                 vAct[i].update(nb_probes);
             }
+            rebuildHeap();
             // check if sampling is still required
             int idx = 0;
             while (idx < vars.length && checkInterval(idx)) {
@@ -386,9 +476,11 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
                 restartAfterEachFail = false;
                 // then copy values estimated
                 System.arraycopy(mA, 0, A, 0, mA.length);
+                inc = ONE;
                 for (int i = 0; i < A.length; i++) {
                     vAct[i].transfer();
                 }
+                rebuildHeap();
 //                solver.getSearchLoop().restartAfterEachSolution(false);
                 SearchMonitorFactory.geometrical(solver, 3 * vars.length, r,
                         new FailCounter(3 * vars.length), Integer.MAX_VALUE);
@@ -397,6 +489,92 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
         }
     }
 
+    /**
+     * Divide activities and increment by a large constant, the order of variables is not modified
+     */
+    private void rescale() {
+        for (int i = 0; i < A.length; i++) {
+            A[i] /= MAX_INC;
+        }
+        inc /= MAX_INC;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Put back in the heap the variables removed in nodes which are no longer on the current path
+     */
+    private void restoreHeap() {
+        int n = node.get();
+        while (nbRemoved > 0 && removedAt[nbRemoved - 1] > n) {
+            heapInsert(removed[--nbRemoved]);
+        }
+    }
+
+    private void rebuildHeap() {
+        hsize = 0;
+        nbRemoved = 0;
+        for (int i = 0; i < vars.length; i++) {
+            heap[hsize] = i;
+            hpos[i] = hsize++;
+        }
+        for (int p = hsize / 2 - 1; p >= 0; p--) {
+            siftDown(p);
+        }
+    }
+
+    private void heapInsert(int i) {
+        heap[hsize] = i;
+        hpos[i] = hsize;
+        siftUp(hsize++);
+    }
+
+    private void heapRemove(int i) {
+        int p = hpos[i];
+        int last = heap[--hsize];
+        hpos[i] = -1;
+        if (p < hsize) {
+            heap[p] = last;
+            hpos[last] = p;
+            siftDown(p);
+            siftUp(hpos[last]);
+        }
+    }
+
+    private void siftUp(int p) {
+        int i = heap[p];
+        while (p > 0) {
+            int q = (p - 1) / 2;
+            if (A[heap[q]] >= A[i]) {
+                break;
+            }
+            heap[p] = heap[q];
+            hpos[heap[p]] = p;
+            p = q;
+        }
+        heap[p] = i;
+        hpos[i] = p;
+    }
+
+    private void siftDown(int p) {
+        int i = heap[p];
+        int half = hsize / 2;
+        while (p < half) {
+            int c = 2 * p + 1;
+            if (c + 1 < hsize && A[heap[c + 1]] > A[heap[c]]) {
+                c++;
+            }
+            if (A[i] >= A[heap[c]]) {
+                break;
+            }
+            heap[p] = heap[c];
+            hpos[heap[p]] = p;
+            p = c;
+        }
+        heap[p] = i;
+        hpos[i] = p;
+    }
+
     /**
      * Return true if the interval is small enough
      *
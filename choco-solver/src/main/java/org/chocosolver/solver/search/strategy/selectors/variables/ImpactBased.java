@@ -49,9 +49,11 @@ import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.SharedClock;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of the search described in:
@@ -200,7 +202,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
 
     @Override
     public void init() throws ContradictionException {
-        long tl = System.currentTimeMillis() + this.timeLimit;
+        long start = SharedClock.nanoTime(), tl = TimeUnit.MILLISECONDS.toNanos(this.timeLimit);
         // 0. Data structure construction
         Ilabel = new double[vars.length][];
         offsets = new int[vars.length];
@@ -222,7 +224,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                     if (v.getDomainSize() < split) { // try each value
                         DisposableValueIterator it = v.getValueIterator(true);
                         while (it.hasNext()) {
-                            if (System.currentTimeMillis() > tl) {
+                            if (SharedClock.nanoTime() - start > tl) {
                                 break loop;
                             }
                             int a = it.next();
@@ -235,7 +237,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                         int size = dsz / split;
                         DisposableValueIterator it = v.getValueIterator(true);
                         while (it.hasNext()) {
-                            if (System.currentTimeMillis() > tl) {
+                            if (SharedClock.nanoTime() - start > tl) {
                                 break loop;
                             }
                             int a = it.next();
@@ -251,7 +253,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                         it.dispose();
                     }
                 } else {
-                    if (System.currentTimeMillis() > tl) {
+                    if (SharedClock.nanoTime() - start > tl) {
                         break;
                     }
                     // A. choose 3 values in the domain to have an estimation of the impact
@@ -266,7 +268,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
             // If the initialisation detects a failure, then the problem has no solution!
             learnsAndFails = false;
             solver.getEngine().fails(this, lAfVar, "Impact::init:: detect failures");
-        } else if (System.currentTimeMillis() > tl) {
+        } else if (SharedClock.nanoTime() - start > tl) {
             LOGGER.debug("impact Search stops its init phase -- reach time limit!");
             for (int i = 0; i < vars.length; i++) {  // create arrays to avoid null pointer errors
                 IntVar v = vars[i];
@@ -26,59 +26,32 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+package org.chocosolver.solver.search.strategy.strategy;
 
-import org.chocosolver.memory.structure.IndexedObject;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.jgrapht.EdgeFactory;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.Variable;
 
 /**
- * Created by IntelliJ IDEA.
- * User: julien
- * Date: Oct 30, 2009
- * Time: 3:48:11 PM
+ * Conflict Ordering Search heuristic
+ * Composite heuristic which hacks a mainStrategy by selecting first the variable
+ * whose latest conflict is the most recent one, among variables not instantiated yet.
+ * Unlike {@link LastConflict}, every conflicting variable is recorded
+ * and the conflict ordering is kept on solutions and restarts.
+ * The main strategy is used when no conflicting variable remains.
+ * <p>
+ * Based on "Conflict Ordering Search for Scheduling Problems", S. Gay, R. Hartert, C. Lecoutre and P. Schaus, CP 2015.
  */
-public class Arc implements IndexedObject {
+public class ConflictOrderingSearch extends LastConflict {
 
-    public int id;
-    public Node orig;
-    public Node dest;
-    public int value;
-
-
-    public Arc(Node orig, Node dest, int value, int id) {
-        this.id = id;
-        this.orig = orig;
-        this.dest = dest;
-        this.value = value;
-    }
-
-
-    public String toString() {
-        return value + "";
+    public ConflictOrderingSearch(Solver solver, AbstractStrategy<Variable> mainStrategy) {
+        super(solver, mainStrategy, Math.max(1, mainStrategy.vars.length));
     }
 
     @Override
-    public int getObjectIdx() {
-        return orig.state;
-    }
-
-
-    public static class ArcFactory implements EdgeFactory<Node, Arc> {
-
-        public Arc createEdge(Node node, Node node1) {
-            return new Arc(node, node1, 0, 0);
-        }
+    public void afterRestart() {
     }
 
     @Override
-    public Arc clone() throws CloneNotSupportedException {
-        Arc arc = (Arc) super.clone();
-        arc.orig = orig.clone();
-        arc.dest = dest.clone();
-        arc.id = id;
-        arc.value = value;
-        return arc;
+    public void onSolution() {
     }
-
 }
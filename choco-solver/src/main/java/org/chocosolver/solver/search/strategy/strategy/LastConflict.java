@@ -36,10 +36,15 @@ import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.Variable;
 
+import java.util.Arrays;
+
 /**
  * Last Conflict heuristic
  * Composite heuristic which hacks a mainStrategy by forcing the
  * use of variables involved in recent conflicts
+ * <p>
+ * The K most recent conflicting variables are kept in a list ordered by recency, made of primitive arrays
+ * indexed by the position of the variables in the scope, so a conflict is recorded in constant time.
  *
  * @author Jean-Guillaume Fages, Charles Prud'homme
  */
@@ -52,8 +57,17 @@ public class LastConflict extends AbstractStrategy<Variable> implements IMonitor
 	protected Solver solver;
     protected AbstractStrategy<Variable> mainStrategy;
 	protected boolean active;
+	// maximum number of conflicting variables
+	protected final int k;
+	// number of conflicting variables
 	protected int nbCV;
-	protected Variable[] conflictingVariables;
+	// position of a variable in the scope, from its id (minus the smallest id)
+	private final int[] id2pos;
+	private final int offset;
+	// conflicting variables, as a list of positions from the most recent to the oldest one
+	private final int[] next, prev;
+	private final boolean[] conflicting;
+	private int head, tail;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -65,7 +79,23 @@ public class LastConflict extends AbstractStrategy<Variable> implements IMonitor
         this.solver = solver;
         this.mainStrategy = mainStrategy;
         solver.getSearchLoop().plugSearchMonitor(this);
-		conflictingVariables = new Variable[k];
+		this.k = k;
+		int n = vars.length;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			min = Math.min(min, vars[i].getId());
+			max = Math.max(max, vars[i].getId());
+		}
+		offset = n == 0 ? 0 : min;
+		id2pos = new int[n == 0 ? 0 : max - min + 1];
+		Arrays.fill(id2pos, -1);
+		for (int i = 0; i < n; i++) {
+			id2pos[vars[i].getId() - offset] = i;
+		}
+		next = new int[n];
+		prev = new int[n];
+		conflicting = new boolean[n];
+		head = tail = -1;
 		nbCV = 0;
 		active = false;
     }
@@ -102,16 +132,23 @@ public class LastConflict extends AbstractStrategy<Variable> implements IMonitor
     @Override
     public void onContradiction(ContradictionException cex) {
         Variable curDecVar = solver.getSearchLoop().getLastDecision().getDecisionVariable();
-		if(nbCV>0 && conflictingVariables[nbCV-1]==curDecVar)return;
-		if(inScope(curDecVar)){
-			if(nbCV<conflictingVariables.length){
-				conflictingVariables[nbCV++] = curDecVar;
-			}else{
-				assert nbCV==conflictingVariables.length;
-				System.arraycopy(conflictingVariables, 1, conflictingVariables, 0, nbCV - 1);
-				conflictingVariables[nbCV-1] = curDecVar;
-			}
+		int p = position(curDecVar);
+		if (p < 0 || p == head) return;
+		if (conflicting[p]) {
+			unlink(p);
+		} else if (nbCV == k) {
+			unlink(tail);
+		}
+		next[p] = head;
+		prev[p] = -1;
+		if (head > -1) {
+			prev[head] = p;
+		} else {
+			tail = p;
 		}
+		head = p;
+		conflicting[p] = true;
+		nbCV++;
     }
 
     @Override
@@ -131,21 +168,34 @@ public class LastConflict extends AbstractStrategy<Variable> implements IMonitor
     //***********************************************************************************
 
     private Variable firstNotInst() {
-		for(int i=nbCV-1;i>=0;i--){
-			if(!conflictingVariables[i].isInstantiated()){
-				return conflictingVariables[i];
+		for (int p = head; p > -1; p = next[p]) {
+			if (!vars[p].isInstantiated()) {
+				return vars[p];
 			}
 		}
         return null;
     }
 
-	private boolean inScope(Variable target){
-		Variable[] scope = mainStrategy.vars;
-		for(int v=0; v<scope.length; v++){
-			if(scope[v].getId()==target.getId()){
-				return true;
-			}
+	private int position(Variable var) {
+		if (var == null) {
+			return -1;
+		}
+		int i = var.getId() - offset;
+		return i >= 0 && i < id2pos.length ? id2pos[i] : -1;
+	}
+
+	private void unlink(int p) {
+		if (prev[p] > -1) {
+			next[prev[p]] = next[p];
+		} else {
+			head = next[p];
+		}
+		if (next[p] > -1) {
+			prev[next[p]] = prev[p];
+		} else {
+			tail = prev[p];
 		}
-		return false;
+		conflicting[p] = false;
+		nbCV--;
 	}
 }
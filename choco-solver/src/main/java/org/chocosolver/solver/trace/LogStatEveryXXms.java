@@ -29,47 +29,82 @@
 package org.chocosolver.solver.trace;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitPropagation;
+import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.util.SharedClock;
+
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * A search monitor logger which prints statistics every XX ms.
  * <br/>
+ * The period is measured by the {@link SharedClock}, common to all the solvers, which only raises a flag:
+ * the statistics are printed by the search thread, on the next node opened, so slow outputs do not delay the clock.
+ * The periodic task is cancelled when the search is closed.
  *
  * @author Charles Prud'homme
  * @since 18 aug. 2010
  */
-public class LogStatEveryXXms implements IMonitorInitPropagation {
+public class LogStatEveryXXms implements IMonitorInitPropagation, IMonitorOpenNode, IMonitorClose {
+
+    final Solver solver;
+
+    final long duration;
 
-    Thread printer;
+    private transient ScheduledFuture<?> printer;
+
+    // set by the clock thread, read by the search thread
+    private volatile boolean print;
 
     public LogStatEveryXXms(final Solver solver, final long duration) {
+        this.solver = solver;
+        this.duration = duration;
+    }
 
-        printer = new Thread() {
+    @Override
+    public void beforeInitialPropagation() {
+    }
 
+    @Override
+    public void afterInitialPropagation() {
+        cancel();
+        printer = SharedClock.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
-                try {
-                    sleep(duration);
-                    //noinspection InfiniteLoopStatement
-                    do {
-                        solver.getMeasures().updateTimeCount();
-                        solver.getMeasures().updatePropagationCount();
-                        System.out.println(String.format(">> %s", solver.getMeasures().toOneShortLineString()));
-                        sleep(duration);
-                    } while (true);
-                } catch (InterruptedException ignored) {
-                }
+                print = true;
             }
-        };
-        printer.setDaemon(true);
+        }, duration);
     }
 
     @Override
-    public void beforeInitialPropagation() {
+    public void beforeOpenNode() {
+        if (print) {
+            print = false;
+            solver.getMeasures().updateTimeCount();
+            solver.getMeasures().updatePropagationCount();
+            System.out.println(String.format(">> %s", solver.getMeasures().toOneShortLineString()));
+        }
     }
 
     @Override
-    public void afterInitialPropagation() {
-        printer.start();
+    public void afterOpenNode() {
+    }
+
+    @Override
+    public void beforeClose() {
+    }
+
+    @Override
+    public void afterClose() {
+        cancel();
+    }
+
+    private void cancel() {
+        if (printer != null) {
+            printer.cancel(false);
+            printer = null;
+        }
+        print = false;
     }
 }
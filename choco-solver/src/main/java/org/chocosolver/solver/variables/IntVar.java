@@ -34,6 +34,9 @@ import org.chocosolver.solver.explanations.antidom.AntiDomain;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.util.BitSet;
 
 
 /**
@@ -87,6 +90,73 @@ public interface IntVar extends Variable {
      */
     boolean removeInterval(int from, int to, ICause cause) throws ContradictionException;
 
+    /**
+     * Removes from the domain of <code>this</code> every value <code>v</code> such that
+     * <code>values.get(v - offset)</code> is true. The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If no such value belongs to the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if the removals lead to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, the observers are notified and the return value is <code>true</code></li>
+     * </ul>
+     * Runs of consecutive values are removed with {@link #removeInterval(int, int, ICause)},
+     * enumerated domains based on a bitset clear them word by word and notify the observers once.
+     *
+     * @param values values to remove, shifted by <code>offset</code>
+     * @param offset value represented by the first bit of <code>values</code>
+     * @param cause  removal releaser
+     * @return true if at least a value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    default boolean removeValues(BitSet values, int offset, ICause cause) throws ContradictionException {
+        boolean change = false;
+        int ub = getUB();
+        for (int i = values.nextSetBit(Math.max(0, getLB() - offset)); i >= 0 && i + offset <= ub; ) {
+            int j = values.nextClearBit(i);
+            change |= removeInterval(i + offset, j - 1 + offset, cause);
+            i = values.nextSetBit(j);
+        }
+        return change;
+    }
+
+    /**
+     * Removes from the domain of <code>this</code> every value <code>v</code> such that
+     * <code>values.get(v - offset)</code> is false, that is, restricts the domain to the values of <code>values</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If the domain is already included in <code>values</code>, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if the removals lead to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, the observers are notified and the return value is <code>true</code></li>
+     * </ul>
+     * Runs of consecutive values are removed with {@link #removeInterval(int, int, ICause)},
+     * enumerated domains based on a bitset clear them word by word and notify the observers once.
+     *
+     * @param values values to keep, shifted by <code>offset</code>
+     * @param offset value represented by the first bit of <code>values</code>
+     * @param cause  removal releaser
+     * @return true if at least a value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    default boolean removeAllValuesBut(BitSet values, int offset, ICause cause) throws ContradictionException {
+        boolean change = false;
+        int lb = getLB();
+        int ub = getUB();
+        if (lb < offset) {
+            change = removeInterval(lb, offset - 1, cause);
+        }
+        for (int i = values.nextClearBit(Math.max(0, lb - offset)); i + offset <= ub; ) {
+            int j = values.nextSetBit(i);
+            if (j < 0 || j + offset > ub) {
+                change |= removeInterval(i + offset, ub, cause);
+                break;
+            }
+            change |= removeInterval(i + offset, j - 1 + offset, cause);
+            i = values.nextClearBit(j);
+        }
+        return change;
+    }
+
     /**
      * Instantiates the domain of <code>this</code> to <code>value</code>. The instruction comes from <code>propagator</code>.
      * <ul>
@@ -230,6 +300,21 @@ public interface IntVar extends Variable {
      */
     int previousValue(int v);
 
+    /**
+     * Applies <code>proc</code> on each value of the domain of <code>this</code>, in increasing order.
+     * Unlike {@link #getValueIterator(boolean)}, nothing is allocated and calls can be nested.
+     * The domain of <code>this</code> must not be modified by <code>proc</code>.
+     *
+     * @param proc procedure to apply on each value
+     * @throws ContradictionException if <code>proc</code> fails
+     */
+    default void forEachValue(IntProcedure proc) throws ContradictionException {
+        int ub = getUB();
+        for (int v = getLB(); v <= ub; v = nextValue(v)) {
+            proc.execute(v);
+        }
+    }
+
 
     /**
      * Retrieves an iterator over values of <code>this</code>.
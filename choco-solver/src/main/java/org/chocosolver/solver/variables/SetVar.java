@@ -31,6 +31,7 @@ package org.chocosolver.solver.variables;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * A Set Variable is defined by a domain which is a set interval [kernel,envelope]
@@ -86,6 +87,16 @@ public interface SetVar extends Variable {
 	 */
 	public int getKernelSize();
 
+	/**
+	 * Applies <code>proc</code> on each element of the kernel domain of <code>this</code>.
+	 * Unlike the getKernelFirst()/getKernelNext() loop, no cursor is used, so calls can be nested.
+	 * The domain of <code>this</code> must not be modified by <code>proc</code>.
+	 *
+	 * @param proc procedure to apply on each element of the kernel
+	 * @throws ContradictionException if <code>proc</code> fails
+	 */
+	public void forEachKernelElement(IntProcedure proc) throws ContradictionException;
+
 	/**
 	 * Test whether element is present or not in the kernel
 	 * @param element value to test
@@ -127,6 +138,16 @@ public interface SetVar extends Variable {
 	 */
 	public int getEnvelopeSize();
 
+	/**
+	 * Applies <code>proc</code> on each element of the envelope domain of <code>this</code>.
+	 * Unlike the getEnvelopeFirst()/getEnvelopeNext() loop, no cursor is used, so calls can be nested.
+	 * The domain of <code>this</code> must not be modified by <code>proc</code>.
+	 *
+	 * @param proc procedure to apply on each element of the envelope
+	 * @throws ContradictionException if <code>proc</code> fails
+	 */
+	public void forEachEnvelopeElement(IntProcedure proc) throws ContradictionException;
+
 	/**
 	 * Test whether element is present or not in the envelope
 	 * @param element value to test
@@ -253,6 +253,9 @@ public class VariableFactory {
     /**
      * Build an integer variable whose domain is explicitly represented with a BitSet.
      * Its initial domain is {MIN,MIN+1...MAX-1,MAX}
+     * <p>
+     * When the domain span is greater or equal to {@link org.chocosolver.solver.Settings#getMinDomSpanForRangeEnumerated()},
+     * the domain is represented by a list of ranges instead, which switches to a bitset once it becomes dense.
      *
      * @param NAME   name of the variable
      * @param MIN    initial lower bound
@@ -266,6 +269,8 @@ public class VariableFactory {
             return fixed(NAME, MIN, SOLVER);
         } else if (MIN == 0 && MAX == 1) {
             return new BoolVarImpl(NAME, SOLVER);
+        } else if ((long) MAX - MIN + 1 >= SOLVER.getSettings().getMinDomSpanForRangeEnumerated()) {
+            return new RangeIntVarImpl(NAME, MIN, MAX, SOLVER);
         } else {
             return new BitsetIntVarImpl(NAME, MIN, MAX, SOLVER);
         }
@@ -311,6 +316,9 @@ public class VariableFactory {
     /**
      * Build an integer variable whose domain is explicitly represented with a BitSet.
      * Its initial domain is VALUES
+     * <p>
+     * When the values are not sparse and span at least {@link org.chocosolver.solver.Settings#getMinDomSpanForRangeEnumerated()},
+     * the domain is represented by a list of ranges instead.
      *
      * @param NAME   name of the variable
      * @param VALUES initial domain
@@ -326,6 +334,8 @@ public class VariableFactory {
             int gap = VALUES[VALUES.length - 1] - VALUES[0];
             if (gap > 30 && gap / VALUES.length > 5) {
                 return new BitsetArrayIntVarImpl(NAME, VALUES, SOLVER);
+            } else if (gap + 1 >= SOLVER.getSettings().getMinDomSpanForRangeEnumerated()) {
+                return new RangeIntVarImpl(NAME, VALUES, SOLVER);
             } else {
                 return new BitsetIntVarImpl(NAME, VALUES, SOLVER);
             }
@@ -729,7 +739,7 @@ public class VariableFactory {
             return VAR;
         }
         if (VAR.getSolver().getSettings().enableViews()) {
-            return new OffsetView(VAR, CSTE, VAR.getSolver());
+            return affine(VAR, 1, CSTE);
         } else {
             Solver s = VAR.getSolver();
             int lb = VAR.getLB() + CSTE;
@@ -837,7 +847,7 @@ public class VariableFactory {
      */
     public static IntVar minus(IntVar VAR) {
         if (VAR.getSolver().getSettings().enableViews()) {
-            return new MinusView(VAR, VAR.getSolver());
+            return affine(VAR, -1, 0);
         } else {
             Solver s = VAR.getSolver();
             int ub = -VAR.getLB();
@@ -883,7 +893,7 @@ public class VariableFactory {
                 var = VAR;
             } else {
                 if (VAR.getSolver().getSettings().enableViews()) {
-                    var = new ScaleView(VAR, CSTE, VAR.getSolver());
+                    var = affine(VAR, CSTE, 0);
                 } else {
                     Solver s = VAR.getSolver();
                     int lb = VAR.getLB() * CSTE;
@@ -903,6 +913,54 @@ public class VariableFactory {
         }
     }
 
+    /**
+     * Create a view over VAR such that: A&times;VAR+B, where A is not null.
+     * When VAR is itself a minus, offset, scale or affine view over a variable X, the view is directly defined over X,
+     * so that chains of views are at most one level deep.
+     * The most specific view is then returned: X itself, an offset, a minus, a scale or an affine view.
+     * <p>
+     * Unlike {@link #offset(IntVar, int)}, {@link #minus(IntVar)} and {@link #scale(IntVar, int)},
+     * a view is created whatever {@link org.chocosolver.solver.Settings#enableViews()} states.
+     *
+     * @param VAR an integer variable
+     * @param A   a non-null coefficient
+     * @param B   a constant
+     */
+    public static IntVar affine(IntVar VAR, int A, int B) {
+        IntVar x = VAR;
+        long a = A, b = B;
+        if (VAR instanceof MinusView) {
+            x = ((MinusView) VAR).getVariable();
+            a = -a;
+        } else if (VAR instanceof OffsetView) {
+            x = ((OffsetView) VAR).getVariable();
+            b += a * ((OffsetView) VAR).cste;
+        } else if (VAR instanceof ScaleView) {
+            x = ((ScaleView) VAR).getVariable();
+            a *= ((ScaleView) VAR).cste;
+        } else if (VAR instanceof AffineView) {
+            x = ((AffineView) VAR).getVariable();
+            b += a * ((AffineView) VAR).b;
+            a *= ((AffineView) VAR).a;
+        }
+        if (a != (int) a || b != (int) b) {
+            // the composition overflows, the view is kept over VAR
+            x = VAR;
+            a = A;
+            b = B;
+        }
+        Solver s = x.getSolver();
+        if (a == 1) {
+            return b == 0 ? x : new OffsetView(x, (int) b, s);
+        } else if (a == -1 && b == 0) {
+            return new MinusView(x, s);
+        } else if (a > 0 && b == 0) {
+            return new ScaleView(x, (int) a, s);
+        } else {
+            return new AffineView(x, (int) a, (int) b, s);
+        }
+    }
+
     /**
      * Create a view over VAR such that: |VAR|.
      * <p>
@@ -103,15 +103,15 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         super(name, solver);
         IEnvironment env = solver.getEnvironment();
         OFFSET = offset;
-        int cardinality = values.cardinality();
-        this.VALUES = env.makeBitSet(cardinality);
-        for (int i = 0; i > -1; i = values.nextSetBit(i+1)) {
+        int capacity = values.length();
+        this.VALUES = env.makeBitSet(capacity);
+        for (int i = values.nextSetBit(0); i > -1; i = values.nextSetBit(i + 1)) {
             this.VALUES.set(i);
         }
-        this.LB = env.makeInt(0);
-        this.UB = env.makeInt(VALUES.prevSetBit(VALUES.size()));
-        this.SIZE = env.makeInt(cardinality);
-        LENGTH = this.UB.get();
+        this.LB = env.makeInt(values.nextSetBit(0));
+        this.UB = env.makeInt(capacity - 1);
+        this.SIZE = env.makeInt(values.cardinality());
+        LENGTH = capacity;
     }
 
     public BitsetIntVarImpl(String name, int min, int max, Solver solver) {
@@ -199,7 +199,14 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
             return updateLowerBound(to + 1, cause);
         else if (getUB() <= to)
             return updateUpperBound(from - 1, cause);
-        else {     // TODO: really ugly .........
+        else if (from > to) {
+            return false;
+        } else if (!_plugexpl) {
+            int lb = LB.get();
+            int ub = UB.get();
+            clearRange(from - OFFSET, to - OFFSET + 1, cause);
+            return notifyRemovals(lb, ub, cause);
+        } else {
             boolean anyChange = false;
             for (int v = this.nextValue(from - 1); v <= to; v = nextValue(v)) {
                 anyChange |= removeValue(v, cause);
@@ -208,6 +215,104 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each run of consecutive values is cleared word by word and the observers are notified once.
+     */
+    @Override
+    public boolean removeValues(BitSet values, int offset, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (_plugexpl) {
+            return IntVar.super.removeValues(values, offset, cause);
+        }
+        int shift = offset - OFFSET;
+        int lb = LB.get();
+        int ub = UB.get();
+        for (int i = values.nextSetBit(Math.max(0, lb - shift)); i >= 0 && i + shift <= ub; ) {
+            int j = values.nextClearBit(i);
+            clearRange(i + shift, Math.min(j + shift, ub + 1), cause);
+            i = values.nextSetBit(j);
+        }
+        return notifyRemovals(lb, ub, cause);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each run of consecutive values is cleared word by word and the observers are notified once.
+     */
+    @Override
+    public boolean removeAllValuesBut(BitSet values, int offset, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (_plugexpl) {
+            return IntVar.super.removeAllValuesBut(values, offset, cause);
+        }
+        int shift = offset - OFFSET;
+        int lb = LB.get();
+        int ub = UB.get();
+        if (lb < shift) {
+            clearRange(lb, Math.min(shift, ub + 1), cause);
+        }
+        for (int i = values.nextClearBit(Math.max(0, lb - shift)); i + shift <= ub; ) {
+            int j = values.nextSetBit(i);
+            if (j < 0 || j + shift > ub) {
+                clearRange(i + shift, ub + 1, cause);
+                break;
+            }
+            clearRange(i + shift, j + shift, cause);
+            i = values.nextClearBit(j);
+        }
+        return notifyRemovals(lb, ub, cause);
+    }
+
+    /**
+     * Clears the values in [<code>from</code>, <code>to</code>[ (offset excluded), the delta is filled with the present ones.
+     * Nothing is notified, see {@link #notifyRemovals(int, int, ICause)}.
+     */
+    private void clearRange(int from, int to, ICause cause) {
+        if (reactOnRemoval) {
+            for (int i = VALUES.nextSetBit(from); i >= 0 && i < to; i = VALUES.nextSetBit(i + 1)) {
+                delta.add(i + OFFSET, cause);
+            }
+        }
+        VALUES.clear(from, to);
+    }
+
+    /**
+     * Updates the size and the bounds after one or more calls to {@link #clearRange(int, int, ICause)}
+     * and notifies the observers with the strongest event.
+     *
+     * @param oldLB lower bound before the removals (offset excluded)
+     * @param oldUB upper bound before the removals (offset excluded)
+     * @return true if at least a value has been removed
+     * @throws ContradictionException if the domain is empty
+     */
+    private boolean notifyRemovals(int oldLB, int oldUB, ICause cause) throws ContradictionException {
+        int size = VALUES.cardinality();
+        if (size == SIZE.get()) {
+            return false;
+        }
+        if (size == 0) {
+            this.contradiction(cause, IntEventType.REMOVE, MSG_EMPTY);
+        }
+        SIZE.set(size);
+        IntEventType e = IntEventType.REMOVE;
+        if (!VALUES.get(oldLB)) {
+            LB.set(VALUES.nextSetBit(oldLB));
+            e = IntEventType.INCLOW;
+        }
+        if (!VALUES.get(oldUB)) {
+            UB.set(VALUES.prevSetBit(oldUB));
+            e = e == IntEventType.INCLOW ? IntEventType.BOUND : IntEventType.DECUPP;
+        }
+        if (size == 1) {
+            e = IntEventType.INSTANTIATE;
+        }
+        this.notifyPropagators(e, cause);
+        return true;
+    }
+
     /**
      * Instantiates the domain of <code>this</code> to <code>value</code>. The instruction comes from <code>propagator</code>.
      * <ul>
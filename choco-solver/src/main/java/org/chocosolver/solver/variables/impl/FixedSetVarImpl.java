@@ -45,6 +45,7 @@ import org.chocosolver.solver.variables.delta.NoDelta;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.StringUtils;
 
 import java.util.Arrays;
@@ -88,6 +89,13 @@ public class FixedSetVarImpl extends AbstractVariable implements SetVar {
         return values.length;
     }
 
+    @Override
+    public void forEachKernelElement(IntProcedure proc) throws ContradictionException {
+        for (int i = 0; i < values.length; i++) {
+            proc.execute(values[i]);
+        }
+    }
+
     @Override
     public boolean kernelContains(int element) {
         return Arrays.binarySearch(values, element) >= 0;
@@ -112,6 +120,11 @@ public class FixedSetVarImpl extends AbstractVariable implements SetVar {
         return values.length;
     }
 
+    @Override
+    public void forEachEnvelopeElement(IntProcedure proc) throws ContradictionException {
+        forEachKernelElement(proc);
+    }
+
     @Override
     public boolean envelopeContains(int element) {
         return Arrays.binarySearch(values, element) >= 0;
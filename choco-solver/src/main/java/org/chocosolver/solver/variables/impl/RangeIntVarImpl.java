@@ -0,0 +1,896 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.explanations.VariableState;
+import org.chocosolver.solver.explanations.antidom.AntiDomBitset;
+import org.chocosolver.solver.explanations.antidom.AntiDomain;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.EnumDelta;
+import org.chocosolver.solver.variables.delta.IEnumDelta;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.monitor.EnumDeltaMonitor;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.tools.StringUtils;
+
+/**
+ * An integer variable with an enumerated domain, represented by a sorted list of ranges (intervals of values).
+ * <p>
+ * A domain with few holes is stored in a memory proportional to its number of ranges, not to its span,
+ * which suits huge domains such as time-indexed ones.
+ * Once the ranges would need more memory than a bitset over the current bounds, that is,
+ * once there are more ranges than 64-bit words in such a bitset, the domain switches to a bitset,
+ * allocated at that time over the current bounds only.
+ * The switch is backtrackable: the range list is restored on backtrack.
+ * <p>
+ * Looking for a value costs O(log(r)) where r is the number of ranges, creating a hole costs O(r).
+ */
+public final class RangeIntVarImpl extends AbstractVariable implements IntVar {
+
+    private static final long serialVersionUID = 1L;
+
+    // the domain is never switched to a bitset below this number of ranges
+    private static final int MIN_RANGES = 8;
+
+    protected boolean reactOnRemoval = false;
+
+    // Lower bound of the current domain
+    private final IStateInt LB;
+    // Upper bound of the current domain
+    private final IStateInt UB;
+    private final IStateInt SIZE;
+    // bounds of the ranges in increasing order: lo_0, hi_0, lo_1, hi_1, ..., only the first 2 * NB are relevant
+    private final IStateIntVector RANGES;
+    // number of ranges
+    private final IStateInt NB;
+    // set to true when the domain is represented by VALUES
+    private final IStateBool DENSE;
+    // bitset of available values, lazily allocated -- includes offset
+    private IStateBitSet VALUES;
+    // value of the first bit of VALUES
+    private int OFFSET;
+    // world index in which VALUES has been allocated
+    private int allocationWorld;
+
+    private IEnumDelta delta = NoDelta.singleton;
+
+    private DisposableValueIterator _viterator;
+    private DisposableRangeIterator _riterator;
+
+    //////////////////////////////////////////////////////////////////////////////////////
+
+    public RangeIntVarImpl(String name, int min, int max, Solver solver) {
+        this(name, new int[]{min, max}, 1, solver);
+    }
+
+    public RangeIntVarImpl(String name, int[] sortedValues, Solver solver) {
+        this(name, toRanges(sortedValues), -1, solver);
+    }
+
+    /**
+     * @param ranges bounds of the ranges, in increasing order: lo_0, hi_0, lo_1, hi_1, ...
+     * @param nb     number of ranges, -1 to use the whole array
+     */
+    private RangeIntVarImpl(String name, int[] ranges, int nb, Solver solver) {
+        super(name, solver);
+        if (nb < 0) {
+            nb = ranges.length / 2;
+        }
+        IEnvironment env = solver.getEnvironment();
+        this.RANGES = env.makeIntVector(2 * nb, 0);
+        int size = 0;
+        for (int i = 0; i < 2 * nb; i += 2) {
+            RANGES.quickSet(i, ranges[i]);
+            RANGES.quickSet(i + 1, ranges[i + 1]);
+            size += ranges[i + 1] - ranges[i] + 1;
+        }
+        this.NB = env.makeInt(nb);
+        this.LB = env.makeInt(ranges[0]);
+        this.UB = env.makeInt(ranges[2 * nb - 1]);
+        this.SIZE = env.makeInt(size);
+        this.DENSE = env.makeBool(false);
+        if (tooManyRanges()) {
+            densify();
+        }
+    }
+
+    private static int[] toRanges(int[] sortedValues) {
+        int nb = 1;
+        for (int i = 1; i < sortedValues.length; i++) {
+            if (sortedValues[i] > sortedValues[i - 1] + 1) {
+                nb++;
+            }
+        }
+        int[] ranges = new int[2 * nb];
+        int r = 0;
+        ranges[0] = sortedValues[0];
+        for (int i = 1; i < sortedValues.length; i++) {
+            if (sortedValues[i] > sortedValues[i - 1] + 1) {
+                ranges[r + 1] = sortedValues[i - 1];
+                r += 2;
+                ranges[r] = sortedValues[i];
+            }
+        }
+        ranges[r + 1] = sortedValues[sortedValues.length - 1];
+        return ranges;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // RANGES AND BITSET MANAGEMENT
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private int lo(int r) {
+        return RANGES.quickGet(2 * r);
+    }
+
+    private int hi(int r) {
+        return RANGES.quickGet(2 * r + 1);
+    }
+
+    /**
+     * @return the index of the first range whose upper bound is greater or equal to <code>value</code>,
+     * the number of ranges if there is none
+     */
+    private int ceilRange(int value) {
+        int l = 0;
+        int h = NB.get() - 1;
+        while (l <= h) {
+            int m = (l + h) >>> 1;
+            if (hi(m) < value) {
+                l = m + 1;
+            } else {
+                h = m - 1;
+            }
+        }
+        return l;
+    }
+
+    private boolean tooManyRanges() {
+        int nb = NB.get();
+        return nb > MIN_RANGES && nb * 64L > (long) UB.get() - LB.get() + 1;
+    }
+
+    /**
+     * Switches the domain to a bitset.
+     * The current bitset is reused when it covers the bounds and has been allocated in a world above the current one
+     * (its previous states would not be restored otherwise).
+     */
+    private void densify() {
+        IEnvironment env = solver.getEnvironment();
+        int lb = LB.get();
+        int ub = UB.get();
+        if (VALUES == null || allocationWorld > env.getWorldIndex()
+                || lb < OFFSET || (long) ub - OFFSET >= VALUES.capacity()) {
+            OFFSET = lb;
+            VALUES = env.makeBitSet(ub - lb + 1);
+            allocationWorld = env.getWorldIndex();
+        } else {
+            VALUES.clear();
+        }
+        for (int r = NB.get() - 1; r >= 0; r--) {
+            VALUES.set(lo(r) - OFFSET, hi(r) - OFFSET + 1);
+        }
+        DENSE.set(true);
+    }
+
+    /**
+     * Removes the values in [<code>from</code>, <code>to</code>], which must be within the bounds,
+     * and updates the bounds and the size. The delta is filled but nothing is notified.
+     * The domain must not become empty.
+     */
+    private void remove(int from, int to, ICause cause) {
+        assert LB.get() <= from && from <= to && to <= UB.get();
+        if (DENSE.get()) {
+            removeFromBitset(from, to, cause);
+        } else {
+            removeFromRanges(from, to, cause);
+        }
+    }
+
+    private void removeFromBitset(int from, int to, ICause cause) {
+        int a = from - OFFSET;
+        int b = to - OFFSET;
+        if (reactOnRemoval || b - a < 256) {
+            int nb = 0;
+            for (int i = VALUES.nextSetBit(a); i >= 0 && i <= b; i = VALUES.nextSetBit(i + 1)) {
+                nb++;
+                if (reactOnRemoval) {
+                    delta.add(i + OFFSET, cause);
+                }
+            }
+            VALUES.clear(a, b + 1);
+            SIZE.add(-nb);
+        } else {
+            VALUES.clear(a, b + 1);
+            SIZE.set(VALUES.cardinality());
+        }
+        if (from == LB.get()) {
+            LB.set(VALUES.nextSetBit(b + 1) + OFFSET);
+        }
+        if (to == UB.get()) {
+            UB.set(VALUES.prevSetBit(a - 1) + OFFSET);
+        }
+    }
+
+    private void removeFromRanges(int from, int to, ICause cause) {
+        int n = NB.get();
+        // ranges i to j intersect [from, to]
+        int i = ceilRange(from);
+        int j = ceilRange(to);
+        if (j == n || lo(j) > to) {
+            j--;
+        }
+        if (i > j) {
+            return;
+        }
+        int nb = 0;
+        for (int r = i; r <= j; r++) {
+            int a = Math.max(from, lo(r));
+            int b = Math.min(to, hi(r));
+            nb += b - a + 1;
+            if (reactOnRemoval) {
+                for (int v = a; v <= b; v++) {
+                    delta.add(v, cause);
+                }
+            }
+        }
+        SIZE.add(-nb);
+        boolean keepLeft = lo(i) < from;
+        boolean keepRight = hi(j) > to;
+        if (i == j && keepLeft && keepRight) {
+            // a hole is created in range i
+            int h = hi(i);
+            RANGES.quickSet(2 * i + 1, from - 1);
+            insertRange(i + 1, to + 1, h);
+        } else {
+            if (keepLeft) {
+                RANGES.quickSet(2 * i + 1, from - 1);
+                i++;
+            }
+            if (keepRight) {
+                RANGES.quickSet(2 * j, to + 1);
+                j--;
+            }
+            if (i <= j) {
+                deleteRanges(i, j);
+            }
+        }
+        LB.set(lo(0));
+        UB.set(hi(NB.get() - 1));
+        if (tooManyRanges()) {
+            densify();
+        }
+    }
+
+    private void insertRange(int r, int lo, int hi) {
+        int n = NB.get();
+        // the vector only grows, its unused tail is kept
+        while (RANGES.size() < 2 * n + 2) {
+            RANGES.add(0);
+        }
+        for (int k = 2 * n - 1; k >= 2 * r; k--) {
+            RANGES.quickSet(k + 2, RANGES.quickGet(k));
+        }
+        RANGES.quickSet(2 * r, lo);
+        RANGES.quickSet(2 * r + 1, hi);
+        NB.set(n + 1);
+    }
+
+    private void deleteRanges(int first, int last) {
+        int n = NB.get();
+        int d = 2 * (last - first + 1);
+        for (int k = 2 * last + 2; k < 2 * n; k++) {
+            RANGES.quickSet(k - d, RANGES.quickGet(k));
+        }
+        NB.set(n - d / 2);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Removes <code>value</code>from the domain of <code>this</code>. The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is out of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if removing <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if removing <code>value</code> from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value value to remove from the domain (int)
+     * @param cause removal releaser
+     * @return true if the value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        boolean change = contains(value);
+        if (change) {
+            if (SIZE.get() == 1) {
+                if (_plugexpl) {
+                    solver.getExplainer().removeValue(this, value, cause);
+                }
+                this.contradiction(cause, IntEventType.REMOVE, MSG_REMOVE);
+            }
+            IntEventType e = IntEventType.REMOVE;
+            if (value == LB.get()) {
+                e = IntEventType.INCLOW;
+            } else if (value == UB.get()) {
+                e = IntEventType.DECUPP;
+            }
+            remove(value, value, cause);
+            if (this.isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+            if (_plugexpl) {
+                solver.getExplainer().removeValue(this, value, cause);
+            }
+        }
+        return change;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB()) {
+            return updateLowerBound(to + 1, cause);
+        } else if (getUB() <= to) {
+            return updateUpperBound(from - 1, cause);
+        } else if (_plugexpl) {
+            boolean anyChange = false;
+            for (int v = this.nextValue(from - 1); v <= to; v = nextValue(v)) {
+                anyChange |= removeValue(v, cause);
+            }
+            return anyChange;
+        } else if (from <= to) {
+            // the bounds are kept
+            int size = SIZE.get();
+            remove(from, to, cause);
+            if (size > SIZE.get()) {
+                this.notifyPropagators(IntEventType.REMOVE, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Instantiates the domain of <code>this</code> to <code>value</code>. The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If the domain of <code>this</code> is already instantiated to <code>value</code>,
+     * nothing is done and the return value is <code>false</code>,</li>
+     * <li>If the domain of <code>this</code> is already instantiated to another value,
+     * then a <code>ContradictionException</code> is thrown,</li>
+     * <li>Otherwise, the domain of <code>this</code> is restricted to <code>value</code> and the observers are notified
+     * and the return value is <code>true</code>.</li>
+     * </ul>
+     *
+     * @param value instantiation value (int)
+     * @param cause instantiation releaser
+     * @return true if the instantiation is done, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (this.isInstantiated()) {
+            int cvalue = this.getValue();
+            if (value != cvalue) {
+                if (_plugexpl) {
+                    solver.getExplainer().instantiateTo(this, value, cause, cvalue, cvalue);
+                }
+                this.contradiction(cause, IntEventType.INSTANTIATE, MSG_INST);
+            }
+            return false;
+        } else if (contains(value)) {
+            int oldLB = LB.get();
+            int oldUB = UB.get();
+            if (oldLB < value) {
+                remove(oldLB, value - 1, cause);
+            }
+            if (value < oldUB) {
+                remove(value + 1, oldUB, cause);
+            }
+            assert SIZE.get() == 1;
+            if (_plugexpl) {
+                solver.getExplainer().instantiateTo(this, value, cause, oldLB, oldUB);
+            }
+            this.notifyPropagators(IntEventType.INSTANTIATE, cause);
+            return true;
+        } else {
+            if (_plugexpl) {
+                solver.getExplainer().instantiateTo(this, value, cause, getLB(), getUB());
+            }
+            this.contradiction(cause, IntEventType.INSTANTIATE, MSG_UNKNOWN);
+            return false;
+        }
+    }
+
+    /**
+     * Updates the lower bound of the domain of <code>this</code> to <code>value</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is smaller than the lower bound of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if updating the lower bound to <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if updating the lower bound to <code>value</code> can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value new lower bound (included)
+     * @param cause updating releaser
+     * @return true if the lower bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getLB();
+        if (old < value) {
+            int oub = this.getUB();
+            if (oub < value) {
+                if (_plugexpl) {
+                    solver.getExplainer().updateLowerBound(this, old, oub + 1, cause);
+                }
+                this.contradiction(cause, IntEventType.INCLOW, MSG_LOW);
+            } else {
+                IntEventType e = IntEventType.INCLOW;
+                remove(old, value - 1, cause);
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                if (_plugexpl) {
+                    solver.getExplainer().updateLowerBound(this, old, value, cause);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the upper bound of the domain of <code>this</code> to <code>value</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If <code>value</code> is greater than the upper bound of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if updating the upper bound to <code>value</code> leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if updating the upper bound to <code>value</code> can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is <code>true</code></li>
+     * </ul>
+     *
+     * @param value new upper bound (included)
+     * @param cause update releaser
+     * @return true if the upper bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getUB();
+        if (old > value) {
+            int olb = this.getLB();
+            if (olb > value) {
+                if (_plugexpl) {
+                    solver.getExplainer().updateUpperBound(this, old, olb - 1, cause);
+                }
+                this.contradiction(cause, IntEventType.DECUPP, MSG_UPP);
+            } else {
+                IntEventType e = IntEventType.DECUPP;
+                remove(value + 1, old, cause);
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                if (_plugexpl) {
+                    solver.getExplainer().updateUpperBound(this, old, value, cause);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void wipeOut(ICause cause) throws ContradictionException {
+        assert cause != null;
+        removeInterval(this.getLB(), this.getUB(), cause);
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        return SIZE.get() == 1;
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        return isInstantiated() && contains(value);
+    }
+
+    @Override
+    public boolean contains(int value) {
+        if (value < LB.get() || value > UB.get()) {
+            return false;
+        }
+        if (DENSE.get()) {
+            return VALUES.get(value - OFFSET);
+        }
+        int r = ceilRange(value);
+        return lo(r) <= value;
+    }
+
+    /**
+     * Retrieves the current value of the variable if instantiated, otherwier the lower bound.
+     *
+     * @return the current value (or lower bound if not yet instantiated).
+     */
+    @Override
+    public int getValue() {
+        assert isInstantiated() : name + " not instantiated";
+        return getLB();
+    }
+
+    /**
+     * Retrieves the lower bound of the variable
+     *
+     * @return the lower bound
+     */
+    @Override
+    public int getLB() {
+        return this.LB.get();
+    }
+
+    /**
+     * Retrieves the upper bound of the variable
+     *
+     * @return the upper bound
+     */
+    @Override
+    public int getUB() {
+        return this.UB.get();
+    }
+
+    @Override
+    public int getDomainSize() {
+        return SIZE.get();
+    }
+
+    @Override
+    public int nextValue(int v) {
+        if (v < LB.get()) return LB.get();
+        if (v >= UB.get()) return Integer.MAX_VALUE;
+        if (DENSE.get()) {
+            return VALUES.nextSetBit(v + 1 - OFFSET) + OFFSET;
+        }
+        int lo = lo(ceilRange(v + 1));
+        return lo > v + 1 ? lo : v + 1;
+    }
+
+    @Override
+    public int previousValue(int v) {
+        if (v > UB.get()) return UB.get();
+        if (v <= LB.get()) return Integer.MIN_VALUE;
+        if (DENSE.get()) {
+            return VALUES.prevSetBit(v - 1 - OFFSET) + OFFSET;
+        }
+        int r = ceilRange(v - 1);
+        return r < NB.get() && lo(r) <= v - 1 ? v - 1 : hi(r - 1);
+    }
+
+    // last value of the range of consecutive values which contains v
+    private int rangeMax(int v) {
+        if (DENSE.get()) {
+            return VALUES.nextClearBit(v - OFFSET) - 1 + OFFSET;
+        }
+        return hi(ceilRange(v));
+    }
+
+    // first value of the range of consecutive values which contains v
+    private int rangeMin(int v) {
+        if (DENSE.get()) {
+            return VALUES.prevClearBit(v - OFFSET) + 1 + OFFSET;
+        }
+        return lo(ceilRange(v));
+    }
+
+    /**
+     * @return true if the domain is currently represented by a bitset, false if it is represented by a list of ranges
+     */
+    public boolean isDense() {
+        return DENSE.get();
+    }
+
+    @Override
+    public boolean hasEnumeratedDomain() {
+        return true;
+    }
+
+    @Override
+    public IEnumDelta getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(20);
+        s.append(name).append(" = ");
+        if (SIZE.get() == 1) {
+            s.append(this.getLB());
+        } else {
+            s.append('{').append(getLB());
+            int nb = 5;
+            for (int i = nextValue(getLB()); i < Integer.MAX_VALUE && nb > 0; i = nextValue(i)) {
+                s.append(',').append(i);
+                nb--;
+            }
+            if (nb == 0 && SIZE.get() > 6) {
+                s.append("...,").append(this.getUB());
+            }
+            s.append('}');
+        }
+        return s.toString();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    ///// methode liees au fait qu'une variable est observable /////
+    ////////////////////////////////////////////////////////////////
+
+
+    @Override
+    public void createDelta() {
+        if (!reactOnRemoval) {
+            delta = new EnumDelta(solver.getSearchLoop());
+            reactOnRemoval = true;
+        }
+    }
+
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        createDelta();
+        return new EnumDeltaMonitor(delta, propagator);
+    }
+
+    @Override
+    public void notifyMonitors(IEventType event) throws ContradictionException {
+        for (int i = mIdx - 1; i >= 0; i--) {
+            monitors[i].onUpdate(this, event);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+
+    @Override
+    public AntiDomain antiDomain() {
+        return new AntiDomBitset(this);
+    }
+
+    @Override
+    public void explain(ExplanationEngine xengine, VariableState what, Explanation to) {
+        AntiDomain invdom = xengine.getRemovedValues(this);
+        DisposableValueIterator it = invdom.getValueIterator();
+        while (it.hasNext()) {
+            int val = it.next();
+            if ((what == VariableState.LB && val < this.getLB())
+                    || (what == VariableState.UB && val > this.getUB())
+                    || (what == VariableState.DOM)) {
+                to.add(xengine.explain(this, val));
+            }
+        }
+        it.dispose();
+    }
+
+    @Override
+    public void explain(ExplanationEngine xengine, VariableState what, int val, Explanation to) {
+        to.add(xengine.explain(this, val));
+    }
+
+    @Override
+    public void contradiction(ICause cause, IEventType event, String message) throws ContradictionException {
+        assert cause != null;
+        solver.getEngine().fails(cause, this, message);
+    }
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | INT;
+    }
+
+    // bounds of the ranges of the current domain
+    private int[] copyRanges() {
+        int nb = 0;
+        for (int v = getLB(); v != Integer.MAX_VALUE; v = nextValue(rangeMax(v))) {
+            nb++;
+        }
+        int[] ranges = new int[2 * nb];
+        int r = 0;
+        for (int v = getLB(); v != Integer.MAX_VALUE; v = nextValue(ranges[r - 1])) {
+            ranges[r++] = v;
+            ranges[r++] = rangeMax(v);
+        }
+        return ranges;
+    }
+
+    @Override
+    public IntVar duplicate() {
+        return new RangeIntVarImpl(StringUtils.randomName(this.name), copyRanges(), -1, this.getSolver());
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            RangeIntVarImpl clone = new RangeIntVarImpl(this.name, copyRanges(), -1, solver);
+            identitymap.put(this, clone);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || !_viterator.isReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                int value;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.value = LB.get();
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.value = UB.get();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.value != Integer.MAX_VALUE;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.value != Integer.MIN_VALUE;
+                }
+
+                @Override
+                public int next() {
+                    int old = this.value;
+                    this.value = nextValue(old);
+                    return old;
+                }
+
+                @Override
+                public int previous() {
+                    int old = this.value;
+                    this.value = previousValue(old);
+                    return old;
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || !_riterator.isReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                int from;
+                int to;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.from = LB.get();
+                    this.to = rangeMax(from);
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.to = UB.get();
+                    this.from = rangeMin(to);
+                }
+
+                public boolean hasNext() {
+                    return this.from != Integer.MAX_VALUE;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.to != Integer.MIN_VALUE;
+                }
+
+                public void next() {
+                    this.from = nextValue(this.to);
+                    if (this.from != Integer.MAX_VALUE) {
+                        this.to = rangeMax(this.from);
+                    }
+                }
+
+                @Override
+                public void previous() {
+                    this.to = previousValue(this.from);
+                    if (this.to != Integer.MIN_VALUE) {
+                        this.from = rangeMin(this.to);
+                    }
+                }
+
+                @Override
+                public int min() {
+                    return from;
+                }
+
+                @Override
+                public int max() {
+                    return to;
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+}
@@ -43,6 +43,7 @@ import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.StringUtils;
 
 import java.util.BitSet;
@@ -236,6 +237,11 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
         return kernel.getSize();
     }
 
+    @Override
+    public void forEachKernelElement(IntProcedure proc) throws ContradictionException {
+        forEach(kernel, proc);
+    }
+
     @Override
     public boolean kernelContains(int i) {
         return !(i < min || i > max) && kernel.contain(i - min);
@@ -258,6 +264,21 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
         return envelope.getSize();
     }
 
+    @Override
+    public void forEachEnvelopeElement(IntProcedure proc) throws ContradictionException {
+        forEach(envelope, proc);
+    }
+
+    private void forEach(ISet set, IntProcedure proc) throws ContradictionException {
+        if (min == 0) {
+            set.forEach(proc);
+        } else {
+            for (int i = set.next(-1); i >= 0; i = set.next(i)) {
+                proc.execute(i + min);
+            }
+        }
+    }
+
     @Override
     public boolean envelopeContains(int i) {
         return !(i < min || i > max) && envelope.contain(i - min);
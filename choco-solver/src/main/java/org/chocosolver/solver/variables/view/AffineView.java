@@ -0,0 +1,524 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.view;
+
+import gnu.trove.map.hash.THashMap;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.explanations.VariableState;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.SafeIntProcedure;
+
+/**
+ * declare an IntVar based on X, A and B, such as A * X + B, where A is not null.
+ * <p/>
+ * Such a view is built by {@link VariableFactory} when a minus, offset or scale view is declared over another one,
+ * so that a chain of views is always reduced to a single view over a variable.
+ * <p/>
+ * Based on "Views and Iterators for Generic Constraint Implementations" <br/>
+ * C. Shulte and G. Tack.<br/>
+ * Eleventh International Conference on Principles and Practice of Constraint Programming
+ */
+public final class AffineView extends IntView {
+
+    public final int a, b;
+
+    public AffineView(final IntVar var, final int a, final int b, Solver solver) {
+        super("(" + var.getName() + "*" + a + "+" + b + ")", var, solver);
+        assert (a != 0) : "view coefficient must be not null";
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Return the value of <code>v</code> in this view, that is a * v + b.
+     */
+    private int image(int v) {
+        return a * v + b;
+    }
+
+    /**
+     * Return floor((v - b) / a)
+     */
+    private int floorQ(int v) {
+        return clamp(Math.floorDiv((long) v - b, a));
+    }
+
+    /**
+     * Return ceil((v - b) / a)
+     */
+    private int ceilQ(int v) {
+        return clamp(-Math.floorDiv(b - (long) v, a));
+    }
+
+    /**
+     * Return true if <code>v</code>, that is a value minus b, has an antecedent in the range of int
+     */
+    private boolean hasPreimage(long v) {
+        if (v % a != 0) {
+            return false;
+        }
+        long q = v / a;
+        return Integer.MIN_VALUE <= q && q <= Integer.MAX_VALUE;
+    }
+
+    private static int clamp(long v) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, v));
+    }
+
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        var.createDelta();
+        if (var.getDelta() == NoDelta.singleton) {
+            return IIntDeltaMonitor.Default.NONE;
+        }
+        return new AffineDeltaMonitor(var.monitorDelta(propagator), a, b);
+    }
+
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        long v = (long) value - b;
+        if (hasPreimage(v)) {
+            int inf = getLB();
+            int sup = getUB();
+            if (inf <= value && value <= sup) {
+                IntEventType e = IntEventType.REMOVE;
+                boolean done = var.removeValue((int) (v / a), this);
+                if (done) {
+                    if (value == inf) {
+                        e = IntEventType.INCLOW;
+                    } else if (value == sup) {
+                        e = IntEventType.DECUPP;
+                    }
+                    if (this.isInstantiated()) {
+                        e = IntEventType.INSTANTIATE;
+                    }
+                    this.notifyPropagators(e, cause);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB()) {
+            return updateLowerBound(to + 1, cause);
+        } else if (getUB() <= to) {
+            return updateUpperBound(from - 1, cause);
+        } else {
+            int lo = a > 0 ? ceilQ(from) : ceilQ(to);
+            int hi = a > 0 ? floorQ(to) : floorQ(from);
+            boolean done = lo <= hi && var.removeInterval(lo, hi, this);
+            if (done) {
+                notifyPropagators(IntEventType.REMOVE, cause);
+            }
+            return done;
+        }
+    }
+
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        long v = (long) value - b;
+        if (!hasPreimage(v)) {
+            contradiction(cause, IntEventType.INSTANTIATE, "Not an image of " + a + "*x+" + b);
+        }
+        boolean done = var.instantiateTo((int) (v / a), this);
+        if (done) {
+            notifyPropagators(IntEventType.INSTANTIATE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getLB();
+        if (old < value) {
+            IntEventType e = IntEventType.INCLOW;
+            boolean done = a > 0 ?
+                    var.updateLowerBound(ceilQ(value), this) :
+                    var.updateUpperBound(floorQ(value), this);
+            if (isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            if (done) {
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getUB();
+        if (old > value) {
+            IntEventType e = IntEventType.DECUPP;
+            boolean done = a > 0 ?
+                    var.updateUpperBound(floorQ(value), this) :
+                    var.updateLowerBound(ceilQ(value), this);
+            if (isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            if (done) {
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        long v = (long) value - b;
+        return hasPreimage(v) && var.contains((int) (v / a));
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        long v = (long) value - b;
+        return hasPreimage(v) && var.isInstantiatedTo((int) (v / a));
+    }
+
+    @Override
+    public int getValue() {
+        return image(var.getValue());
+    }
+
+    @Override
+    public int getLB() {
+        return image(a > 0 ? var.getLB() : var.getUB());
+    }
+
+    @Override
+    public int getUB() {
+        return image(a > 0 ? var.getUB() : var.getLB());
+    }
+
+    @Override
+    public int nextValue(int v) {
+        // the smallest image strictly greater than v
+        int value;
+        if (a > 0) {
+            value = var.nextValue(floorQ(v));
+            if (value == Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+        } else {
+            value = var.previousValue(ceilQ(v));
+            if (value == Integer.MIN_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        return image(value);
+    }
+
+    @Override
+    public int previousValue(int v) {
+        // the largest image strictly smaller than v
+        int value;
+        if (a > 0) {
+            value = var.previousValue(ceilQ(v));
+            if (value == Integer.MIN_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+        } else {
+            value = var.nextValue(floorQ(v));
+            if (value == Integer.MAX_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+        }
+        return image(value);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + this.var.toString() + " * " + this.a + " + " + this.b + ") = [" + getLB() + "," + getUB() + "]";
+    }
+
+    @Override
+    public IntVar duplicate() {
+        return new AffineView(this.var, this.a, this.b, getSolver());
+    }
+
+    @Override
+    public void duplicate(Solver solver, THashMap<Object, Object> identitymap) {
+        if (!identitymap.containsKey(this)) {
+            this.var.duplicate(solver, identitymap);
+            AffineView clone = new AffineView((IntVar) identitymap.get(this.var), this.a, this.b, solver);
+            identitymap.put(this, clone);
+        }
+    }
+
+    @Override
+    public void explain(ExplanationEngine xengine, VariableState what, int val, Explanation to) {
+        var.explain(xengine, what, (val - b) / a, to);
+    }
+
+    @Override
+    public void explain(ExplanationEngine xengine, VariableState what, Explanation to) {
+        if (a > 0) {
+            var.explain(xengine, what, to);
+        } else {
+            switch (what) {
+                case UB:
+                    var.explain(xengine, VariableState.LB, to);
+                    break;
+                case LB:
+                    var.explain(xengine, VariableState.UB, to);
+                    break;
+                default:
+                    var.explain(xengine, what, to);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || !_viterator.isReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                DisposableValueIterator vit;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    vit = var.getValueIterator(a > 0);
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    vit = var.getValueIterator(a < 0);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return a > 0 ? vit.hasNext() : vit.hasPrevious();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return a > 0 ? vit.hasPrevious() : vit.hasNext();
+                }
+
+                @Override
+                public int next() {
+                    return image(a > 0 ? vit.next() : vit.previous());
+                }
+
+                @Override
+                public int previous() {
+                    return image(a > 0 ? vit.previous() : vit.next());
+                }
+
+                @Override
+                public void dispose() {
+                    super.dispose();
+                    vit.dispose();
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || !_riterator.isReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                DisposableRangeIterator rit;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    rit = var.getRangeIterator(a > 0);
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    rit = var.getRangeIterator(a < 0);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return a > 0 ? rit.hasNext() : rit.hasPrevious();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return a > 0 ? rit.hasPrevious() : rit.hasNext();
+                }
+
+                @Override
+                public void next() {
+                    if (a > 0) {
+                        rit.next();
+                    } else {
+                        rit.previous();
+                    }
+                }
+
+                @Override
+                public void previous() {
+                    if (a > 0) {
+                        rit.previous();
+                    } else {
+                        rit.next();
+                    }
+                }
+
+                @Override
+                public int min() {
+                    return image(a > 0 ? rit.min() : rit.max());
+                }
+
+                @Override
+                public int max() {
+                    return image(a > 0 ? rit.max() : rit.min());
+                }
+
+                @Override
+                public void dispose() {
+                    super.dispose();
+                    rit.dispose();
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+
+    @Override
+    public void transformEvent(IEventType evt, ICause cause) throws ContradictionException {
+        if (a < 0) {
+            if (evt == IntEventType.INCLOW) {
+                evt = IntEventType.DECUPP;
+            } else if (evt == IntEventType.DECUPP) {
+                evt = IntEventType.INCLOW;
+            }
+        }
+        notifyPropagators(evt, this);
+    }
+
+    /**
+     * A delta monitor which transforms, on the fly, the values removed from the variable into values of the view.
+     * Unlike {@link ViewDeltaMonitor}, removed values are not copied.
+     */
+    private static final class AffineDeltaMonitor implements IIntDeltaMonitor {
+
+        private final IIntDeltaMonitor deltamonitor;
+        private final int a, b;
+        private SafeIntProcedure sproc;
+        private IntProcedure proc;
+        // both procedures are created once and for all, and forward transformed values
+        private final SafeIntProcedure safeForwarder = new SafeIntProcedure() {
+            @Override
+            public void execute(int i) {
+                sproc.execute(image(i));
+            }
+        };
+        private final IntProcedure forwarder = new IntProcedure() {
+            @Override
+            public void execute(int i) throws ContradictionException {
+                proc.execute(image(i));
+            }
+        };
+
+        AffineDeltaMonitor(IIntDeltaMonitor deltamonitor, int a, int b) {
+            this.deltamonitor = deltamonitor;
+            this.a = a;
+            this.b = b;
+        }
+
+        private int image(int v) {
+            return a * v + b;
+        }
+
+        @Override
+        public void freeze() {
+            deltamonitor.freeze();
+        }
+
+        @Override
+        public void unfreeze() {
+            deltamonitor.unfreeze();
+        }
+
+        @Override
+        public void forEachRemVal(SafeIntProcedure proc) {
+            SafeIntProcedure previous = this.sproc;
+            this.sproc = proc;
+            try {
+                deltamonitor.forEachRemVal(safeForwarder);
+            } finally {
+                this.sproc = previous;
+            }
+        }
+
+        @Override
+        public void forEachRemVal(IntProcedure proc) throws ContradictionException {
+            IntProcedure previous = this.proc;
+            this.proc = proc;
+            try {
+                deltamonitor.forEachRemVal(forwarder);
+            } finally {
+                this.proc = previous;
+            }
+        }
+    }
+}
@@ -79,7 +79,7 @@ public abstract class ViewDeltaMonitor implements IIntDeltaMonitor {
         values.clear();
         deltamonitor.forEachRemVal(filler);
         for (int v = 0; v < values.size(); v++) {
-            proc.execute(transform(values.toArray()[v]));
+            proc.execute(transform(values.getQuick(v)));
         }
     }
 
@@ -88,7 +88,7 @@ public abstract class ViewDeltaMonitor implements IIntDeltaMonitor {
         values.clear();
         deltamonitor.forEachRemVal(filler);
         for (int v = 0; v < values.size(); v++) {
-            proc.execute(transform(values.toArray()[v]));
+            proc.execute(transform(values.getQuick(v)));
         }
     }
 
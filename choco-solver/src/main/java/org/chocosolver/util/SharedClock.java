@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A low-resolution clock shared by all the solvers of a JVM.
+ * <p/>
+ * A single daemon thread updates a volatile tick every {@link #RESOLUTION} ms,
+ * so reading the time costs a volatile read instead of a system call.
+ * The same thread runs the periodic tasks and the deadlines of the solvers (time limits, loggers, ...),
+ * they must be short and must not do I/O: they should only raise a flag, checked by the search thread.
+ * Periodic tasks must be cancelled, through the returned {@link ScheduledFuture}, once the search is over.
+ * <p/>
+ * The thread is started the first time the class is used.
+ */
+public final class SharedClock {
+
+    /**
+     * Resolution of the clock, in ms
+     */
+    public static final long RESOLUTION = 10;
+
+    private static volatile long tick = System.nanoTime();
+
+    private static final ScheduledExecutorService EXECUTOR;
+
+    static {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "choco shared clock");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                tick = System.nanoTime();
+            }
+        }, RESOLUTION, RESOLUTION, TimeUnit.MILLISECONDS);
+        EXECUTOR = executor;
+    }
+
+    private SharedClock() {
+    }
+
+    /**
+     * Returns the value of {@link System#nanoTime()} observed at the last tick of the clock,
+     * that is, at most {@link #RESOLUTION} ms ago.
+     *
+     * @return the current time in nanoseconds, with a {@link #RESOLUTION} ms resolution
+     */
+    public static long nanoTime() {
+        return tick;
+    }
+
+    /**
+     * Runs <code>task</code> once, after <code>delay</code> ms, in the clock thread.
+     *
+     * @param task  the task to run, must be short
+     * @param delay delay in ms
+     * @return a future to cancel the task
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay) {
+        return EXECUTOR.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs <code>task</code> every <code>period</code> ms, in the clock thread, until it is cancelled.
+     *
+     * @param task   the task to run, must be short
+     * @param period period in ms, also the delay before the first run
+     * @return a future to cancel the task
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+        return EXECUTOR.scheduleAtFixedRate(task, period, period, TimeUnit.MILLISECONDS);
+    }
+}
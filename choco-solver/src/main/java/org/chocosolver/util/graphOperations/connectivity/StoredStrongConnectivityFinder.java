@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util.graphOperations.connectivity;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Decremental maintenance of the strongly connected components (SCC) of a backtrackable directed graph.
+ * <p>
+ * Each SCC is labelled by one of its nodes, its representative, which is also the first node of the list of its nodes.
+ * Labels and lists are backtrackable, so they follow the graph on backtrack.
+ * Arcs must be removed through {@link #removeArc(int, int)}: an arc joining two different SCC does not change them,
+ * otherwise it is recorded.
+ * A call to {@link #update()} then checks, for each recorded arc (u,v), whether v is still reachable from u
+ * within their SCC, in which case the SCC is unchanged.
+ * Otherwise, the SCC is computed again with a Tarjan algorithm restricted to its nodes.
+ * The other SCC are never visited.
+ * <p>
+ * The graph must be backtrackable, its node set must not change once {@link #findAllSCC()} has been called
+ * and no arc can be added to it.
+ */
+public class StoredStrongConnectivityFinder implements Serializable {
+
+    private final DirectedGraph graph;
+    private final int n;
+    private final StrongConnectivityFinder finder;
+    // representative of the SCC of each node, -1 for a node out of the graph
+    private final IStateInt[] label;
+    // next node in the list of the SCC of each node, -1 for the last one
+    private final IStateInt[] next;
+    private final IStateInt nbSCC;
+    // removed arcs which may split an SCC, since the last update
+    private int[] removed;
+    private int nbRemoved;
+    private final BitSet restriction;
+    // breadth-first search data
+    private final int[] fifo;
+    private final int[] visited;
+    private int stamp;
+
+    /**
+     * @param graph a backtrackable directed graph
+     * @param env   the environment the graph belongs to
+     */
+    public StoredStrongConnectivityFinder(DirectedGraph graph, IEnvironment env) {
+        this.graph = graph;
+        this.n = graph.getNbMaxNodes();
+        this.finder = new StrongConnectivityFinder(graph);
+        this.label = new IStateInt[n];
+        this.next = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = env.makeInt(-1);
+            next[i] = env.makeInt(-1);
+        }
+        this.nbSCC = env.makeInt(0);
+        this.removed = new int[16];
+        this.restriction = new BitSet(n);
+        this.fifo = new int[n];
+        this.visited = new int[n];
+    }
+
+    /**
+     * Computes the SCC of the whole graph, from scratch
+     */
+    public void findAllSCC() {
+        nbRemoved = 0;
+        finder.findAllSCC();
+        int[] sccOf = finder.getNodesSCC();
+        for (int i = 0; i < n; i++) {
+            if (sccOf[i] == -1) {
+                label[i].set(-1);
+                next[i].set(-1);
+            }
+        }
+        int nb = finder.getNbSCC();
+        for (int s = 0; s < nb; s++) {
+            relabel(finder.getSCCFirstNode(s));
+        }
+        nbSCC.set(nb);
+    }
+
+    /**
+     * Removes the arc (from,to) from the graph.
+     * The SCC are not updated before the next call to {@link #update()}.
+     *
+     * @param from tail of the arc
+     * @param to   head of the arc
+     * @return true iff the arc was in the graph
+     */
+    public boolean removeArc(int from, int to) {
+        if (graph.removeArc(from, to)) {
+            int l = label[from].get();
+            if (l == label[to].get() && l >= 0) {
+                if (nbRemoved + 2 > removed.length) {
+                    int[] tmp = removed;
+                    removed = new int[tmp.length * 3 / 2 + 2];
+                    System.arraycopy(tmp, 0, removed, 0, nbRemoved);
+                }
+                removed[nbRemoved++] = from;
+                removed[nbRemoved++] = to;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the SCC which contained both endpoints of a removed arc.
+     * The other SCC are left unchanged.
+     */
+    public void update() {
+        for (int k = 0; k < nbRemoved; k += 2) {
+            int from = removed[k];
+            int to = removed[k + 1];
+            int l = label[from].get();
+            // the SCC may have already been split by a previous arc
+            if (l == label[to].get() && !reaches(from, to, l)) {
+                split(l);
+            }
+        }
+        nbRemoved = 0;
+    }
+
+    /**
+     * Bidirectional breadth-first search, forward from <code>from</code> and backward from <code>to</code>,
+     * restricted to the SCC <code>l</code>
+     *
+     * @return true iff <code>to</code> is reachable from <code>from</code>
+     */
+    private boolean reaches(int from, int to, int l) {
+        if (stamp >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(visited, 0);
+            stamp = 0;
+        }
+        int fwd = ++stamp;
+        int bwd = ++stamp;
+        int ff = 0, lf = 0, fb = n, lb = n;
+        fifo[lf++] = from;
+        visited[from] = fwd;
+        fifo[--fb] = to;
+        visited[to] = bwd;
+        while (ff < lf && lb > fb) {
+            ISet succs = graph.getSuccOf(fifo[ff++]);
+            for (int j = succs.getFirstElement(); j >= 0; j = succs.getNextElement()) {
+                if (visited[j] != fwd && label[j].get() == l) {
+                    if (visited[j] == bwd) {
+                        return true;
+                    }
+                    visited[j] = fwd;
+                    fifo[lf++] = j;
+                }
+            }
+            ISet preds = graph.getPredOf(fifo[--lb]);
+            for (int j = preds.getFirstElement(); j >= 0; j = preds.getNextElement()) {
+                if (visited[j] != bwd && label[j].get() == l) {
+                    if (visited[j] == fwd) {
+                        return true;
+                    }
+                    visited[j] = bwd;
+                    fifo[--fb] = j;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes again the SCC of the nodes of the SCC <code>l</code>
+     */
+    private void split(int l) {
+        for (int i = l; i >= 0; i = next[i].get()) {
+            restriction.set(i);
+        }
+        finder.findAllSCCOf(restriction);
+        int nb = finder.getNbSCC();
+        for (int s = 0; s < nb; s++) {
+            relabel(finder.getSCCFirstNode(s));
+        }
+        nbSCC.add(nb - 1);
+    }
+
+    private void relabel(int first) {
+        for (int i = first; i >= 0; i = finder.getNextNode(i)) {
+            label[i].set(first);
+            next[i].set(finder.getNextNode(i));
+        }
+    }
+
+    /**
+     * @return the number of SCC
+     */
+    public int getNbSCC() {
+        return nbSCC.get();
+    }
+
+    /**
+     * @param node a node of the graph
+     * @return the representative of the SCC of <code>node</code>, that is, the first node of its SCC
+     */
+    public int getSCCOf(int node) {
+        return label[node].get();
+    }
+
+    /**
+     * @param node a node of the graph
+     * @return the node following <code>node</code> in its SCC, -1 if there is none
+     */
+    public int getNextNode(int node) {
+        return next[node].get();
+    }
+
+    /**
+     * @return the underlying graph
+     */
+    public DirectedGraph getGraph() {
+        return graph;
+    }
+}
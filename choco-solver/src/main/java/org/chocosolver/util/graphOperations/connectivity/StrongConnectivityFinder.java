@@ -70,18 +70,33 @@ public class StrongConnectivityFinder implements Serializable {
     public void findAllSCC() {
         ISet nodes = graph.getNodes();
         for (int i = 0; i < n; i++) {
-            restriction.set(i, nodes.contain(i));
+            boolean in = nodes.contain(i);
+            restriction.set(i, in);
+            if (!in) {
+                nextNode[i] = -1;
+                nodeSCC[i] = -1;
+            }
         }
         findAllSCCOf(restriction);
     }
 
+    /**
+     * Computes the strongly connected components of the subgraph induced by <code>restriction</code>,
+     * which is emptied on return.
+     * Only the data related to the nodes of <code>restriction</code> are reset,
+     * so the cost of a call is proportional to the size of the restricted subgraph.
+     * The outputs of the nodes out of <code>restriction</code> are meaningless.
+     *
+     * @param restriction set of nodes to consider
+     */
     public void findAllSCCOf(BitSet restriction) {
         inStack.clear();
-        for (int i = 0; i < n; i++) {
+        int k = 0;
+        for (int i = restriction.nextSetBit(0); i >= 0; i = restriction.nextSetBit(i + 1)) {
             dfsNumOfNode[i] = 0;
-            inf[i] = n + 2;
+            inf[k] = n + 2;
             nextNode[i] = -1;
-            sccFirstNode[i] = -1;
+            sccFirstNode[k++] = -1;
             nodeSCC[i] = -1;
         }
         nbSCC = 0;
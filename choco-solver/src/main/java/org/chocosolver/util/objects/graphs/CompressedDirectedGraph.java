@@ -0,0 +1,435 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util.objects.graphs;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Directed graph whose arcs belong to a set fixed at creation, stored in compressed sparse row (CSR) format.
+ * <p/>
+ * The successors (resp. predecessors) of all nodes are stored in a single array, node x owning a contiguous slice.
+ * The arcs of x present in the graph are the first ones of its slice, their number is the degree of x:
+ * a removed arc is swapped to the tail of the present ones, so a removal only decreases the degree,
+ * which is backtrackable when the graph is.
+ * Adding an arc of the initial set swaps it back, which is only supported when the graph is not backtrackable:
+ * restoring a degree does not restore the swapped positions.
+ * <p/>
+ * Compared to {@link DirectedGraph}, there is no data structure per node (a lightweight view only),
+ * the memory is proportional to the number of arcs and neighbors are contiguous in memory.
+ * This suits large sparse graphs which only lose arcs, such as the envelope of a graph-based propagator.
+ * <p/>
+ * The views returned by {@link #getSuccOf(int)} and {@link #getPredOf(int)} behave like
+ * {@link SetType#BIPARTITESET} sets.
+ * Stateless iteration is also available, for instance:
+ * <p/>
+ * for (int i = g.getNbSucc(x) - 1; i >= 0; i--) { int y = g.getSucc(x, i); ... }
+ * <p/>
+ * which is safe when the current arc is removed and can be nested.
+ * All nodes are always present in the graph.
+ */
+public class CompressedDirectedGraph extends DirectedGraph {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final Adjacency succs, preds;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a graph made of the given arcs.
+     * Arcs can then be removed, and added back, but no other arc can be added.
+     *
+     * @param n    number of nodes
+     * @param arcs arcs[x] contains the successors of x, in [0,n-1]
+     */
+    public CompressedDirectedGraph(int n, int[][] arcs) {
+        this(null, n, arcs);
+    }
+
+    /**
+     * Creates a backtrackable graph made of the given arcs.
+     * Arcs can then be removed, and added back if the graph is not backtrackable, but no other arc can be added.
+     *
+     * @param solver solver providing the backtracking environment, null for a graph which is not backtrackable
+     * @param n      number of nodes
+     * @param arcs   arcs[x] contains the successors of x, in [0,n-1]
+     */
+    public CompressedDirectedGraph(Solver solver, int n, int[][] arcs) {
+        super(n, SetType.BIPARTITESET, SetFactory.makeFullSet(n));
+        IEnvironment env = solver == null ? null : solver.getEnvironment();
+        int[][] sorted = new int[n][];
+        int[] inDeg = new int[n];
+        for (int x = 0; x < n; x++) {
+            int[] a = arcs[x].clone();
+            Arrays.sort(a);
+            int k = 0;
+            for (int i = 0; i < a.length; i++) {
+                if (i == 0 || a[i] != a[i - 1]) {
+                    a[k++] = a[i];
+                    inDeg[a[i]]++;
+                }
+            }
+            sorted[x] = k == a.length ? a : Arrays.copyOf(a, k);
+        }
+        // predecessors, sorted since x is increasing
+        int[][] rev = new int[n][];
+        for (int y = 0; y < n; y++) {
+            rev[y] = new int[inDeg[y]];
+            inDeg[y] = 0;
+        }
+        for (int x = 0; x < n; x++) {
+            for (int y : sorted[x]) {
+                rev[y][inDeg[y]++] = x;
+            }
+        }
+        succs = new Adjacency(sorted, env);
+        preds = new Adjacency(rev, env);
+        for (int x = 0; x < n; x++) {
+            successors[x] = new Neighbors(succs, x);
+            predecessors[x] = new Neighbors(preds, x);
+        }
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * @param x a node
+     * @return the number of successors of x
+     */
+    public int getNbSucc(int x) {
+        return succs.degree(x);
+    }
+
+    /**
+     * @param x a node
+     * @param i an index in [0,getNbSucc(x)-1]
+     * @return the i-th successor of x
+     */
+    public int getSucc(int x, int i) {
+        return succs.elements[succs.start[x] + i];
+    }
+
+    /**
+     * @param x a node
+     * @return the number of predecessors of x
+     */
+    public int getNbPred(int x) {
+        return preds.degree(x);
+    }
+
+    /**
+     * @param x a node
+     * @param i an index in [0,getNbPred(x)-1]
+     * @return the i-th predecessor of x
+     */
+    public int getPred(int x, int i) {
+        return preds.elements[preds.start[x] + i];
+    }
+
+    @Override
+    public boolean removeArc(int from, int to) {
+        return successors[from].remove(to);
+    }
+
+    @Override
+    public boolean arcExists(int from, int to) {
+        return succs.contains(from, to);
+    }
+
+    /**
+     * Adds back an arc of the initial set.
+     *
+     * @throws UnsupportedOperationException if the graph is backtrackable, or if the arc does not belong to the initial set
+     */
+    @Override
+    public boolean addArc(int from, int to) {
+        return successors[from].add(to);
+    }
+
+    //***********************************************************************************
+    // STRUCTURES
+    //***********************************************************************************
+
+    /**
+     * Neighbors of all nodes, in one direction
+     */
+    private static final class Adjacency implements Serializable {
+
+        // start[x] is the index of the slice of x, start[n] the number of arcs
+        final int[] start;
+        // neighbors, the present ones of x are in [start[x], start[x] + degree(x)-1]
+        final int[] elements;
+        // neighbors in increasing order, per slice
+        final int[] sorted;
+        // position in elements of each entry of sorted
+        final int[] position;
+        final int[] degrees;
+        final IStateIntVector storedDegrees;
+
+        Adjacency(int[][] neighbors, IEnvironment env) {
+            int n = neighbors.length;
+            start = new int[n + 1];
+            for (int x = 0; x < n; x++) {
+                start[x + 1] = start[x] + neighbors[x].length;
+            }
+            int m = start[n];
+            elements = new int[m];
+            sorted = new int[m];
+            position = new int[m];
+            int[] deg = new int[n];
+            for (int x = 0; x < n; x++) {
+                System.arraycopy(neighbors[x], 0, sorted, start[x], neighbors[x].length);
+                System.arraycopy(neighbors[x], 0, elements, start[x], neighbors[x].length);
+                deg[x] = neighbors[x].length;
+            }
+            for (int k = 0; k < m; k++) {
+                position[k] = k;
+            }
+            if (env == null) {
+                degrees = deg;
+                storedDegrees = null;
+            } else {
+                degrees = null;
+                storedDegrees = env.makeIntVector(n, 0);
+                for (int x = 0; x < n; x++) {
+                    storedDegrees.quickSet(x, deg[x]);
+                }
+            }
+        }
+
+        int degree(int x) {
+            return degrees == null ? storedDegrees.quickGet(x) : degrees[x];
+        }
+
+        void setDegree(int x, int d) {
+            if (degrees == null) {
+                storedDegrees.quickSet(x, d);
+            } else {
+                degrees[x] = d;
+            }
+        }
+
+        int indexOf(int x, int y) {
+            return Arrays.binarySearch(sorted, start[x], start[x + 1], y);
+        }
+
+        boolean contains(int x, int y) {
+            int k = indexOf(x, y);
+            return k >= 0 && position[k] < start[x] + degree(x);
+        }
+
+        // exchange the entries at positions p and q of the slice of x
+        void swap(int x, int p, int q) {
+            int a = elements[p];
+            int b = elements[q];
+            elements[p] = b;
+            elements[q] = a;
+            position[indexOf(x, a)] = q;
+            position[indexOf(x, b)] = p;
+        }
+
+        boolean remove(int x, int y) {
+            int k = indexOf(x, y);
+            if (k < 0) {
+                return false;
+            }
+            int d = degree(x);
+            int last = start[x] + d - 1;
+            if (position[k] > last) {
+                return false;
+            }
+            if (position[k] != last) {
+                swap(x, position[k], last);
+            }
+            setDegree(x, d - 1);
+            return true;
+        }
+
+        boolean add(int x, int y) {
+            if (storedDegrees != null) {
+                // the swap below would not be undone on backtrack
+                throw new UnsupportedOperationException("arcs cannot be added to a backtrackable compressed graph");
+            }
+            int k = indexOf(x, y);
+            if (k < 0) {
+                throw new UnsupportedOperationException("(" + x + "," + y + ") does not belong to the initial arcs of the graph");
+            }
+            int d = degree(x);
+            int free = start[x] + d;
+            if (position[k] < free) {
+                return false;
+            }
+            if (position[k] != free) {
+                swap(x, position[k], free);
+            }
+            setDegree(x, d + 1);
+            return true;
+        }
+
+    }
+
+    /**
+     * View on the neighbors of a node, in one direction
+     */
+    private final class Neighbors implements ISet {
+
+        private final Adjacency adj;
+        private final int node;
+        private int current;
+
+        Neighbors(Adjacency adj, int node) {
+            this.adj = adj;
+            this.node = node;
+        }
+
+        // the same arc, seen from its other endpoint
+        private Neighbors mirror(int element) {
+            return (Neighbors) (adj == succs ? predecessors[element] : successors[element]);
+        }
+
+        @Override
+        public boolean add(int element) {
+            if (adj.add(node, element)) {
+                mirror(element).adj.add(element, node);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(int element) {
+            if (detach(element)) {
+                mirror(element).detach(node);
+                return true;
+            }
+            return false;
+        }
+
+        // removes element from this set only, the current element of an iteration is kept valid
+        private boolean detach(int element) {
+            int k = adj.indexOf(node, element);
+            if (k >= 0 && adj.position[k] == current) {
+                // the current element is replaced by the last one
+                current--;
+            }
+            return adj.remove(node, element);
+        }
+
+        @Override
+        public boolean contain(int element) {
+            return adj.contains(node, element);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return adj.degree(node) == 0;
+        }
+
+        @Override
+        public int getSize() {
+            return adj.degree(node);
+        }
+
+        @Override
+        public void clear() {
+            int from = adj.start[node];
+            for (int i = from + adj.degree(node) - 1; i >= from; i--) {
+                mirror(adj.elements[i]).detach(node);
+            }
+            adj.setDegree(node, 0);
+        }
+
+        @Override
+        public int getFirstElement() {
+            current = adj.start[node];
+            return getNextElementAt();
+        }
+
+        @Override
+        public int getNextElement() {
+            current++;
+            return getNextElementAt();
+        }
+
+        private int getNextElementAt() {
+            return current < adj.start[node] + adj.degree(node) ? adj.elements[current] : -1;
+        }
+
+        @Override
+        public int next(int from) {
+            int k = from < 0 ? adj.start[node] : adj.position[adj.indexOf(node, from)] + 1;
+            return k < adj.start[node] + adj.degree(node) ? adj.elements[k] : -1;
+        }
+
+        @Override
+        public void forEach(IntProcedure proc) throws ContradictionException {
+            int from = adj.start[node];
+            for (int k = from, to = from + adj.degree(node); k < to; k++) {
+                proc.execute(adj.elements[k]);
+            }
+        }
+
+        @Override
+        public SetType getSetType() {
+            return SetType.BIPARTITESET;
+        }
+
+        @Override
+        public int[] toArray() {
+            int from = adj.start[node];
+            return Arrays.copyOfRange(adj.elements, from, from + adj.degree(node));
+        }
+
+        @Override
+        public int getMaxSize() {
+            return adj.start[node + 1] - adj.start[node];
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+}
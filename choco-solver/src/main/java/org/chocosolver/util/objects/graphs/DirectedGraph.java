@@ -106,6 +106,21 @@ public class DirectedGraph implements IGraph {
         }
     }
 
+    /**
+     * Creates a graph whose node set is given, the successor and predecessor sets are left to the subclass.
+     *
+     * @param n     maximum number of nodes
+     * @param type  data structure used for representing node successors and predecessors
+     * @param nodes node set
+     */
+    DirectedGraph(int n, SetType type, ISet nodes) {
+        this.n = n;
+        this.type = type;
+        this.nodes = nodes;
+        predecessors = new ISet[n];
+        successors = new ISet[n];
+    }
+
     //***********************************************************************************
     // METHODS
     //***********************************************************************************
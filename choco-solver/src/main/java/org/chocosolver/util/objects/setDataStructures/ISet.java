@@ -28,6 +28,9 @@
  */
 package org.chocosolver.util.objects.setDataStructures;
 
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
+
 import java.io.Serializable;
 
 /**
@@ -94,12 +97,45 @@ public interface ISet extends Serializable {
      * <p/>
      * The use of getFirstElement() is necessary to ensure a complete iteration
      * <p/>
-     * WARNING cannot encapsulate two for loops (copy the set for that)
+     * WARNING cannot encapsulate two for loops (copy the set for that, or use {@link #next(int)})
      *
      * @return the next element of the set
      */
     int getNextElement();
 
+    /**
+     * Stateless iteration over the set: gets the element which follows <code>from</code>.
+     * <p/>
+     * should be used as follow :
+     * <p/>
+     * for(int i=next(-1); i>=0; i = next(i)){
+     * ...
+     * }
+     * <p/>
+     * As no cursor is stored in the set, such loops can be nested, even over the same set.
+     * The set must not be modified during the iteration.
+     * Sets based on bitsets, boolean arrays and swaps answer in constant time (amortized for bitsets),
+     * linked lists in time linear in the position of <code>from</code>: prefer {@link #forEach(IntProcedure)} for them.
+     *
+     * @param from -1 to get the first element, an element of the set otherwise
+     * @return the element which follows <code>from</code>, -1 if there is none
+     */
+    int next(int from);
+
+    /**
+     * Applies <code>proc</code> on each element of the set.
+     * As no cursor is stored in the set, calls can be nested, even over the same set.
+     * The set must not be modified by <code>proc</code>.
+     *
+     * @param proc procedure to apply on each element
+     * @throws ContradictionException if <code>proc</code> fails
+     */
+    default void forEach(IntProcedure proc) throws ContradictionException {
+        for (int i = next(-1); i >= 0; i = next(i)) {
+            proc.execute(i);
+        }
+    }
+
 	/**
 	 * @return the implementation type of this set
 	 */
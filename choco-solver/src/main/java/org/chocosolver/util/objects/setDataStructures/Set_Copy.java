@@ -32,6 +32,8 @@ import org.chocosolver.memory.copy.EnvironmentCopying;
 import org.chocosolver.memory.copy.RcObject;
 import org.chocosolver.memory.copy.RecomputableElement;
 import org.chocosolver.memory.copy.store.StoredObjectCopy;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Backtrable set
@@ -140,6 +142,16 @@ public class Set_Copy extends RcObject implements ISet {
         return "set stored by copy " + set.toString();
     }
 
+    @Override
+    public int next(int from) {
+        return set.next(from);
+    }
+
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        set.forEach(proc);
+    }
+
 	@Override
 	public SetType getSetType(){
 		return set.getSetType();
@@ -102,6 +102,11 @@ public class Set_Full implements ISet {
             return -1;
     }
 
+    @Override
+    public int next(int from) {
+        return from + 1 < n ? from + 1 : -1;
+    }
+
 	@Override
 	public SetType getSetType(){
 		return SetType.BITSET;
@@ -92,6 +92,11 @@ public class Set_Std_BitSet extends S64BitSet implements ISet {
         return current;
     }
 
+    @Override
+    public int next(int from) {
+        return nextSetBit(from + 1);
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -30,7 +30,9 @@ package org.chocosolver.util.objects.setDataStructures;
 
 import org.chocosolver.memory.structure.Operation;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Backtrable set
@@ -156,6 +158,16 @@ public class Set_Trail implements ISet {
         }
     }
 
+    @Override
+    public int next(int from) {
+        return set.next(from);
+    }
+
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        set.forEach(proc);
+    }
+
 	@Override
 	public SetType getSetType(){
 		return set.getSetType();
@@ -28,8 +28,10 @@
  */
 package org.chocosolver.util.objects.setDataStructures.linkedlist;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * Linked list of m elements with double link (predecessor and successor)
@@ -221,6 +223,27 @@ public class Set_2LinkedList implements ISet {
         return el;
     }
 
+    @Override
+    public int next(int from) {
+        DoubleIntCell current = first;
+        if (from >= 0) {
+            while (current != null && current.element != from) {
+                current = current.next;
+            }
+            if (current != null) {
+                current = current.next;
+            }
+        }
+        return current == null ? -1 : current.element;
+    }
+
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        for (DoubleIntCell current = first; current != null; current = current.next) {
+            proc.execute(current.element);
+        }
+    }
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
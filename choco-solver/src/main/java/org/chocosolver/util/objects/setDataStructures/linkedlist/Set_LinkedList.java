@@ -28,8 +28,10 @@
  */
 package org.chocosolver.util.objects.setDataStructures.linkedlist;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * LinkedList of m elements
@@ -208,6 +210,27 @@ public class Set_LinkedList implements ISet {
 		return SetType.LINKED_LIST;
 	}
 
+    @Override
+    public int next(int from) {
+        IntCell current = first;
+        if (from >= 0) {
+            while (current != null && current.element != from) {
+                current = current.next;
+            }
+            if (current != null) {
+                current = current.next;
+            }
+        }
+        return current == null ? -1 : current.element;
+    }
+
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        for (IntCell current = first; current != null; current = current.next) {
+            proc.execute(current.element);
+        }
+    }
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
@@ -98,6 +98,11 @@ public class Set_BitSet extends BitSet implements ISet {
         return current;
     }
 
+    @Override
+    public int next(int from) {
+        return nextSetBit(from + 1);
+    }
+
     @Override
     public void clear() {
         card = 0;
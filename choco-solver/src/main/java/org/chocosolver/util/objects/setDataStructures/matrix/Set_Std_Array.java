@@ -144,6 +144,16 @@ public class Set_Std_Array implements ISet {
         return -1;
     }
 
+    @Override
+    public int next(int from) {
+        for (int i = from + 1; i < n; i++) {
+            if (elements[i].get()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 	@Override
 	public SetType getSetType(){
 		return SetType.BOOL_ARRAY;
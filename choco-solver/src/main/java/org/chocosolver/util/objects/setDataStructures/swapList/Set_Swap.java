@@ -28,7 +28,9 @@
  */
 package org.chocosolver.util.objects.setDataStructures.swapList;
 
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.procedure.IntProcedure;
 
 /**
  * List of m elements based on Array int_swaping
@@ -109,6 +111,13 @@ public abstract class Set_Swap implements ISet {
         return array[currentIdx];
     }
 
+    @Override
+    public void forEach(IntProcedure proc) throws ContradictionException {
+        for (int i = 0, size = getSize(); i < size; i++) {
+            proc.execute(array[i]);
+        }
+    }
+
 	@Override
 	public int[] toArray(){
 		int[] a = new int[getSize()];
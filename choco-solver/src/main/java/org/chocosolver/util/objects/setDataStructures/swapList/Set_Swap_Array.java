@@ -79,7 +79,7 @@ public class Set_Swap_Array extends Set_Swap {
     @Override
     public boolean remove(int element) {
         int size = getSize();
-        if (map[element] >= 0) {
+        if (contain(element)) {
             if (size == 1) {
                 setSize(0);
                 return true;
@@ -101,6 +101,12 @@ public class Set_Swap_Array extends Set_Swap {
         return false;
     }
 
+    @Override
+    public int next(int from) {
+        int idx = from < 0 ? 0 : map[from] + 1;
+        return idx < getSize() ? array[idx] : -1;
+    }
+
 	@Override
 	public SetType getSetType(){
 		return SetType.BIPARTITESET;
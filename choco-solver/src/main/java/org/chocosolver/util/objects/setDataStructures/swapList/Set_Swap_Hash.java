@@ -78,7 +78,7 @@ public class Set_Swap_Hash extends Set_Swap {
     @Override
     public boolean remove(int element) {
         int size = getSize();
-        if (map.containsKey(element)) {
+        if (contain(element)) {
             int idx = map.get(element);
             if (idx < size) {
                 if (size == 1) {
@@ -100,6 +100,12 @@ public class Set_Swap_Hash extends Set_Swap {
         return false;
     }
 
+    @Override
+    public int next(int from) {
+        int idx = from < 0 ? 0 : map.get(from) + 1;
+        return idx < getSize() ? array[idx] : -1;
+    }
+
 	@Override
 	public SetType getSetType(){
 		return SetType.SWAP_HASH;
@@ -30,6 +30,7 @@ package org.chocosolver.choco;
 
 import org.chocosolver.choco.checker.DomainBuilder;
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
@@ -44,6 +45,7 @@ import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -237,4 +239,46 @@ public class IntLinCombTest {
         solver.findAllSolutions();
     }
 
+    protected Solver scalar(int[][] domains, int[] coeffs, int b, boolean incremental) {
+        Solver solver = new Solver();
+        solver.set(new Settings() {
+            @Override
+            public int getMinSizeForIncrementalLinearEq() {
+                return incremental ? 1 : Integer.MAX_VALUE;
+            }
+        });
+        IntVar[] bins = new IntVar[domains.length];
+        for (int i = 0; i < domains.length; i++) {
+            bins[i] = VariableFactory.enumerated("v_" + i, domains[i], solver);
+        }
+        solver.post(IntConstraintFactory.scalar(bins, coeffs, VF.fixed(b, solver)));
+        solver.post(IntConstraintFactory.sum(Arrays.copyOf(bins, domains.length / 2), bins[domains.length - 1]));
+        solver.set(IntStrategyFactory.minDom_UB(bins));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testIncremental() {
+        Random rand = new Random();
+        for (int seed = 0; seed < 100; seed++) {
+            rand.setSeed(seed);
+            int n = 4 + rand.nextInt(4);
+            int min = -5 + rand.nextInt(10);
+            int max = min + rand.nextInt(8);
+            int[][] domains = DomainBuilder.buildFullDomains(n, min, max, rand, 1.0, false);
+            int[] coeffs = new int[n];
+            for (int i = 0; i < n; i++) {
+                coeffs[i] = -10 + rand.nextInt(20);
+            }
+            int b = -20 + rand.nextInt(40);
+
+            Solver classic = scalar(domains, coeffs, b, false);
+            Solver incremental = scalar(domains, coeffs, b, true);
+            classic.findAllSolutions();
+            incremental.findAllSolutions();
+            Assert.assertEquals(incremental.getMeasures().getSolutionCount(), classic.getMeasures().getSolutionCount());
+            Assert.assertEquals(incremental.getMeasures().getNodeCount(), classic.getMeasures().getNodeCount());
+        }
+    }
+
 }
@@ -31,10 +31,14 @@ package org.chocosolver.choco;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.search.limits.ActionCounterFactory;
+import org.chocosolver.solver.search.limits.ThreadTimeCounter;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.loop.monitors.SearchMonitorFactory;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.SharedClock;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -88,6 +92,57 @@ public class LimitsTest {
         Assert.assertTrue(tl - (tl * 10 / 100) <= tc && tc <= tl + (tl * 10 / 100), tl + " vs. " + tc);
     }
 
+    @Test(groups = "1s")
+    public void testThreadTimeReset() throws InterruptedException {
+        ThreadTimeCounter counter = new ThreadTimeCounter(100);
+        counter.setAction(ActionCounterFactory.none());
+        counter.init();
+        Assert.assertFalse(counter.isReached());
+        Thread.sleep(200);
+        Assert.assertTrue(counter.isReached());
+        counter.reset();
+        Assert.assertFalse(counter.isReached());
+        Thread.sleep(200);
+        Assert.assertTrue(counter.isReached());
+    }
+
+    @Test(groups = "1s")
+    public void testThreadTimeCancelledOnClose() {
+        Solver s = modelit();
+        final ThreadTimeCounter counter = new ThreadTimeCounter(3600 * 1000);
+        counter.setAction(ActionCounterFactory.interruptSearch(s.getSearchLoop()));
+        s.plugMonitor(counter);
+        final boolean[] scheduled = new boolean[1];
+        s.plugMonitor((IMonitorSolution) () -> scheduled[0] = counter.isScheduled());
+        Assert.assertTrue(s.findSolution());
+        Assert.assertTrue(scheduled[0]);
+        Assert.assertFalse(counter.isScheduled());
+        // the deadline is scheduled again when the search is resumed, and cancelled on close
+        scheduled[0] = false;
+        Assert.assertTrue(s.nextSolution());
+        Assert.assertTrue(scheduled[0]);
+        Assert.assertFalse(counter.isScheduled());
+        Assert.assertFalse(s.hasReachedLimit());
+    }
+
+    @Test(groups = "1s")
+    public void testSharedClock() throws InterruptedException {
+        long t0 = SharedClock.nanoTime();
+        Assert.assertTrue(t0 <= System.nanoTime());
+        Thread.sleep(5 * SharedClock.RESOLUTION);
+        long t1 = SharedClock.nanoTime();
+        Assert.assertTrue(t0 < t1 && t1 <= System.nanoTime());
+        // two solvers share the clock
+        Solver s1 = modelit();
+        Solver s2 = modelit();
+        SearchMonitorFactory.limitTime(s1, 100);
+        SearchMonitorFactory.limitThreadTime(s2, 100);
+        s1.findAllSolutions();
+        s2.findAllSolutions();
+        Assert.assertTrue(s1.hasReachedLimit());
+        Assert.assertTrue(s2.hasReachedLimit());
+    }
+
     @Test(groups = "1s")
     public void testNode() {
         Solver s = modelit();
@@ -41,6 +41,8 @@ import org.chocosolver.solver.variables.VariableFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * <br/>
  *
@@ -246,4 +248,116 @@ public class LogicTreeTest {
         }
     }
 
+    private static ILogical randomTree(BoolVar[] vars, Random rnd, int depth) {
+        if (depth == 0 || rnd.nextInt(4) == 0) {
+            BoolVar v = vars[rnd.nextInt(vars.length)];
+            return rnd.nextBoolean() ? v : v.not();
+        }
+        ILogical a = randomTree(vars, rnd, depth - 1);
+        ILogical b = randomTree(vars, rnd, depth - 1);
+        switch (rnd.nextInt(8)) {
+            case 0:
+                return LogOp.and(a, b, randomTree(vars, rnd, depth - 1));
+            case 1:
+                return LogOp.or(a, b, randomTree(vars, rnd, depth - 1));
+            case 2:
+                return LogOp.nand(a, b);
+            case 3:
+                return LogOp.nor(a, b);
+            case 4:
+                return LogOp.implies(a, b);
+            case 5:
+                return LogOp.ifOnlyIf(a, b);
+            case 6:
+                return LogOp.xor(a, b);
+            default:
+                return LogOp.ifThenElse(a, b, randomTree(vars, rnd, depth - 1));
+        }
+    }
+
+    private static boolean eval(ILogical l, BoolVar[] vars, int tuple) {
+        if (l.isLit()) {
+            BoolVar v = (BoolVar) l;
+            if (v.isNot()) {
+                return !eval(v.not(), vars, tuple);
+            }
+            for (int i = 0; i < vars.length; i++) {
+                if (vars[i] == v) {
+                    return (tuple & (1 << i)) != 0;
+                }
+            }
+            return v.getValue() == 1; // ONE or ZERO
+        }
+        LogOp n = (LogOp) l;
+        boolean and = n.is(LogOp.Operator.AND);
+        boolean r = and;
+        for (ILogical c : n.getChildren()) {
+            if (eval(c, vars, tuple) != and) {
+                r = !and;
+                break;
+            }
+        }
+        return r != n.isNot();
+    }
+
+    @Test(groups = "1s")
+    public void testLinearRandom() {
+        for (int seed = 0; seed < 300; seed++) {
+            Solver solver = new Solver();
+            BoolVar[] vars = VariableFactory.boolArray("b", 5, solver);
+            LogOp tree = LogOp.and(randomTree(vars, new Random(seed), 4), randomTree(vars, new Random(seed + 1), 3));
+            long expected = 0;
+            for (int t = 0; t < 1 << vars.length; t++) {
+                if (eval(tree, vars, t)) {
+                    expected++;
+                }
+            }
+            SatFactory.addClauses(tree, solver, true);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), expected, "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testLinearNested() {
+        Solver solver = new Solver();
+        BoolVar[] vars = VariableFactory.boolArray("b", 10, solver);
+        // nested if-then-else, the distribution over conjunctions produces an exponential number of clauses
+        ILogical tree = vars[0];
+        for (int i = 1; i < 40; i++) {
+            tree = LogOp.ifThenElse(vars[i % 10], tree, LogOp.and(vars[(i + 3) % 10].not(), vars[(i + 7) % 10]));
+        }
+        LogOp root = LogOp.or(tree, LogOp.and(vars[2], vars[5].not()));
+        long expected = 0;
+        for (int t = 0; t < 1 << vars.length; t++) {
+            if (eval(root, vars, t)) {
+                expected++;
+            }
+        }
+        int nbVars = solver.getNbVars();
+        SatFactory.addClauses(root, solver, true);
+        int nbAux = solver.getNbVars() - nbVars;
+        Assert.assertTrue(nbAux > 0 && nbAux <= 3 * 40, "nb aux: " + nbAux);
+        // equivalent sub-formulas are defined once
+        SatFactory.addClauses(root, solver, true);
+        Assert.assertEquals(solver.getNbVars() - nbVars, nbAux);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), expected);
+    }
+
+    @Test(groups = "1s")
+    public void testLinearTrivial() {
+        Solver solver = new Solver();
+        BoolVar a = VariableFactory.bool("a", solver);
+        BoolVar b = VariableFactory.bool("b", solver);
+        Assert.assertTrue(SatFactory.addClauses(LogOp.or(a, LogOp.and(b, b.not()), LogOp.nor(a, solver.ZERO)), solver, true));
+        Assert.assertEquals(solver.getNbVars(), 5); // ONE, ZERO, a, b and not(b)
+        Assert.assertTrue(SatFactory.addClauses(LogOp.or(LogOp.and(a, b), LogOp.and(a.not(), solver.ONE)), solver, true));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 3);
+        solver = new Solver();
+        a = VariableFactory.bool("a", solver);
+        Assert.assertFalse(SatFactory.addClauses(LogOp.and(a, LogOp.nor(a, solver.ZERO)), solver, true));
+    }
+
 }
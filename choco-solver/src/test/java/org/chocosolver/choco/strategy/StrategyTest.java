@@ -29,10 +29,13 @@
 package org.chocosolver.choco.strategy;
 
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.set.SetConstraintsFactory;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
@@ -362,4 +365,59 @@ public class StrategyTest {
         double va = eval.evaluate(v1);
         Assert.assertEquals(-5.0, va);
     }
+
+    private static IntVar[] queens(Solver solver, int n) {
+        IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "-", j - i));
+            }
+        }
+        return q;
+    }
+
+    @Test(groups = "1s")
+    public void testLastKConflicts() {
+        for (int k = 1; k < 4; k++) {
+            Solver solver = new Solver();
+            IntVar[] q = queens(solver, 8);
+            solver.set(ISF.lastKConflicts(solver, k, ISF.lexico_LB(q)));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testConflictOrderingSearch() {
+        Solver solver = new Solver();
+        IntVar[] q = queens(solver, 8);
+        solver.set(ISF.conflictOrderingSearch(solver, ISF.lexico_LB(q)));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+
+        solver = new Solver();
+        q = queens(solver, 8);
+        solver.set(ISF.conflictOrderingSearch(solver, ISF.lexico_LB(q)));
+        SMF.luby(solver, 2, 2, new FailCounter(2), 1000);
+        Assert.assertTrue(solver.findSolution());
+    }
+
+    @Test(groups = "1s")
+    public void testActivity() {
+        for (long seed = 0; seed < 5; seed++) {
+            Solver solver = new Solver();
+            IntVar[] q = queens(solver, 12);
+            solver.set(ISF.activity(q, seed));
+            Assert.assertTrue(solver.findSolution());
+        }
+        for (long seed = 0; seed < 5; seed++) {
+            Solver solver = new Solver();
+            IntVar[] q = queens(solver, 4);
+            solver.set(ISF.activity(q, seed));
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, q[0]);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue().intValue(), 3);
+        }
+    }
 }
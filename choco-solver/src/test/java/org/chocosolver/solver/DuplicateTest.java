@@ -40,6 +40,7 @@ import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.circuit.CircuitConf;
 import org.chocosolver.solver.constraints.set.SCF;
 import org.chocosolver.solver.constraints.ternary.PropTimesNaive;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.*;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.chocosolver.util.objects.setDataStructures.SetType;
@@ -1765,5 +1766,53 @@ public class DuplicateTest {
         Assert.assertEquals(copy.toString(), solver.toString());
         Assert.assertEquals(copy.getMeasures().getSolutionCount(), solver.getMeasures().getSolutionCount());
     }
-}
 
+    @Test(groups = "1s")
+    public void test85() throws ContradictionException {
+        Solver solver = new Solver("Choco");
+        IntVar[] X = VF.enumeratedArray("X", 4, 1, 4, solver);
+        BoolVar B = VF.bool("B", solver);
+        solver.post(ICF.alldifferent(X, "AC"));
+        solver.post(ICF.arithm(X[0], "<", X[1]));
+        solver.propagate();
+        int size = X[0].getDomainSize();
+        // go down in the search tree
+        solver.getEnvironment().worldPush();
+        X[0].removeValue(1, Cause.Null);
+        B.setToTrue(Cause.Null);
+        solver.propagate();
+
+        Solver copy = solver.duplicateModel();
+        Assert.assertEquals(copy.getEnvironment().getWorldIndex(), 0);
+        for (int i = 0; i < solver.getNbVars(); i++) {
+            Assert.assertEquals(((IntVar) copy.getVar(i)).getDomainSize(), ((IntVar) solver.getVar(i)).getDomainSize());
+        }
+        copy.findAllSolutions();
+        Assert.assertEquals(copy.getMeasures().getSolutionCount(), 6);
+
+        // the original solver is left unchanged
+        solver.getEnvironment().worldPop();
+        Assert.assertEquals(X[0].getDomainSize(), size);
+        Assert.assertFalse(B.isInstantiated());
+    }
+
+    @Test(groups = "1s")
+    public void test86() throws ContradictionException {
+        for (String op : new String[]{"GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+"}) {
+            Solver solver = new Solver("Choco");
+            IntVar[] X = VF.enumeratedArray("X", 3, 0, 5, solver);
+            solver.post(ICF.table(X, TuplesFactory.plus(X[0], X[1], X[2]), op));
+            solver.propagate();
+            // go down in the search tree
+            solver.getEnvironment().worldPush();
+            X[0].updateLowerBound(2, Cause.Null);
+            X[1].updateLowerBound(1, Cause.Null);
+            solver.propagate();
+
+            Solver copy = solver.duplicateModel();
+            copy.findAllSolutions();
+            // X0 in [2,4], X1 in [1,3], X0 + X1 <= 5
+            Assert.assertEquals(copy.getMeasures().getSolutionCount(), 6, op);
+        }
+    }
+}
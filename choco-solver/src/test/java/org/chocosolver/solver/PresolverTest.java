@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.nary.sum.Scalar;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.view.IntView;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PresolverTest {
+
+    private static Solver solver(boolean presolve) {
+        Solver solver = new Solver();
+        solver.set(new Settings() {
+            @Override
+            public boolean enablePresolve() {
+                return presolve;
+            }
+        });
+        return solver;
+    }
+
+    private static Solver model(boolean presolve) {
+        Solver solver = solver(presolve);
+        IntVar[] x = VF.enumeratedArray("x", 5, 0, 5, solver);
+        IntVar c = VF.fixed(3, solver);
+        solver.post(ICF.arithm(x[0], "<", x[1]));
+        solver.post(ICF.arithm(x[0], "<", x[1])); // duplicate
+        solver.post(ICF.arithm(x[2], "!=", 4)); // unary
+        solver.post(ICF.arithm(x[3], ">=", 1)); // unary
+        solver.post(ICF.arithm(c, ">", 1)); // entailed
+        solver.post(ICF.arithm(x[3], "!=", x[4]));
+        solver.post(ICF.arithm(x[4], "!=", x[3], "+", 0)); // not a syntactic duplicate
+        solver.post(ICF.alldifferent(new IntVar[]{x[1], x[2], x[4]}));
+        solver.set(ISF.lexico_LB(x));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testRemoval() {
+        Solver solver = model(true);
+        Constraint[] before = solver.getCstrs();
+        solver.findSolution();
+        Constraint[] after = solver.getCstrs();
+        Assert.assertEquals(after.length, before.length - 4);
+        Assert.assertSame(after[0], before[0]);
+        Assert.assertSame(after[1], before[5]);
+        Assert.assertSame(after[2], before[6]);
+        Assert.assertSame(after[3], before[7]);
+        Assert.assertFalse(((IntVar) solver.getVars()[2]).contains(4));
+        Assert.assertEquals(((IntVar) solver.getVars()[3]).getLB(), 1);
+    }
+
+    @Test(groups = "1s")
+    public void testSameSearch() {
+        Solver s1 = model(true);
+        Solver s2 = model(false);
+        s1.findAllSolutions();
+        s2.findAllSolutions();
+        Assert.assertEquals(s1.getMeasures().getSolutionCount(), s2.getMeasures().getSolutionCount());
+        Assert.assertEquals(s1.getMeasures().getNodeCount(), s2.getMeasures().getNodeCount());
+        Assert.assertEquals(s2.getCstrs().length, 8);
+    }
+
+    @Test(groups = "1s")
+    public void testNoSolution() {
+        Solver solver = solver(true);
+        IntVar x = VF.enumerated("x", 0, 5, solver);
+        solver.post(ICF.arithm(x, ">", 3));
+        solver.post(ICF.arithm(x, "<", 2));
+        Assert.assertFalse(solver.findSolution());
+    }
+
+    @Test(groups = "1s")
+    public void testScalarInSearch() throws ContradictionException {
+        Solver solver = solver(false);
+        IntVar[] x = VF.enumeratedArray("x", 3, 0, 5, solver);
+        solver.getEnvironment().worldPush();
+        x[0].instantiateTo(2, Cause.Null);
+        // x[0] must not be folded into the constant, its value is temporary
+        Constraint c = new Scalar(x, new int[]{1, 1, 1}, 6);
+        solver.getEnvironment().worldPop();
+        solver.post(c);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 25);
+    }
+
+    private static IntVar[] equalities(Solver solver) {
+        IntVar[] v = VF.enumeratedArray("v", 6, 0, 12, solver);
+        solver.post(ICF.arithm(v[1], "=", v[0], "+", 2)); // v1 = v0 + 2
+        solver.post(ICF.times(v[0], 3, v[2])); // v2 = 3.v0
+        solver.post(ICF.arithm(v[1], "+", v[3], "=", 10)); // v3 = 10 - v1
+        solver.post(ICF.arithm(v[4], "=", v[1], "-", 1)); // v4 = v1 - 1, chained
+        solver.post(ICF.alldifferent(new IntVar[]{v[1], v[2], v[3], v[5]}));
+        solver.post(ICF.arithm(v[4], "<", v[5]));
+        solver.set(ISF.lexico_LB(v));
+        return v;
+    }
+
+    @Test(groups = "1s")
+    public void testSubstitution() {
+        Solver s1 = solver(true);
+        IntVar[] v = equalities(s1);
+        Constraint[] before = s1.getCstrs();
+        s1.plugMonitor((IMonitorSolution) () -> {
+            Assert.assertEquals(v[1].getValue(), v[0].getValue() + 2);
+            Assert.assertEquals(v[2].getValue(), 3 * v[0].getValue());
+            Assert.assertEquals(v[3].getValue(), 10 - v[1].getValue());
+            Assert.assertEquals(v[4].getValue(), v[1].getValue() - 1);
+        });
+        s1.findAllSolutions();
+        Constraint[] after = s1.getCstrs();
+        Assert.assertEquals(after.length, before.length);
+        // the defining equalities are kept
+        for (int i = 0; i < 4; i++) {
+            Assert.assertSame(after[i], before[i]);
+        }
+        // the other constraints are rebuilt over views of v0
+        Assert.assertNotSame(after[4], before[4]);
+        Assert.assertNotSame(after[5], before[5]);
+        for (int i = 4; i < 6; i++) {
+            Propagator p = after[i].getPropagator(0);
+            for (int j = 0; j < p.getNbVars(); j++) {
+                IntVar var = (IntVar) p.getVar(j);
+                Assert.assertTrue(var == v[5] || ((IntView) var).getVariable() == v[0], var.getName());
+            }
+        }
+        Solver s2 = solver(false);
+        equalities(s2);
+        s2.findAllSolutions();
+        Assert.assertEquals(s1.getMeasures().getSolutionCount(), s2.getMeasures().getSolutionCount());
+        Assert.assertTrue(s1.getMeasures().getSolutionCount() > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testNoFoldWithoutPresolve() {
+        for (boolean presolve : new boolean[]{false, true}) {
+            Solver solver = solver(presolve);
+            IntVar[] x = VF.enumeratedArray("x", 3, 0, 5, solver);
+            IntVar c = VF.fixed(2, solver);
+            Constraint s = new Scalar(new IntVar[]{x[0], x[1], x[2], c}, new int[]{1, 1, 1, 1}, 6);
+            Assert.assertEquals(s.getPropagator(0).getNbVars(), presolve ? 3 : 4);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class BinPackingTest {
+
+    private static long solve(int[] sizes, int nbBins, int capacity, boolean enumerated, boolean decomposition, long seed) {
+        Solver solver = new Solver();
+        IntVar[] bins = enumerated ?
+                VariableFactory.enumeratedArray("b", sizes.length, 0, nbBins - 1, solver) :
+                VariableFactory.boundedArray("b", sizes.length, 0, nbBins - 1, solver);
+        IntVar[] loads = VariableFactory.enumeratedArray("l", nbBins, 0, capacity, solver);
+        if (decomposition) {
+            BoolVar[][] xbi = VariableFactory.boolMatrix("xbi", nbBins, sizes.length, solver);
+            int sum = 0;
+            for (int i = 0; i < sizes.length; i++) {
+                solver.post(IntConstraintFactory.boolean_channeling(ArrayUtils.getColumn(xbi, i), bins[i], 0));
+                sum += sizes[i];
+            }
+            for (int b = 0; b < nbBins; b++) {
+                solver.post(IntConstraintFactory.scalar(xbi[b], sizes, loads[b]));
+            }
+            solver.post(IntConstraintFactory.sum(loads, VariableFactory.fixed(sum, solver)));
+        } else {
+            solver.post(IntConstraintFactory.bin_packing(bins, sizes, loads, 0));
+        }
+        solver.set(IntStrategyFactory.random_bound(ArrayUtils.append(bins, loads), seed));
+        solver.findAllSolutions();
+        return solver.getMeasures().getSolutionCount();
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 60; k++) {
+            int n = 3 + rnd.nextInt(4);
+            int[] sizes = new int[n];
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sizes[i] = rnd.nextInt(7);
+                sum += sizes[i];
+            }
+            int nbBins = 2 + rnd.nextInt(2);
+            int capacity = sum / nbBins + rnd.nextInt(4);
+            long expected = solve(sizes, nbBins, capacity, true, true, k);
+            Assert.assertEquals(solve(sizes, nbBins, capacity, true, false, k), expected, "seed " + k);
+            Assert.assertEquals(solve(sizes, nbBins, capacity, false, false, k), expected, "seed " + k);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testOffset() {
+        Solver solver = new Solver();
+        IntVar[] bins = VariableFactory.enumeratedArray("b", 4, 1, 2, solver);
+        IntVar[] loads = VariableFactory.enumeratedArray("l", 2, 0, 5, solver);
+        solver.post(IntConstraintFactory.bin_packing(bins, new int[]{2, 3, 3, 2}, loads, 1));
+        solver.findAllSolutions();
+        // {2, 3} in each bin
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 4);
+    }
+
+    @Test(groups = "1s")
+    public void testRootFailure() {
+        // three items of size 6 cannot be packed into two bins of capacity 10
+        Solver solver = new Solver();
+        IntVar[] bins = VariableFactory.enumeratedArray("b", 3, 0, 1, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", 2, 0, 10, solver);
+        solver.post(IntConstraintFactory.bin_packing(bins, new int[]{6, 6, 6}, loads, 0));
+        try {
+            solver.propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testLowerBound() {
+        // the loads allow any split, but the items larger than half a bin need a bin each
+        Solver solver = new Solver();
+        IntVar[] bins = VariableFactory.enumeratedArray("b", 6, 0, 2, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", 3, 0, 10, solver);
+        solver.post(IntConstraintFactory.bin_packing(bins, new int[]{6, 6, 6, 6, 1, 1}, loads, 0));
+        try {
+            solver.propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testLarge() {
+        int n = 2000, m = 300;
+        Random rnd = new Random(0);
+        int[] sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            sizes[i] = 1 + rnd.nextInt(20);
+        }
+        Solver solver = new Solver();
+        IntVar[] bins = VariableFactory.enumeratedArray("b", n, 0, m - 1, solver);
+        IntVar[] loads = VariableFactory.boundedArray("l", m, 0, 100, solver);
+        Constraint[] cstrs = IntConstraintFactory.bin_packing(bins, sizes, loads, 0);
+        Assert.assertEquals(cstrs.length, 1);
+        solver.post(cstrs);
+        solver.set(IntStrategyFactory.minDom_LB(bins));
+        Assert.assertTrue(solver.findSolution());
+        int[] l = new int[m];
+        for (int i = 0; i < n; i++) {
+            l[bins[i].getValue()] += sizes[i];
+        }
+        for (int b = 0; b < m; b++) {
+            Assert.assertEquals(loads[b].getValue(), l[b]);
+        }
+        Assert.assertEquals(solver.getNbCstrs(), 1);
+    }
+}
@@ -35,14 +35,23 @@
 
 package org.chocosolver.solver.constraints.nary;
 
+import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.circuit.CircuitConf;
+import org.chocosolver.solver.constraints.nary.circuit.PropHeldKarp;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 public class CircuitTest {
 
     @Test(groups = "1s")
@@ -85,6 +94,123 @@ public class CircuitTest {
         }
     }
 
+    @Test(groups = "1s")
+    public static void testConfs() {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            int n = 5 + rnd.nextInt(4);
+            int[][] doms = new int[n][];
+            for (int i = 0; i < n; i++) {
+                int[] vals = new int[n];
+                int size = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != i && rnd.nextInt(10) < 7) {
+                        vals[size++] = j;
+                    }
+                }
+                doms[i] = Arrays.copyOf(vals, size);
+            }
+            long[] counts = new long[CircuitConf.values().length];
+            for (CircuitConf conf : CircuitConf.values()) {
+                Solver solver = new Solver();
+                IntVar[] x = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    x[i] = VariableFactory.enumerated("x" + i, doms[i], solver);
+                }
+                solver.post(IntConstraintFactory.circuit(x, 0, conf));
+                solver.set(IntStrategyFactory.random_value(x, k));
+                solver.findAllSolutions();
+                counts[conf.ordinal()] = solver.getMeasures().getSolutionCount();
+            }
+            for (int c = 1; c < counts.length; c++) {
+                Assert.assertEquals(counts[c], counts[0], "seed " + k);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public static void testTSP() {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 10; k++) {
+            int n = 6 + rnd.nextInt(4);
+            int[][] costs = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    costs[i][j] = i == j ? 0 : 1 + rnd.nextInt(k % 2 == 0 ? 20 : 100);
+                }
+            }
+            int best = Integer.MAX_VALUE;
+            int[] perm = new int[n - 1];
+            for (int i = 0; i < n - 1; i++) {
+                perm[i] = i + 1;
+            }
+            do {
+                int c = costs[0][perm[0]] + costs[perm[n - 2]][0];
+                for (int i = 0; i < n - 2; i++) {
+                    c += costs[perm[i]][perm[i + 1]];
+                }
+                best = Math.min(best, c);
+            } while (nextPermutation(perm));
+            Solver solver = new Solver();
+            IntVar[] succs = VariableFactory.enumeratedArray("s", n, 0, n - 1, solver);
+            IntVar cost = VariableFactory.bounded("cost", 0, 10000, solver);
+            solver.post(IntConstraintFactory.tsp(succs, cost, costs));
+            solver.set(IntStrategyFactory.lexico_LB(succs));
+            solver.findOptimalSolution(ResolutionPolicy.MINIMIZE, cost);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue().intValue(), best, "seed " + k);
+        }
+    }
+
+    @Test(groups = "1s")
+    public static void testHeldKarpBound() {
+        // symmetric instance, the tour 0-1-2-...-n-1-0 of cost n is optimal
+        int n = 30;
+        int[][] costs = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = Math.abs(i - j);
+                costs[i][j] = Math.min(d, n - d) == 1 ? 1 : 10;
+            }
+        }
+        Solver solver = new Solver();
+        IntVar[] succs = VariableFactory.enumeratedArray("s", n, 0, n - 1, solver);
+        IntVar cost = VariableFactory.bounded("cost", 0, n, solver);
+        solver.post(new Constraint("HeldKarp", new PropHeldKarp(succs, 0, cost, costs)));
+        try {
+            solver.propagate();
+        } catch (ContradictionException e) {
+            Assert.fail();
+        }
+        Assert.assertEquals(cost.getLB(), n);
+        // only the arcs of the two optimal tours remain
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(succs[i].getDomainSize(), 2);
+        }
+    }
+
+    private static boolean nextPermutation(int[] p) {
+        int i = p.length - 2;
+        while (i >= 0 && p[i] >= p[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = p.length - 1;
+        while (p[j] <= p[i]) {
+            j--;
+        }
+        int t = p[i];
+        p[i] = p[j];
+        p[j] = t;
+        for (int a = i + 1, b = p.length - 1; a < b; a++, b--) {
+            t = p[a];
+            p[a] = p[b];
+            p[b] = t;
+        }
+        return true;
+    }
+
     private static int factorial(int n) {
         if (n == 1) {
             return 1;
@@ -29,7 +29,9 @@
 package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.nary.nogood.NogoodStoreFromRestarts;
+import org.chocosolver.solver.constraints.nary.nogood.PropNogoodStore;
 import org.chocosolver.solver.search.limits.BacktrackCounter;
 import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.strategy.ISF;
@@ -86,5 +88,51 @@ public class NogoodTest {
         Assert.assertEquals(solver.getMeasures().getBackTrackCount(), 137);
     }
 
+    @Test(groups = "1s")
+    public void test3() {
+        final Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("vars", 3, 0, 2, solver);
+        NogoodStoreFromRestarts ngs = new NogoodStoreFromRestarts(vars, 1000);
+        solver.post(ngs);
+        solver.set(ISF.random_value(vars, 29091981L));
+        final BacktrackCounter sc = new BacktrackCounter(30);
+        sc.setAction(() -> {
+            solver.getSearchLoop().restart();
+            sc.reset();
+        });
+        solver.getSearchLoop().plugSearchMonitor(sc);
+        solver.getSearchLoop().plugSearchMonitor(ngs);
+        solver.findAllSolutions();
+        // the store is not reduced
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 29);
+        Assert.assertEquals(solver.getMeasures().getBackTrackCount(), 53);
+    }
 
+    @Test(groups = "1s")
+    public void test4() {
+        final Solver solver = new Solver();
+        int n = 12;
+        IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "-", j - i));
+            }
+        }
+        NogoodStoreFromRestarts ngs = new NogoodStoreFromRestarts(q, 4);
+        solver.post(ngs);
+        solver.set(ISF.random_value(q, 0L));
+        final BacktrackCounter sc = new BacktrackCounter(3);
+        sc.setAction(() -> {
+            solver.getSearchLoop().restart();
+            sc.reset();
+        });
+        solver.getSearchLoop().plugSearchMonitor(sc);
+        solver.getSearchLoop().plugSearchMonitor(ngs);
+        Assert.assertTrue(solver.findSolution());
+        PropNogoodStore png = (PropNogoodStore) ngs.getPropagator(0);
+        Assert.assertTrue(solver.getMeasures().getRestartCount() > 0);
+        Assert.assertTrue(png.getNbNogoods() <= 4 + n * n);
+    }
 }
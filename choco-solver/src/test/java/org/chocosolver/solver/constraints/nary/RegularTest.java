@@ -31,6 +31,7 @@ package org.chocosolver.solver.constraints.nary;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.trace.Chatterbox;
 import org.chocosolver.solver.variables.IntVar;
@@ -39,6 +40,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -217,4 +219,103 @@ public class RegularTest {
         solver.findAllSolutions();
         Assert.assertEquals(solver.getMeasures().getSolutionCount(), 162);
     }
+
+    @Test(groups = "1s")
+    public void testSharedGraph() {
+        FiniteAutomaton auto = new FiniteAutomaton("(0|1|2)*(0|1)(0|1)(0|1)(0|1|2)*");
+        int n = 4;
+        Solver solver = new Solver();
+        IntVar[][] rows = new IntVar[3][n];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < n; j++) {
+                rows[i][j] = VariableFactory.enumerated("r" + i + "_" + j, 0, i == 2 && j == 0 ? 1 : 2, solver);
+            }
+        }
+        Assert.assertSame(LayeredGraph.make(auto, rows[0]), LayeredGraph.make(auto, rows[1]));
+        // a smaller domain leads to a different graph
+        Assert.assertNotSame(LayeredGraph.make(auto, rows[0]), LayeredGraph.make(auto, rows[2]));
+        for (int i = 0; i < 3; i++) {
+            solver.post(IntConstraintFactory.regular(rows[i], auto));
+        }
+        solver.post(IntConstraintFactory.arithm(rows[0][0], "=", rows[1][0]));
+        solver.post(IntConstraintFactory.arithm(rows[1][0], "=", rows[2][0]));
+        solver.post(IntConstraintFactory.arithm(rows[0][n - 1], "!=", rows[1][n - 1]));
+        solver.findAllSolutions();
+
+        // brute force
+        long expected = 0;
+        int[][] words = new int[(int) Math.pow(3, n)][n];
+        boolean[] accepted = new boolean[words.length];
+        for (int w = 0; w < words.length; w++) {
+            for (int i = 0, r = w; i < n; i++, r /= 3) {
+                words[w][i] = r % 3;
+            }
+            accepted[w] = auto.run(words[w]);
+        }
+        // the first value of the third row is in [0,1]
+        long[] third = new long[3];
+        for (int w = 0; w < words.length; w++) {
+            if (accepted[w] && words[w][0] < 2) {
+                third[words[w][0]]++;
+            }
+        }
+        for (int w0 = 0; w0 < words.length; w0++) {
+            for (int w1 = 0; w1 < words.length; w1++) {
+                if (accepted[w0] && accepted[w1] && words[w0][0] == words[w1][0] && words[w0][n - 1] != words[w1][n - 1]) {
+                    expected += third[words[w0][0]];
+                }
+            }
+        }
+        Assert.assertTrue(expected > 0);
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), expected);
+    }
+
+    @Test(groups = "1s")
+    public void testMinimalGraph() {
+        // words ending with a 1
+        FiniteAutomaton auto1 = new FiniteAutomaton("(0|1)*1");
+        // same language, with redundant states
+        FiniteAutomaton auto2 = new FiniteAutomaton();
+        int s0 = auto2.addState();
+        int s1 = auto2.addState();
+        int s2 = auto2.addState();
+        int s3 = auto2.addState();
+        auto2.setInitialState(s0);
+        auto2.setFinal(s1, s3);
+        auto2.addTransition(s0, s2, 0);
+        auto2.addTransition(s0, s1, 1);
+        auto2.addTransition(s1, s2, 0);
+        auto2.addTransition(s1, s3, 1);
+        auto2.addTransition(s2, s2, 0);
+        auto2.addTransition(s2, s3, 1);
+        auto2.addTransition(s3, s0, 0);
+        auto2.addTransition(s3, s1, 1);
+        Assert.assertTrue(Arrays.equals(auto1.makeCanonicalMinimal().getStructure(), auto2.makeCanonicalMinimal().getStructure()));
+        Assert.assertEquals(auto2.makeCanonicalMinimal().getNbStates(), 2);
+
+        int n = 6;
+        Solver solver = new Solver();
+        IntVar[] xs = VariableFactory.enumeratedArray("x", n, 0, 1, solver);
+        IntVar[] ys = VariableFactory.enumeratedArray("y", n, 0, 1, solver);
+        Assert.assertNotSame(LayeredGraph.make(auto1, xs), LayeredGraph.make(auto2, ys));
+        Assert.assertSame(LayeredGraph.makeMinimal(auto1, xs), LayeredGraph.makeMinimal(auto2, ys));
+        solver.post(IntConstraintFactory.regular(xs, auto1));
+        solver.post(IntConstraintFactory.regular(ys, auto2));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), (1 << (n - 1)) * (1 << (n - 1)));
+    }
+
+    @Test(groups = "1s")
+    public void testCacheBounded() {
+        FiniteAutomaton auto = new FiniteAutomaton("(0|1|2)*");
+        Solver solver = new Solver();
+        IntVar[] first = VariableFactory.enumeratedArray("x", 3, 0, 1, solver);
+        LayeredGraph graph = LayeredGraph.make(auto, first);
+        // the same automaton with many distinct domains: the cache keeps a bounded number of graphs
+        for (int k = 0; k < 200; k++) {
+            IntVar[] xs = VariableFactory.enumeratedArray("y" + k, 3, 0, 2 + k, solver);
+            Assert.assertSame(LayeredGraph.make(auto, xs), LayeredGraph.make(auto, xs));
+        }
+        Assert.assertNotSame(LayeredGraph.make(auto, first), graph);
+    }
 }
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
+import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
+import org.chocosolver.solver.search.strategy.strategy.RealStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class IntervalContractorTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static void cmpDomains(double[] a1, double[] a2, double delta) {
+        for (int i = 0; i < a1.length; i++) {
+            Assert.assertEquals(a1[i], a2[i], delta);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSum() {
+        IntervalContractor contractor = new IntervalContractor(2, "{0}+{1}=3", Ibex.HC4);
+        double[] domains = {0., 1., -2., 5.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.CONTRACT);
+        cmpDomains(domains, new double[]{0., 1., 2., 3.}, DELTA);
+        // outward rounding: the solutions are kept
+        Assert.assertTrue(domains[2] <= 2. && domains[3] >= 3.);
+        domains = new double[]{2., 3., 2., 3.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.FAIL);
+        domains = new double[]{1., 1., 2., 2.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.ENTAILED);
+    }
+
+    @Test(groups = "1s")
+    public void testCircle() {
+        IntervalContractor contractor = new IntervalContractor(2, "{0}^2+{1}^2<=1", Ibex.COMPO);
+        Assert.assertEquals(contractor.contract(new double[]{2., 3., 2., 3.}), Ibex.FAIL);
+        Assert.assertEquals(contractor.contract(new double[]{-.5, .5, -.5, .5}), Ibex.ENTAILED);
+        double[] domains = {-2., 1., -2., -1.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.CONTRACT);
+        cmpDomains(domains, new double[]{0., 0., -1., -1.}, 1e-6);
+        domains = new double[]{-2., 1., -2., 2.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.CONTRACT);
+        cmpDomains(domains, new double[]{-1., 1., -1., 1.}, 1e-6);
+        Assert.assertEquals(contractor.contract(domains), Ibex.NOTHING);
+    }
+
+    @Test(groups = "1s")
+    public void testFunctions() {
+        double[] domains = {-10., 10.};
+        Assert.assertEquals(new IntervalContractor(1, "exp({0}) = 2", Ibex.HC4).contract(domains), Ibex.CONTRACT);
+        cmpDomains(domains, new double[]{Math.log(2), Math.log(2)}, DELTA);
+        domains = new double[]{-10., 10.};
+        new IntervalContractor(1, "ln({0}) + [-0.1, 0.1] >= 1", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{Math.exp(.9), 10.}, DELTA);
+        domains = new double[]{-10., 10.};
+        new IntervalContractor(1, "sqrt({0} + 1) <= 2", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{-1., 3.}, DELTA);
+        domains = new double[]{-10., 10.};
+        new IntervalContractor(1, "abs({0}) = 2", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{-2., 2.}, DELTA);
+        domains = new double[]{-10., 10., -10., 10.};
+        new IntervalContractor(2, "max({0}, {1}) <= 1; min({0}, 3) >= -2", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{-2., 1., -10., 1.}, DELTA);
+        domains = new double[]{0., 10.};
+        new IntervalContractor(1, "{0}^3 = 8", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{2., 2.}, DELTA);
+        domains = new double[]{-10., 10.};
+        Assert.assertEquals(new IntervalContractor(1, "sin({0}) >= 2", Ibex.HC4).contract(domains), Ibex.FAIL);
+        domains = new double[]{0., 1.};
+        Assert.assertEquals(new IntervalContractor(1, "cos({0}) + {0} * pi >= 0.5", Ibex.HC4).contract(domains), Ibex.ENTAILED);
+    }
+
+    @Test(groups = "1s")
+    public void testShaving() {
+        // HC4 alone cannot reduce the domains: x appears twice
+        double[] domains = {-10., 10.};
+        new IntervalContractor(1, "{0}*{0} - 2*{0} = -1", Ibex.HC4).contract(domains);
+        cmpDomains(domains, new double[]{-10., 10.}, DELTA);
+        new IntervalContractor(1, "{0}*{0} - 2*{0} = -1", Ibex.COMPO).contract(domains);
+        Assert.assertTrue(domains[0] <= 1. && 1. <= domains[1]);
+        Assert.assertTrue(domains[1] - domains[0] < 1.);
+    }
+
+    @Test(groups = "1s")
+    public void testSharing() {
+        IntervalContractor contractor = new IntervalContractor(2, "{0}*{1}+{0}*{1}=2; {1} * {0} <= 3", Ibex.HC4);
+        // x, y, x*y, x*y+x*y, 2, -, y*x, 3, -
+        Assert.assertEquals(contractor.getNbNodes(), 9);
+        contractor = new IntervalContractor(1, "{0} = 2 * 3 + 1", Ibex.HC4);
+        // x, 2, 3, 6, 1, 7, -
+        Assert.assertEquals(contractor.getNbNodes(), 7);
+        double[] domains = {-10., 10.};
+        Assert.assertEquals(contractor.contract(domains), Ibex.ENTAILED);
+        cmpDomains(domains, new double[]{7., 7.}, 0.);
+    }
+
+    @Test(groups = "1s")
+    public void testSyntaxErrors() {
+        String[] wrong = {"{0} + = 3", "{1} = 3", "{0}", "foo({0}) = 1", "{0} = 1;;", "{0}^{0} = 1", "({0} = 1", "{0} = [2,1]"};
+        for (String f : wrong) {
+            try {
+                new IntervalContractor(1, f, Ibex.HC4);
+                Assert.fail(f);
+            } catch (SolverException e) {
+                // expected
+            }
+        }
+        new IntervalContractor(1, " -{0}^-2 + 1.5e-1*{0} < [ -1 , 1.1 ] ; ", Ibex.HC4);
+    }
+
+    @Test(groups = "1s")
+    public void testSoundness() {
+        // no solution is lost
+        String[] functions = {
+                "{0}^2 - {1}*{0} + sin({1}) <= 0.5",
+                "{0} / ({1} + 3) - exp({0}) >= -2",
+                "sqrt(abs({0})) + {1}^3 <= 1",
+                "max({0}, {1}) - min({0}*{1}, 1) <= 0",
+                "atan({0}) + cos({1}) >= 0.5"};
+        Random rnd = new Random(0);
+        for (int i = 0; i < functions.length; i++) {
+            String f = functions[i];
+            for (int option : new int[]{Ibex.HC4, Ibex.COMPO}) {
+                IntervalContractor contractor = new IntervalContractor(2, f, option);
+                for (int k = 0; k < 200; k++) {
+                    double[] init = new double[4];
+                    for (int v = 0; v < 2; v++) {
+                        init[2 * v] = rnd.nextDouble() * 6 - 4;
+                        init[2 * v + 1] = init[2 * v] + rnd.nextDouble() * 4;
+                    }
+                    double[] domains = init.clone();
+                    int result = contractor.contract(domains);
+                    for (int p = 0; p < 200; p++) {
+                        double x = init[0] + rnd.nextDouble() * (init[1] - init[0]);
+                        double y = init[2] + rnd.nextDouble() * (init[3] - init[2]);
+                        if (satisfied(i, x, y)) {
+                            Assert.assertNotEquals(result, Ibex.FAIL, f);
+                            Assert.assertTrue(domains[0] <= x && x <= domains[1] && domains[2] <= y && y <= domains[3], f);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // with a margin, to be robust to rounding errors
+    private static boolean satisfied(int i, double x, double y) {
+        switch (i) {
+            case 0:
+                return x * x - y * x + Math.sin(y) <= 0.5 - DELTA;
+            case 1:
+                return x / (y + 3) - Math.exp(x) >= -2 + DELTA;
+            case 2:
+                return Math.sqrt(Math.abs(x)) + y * y * y <= 1 - DELTA;
+            case 3:
+                return Math.max(x, y) - Math.min(x * y, 1) <= -DELTA;
+            default:
+                return Math.atan(x) + Math.cos(y) >= 0.5 + DELTA;
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSolve() {
+        Solver solver = new Solver();
+        RealVar x = VariableFactory.real("x", -2, 2, 1e-6, solver);
+        RealVar y = VariableFactory.real("y", -2, 2, 1e-6, solver);
+        solver.post(new RealConstraint("circle", "{0}^2 + {1}^2 = 1; {0} = {1}", x, y));
+        solver.set(new RealStrategy(new RealVar[]{x, y}, new Cyclic(), new RealDomainMiddle()));
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertEquals(Math.abs(x.getLB()), Math.sqrt(.5), 1e-5);
+        Assert.assertEquals(Math.abs(y.getUB()), Math.sqrt(.5), 1e-5);
+    }
+
+    @Test(groups = "1s")
+    public void testMixed() {
+        Solver solver = new Solver();
+        IntVar x = VariableFactory.bounded("x", 0, 9, solver);
+        IntVar y = VariableFactory.bounded("y", 0, 9, solver);
+        RealVar[] vars = VariableFactory.real(new IntVar[]{x, y}, 1e-6);
+        solver.post(new RealConstraint("RC", "{0} * {1} = 8", vars));
+        solver.set(ISF.lexico_LB(x, y));
+        Assert.assertEquals(solver.findAllSolutions(), 4);
+    }
+}
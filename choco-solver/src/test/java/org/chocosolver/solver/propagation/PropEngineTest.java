@@ -28,10 +28,20 @@
  */
 package org.chocosolver.solver.propagation;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.hardcoded.SevenQueuesPropagatorEngine;
+import org.chocosolver.solver.propagation.hardcoded.TwoBucketPropagationEngine;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 /**
@@ -54,4 +64,103 @@ public class PropEngineTest {
 
 
     }
+
+    @Test(groups = "1s")
+    public void testFastFail() throws ContradictionException {
+        for (int k = 0; k < 2; k++) {
+            Solver solver = new Solver();
+            IntVar x = VariableFactory.enumerated("X", 1, 3, solver);
+            IntVar y = VariableFactory.enumerated("Y", 1, 3, solver);
+            Constraint neq = IntConstraintFactory.arithm(x, "!=", y);
+            solver.post(neq);
+            solver.set(k == 0 ? new SevenQueuesPropagatorEngine(solver) : new TwoBucketPropagationEngine(solver));
+            solver.propagate();
+            solver.getEnvironment().worldPush();
+            x.instantiateTo(2, Cause.Null);
+            y.instantiateTo(2, Cause.Null);
+            try {
+                solver.propagate();
+                Assert.fail();
+            } catch (ContradictionException e) {
+                // the failure is signalled by status, but still reported as a contradiction
+                Assert.assertEquals(e.c, neq.getPropagators()[0]);
+                Assert.assertEquals(e.v, y);
+            }
+            solver.getEngine().flush();
+            solver.getEnvironment().worldPop();
+            solver.getEnvironment().worldPush();
+            x.instantiateTo(1, Cause.Null);
+            solver.propagate();
+            Assert.assertFalse(y.contains(1));
+            solver.getEnvironment().worldPop();
+        }
+        // pigeon holes
+        Solver solver = new Solver();
+        IntVar[] vars = VariableFactory.enumeratedArray("p", 5, 1, 4, solver);
+        for (int i = 0; i < vars.length; i++) {
+            for (int j = i + 1; j < vars.length; j++) {
+                solver.post(IntConstraintFactory.arithm(vars[i], "!=", vars[j]));
+            }
+        }
+        Assert.assertFalse(solver.findSolution());
+        Assert.assertTrue(solver.getMeasures().getFailCount() > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testBatchedEvents() throws ContradictionException {
+        for (int k = 0; k < 2; k++) {
+            Solver solver = new Solver();
+            IntVar[] vars = VariableFactory.enumeratedArray("X", 5, 0, 5, solver);
+            int[] calls = new int[2]; // calls and events
+            int[] masks = new int[vars.length];
+            Propagator<IntVar> prop = new Propagator<IntVar>(vars, PropagatorPriority.LINEAR, true) {
+                @Override
+                public void propagate(int evtmask) throws ContradictionException {
+                }
+
+                @Override
+                public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+                    Assert.fail("events should be batched");
+                }
+
+                @Override
+                public boolean reactToBatchedEvents() {
+                    return true;
+                }
+
+                @Override
+                public void propagate(int[] idxVarsInProp, int[] evtmasks, int nbEvts) throws ContradictionException {
+                    Assert.assertEquals(getNbPendingEvt(), 0);
+                    calls[0]++;
+                    calls[1] += nbEvts;
+                    for (int i = 0; i < nbEvts; i++) {
+                        masks[idxVarsInProp[i]] = evtmasks[i];
+                    }
+                }
+
+                @Override
+                public ESat isEntailed() {
+                    return ESat.TRUE;
+                }
+            };
+            solver.post(new Constraint("batch", prop));
+            solver.set(k == 0 ? new SevenQueuesPropagatorEngine(solver) : new TwoBucketPropagationEngine(solver));
+            solver.propagate();
+            solver.getEnvironment().worldPush();
+            vars[0].instantiateTo(2, Cause.Null);
+            vars[3].updateUpperBound(3, Cause.Null);
+            vars[0].removeValue(1, Cause.Null); // no event
+            vars[4].removeValue(2, Cause.Null);
+            vars[3].updateLowerBound(1, Cause.Null);
+            solver.propagate();
+            Assert.assertEquals(calls[0], 1);
+            Assert.assertEquals(calls[1], 3);
+            Assert.assertTrue(IntEventType.isInstantiate(masks[0]));
+            Assert.assertTrue(IntEventType.isInclow(masks[3]) && IntEventType.isDecupp(masks[3]));
+            Assert.assertTrue(IntEventType.isRemove(masks[4]));
+            Assert.assertEquals(masks[1], 0);
+            Assert.assertEquals(prop.fineERcalls, 3);
+            solver.getEnvironment().worldPop();
+        }
+    }
 }
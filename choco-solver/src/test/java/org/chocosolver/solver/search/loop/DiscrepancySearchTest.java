@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DiscrepancySearchTest {
+
+    private static IntVar[] queens(Solver solver, int n) {
+        IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "-", j - i));
+            }
+        }
+        solver.set(ISF.lexico_LB(q));
+        return q;
+    }
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        for (SearchLoops sl : new SearchLoops[]{SearchLoops.LDS, SearchLoops.DDS}) {
+            Solver solver = new Solver();
+            sl.make(solver);
+            queens(solver, 8);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92, sl.name());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testFirstSolution() {
+        Solver solver = new Solver();
+        DiscrepancySearchLoop lds = new DiscrepancySearchLoop(solver, false, 10);
+        solver.set(lds);
+        IntVar x = VF.enumerated("x", 0, 5, solver);
+        IntVar y = VF.enumerated("y", 0, 5, solver);
+        Tuples tuples = new Tuples(true);
+        tuples.add(3, 1);
+        solver.post(ICF.table(x, y, tuples, "FC"));
+        solver.set(ISF.lexico_LB(x, y));
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertEquals(x.getValue(), 3);
+        Assert.assertEquals(y.getValue(), 1);
+        // x != 0, x != 1, x != 2, then y = 1 is propagated
+        Assert.assertEquals(lds.getDiscrepancy(), 3);
+    }
+
+    @Test(groups = "1s")
+    public void testOptimization() {
+        Solver ref = new Solver();
+        IntVar[] q1 = queens(ref, 8);
+        ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, q1[2]);
+        for (SearchLoops sl : new SearchLoops[]{SearchLoops.LDS, SearchLoops.DDS}) {
+            Solver solver = new Solver();
+            sl.make(solver);
+            IntVar[] q2 = queens(solver, 8);
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, q2[2]);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                    ref.getObjectiveManager().getBestSolutionValue());
+            Assert.assertTrue(solver.getMeasures().isObjectiveOptimal());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testLimits() {
+        Solver solver = new Solver();
+        solver.set(new DiscrepancySearchLoop(solver, false, 1));
+        queens(solver, 8);
+        solver.findAllSolutions();
+        Assert.assertTrue(solver.hasReachedLimit());
+        long nb = solver.getMeasures().getSolutionCount();
+
+        solver = new Solver();
+        solver.set(new DiscrepancySearchLoop(solver, true, Integer.MAX_VALUE));
+        queens(solver, 8);
+        SMF.limitSolution(solver, 10);
+        solver.findAllSolutions();
+        Assert.assertTrue(solver.hasReachedLimit());
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 10);
+        Assert.assertTrue(nb < 92);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.memory.Environments;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class RecomputationTest {
+
+    private static IntVar knapsack(Solver solver) {
+        int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88};
+        int[] energies = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71};
+        IntVar[] objects = new IntVar[volumes.length];
+        for (int i = 0; i < volumes.length; i++) {
+            objects[i] = VF.bounded("o_" + (i + 1), 0, 300 / volumes[i], solver);
+        }
+        IntVar power = VF.bounded("power", 0, 9999, solver);
+        IntVar weight = VF.bounded("weight", 0, 300, solver);
+        solver.post(ICF.knapsack(objects, weight, power, volumes, energies));
+        solver.set(ISF.lexico_LB(objects));
+        return power;
+    }
+
+    private static IntVar[] queens(Solver solver, int n) {
+        IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "-", j - i));
+            }
+        }
+        solver.set(ISF.lexico_LB(q));
+        return q;
+    }
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        Solver ref = new Solver();
+        queens(ref, 8);
+        ref.findAllSolutions();
+
+        for (int k = 1; k < 6; k++) {
+            Solver solver = new Solver();
+            RecomputationSearchLoop loop = new RecomputationSearchLoop(solver, k, 0);
+            solver.set(loop);
+            queens(solver, 8);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            Assert.assertEquals(solver.getMeasures().getNodeCount(), ref.getMeasures().getNodeCount());
+            Assert.assertEquals(solver.getMeasures().getFailCount(), ref.getMeasures().getFailCount());
+            Assert.assertEquals(loop.getRecomputationCount() > 0, k > 1);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCopying() {
+        Solver solver = new Solver(Environments.COPY.make(), "Test");
+        solver.set(new RecomputationSearchLoop(solver, 3, 0));
+        queens(solver, 8);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+    }
+
+    @Test(groups = "1s")
+    public void testOptimization() {
+        Solver ref = new Solver();
+        IntVar p1 = knapsack(ref);
+        ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, p1);
+
+        for (int k = 1; k < 5; k++) {
+            Solver solver = new Solver();
+            solver.set(new RecomputationSearchLoop(solver, k, 0));
+            IntVar p2 = knapsack(solver);
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, p2);
+            Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                    ref.getObjectiveManager().getBestSolutionValue());
+            Assert.assertTrue(solver.getMeasures().isObjectiveOptimal());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAdaptiveDistance() {
+        Solver solver = new Solver();
+        RecomputationSearchLoop loop = new RecomputationSearchLoop(solver, 4, 1);
+        solver.set(loop);
+        queens(solver, 8);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+        Assert.assertTrue(loop.getDistance() > 1);
+    }
+
+    @Test(groups = "1s")
+    public void testRestarts() {
+        Solver ref = new Solver();
+        IntVar p1 = knapsack(ref);
+        ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, p1);
+
+        Solver solver = new Solver();
+        SearchLoops.RECOMPUTATION.make(solver);
+        IntVar p2 = knapsack(solver);
+        SMF.restartAfterEachSolution(solver);
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, p2);
+        Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                ref.getObjectiveManager().getBestSolutionValue());
+    }
+}
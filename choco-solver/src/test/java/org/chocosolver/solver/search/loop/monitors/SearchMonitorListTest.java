@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SearchMonitorListTest {
+
+    /**
+     * Listens to solutions, nodes and closing, and writes its name on each event
+     */
+    private static class Recorder implements IMonitorSolution, IMonitorOpenNode, IMonitorClose {
+
+        private final String name;
+        private final StringBuilder log;
+
+        Recorder(String name, StringBuilder log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override
+        public void onSolution() {
+            log.append(name).append("s ");
+        }
+
+        @Override
+        public void beforeOpenNode() {
+            log.append(name).append("o ");
+        }
+
+        @Override
+        public void afterOpenNode() {
+        }
+
+        @Override
+        public void beforeClose() {
+        }
+
+        @Override
+        public void afterClose() {
+            log.append(name).append("c ");
+        }
+    }
+
+    private static void fireAll(SearchMonitorList list) {
+        list.beforeInitialize();
+        list.afterInitialize();
+        list.beforeInitialPropagation();
+        list.afterInitialPropagation();
+        list.beforeOpenNode();
+        list.afterOpenNode();
+        list.onSolution();
+        list.beforeDownLeftBranch();
+        list.afterDownLeftBranch();
+        list.beforeDownRightBranch();
+        list.afterDownRightBranch();
+        list.beforeUpBranch();
+        list.afterUpBranch();
+        list.onContradiction(new ContradictionException());
+        list.beforeRestart();
+        list.afterRestart();
+        list.afterInterrupt();
+        list.beforeClose();
+        list.afterClose();
+    }
+
+    @Test(groups = "1s")
+    public void testEmpty() {
+        SearchMonitorList list = new SearchMonitorList();
+        fireAll(list);
+        Assert.assertFalse(list.contains(new Recorder("a", new StringBuilder())));
+        list.add(null);
+        Assert.assertEquals(list.nall, 0);
+    }
+
+    @Test(groups = "1s")
+    public void testDispatch() {
+        StringBuilder log = new StringBuilder();
+        SearchMonitorList list = new SearchMonitorList();
+        Recorder a = new Recorder("a", log);
+        IMonitorSolution b = () -> log.append("bs ");
+        IMonitorContradiction c = cex -> log.append("cx ");
+        list.add(a);
+        list.add(b);
+        list.add(c);
+        Assert.assertEquals(list.nall, 3);
+        Assert.assertEquals(list.nsolu, 2);
+        Assert.assertEquals(list.nopno, 1);
+        Assert.assertEquals(list.nclos, 1);
+        Assert.assertEquals(list.ncont, 1);
+        Assert.assertEquals(list.nubra, 0);
+        Assert.assertEquals(list.ndbra, 0);
+        Assert.assertTrue(list.contains(a));
+        Assert.assertTrue(list.contains(b));
+        Assert.assertTrue(list.contains(c));
+        Assert.assertFalse(list.contains(new Recorder("a", log)));
+        // each monitor is only called on its own kinds of event, in the order of addition
+        fireAll(list);
+        Assert.assertEquals(log.toString(), "ao as bs cx ac ");
+    }
+
+    @Test(groups = "1s")
+    public void testGrow() {
+        StringBuilder log = new StringBuilder();
+        SearchMonitorList list = new SearchMonitorList();
+        for (int i = 0; i < 20; i++) {
+            list.add(new Recorder(Integer.toString(i), log));
+        }
+        Assert.assertEquals(list.nall, 20);
+        Assert.assertEquals(list.nsolu, 20);
+        list.onSolution();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            expected.append(i).append("s ");
+        }
+        Assert.assertEquals(log.toString(), expected.toString());
+    }
+
+    @Test(groups = "1s")
+    public void testReset() {
+        StringBuilder log = new StringBuilder();
+        SearchMonitorList list = new SearchMonitorList();
+        Recorder a = new Recorder("a", log);
+        Recorder b = new Recorder("b", log);
+        list.add(a);
+        list.add(b);
+        list.reset();
+        Assert.assertEquals(list.nall, 0);
+        Assert.assertEquals(list.nsolu, 0);
+        Assert.assertEquals(list.nopno, 0);
+        Assert.assertEquals(list.nclos, 0);
+        Assert.assertFalse(list.contains(a));
+        Assert.assertFalse(list.contains(b));
+        // references are released
+        for (int i = 0; i < list.all.length; i++) {
+            Assert.assertNull(list.all[i]);
+        }
+        for (int i = 0; i < list.msolu.length; i++) {
+            Assert.assertNull(list.msolu[i]);
+        }
+        fireAll(list);
+        Assert.assertEquals(log.toString(), "");
+        // monitors added after a reset are the only ones called
+        IMonitorSolution c = () -> log.append("cs ");
+        list.add(b);
+        list.add(c);
+        Assert.assertFalse(list.contains(a));
+        Assert.assertTrue(list.contains(b));
+        Assert.assertTrue(list.contains(c));
+        Assert.assertEquals(list.nall, 2);
+        Assert.assertEquals(list.nsolu, 2);
+        Assert.assertEquals(list.nopno, 1);
+        fireAll(list);
+        Assert.assertEquals(log.toString(), "bo bs cs bc ");
+    }
+}
@@ -693,4 +693,27 @@ public class IteratorTest {
         Assert.assertEquals(iter.min(), 1);
         Assert.assertEquals(iter.max(), 3);
     }
+
+    @Test(groups = "1s")
+    public void testForEachValue() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar[] vars = {
+                VariableFactory.enumerated("e", -3, 8, solver),
+                VariableFactory.bounded("b", -3, 8, solver),
+                VariableFactory.offset(VariableFactory.enumerated("o", -3, 8, solver), 2)
+        };
+        for (IntVar var : vars) {
+            var.removeValue(0, Cause.Null);
+            var.removeValue(4, Cause.Null);
+            int[] values = new int[var.getDomainSize()];
+            int[] size = {0};
+            var.forEachValue(v -> values[size[0]++] = v);
+            Assert.assertEquals(size[0], var.getDomainSize());
+            DisposableValueIterator vit = var.getValueIterator(true);
+            for (int i = 0; i < size[0]; i++) {
+                Assert.assertEquals(values[i], vit.next());
+            }
+            vit.dispose();
+        }
+    }
 }
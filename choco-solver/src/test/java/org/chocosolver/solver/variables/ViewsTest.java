@@ -29,6 +29,7 @@
 package org.chocosolver.solver.variables;
 
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
@@ -40,6 +41,11 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.SetStrategyFactory;
+import org.chocosolver.solver.variables.view.AffineView;
+import org.chocosolver.solver.variables.view.OffsetView;
+import org.chocosolver.solver.variables.view.ScaleView;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -567,4 +573,128 @@ public class ViewsTest {
         Assert.assertTrue(x3.isInstantiated());
         Assert.assertEquals(x3.getValue(), 1);
     }
+
+    private static Solver viewSolver() {
+        Solver solver = new Solver();
+        solver.set(new Settings() {
+            @Override
+            public boolean enableViews() {
+                return true;
+            }
+        });
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testAffine() throws ContradictionException {
+        Solver solver = viewSolver();
+        IntVar x = VariableFactory.enumerated("x", -3, 5, solver);
+        // -(2x - 1)
+        IntVar y = VariableFactory.minus(VariableFactory.offset(VariableFactory.scale(x, 2), -1));
+        Assert.assertTrue(y instanceof AffineView);
+        Assert.assertEquals(((AffineView) y).getVariable(), x);
+        Assert.assertEquals(y.getLB(), -9);
+        Assert.assertEquals(y.getUB(), 7);
+        Assert.assertTrue(y.contains(1));
+        Assert.assertFalse(y.contains(2));
+        Assert.assertEquals(y.nextValue(-9), -7);
+        Assert.assertEquals(y.nextValue(-10), -9);
+        Assert.assertEquals(y.previousValue(7), 5);
+        Assert.assertEquals(y.previousValue(6), 5);
+        Assert.assertEquals(y.nextValue(7), Integer.MAX_VALUE);
+        Assert.assertEquals(y.previousValue(-9), Integer.MIN_VALUE);
+        DisposableValueIterator vit = y.getValueIterator(true);
+        int prev = Integer.MIN_VALUE;
+        int size = 0;
+        while (vit.hasNext()) {
+            int v = vit.next();
+            Assert.assertTrue(prev < v);
+            Assert.assertTrue(y.contains(v));
+            prev = v;
+            size++;
+        }
+        vit.dispose();
+        Assert.assertEquals(size, y.getDomainSize());
+
+        y.updateLowerBound(0, Cause.Null);
+        Assert.assertEquals(x.getUB(), 0);
+        y.updateUpperBound(4, Cause.Null);
+        Assert.assertEquals(x.getLB(), -1);
+        y.removeValue(3, Cause.Null);
+        Assert.assertFalse(x.contains(-1));
+        Assert.assertEquals(y.getUB(), 1);
+        y.instantiateTo(1, Cause.Null);
+        Assert.assertEquals(x.getValue(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testAffineCollapse() {
+        Solver solver = viewSolver();
+        IntVar x = VariableFactory.enumerated("x", 0, 5, solver);
+        Assert.assertEquals(VariableFactory.minus(VariableFactory.minus(x)), x);
+        Assert.assertEquals(VariableFactory.offset(VariableFactory.offset(x, 2), -2), x);
+        IntVar o = VariableFactory.offset(VariableFactory.offset(x, 2), 3);
+        Assert.assertTrue(o instanceof OffsetView);
+        Assert.assertEquals(((OffsetView) o).getVariable(), x);
+        Assert.assertEquals(((OffsetView) o).cste, 5);
+        IntVar s = VariableFactory.scale(VariableFactory.scale(x, 2), 3);
+        Assert.assertTrue(s instanceof ScaleView);
+        Assert.assertEquals(((ScaleView) s).cste, 6);
+        Assert.assertEquals(((ScaleView) s).getVariable(), x);
+    }
+
+    @Test(groups = "1s")
+    public void testAffineChain() {
+        // Z = 3 * (-X) + 2, propagated with deltas
+        for (int seed = 0; seed < 99; seed++) {
+            Solver ref = new Solver();
+            Solver solver = viewSolver();
+            {
+                IntVar[] x = VariableFactory.enumeratedArray("x", 3, -2, 2, ref);
+                IntVar z = VariableFactory.enumerated("z", -4, 8, ref);
+                ref.post(IntConstraintFactory.scalar(new IntVar[]{x[0], z}, new int[]{3, 1}, VariableFactory.fixed(2, ref)));
+                ref.post(IntConstraintFactory.alldifferent(new IntVar[]{x[1], x[2], z}, "AC"));
+                ref.set(IntStrategyFactory.random_value(ArrayUtils.append(x, new IntVar[]{z}), seed));
+            }
+            {
+                IntVar[] x = VariableFactory.enumeratedArray("x", 3, -2, 2, solver);
+                IntVar z = VariableFactory.offset(VariableFactory.scale(VariableFactory.minus(x[0]), 3), 2);
+                solver.post(IntConstraintFactory.alldifferent(new IntVar[]{x[1], x[2], z}, "AC"));
+                solver.set(IntStrategyFactory.random_value(ArrayUtils.append(x, new IntVar[]{z}), seed));
+            }
+            ref.findAllSolutions();
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), ref.getMeasures().getSolutionCount(), "solutions (" + seed + ")");
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAffineDuplicate() {
+        Solver solver = viewSolver();
+        IntVar x = VariableFactory.enumerated("x", -3, 5, solver);
+        // 3 * (-x) + 1
+        IntVar y = VariableFactory.offset(VariableFactory.scale(VariableFactory.minus(x), 3), 1);
+        Assert.assertTrue(y instanceof AffineView);
+        Assert.assertEquals(((AffineView) y).a, -3);
+        IntVar d = y.duplicate();
+        Assert.assertTrue(d instanceof AffineView);
+        Assert.assertEquals(d.getLB(), y.getLB());
+        Assert.assertEquals(d.getUB(), y.getUB());
+        Assert.assertEquals(d.getDomainSize(), y.getDomainSize());
+    }
+
+    @Test(groups = "1s")
+    public void testAffineOverflow() {
+        Solver solver = viewSolver();
+        IntVar x = VariableFactory.enumerated("x", -3, 5, solver);
+        // -x + MAX_VALUE: the antecedent of MIN_VALUE does not fit in an int
+        IntVar y = VariableFactory.offset(VariableFactory.minus(x), Integer.MAX_VALUE);
+        Assert.assertTrue(y instanceof AffineView);
+        Assert.assertFalse(y.contains(Integer.MIN_VALUE));
+        try {
+            y.instantiateTo(Integer.MIN_VALUE, Cause.Null);
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+    }
 }
@@ -30,13 +30,19 @@ package org.chocosolver.solver.variables.fast;
 
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.BitSet;
+import java.util.Random;
+
 /**
  * <br/>
  *
@@ -201,4 +207,55 @@ public class BitsetIntVarImplTest {
         Assert.assertFalse(rit.hasPrevious());
 
     }
+
+    @Test(groups = "1s")
+    public void testRemoveValues() throws Exception {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 200; k++) {
+            Solver solver = new Solver();
+            // the default implementation is checked on views
+            IntVar v = k % 2 == 0 ? new BitsetIntVarImpl("v", -50, 150, solver)
+                    : VariableFactory.offset(new BitsetIntVarImpl("v", -53, 147, solver), 3);
+            BitSet model = new BitSet();
+            model.set(0, 201);
+            solver.getEnvironment().worldPush();
+            boolean failed = false;
+            for (int r = 0; r < 5 && !failed; r++) {
+                int offset = rnd.nextInt(240) - 70;
+                BitSet values = new BitSet();
+                for (int i = 0; i < 100; i++) {
+                    int from = rnd.nextInt(120);
+                    values.set(from, from + rnd.nextInt(5) + 1);
+                }
+                BitSet expected = new BitSet();
+                boolean keep = rnd.nextBoolean();
+                for (int i = model.nextSetBit(0); i >= 0; i = model.nextSetBit(i + 1)) {
+                    int j = i - 50 - offset;
+                    if ((j >= 0 && values.get(j)) == keep) {
+                        expected.set(i);
+                    }
+                }
+                try {
+                    boolean change = keep ? v.removeAllValuesBut(values, offset, Cause.Null) : v.removeValues(values, offset, Cause.Null);
+                    Assert.assertEquals(change, !expected.equals(model));
+                } catch (ContradictionException e) {
+                    Assert.assertTrue(expected.isEmpty());
+                    failed = true;
+                }
+                model = expected;
+                if (!failed) {
+                    Assert.assertEquals(v.getDomainSize(), model.cardinality());
+                    Assert.assertEquals(v.getLB(), model.nextSetBit(0) - 50);
+                    Assert.assertEquals(v.getUB(), model.length() - 1 - 50);
+                    for (int i = 0; i <= 200; i++) {
+                        Assert.assertEquals(v.contains(i - 50), model.get(i));
+                    }
+                }
+            }
+            solver.getEnvironment().worldPop();
+            Assert.assertEquals(v.getDomainSize(), 201);
+            Assert.assertEquals(v.getLB(), -50);
+            Assert.assertEquals(v.getUB(), 150);
+        }
+    }
 }
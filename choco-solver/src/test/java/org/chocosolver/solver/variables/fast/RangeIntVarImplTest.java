@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables.fast;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
+import org.chocosolver.solver.variables.impl.RangeIntVarImpl;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class RangeIntVarImplTest {
+
+    private static void assertSame(IntVar var, IntVar ref) {
+        Assert.assertEquals(var.getDomainSize(), ref.getDomainSize());
+        Assert.assertEquals(var.getLB(), ref.getLB());
+        Assert.assertEquals(var.getUB(), ref.getUB());
+        for (int v = ref.getLB() - 2; v <= ref.getUB() + 2; v++) {
+            Assert.assertEquals(var.contains(v), ref.contains(v), "" + v);
+            Assert.assertEquals(var.nextValue(v), ref.nextValue(v), "" + v);
+            Assert.assertEquals(var.previousValue(v), ref.previousValue(v), "" + v);
+        }
+        DisposableValueIterator vit = var.getValueIterator(false);
+        DisposableValueIterator rvit = ref.getValueIterator(false);
+        while (rvit.hasPrevious()) {
+            Assert.assertTrue(vit.hasPrevious());
+            Assert.assertEquals(vit.previous(), rvit.previous());
+        }
+        Assert.assertFalse(vit.hasPrevious());
+        vit.dispose();
+        rvit.dispose();
+        for (boolean bottomUp : new boolean[]{true, false}) {
+            DisposableRangeIterator rit = var.getRangeIterator(bottomUp);
+            DisposableRangeIterator rrit = ref.getRangeIterator(bottomUp);
+            while (bottomUp ? rrit.hasNext() : rrit.hasPrevious()) {
+                Assert.assertTrue(bottomUp ? rit.hasNext() : rit.hasPrevious());
+                Assert.assertEquals(rit.min(), rrit.min());
+                Assert.assertEquals(rit.max(), rrit.max());
+                if (bottomUp) {
+                    rit.next();
+                    rrit.next();
+                } else {
+                    rit.previous();
+                    rrit.previous();
+                }
+            }
+            Assert.assertFalse(bottomUp ? rit.hasNext() : rit.hasPrevious());
+            rit.dispose();
+            rrit.dispose();
+        }
+    }
+
+    private static void check(Random rnd, IntVar var, IntVar ref, Solver solver) throws ContradictionException {
+        IEnvironment env = solver.getEnvironment();
+        for (int k = 0; k < 30; k++) {
+            env.worldPush();
+            int depth = 1;
+            for (int r = 0; r < 40; r++) {
+                long seed = rnd.nextLong();
+                boolean ok = apply(new Random(seed), ref);
+                Assert.assertEquals(apply(new Random(seed), var), ok);
+                if (!ok) {
+                    break;
+                }
+                assertSame(var, ref);
+                if (rnd.nextInt(4) == 0) {
+                    env.worldPush();
+                    depth++;
+                }
+            }
+            while (depth-- > 0) {
+                env.worldPop();
+                if (depth > 0) {
+                    assertSame(var, ref);
+                }
+            }
+            assertSame(var, ref);
+        }
+    }
+
+    private static boolean apply(Random rnd, IntVar var) {
+        int lb = var.getLB() - 1;
+        int v = lb + rnd.nextInt(var.getUB() - lb + 2);
+        int w = v + rnd.nextInt(4);
+        try {
+            switch (rnd.nextInt(8)) {
+                case 0:
+                    var.updateLowerBound(v, Cause.Null);
+                    break;
+                case 1:
+                    var.updateUpperBound(v, Cause.Null);
+                    break;
+                case 2:
+                    if (rnd.nextInt(5) == 0) {
+                        var.instantiateTo(v, Cause.Null);
+                    }
+                    break;
+                case 3:
+                case 4:
+                    var.removeInterval(v, w, Cause.Null);
+                    break;
+                default:
+                    var.removeValue(v, Cause.Null);
+            }
+        } catch (ContradictionException e) {
+            return false;
+        }
+        return true;
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            Solver solver = new Solver();
+            int lb = rnd.nextInt(100) - 50;
+            int ub = lb + 1 + rnd.nextInt(300);
+            IntVar var = new RangeIntVarImpl("r", lb, ub, solver);
+            IntVar ref = new BitsetIntVarImpl("b", lb, ub, solver);
+            if (k % 2 == 0) {
+                // with a delta
+                var.monitorDelta(Cause.Null);
+                ref.monitorDelta(Cause.Null);
+            }
+            check(rnd, var, ref, solver);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testValues() throws ContradictionException {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            Solver solver = new Solver();
+            int[] values = new int[10 + rnd.nextInt(200)];
+            values[0] = rnd.nextInt(100) - 50;
+            for (int i = 1; i < values.length; i++) {
+                values[i] = values[i - 1] + 1 + (rnd.nextInt(4) == 0 ? rnd.nextInt(4) : 0);
+            }
+            IntVar var = new RangeIntVarImpl("r", values, solver);
+            IntVar ref = new BitsetIntVarImpl("b", values, solver);
+            assertSame(var, ref);
+            check(rnd, var, ref, solver);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDensity() throws ContradictionException {
+        Solver solver = new Solver();
+        RangeIntVarImpl var = new RangeIntVarImpl("r", 0, 999999, solver);
+        solver.getEnvironment().worldPush();
+        for (int i = 1; i < 100; i++) {
+            var.removeValue(i * 1000, Cause.Null);
+        }
+        Assert.assertFalse(var.isDense());
+        Assert.assertEquals(var.getDomainSize(), 1000000 - 99);
+        var.updateUpperBound(2000, Cause.Null);
+        solver.getEnvironment().worldPush();
+        for (int i = 0; i < 100; i++) {
+            var.removeValue(i * 2 + 1, Cause.Null);
+        }
+        Assert.assertTrue(var.isDense());
+        Assert.assertEquals(var.getDomainSize(), 2000 - 1 - 100);
+        Assert.assertEquals(var.nextValue(0), 2);
+        solver.getEnvironment().worldPop();
+        Assert.assertFalse(var.isDense());
+        Assert.assertEquals(var.getDomainSize(), 2000 - 1);
+        solver.getEnvironment().worldPop();
+        Assert.assertEquals(var.getDomainSize(), 1000000);
+    }
+
+    @Test(groups = "1s")
+    public void testSolve() {
+        long[] counts = new long[2];
+        for (int range = 0; range < 2; range++) {
+            Solver solver = new Solver();
+            IntVar[] vars = new IntVar[4];
+            for (int i = 0; i < vars.length; i++) {
+                vars[i] = range == 1 ? new RangeIntVarImpl("v" + i, 0, 6, solver)
+                        : VariableFactory.enumerated("v" + i, 0, 6, solver);
+            }
+            solver.post(ICF.alldifferent(vars, "AC"));
+            solver.post(ICF.arithm(vars[0], "!=", vars[1], "+", 1));
+            solver.set(ISF.random_value(vars, 0));
+            solver.findAllSolutions();
+            counts[range] = solver.getMeasures().getSolutionCount();
+        }
+        Assert.assertEquals(counts[1], counts[0]);
+        Assert.assertTrue(counts[0] > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testFactory() {
+        Solver solver = new Solver();
+        Assert.assertTrue(VariableFactory.enumerated("t", 0, 1000000, solver) instanceof RangeIntVarImpl);
+        Assert.assertTrue(VariableFactory.enumerated("t", 0, 1000, solver) instanceof BitsetIntVarImpl);
+    }
+}
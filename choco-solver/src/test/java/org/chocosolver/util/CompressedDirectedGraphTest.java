@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.util.objects.graphs.CompressedDirectedGraph;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class CompressedDirectedGraphTest {
+
+    private static int[][] randomArcs(Random rnd, int n) {
+        int[][] arcs = new int[n][];
+        for (int i = 0; i < n; i++) {
+            arcs[i] = new int[rnd.nextInt(n)];
+            for (int k = 0; k < arcs[i].length; k++) {
+                arcs[i][k] = rnd.nextInt(n);
+            }
+        }
+        return arcs;
+    }
+
+    private static void assertSame(CompressedDirectedGraph g, DirectedGraph ref) {
+        int n = ref.getNbMaxNodes();
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(g.getNbSucc(i), ref.getSuccOf(i).getSize());
+            Assert.assertEquals(g.getNbPred(i), ref.getPredOf(i).getSize());
+            for (int k = 0; k < g.getNbSucc(i); k++) {
+                Assert.assertTrue(ref.arcExists(i, g.getSucc(i, k)));
+            }
+            for (int k = 0; k < g.getNbPred(i); k++) {
+                Assert.assertTrue(ref.arcExists(g.getPred(i, k), i));
+            }
+            ISet s = g.getSuccOf(i);
+            int size = 0;
+            for (int j = s.getFirstElement(); j >= 0; j = s.getNextElement()) {
+                Assert.assertTrue(ref.arcExists(i, j));
+                Assert.assertTrue(g.arcExists(i, j));
+                size++;
+            }
+            Assert.assertEquals(size, s.getSize());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRemoveAdd() {
+        Random rnd = new Random(0);
+        for (int seed = 0; seed < 20; seed++) {
+            int n = 1 + rnd.nextInt(20);
+            int[][] arcs = randomArcs(rnd, n);
+            CompressedDirectedGraph g = new CompressedDirectedGraph(n, arcs);
+            DirectedGraph ref = new DirectedGraph(n, SetType.BITSET, true);
+            for (int i = 0; i < n; i++) {
+                for (int j : arcs[i]) {
+                    ref.addArc(i, j);
+                }
+            }
+            assertSame(g, ref);
+            for (int k = 0; k < 200; k++) {
+                int i = rnd.nextInt(n);
+                if (arcs[i].length == 0) {
+                    continue;
+                }
+                int j = arcs[i][rnd.nextInt(arcs[i].length)];
+                if (rnd.nextBoolean()) {
+                    Assert.assertEquals(g.removeArc(i, j), ref.removeArc(i, j));
+                } else {
+                    Assert.assertEquals(g.addArc(i, j), ref.addArc(i, j));
+                }
+                assertSame(g, ref);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRemoveWhileIterating() {
+        Random rnd = new Random(0);
+        int n = 30;
+        int[][] arcs = randomArcs(rnd, n);
+        CompressedDirectedGraph g = new CompressedDirectedGraph(n, arcs);
+        for (int i = 0; i < n; i++) {
+            ISet s = g.getSuccOf(i);
+            int seen = 0, size = s.getSize();
+            for (int j = s.getFirstElement(); j >= 0; j = s.getNextElement()) {
+                seen++;
+                if (j % 2 == 0) {
+                    g.removeArc(i, j);
+                }
+            }
+            Assert.assertEquals(seen, size);
+            for (int k = 0; k < g.getNbSucc(i); k++) {
+                Assert.assertTrue(g.getSucc(i, k) % 2 == 1);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testBacktrack() {
+        Random rnd = new Random(0);
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        int n = 25;
+        int[][] arcs = randomArcs(rnd, n);
+        CompressedDirectedGraph g = new CompressedDirectedGraph(solver, n, arcs);
+        boolean[][][] snapshots = new boolean[10][n][n];
+        for (int w = 0; w < 10; w++) {
+            for (int i = 0; i < n; i++) {
+                for (int k = 0; k < g.getNbSucc(i); k++) {
+                    snapshots[w][i][g.getSucc(i, k)] = true;
+                }
+            }
+            env.worldPush();
+            for (int k = 0; k < 10; k++) {
+                int i = rnd.nextInt(n);
+                if (g.getNbSucc(i) > 0) {
+                    g.removeArc(i, g.getSucc(i, rnd.nextInt(g.getNbSucc(i))));
+                }
+            }
+        }
+        for (int w = 9; w >= 0; w--) {
+            env.worldPop();
+            DirectedGraph ref = new DirectedGraph(n, SetType.BITSET, true);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (snapshots[w][i][j]) {
+                        ref.addArc(i, j);
+                    }
+                }
+            }
+            assertSame(g, ref);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testBacktrackAdd() {
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        CompressedDirectedGraph g = new CompressedDirectedGraph(solver, 3, new int[][]{{1, 2}, {}, {}});
+        env.worldPush();
+        g.removeArc(0, 1);
+        env.worldPush();
+        g.removeArc(0, 2);
+        try {
+            g.addArc(0, 1);
+            Assert.fail("adding an arc to a backtrackable graph");
+        } catch (UnsupportedOperationException ignored) {
+        }
+        env.worldPop();
+        Assert.assertFalse(g.arcExists(0, 1));
+        Assert.assertTrue(g.arcExists(0, 2));
+        env.worldPop();
+        Assert.assertTrue(g.arcExists(0, 1));
+        Assert.assertTrue(g.arcExists(0, 2));
+        Assert.assertTrue(g.getPredOf(1).contain(0));
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.util;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class ISetTest {
+
+    private static void assertSame(ISet set, BitSet ref) throws ContradictionException {
+        BitSet seen = new BitSet();
+        for (int i = set.next(-1); i >= 0; i = set.next(i)) {
+            Assert.assertFalse(seen.get(i));
+            seen.set(i);
+            // nested iteration over the same set
+            int size = 0;
+            for (int j = set.next(-1); j >= 0; j = set.next(j)) {
+                size++;
+            }
+            Assert.assertEquals(size, set.getSize());
+        }
+        Assert.assertEquals(seen, ref);
+        BitSet visited = new BitSet();
+        set.forEach(visited::set);
+        Assert.assertEquals(visited, ref);
+    }
+
+    private static void randomOps(ISet set, int n, Random rnd) throws ContradictionException {
+        BitSet ref = new BitSet();
+        for (int k = 0; k < 4 * n; k++) {
+            int e = rnd.nextInt(n);
+            if (rnd.nextBoolean()) {
+                if (!ref.get(e)) {
+                    set.add(e);
+                    ref.set(e);
+                }
+            } else {
+                set.remove(e);
+                ref.clear(e);
+            }
+            assertSame(set, ref);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testNext() throws ContradictionException {
+        Random rnd = new Random(0);
+        int n = 20;
+        for (SetType type : SetType.values()) {
+            randomOps(SetFactory.makeSet(type, n), n, rnd);
+            Solver solver = new Solver();
+            randomOps(SetFactory.makeStoredSet(type, n, solver), n, rnd);
+        }
+        BitSet all = new BitSet();
+        all.set(0, n);
+        assertSame(SetFactory.makeFullSet(n), all);
+        assertSame(SetFactory.makeSet(SetType.BITSET, n), new BitSet());
+    }
+
+    @Test(groups = "1s")
+    public void testSetVar() throws ContradictionException {
+        Solver solver = new Solver();
+        SetVar s = VariableFactory.set("s", new int[]{-2, 1, 3, 7}, new int[]{1, 7}, solver);
+        int[] sum = {0};
+        s.forEachEnvelopeElement(e -> sum[0] += e);
+        Assert.assertEquals(sum[0], 9);
+        sum[0] = 0;
+        s.forEachKernelElement(e -> sum[0] += e);
+        Assert.assertEquals(sum[0], 8);
+    }
+}